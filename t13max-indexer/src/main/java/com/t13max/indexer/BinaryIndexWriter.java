@@ -0,0 +1,103 @@
+package com.t13max.indexer;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 输出 META-INF/spring.components.idx 二进制索引, 读取端为 t13max-ioc 的 BinaryCandidateComponentsIndex
+ * 类型按全类名的 UTF-8 字节序排序, 运行期可按包前缀二分定位; stereotype 只存一份并以下标引用
+ *
+ * @Author: t13max
+ * @Since: 14:20 2026/10/17
+ */
+final class BinaryIndexWriter {
+
+    static final int MAGIC = 0x54314958;
+
+    static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 16;
+
+    private BinaryIndexWriter() {
+    }
+
+    static void write(Map<String, Set<String>> metadata, OutputStream out) throws IOException {
+        byte[][] stereotypes = sorted(metadata.values().stream().flatMap(Set::stream).distinct().toList());
+        byte[][] types = sorted(new ArrayList<>(metadata.keySet()));
+
+        int dataOffset = HEADER_SIZE + (stereotypes.length + types.length) * 4;
+        int[] stereotypeOffsets = new int[stereotypes.length];
+        int offset = dataOffset;
+        for (int i = 0; i < stereotypes.length; i++) {
+            stereotypeOffsets[i] = offset;
+            offset += 2 + stereotypes[i].length;
+        }
+        int[] typeOffsets = new int[types.length];
+        int[][] typeStereotypeIds = new int[types.length][];
+        for (int i = 0; i < types.length; i++) {
+            typeOffsets[i] = offset;
+            Set<String> names = metadata.get(new String(types[i], StandardCharsets.UTF_8));
+            int[] ids = new TreeSet<>(names).stream()
+                    .mapToInt(name -> indexOf(stereotypes, name.getBytes(StandardCharsets.UTF_8)))
+                    .toArray();
+            typeStereotypeIds[i] = ids;
+            offset += 2 + types[i].length + 2 + ids.length * 2;
+        }
+
+        DataOutputStream dos = new DataOutputStream(out);
+        dos.writeInt(MAGIC);
+        dos.writeInt(VERSION);
+        dos.writeInt(stereotypes.length);
+        dos.writeInt(types.length);
+        for (int stereotypeOffset : stereotypeOffsets) {
+            dos.writeInt(stereotypeOffset);
+        }
+        for (int typeOffset : typeOffsets) {
+            dos.writeInt(typeOffset);
+        }
+        for (byte[] stereotype : stereotypes) {
+            writeString(dos, stereotype);
+        }
+        for (int i = 0; i < types.length; i++) {
+            writeString(dos, types[i]);
+            dos.writeShort(typeStereotypeIds[i].length);
+            for (int id : typeStereotypeIds[i]) {
+                dos.writeShort(id);
+            }
+        }
+        dos.flush();
+    }
+
+    private static byte[][] sorted(List<String> values) {
+        byte[][] result = new byte[values.size()][];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i).getBytes(StandardCharsets.UTF_8);
+            if (result[i].length > 0xFFFF) {
+                throw new IllegalArgumentException("Name too long for index: " + values.get(i));
+            }
+        }
+        Arrays.sort(result, Arrays::compareUnsigned);
+        return result;
+    }
+
+    private static int indexOf(byte[][] sorted, byte[] key) {
+        int index = Arrays.binarySearch(sorted, key, Arrays::compareUnsigned);
+        if (index < 0) {
+            throw new IllegalStateException("Unknown stereotype " + new String(key, StandardCharsets.UTF_8));
+        }
+        return index;
+    }
+
+    private static void writeString(DataOutputStream dos, byte[] bytes) throws IOException {
+        dos.writeShort(bytes.length);
+        dos.write(bytes);
+    }
+}
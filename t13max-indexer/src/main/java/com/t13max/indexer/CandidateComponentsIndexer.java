@@ -0,0 +1,116 @@
+package com.t13max.indexer;
+
+import javax.annotation.processing.Completion;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 编译期生成 META-INF/spring.components 候选组件索引
+ * 运行期 CandidateComponentsIndexLoader 读取该文件后扫描器即可跳过类路径遍历
+ *
+ * @Author: t13max
+ * @Since: 11:05 2026/10/17
+ */
+public class CandidateComponentsIndexer implements Processor {
+
+    private static final Set<ElementKind> TYPE_KINDS = Collections.unmodifiableSet(
+            EnumSet.of(ElementKind.CLASS, ElementKind.INTERFACE, ElementKind.RECORD));
+
+    private MetadataStore metadataStore;
+
+    private MetadataCollector metadataCollector;
+
+    private TypeHelper typeHelper;
+
+    private List<StereotypesProvider> stereotypesProviders;
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton("*");
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latest();
+    }
+
+    @Override
+    public synchronized void init(ProcessingEnvironment env) {
+        this.stereotypesProviders = getStereotypesProviders(env);
+        this.typeHelper = new TypeHelper(env);
+        this.metadataStore = new MetadataStore(env);
+        this.metadataCollector = new MetadataCollector(env, this.metadataStore.readMetadata());
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        this.metadataCollector.processing(roundEnv);
+        for (Element element : roundEnv.getRootElements()) {
+            processElement(element);
+        }
+        if (roundEnv.processingOver()) {
+            writeMetaData();
+        }
+        return false;
+    }
+
+    @Override
+    public Iterable<? extends Completion> getCompletions(
+            Element element, AnnotationMirror annotation, ExecutableElement member, String userText) {
+
+        return Collections.emptyList();
+    }
+
+    private List<StereotypesProvider> getStereotypesProviders(ProcessingEnvironment env) {
+        List<StereotypesProvider> result = new ArrayList<>();
+        TypeHelper helper = new TypeHelper(env);
+        result.add(new IndexedStereotypesProvider(helper));
+        result.add(new StandardStereotypesProvider(helper));
+        return result;
+    }
+
+    private void processElement(Element element) {
+        if (TYPE_KINDS.contains(element.getKind())) {
+            Set<String> stereotypes = new LinkedHashSet<>();
+            for (StereotypesProvider provider : this.stereotypesProviders) {
+                stereotypes.addAll(provider.getStereotypes(element));
+            }
+            if (!stereotypes.isEmpty()) {
+                this.metadataCollector.add(this.typeHelper.getType(element), stereotypes);
+            }
+        }
+        // 成员类同样可能是组件
+        for (Element enclosed : element.getEnclosedElements()) {
+            if (TYPE_KINDS.contains(enclosed.getKind())) {
+                processElement(enclosed);
+            }
+        }
+    }
+
+    private void writeMetaData() {
+        try {
+            this.metadataStore.writeMetadata(this.metadataCollector.getMetadata());
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to write metadata", ex);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.t13max.indexer;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 处理 @Indexed: 直接或间接(元注解/父类/接口)标注了 @Indexed 的类型都会成为 stereotype
+ * 例如 @Service 标注的类最终得到 com.t13max.ioc.stereotype.Component
+ *
+ * @Author: t13max
+ * @Since: 11:05 2026/10/17
+ */
+class IndexedStereotypesProvider implements StereotypesProvider {
+
+    static final String INDEXED_ANNOTATION = "com.t13max.ioc.stereotype.Indexed";
+
+    private final TypeHelper typeHelper;
+
+    IndexedStereotypesProvider(TypeHelper typeHelper) {
+        this.typeHelper = typeHelper;
+    }
+
+    @Override
+    public Set<String> getStereotypes(Element element) {
+        Set<String> stereotypes = new LinkedHashSet<>();
+        ElementKind kind = element.getKind();
+        if (!kind.isClass() && kind != ElementKind.INTERFACE) {
+            return stereotypes;
+        }
+        collectStereotypesOnAnnotations(new HashSet<>(), stereotypes, element);
+        collectStereotypesOnTypes(new HashSet<>(), stereotypes, element);
+        return stereotypes;
+    }
+
+    private void collectStereotypesOnAnnotations(Set<Element> seen, Set<String> stereotypes, Element element) {
+        for (AnnotationMirror annotation : this.typeHelper.getAllAnnotationMirrors(element)) {
+            if (isIndexedAnnotation(annotation)) {
+                stereotypes.add(this.typeHelper.getType(element));
+            }
+            Element next = getCandidateAnnotationElement(seen, annotation);
+            if (next != null) {
+                collectStereotypesOnAnnotations(seen, stereotypes, next);
+            }
+        }
+    }
+
+    private void collectStereotypesOnTypes(Set<Element> seen, Set<String> stereotypes, Element type) {
+        if (type == null || !seen.add(type)) {
+            return;
+        }
+        if (isAnnotated(type)) {
+            stereotypes.add(this.typeHelper.getType(type));
+        }
+        collectStereotypesOnTypes(seen, stereotypes, this.typeHelper.getSuperClass(type));
+        for (Element ifc : this.typeHelper.getDirectInterfaces(type)) {
+            collectStereotypesOnTypes(seen, stereotypes, ifc);
+        }
+    }
+
+    private Element getCandidateAnnotationElement(Set<Element> seen, AnnotationMirror annotation) {
+        Element element = annotation.getAnnotationType().asElement();
+        if (seen.contains(element)) {
+            return null;
+        }
+        // @Indexed 本身需要每次都访问到
+        if (!isIndexedAnnotation(annotation)) {
+            seen.add(element);
+        }
+        return (!element.toString().startsWith("java.lang") ? element : null);
+    }
+
+    private boolean isAnnotated(Element element) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (isIndexedAnnotation(annotation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isIndexedAnnotation(AnnotationMirror annotation) {
+        return INDEXED_ANNOTATION.equals(annotation.getAnnotationType().toString());
+    }
+}
@@ -0,0 +1,75 @@
+package com.t13max.indexer;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 收集本轮编译的索引项, 并与上一次的输出合并以支持增量编译
+ *
+ * @Author: t13max
+ * @Since: 11:05 2026/10/17
+ */
+class MetadataCollector {
+
+    private final Map<String, Set<String>> items = new LinkedHashMap<>();
+
+    private final ProcessingEnvironment processingEnvironment;
+
+    private final Map<String, Set<String>> previousMetadata;
+
+    private final TypeHelper typeHelper;
+
+    private final Set<String> processedSourceTypes = new HashSet<>();
+
+    MetadataCollector(ProcessingEnvironment processingEnvironment, Map<String, Set<String>> previousMetadata) {
+        this.processingEnvironment = processingEnvironment;
+        this.previousMetadata = previousMetadata;
+        this.typeHelper = new TypeHelper(processingEnvironment);
+    }
+
+    public void processing(RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getRootElements()) {
+            markAsProcessed(element);
+        }
+    }
+
+    private void markAsProcessed(Element element) {
+        if (element instanceof TypeElement) {
+            this.processedSourceTypes.add(this.typeHelper.getType(element));
+        }
+    }
+
+    public void add(String type, Set<String> stereotypes) {
+        this.items.computeIfAbsent(type, key -> new HashSet<>()).addAll(stereotypes);
+    }
+
+    public Map<String, Set<String>> getMetadata() {
+        Map<String, Set<String>> metadata = new LinkedHashMap<>(this.items);
+        if (this.previousMetadata != null) {
+            this.previousMetadata.forEach((type, stereotypes) -> {
+                if (shouldBeMerged(type)) {
+                    metadata.putIfAbsent(type, stereotypes);
+                }
+            });
+        }
+        return metadata;
+    }
+
+    private boolean shouldBeMerged(String sourceType) {
+        return !deletedInCurrentBuild(sourceType) && !processedInCurrentBuild(sourceType);
+    }
+
+    private boolean deletedInCurrentBuild(String sourceType) {
+        return this.processingEnvironment.getElementUtils().getTypeElement(sourceType.replace('$', '.')) == null;
+    }
+
+    private boolean processedInCurrentBuild(String sourceType) {
+        return this.processedSourceTypes.contains(sourceType);
+    }
+}
@@ -0,0 +1,93 @@
+package com.t13max.indexer;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * 读写 META-INF/spring.components 及其二进制形式 spring.components.idx
+ * 输出按类型名排序且不带时间戳注释, 保证相同输入得到相同文件
+ *
+ * @Author: t13max
+ * @Since: 11:05 2026/10/17
+ */
+class MetadataStore {
+
+    static final String METADATA_PATH = "META-INF/spring.components";
+
+    static final String BINARY_METADATA_PATH = "META-INF/spring.components.idx";
+
+    private final ProcessingEnvironment environment;
+
+    MetadataStore(ProcessingEnvironment environment) {
+        this.environment = environment;
+    }
+
+    public Map<String, Set<String>> readMetadata() {
+        try {
+            FileObject file = this.environment.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", METADATA_PATH);
+            try (InputStream in = file.openInputStream()) {
+                return read(in);
+            }
+        } catch (IOException ex) {
+            // 首次编译时文件不存在
+            return null;
+        }
+    }
+
+    public void writeMetadata(Map<String, Set<String>> metadata) throws IOException {
+        if (metadata.isEmpty()) {
+            return;
+        }
+        FileObject file = this.environment.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", METADATA_PATH);
+        try (OutputStream out = file.openOutputStream()) {
+            write(metadata, out);
+        }
+        // properties 仍然保留, 用于增量编译合并以及老版本运行期
+        FileObject binaryFile = this.environment.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", BINARY_METADATA_PATH);
+        try (OutputStream out = binaryFile.openOutputStream()) {
+            BinaryIndexWriter.write(metadata, out);
+        }
+    }
+
+    static Map<String, Set<String>> read(InputStream in) throws IOException {
+        Properties properties = new Properties();
+        properties.load(new BufferedReader(new InputStreamReader(in, StandardCharsets.ISO_8859_1)));
+        Map<String, Set<String>> metadata = new TreeMap<>();
+        properties.forEach((type, value) -> {
+            Set<String> stereotypes = new LinkedHashSet<>();
+            for (String stereotype : ((String) value).split(",")) {
+                if (!stereotype.isBlank()) {
+                    stereotypes.add(stereotype.trim());
+                }
+            }
+            metadata.put((String) type, stereotypes);
+        });
+        return metadata;
+    }
+
+    static void write(Map<String, Set<String>> metadata, OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.ISO_8859_1);
+        for (Map.Entry<String, Set<String>> entry : new TreeMap<>(metadata).entrySet()) {
+            writer.write(entry.getKey());
+            writer.write('=');
+            writer.write(String.join(",", new TreeSet<>(entry.getValue())));
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+}
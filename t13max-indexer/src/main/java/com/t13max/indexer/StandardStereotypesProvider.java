@@ -0,0 +1,38 @@
+package com.t13max.indexer;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * jakarta/javax 注解(如 @Named)直接作为 stereotype, 与扫描器的索引支持范围保持一致
+ *
+ * @Author: t13max
+ * @Since: 11:05 2026/10/17
+ */
+class StandardStereotypesProvider implements StereotypesProvider {
+
+    private final TypeHelper typeHelper;
+
+    StandardStereotypesProvider(TypeHelper typeHelper) {
+        this.typeHelper = typeHelper;
+    }
+
+    @Override
+    public Set<String> getStereotypes(Element element) {
+        Set<String> stereotypes = new LinkedHashSet<>();
+        ElementKind kind = element.getKind();
+        if (!kind.isClass() && kind != ElementKind.INTERFACE) {
+            return stereotypes;
+        }
+        for (AnnotationMirror annotation : this.typeHelper.getAllAnnotationMirrors(element)) {
+            String type = this.typeHelper.getType(annotation.getAnnotationType());
+            if (type.startsWith("jakarta.") || type.startsWith("javax.")) {
+                stereotypes.add(type);
+            }
+        }
+        return stereotypes;
+    }
+}
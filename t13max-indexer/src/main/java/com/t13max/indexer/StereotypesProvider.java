@@ -0,0 +1,15 @@
+package com.t13max.indexer;
+
+import javax.lang.model.element.Element;
+import java.util.Set;
+
+/**
+ * 提供某个类型需要写入索引的 stereotype
+ *
+ * @Author: t13max
+ * @Since: 11:05 2026/10/17
+ */
+interface StereotypesProvider {
+
+    Set<String> getStereotypes(Element element);
+}
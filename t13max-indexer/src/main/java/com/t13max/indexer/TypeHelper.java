@@ -0,0 +1,88 @@
+package com.t13max.indexer;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 编译期类型工具
+ *
+ * @Author: t13max
+ * @Since: 11:05 2026/10/17
+ */
+class TypeHelper {
+
+    private final Elements elements;
+
+    private final Types types;
+
+    TypeHelper(ProcessingEnvironment env) {
+        this.elements = env.getElementUtils();
+        this.types = env.getTypeUtils();
+    }
+
+    public String getType(Element element) {
+        return getType(element.asType());
+    }
+
+    public String getType(TypeMirror type) {
+        if (type instanceof DeclaredType declaredType) {
+            return getQualifiedName(declaredType.asElement());
+        }
+        return type.toString();
+    }
+
+    private String getQualifiedName(Element element) {
+        if (element instanceof TypeElement typeElement) {
+            if (typeElement.getEnclosingElement() instanceof TypeElement) {
+                return getQualifiedName(typeElement.getEnclosingElement()) + "$" + typeElement.getSimpleName();
+            }
+            return typeElement.getQualifiedName().toString();
+        }
+        throw new IllegalStateException("Could not extract qualified name from " + element);
+    }
+
+    public Element getSuperClass(Element element) {
+        List<? extends TypeMirror> superTypes = this.types.directSupertypes(element.asType());
+        if (superTypes.isEmpty()) {
+            return null;
+        }
+        // 第一个直接父类型是父类
+        return this.types.asElement(superTypes.get(0));
+    }
+
+    public List<Element> getDirectInterfaces(Element element) {
+        List<? extends TypeMirror> superTypes = this.types.directSupertypes(element.asType());
+        List<Element> directInterfaces = new ArrayList<>();
+        if (superTypes.size() > 1) {
+            for (int i = 1; i < superTypes.size(); i++) {
+                Element e = this.types.asElement(superTypes.get(i));
+                if (e != null) {
+                    directInterfaces.add(e);
+                }
+            }
+        }
+        return directInterfaces;
+    }
+
+    public List<? extends AnnotationMirror> getAllAnnotationMirrors(Element e) {
+        try {
+            return this.elements.getAllAnnotationMirrors(e);
+        } catch (Exception ex) {
+            // 某些编译器实现在注解类型不完整时会抛异常, 忽略即可
+            return Collections.emptyList();
+        }
+    }
+
+    public TypeElement getTypeElement(String name) {
+        return this.elements.getTypeElement(name);
+    }
+}
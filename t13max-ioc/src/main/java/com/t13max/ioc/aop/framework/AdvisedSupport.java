@@ -39,6 +39,9 @@ public class AdvisedSupport extends ProxyConfig implements Advised {
 
     private transient volatile List<Object> cachedInterceptors;
 
+    // 按代理类方法槽位存放的拦截器链, 共用该配置的每个代理类各一组; 通知变化时整体丢弃
+    private transient volatile SlotChains slotChains;
+
     transient volatile Object proxyMetadataCache;
 
     public AdvisedSupport() {
@@ -325,14 +328,15 @@ public class AdvisedSupport extends ProxyConfig implements Advised {
             cachedInterceptors = this.methodCache.get(cacheKey);
             if (cachedInterceptors == null) {
                 //缓存中没有,则从AdvisorChainFactory中获取,然后放进缓存
-                cachedInterceptors = this.advisorChainFactory.getInterceptorsAndDynamicInterceptionAdvice(this, method, targetClass);
+                // 缓存编译后的链, 调用时不再逐个判断元素类型
+                cachedInterceptors = InterceptorChain.of(this.advisorChainFactory.getInterceptorsAndDynamicInterceptionAdvice(this, method, targetClass));
                 this.methodCache.put(cacheKey, cachedInterceptors);
             }
         } else {
             // Shared cache since there are no method-specific advisors (see below).
             cachedInterceptors = this.cachedInterceptors;
             if (cachedInterceptors == null) {
-                cachedInterceptors = this.advisorChainFactory.getInterceptorsAndDynamicInterceptionAdvice(this, method, targetClass);
+                cachedInterceptors = InterceptorChain.of(this.advisorChainFactory.getInterceptorsAndDynamicInterceptionAdvice(this, method, targetClass));
 
                 this.cachedInterceptors = cachedInterceptors;
             }
@@ -340,9 +344,42 @@ public class AdvisedSupport extends ProxyConfig implements Advised {
         return cachedInterceptors;
     }
 
+    /**
+     * 按代理类分配的方法槽位取拦截器链, 命中时只是一次数组下标访问; 不属于该代理类的方法走上面的通用缓存
+     */
+    List<Object> getInterceptorsAndDynamicInterceptionAdvice(MethodSlots methodSlots, Method method, Class<?> targetClass) {
+        int slot = methodSlots.slotOf(method);
+        if (slot < 0) {
+            return getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+        }
+        return getInterceptorsAndDynamicInterceptionAdvice(methodSlots, slot, method, targetClass);
+    }
+
+    @SuppressWarnings("unchecked")
+    List<Object> getInterceptorsAndDynamicInterceptionAdvice(MethodSlots methodSlots, int slot, Method method, Class<?> targetClass) {
+        SlotChains slotChains = this.slotChains;
+        if (slotChains == null) {
+            slotChains = new SlotChains();
+            this.slotChains = slotChains;
+        }
+        Object[] chains = slotChains.chainsFor(methodSlots);
+        if (chains == null) {
+            // 共用该配置的代理类过多, 超出的走通用缓存
+            return getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+        }
+        // 链对象(InterceptorChain)的字段都是final, 不加锁发布也是安全的
+        Object chain = chains[slot];
+        if (chain == null) {
+            chain = getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+            chains[slot] = chain;
+        }
+        return (List<Object>) chain;
+    }
+
     protected void adviceChanged() {
         this.methodCache = null;
         this.cachedInterceptors = null;
+        this.slotChains = null;
         this.proxyMetadataCache = null;
 
         // Initialize method cache if necessary; otherwise,
@@ -388,6 +425,7 @@ public class AdvisedSupport extends ProxyConfig implements Advised {
         }
         copy.methodCache = this.methodCache;
         copy.cachedInterceptors = this.cachedInterceptors;
+        copy.slotChains = this.slotChains;
         copy.proxyMetadataCache = this.proxyMetadataCache;
         return copy;
     }
@@ -396,6 +434,7 @@ public class AdvisedSupport extends ProxyConfig implements Advised {
         this.advisors = this.advisorKey;
         this.methodCache = null;
         this.cachedInterceptors = null;
+        this.slotChains = null;
         this.proxyMetadataCache = null;
     }
 
@@ -433,6 +472,47 @@ public class AdvisedSupport extends ProxyConfig implements Advised {
         adviceChanged();
     }
 
+    /**
+     * 槽位表 -> 链数组的小型身份映射, 写入时复制; 一个配置通常只对应一两个代理类
+     */
+    private static final class SlotChains {
+
+        private static final int MAX_PROXY_CLASSES = 8;
+
+        private volatile SlotChainEntry[] entries = new SlotChainEntry[0];
+
+        // 超出上限时返回null
+        Object[] chainsFor(MethodSlots methodSlots) {
+            Object[] chains = find(this.entries, methodSlots);
+            if (chains != null) {
+                return chains;
+            }
+            synchronized (this) {
+                SlotChainEntry[] entries = this.entries;
+                chains = find(entries, methodSlots);
+                if (chains == null && entries.length < MAX_PROXY_CLASSES) {
+                    chains = new Object[methodSlots.size()];
+                    SlotChainEntry[] newEntries = Arrays.copyOf(entries, entries.length + 1);
+                    newEntries[entries.length] = new SlotChainEntry(methodSlots, chains);
+                    this.entries = newEntries;
+                }
+                return chains;
+            }
+        }
+
+        private static Object[] find(SlotChainEntry[] entries, MethodSlots methodSlots) {
+            for (SlotChainEntry entry : entries) {
+                if (entry.methodSlots() == methodSlots) {
+                    return entry.chains();
+                }
+            }
+            return null;
+        }
+    }
+
+    private record SlotChainEntry(MethodSlots methodSlots, Object[] chains) {
+    }
+
     private static final class MethodCacheKey implements Comparable<MethodCacheKey> {
 
         private final Method method;
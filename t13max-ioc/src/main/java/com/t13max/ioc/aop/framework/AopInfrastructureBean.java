@@ -0,0 +1,11 @@
+package com.t13max.ioc.aop.framework;
+
+/**
+ * 标记接口: AOP基础设施bean, 自动代理时不会被代理
+ *
+ * @author t13max
+ * @since 01:50 2026/10/18
+ */
+public interface AopInfrastructureBean {
+
+}
@@ -1,5 +1,7 @@
 package com.t13max.ioc.aop.framework;
 
+import com.t13max.ioc.aop.SpringProxy;
+import com.t13max.ioc.core.SpringProperties;
 import com.t13max.ioc.util.ClassUtils;
 
 import java.io.Serializable;
@@ -10,10 +12,24 @@ import java.lang.reflect.Proxy;
  * @since 16:45 2026/1/16
  */
 public class DefaultAopProxyFactory implements AopProxyFactory, Serializable {
+
+    // 接口代理改用hidden class代理
+    public static final String HIDDEN_CLASS_PROXY_PROPERTY_NAME = "spring.aop.proxy.hidden-class";
+
     public static final DefaultAopProxyFactory INSTANCE = new DefaultAopProxyFactory();
 
     private static final long serialVersionUID = 7930414337282325166L;
 
+    private final boolean hiddenClassProxies;
+
+    public DefaultAopProxyFactory() {
+        this(SpringProperties.getFlag(HIDDEN_CLASS_PROXY_PROPERTY_NAME));
+    }
+
+    public DefaultAopProxyFactory(boolean hiddenClassProxies) {
+        this.hiddenClassProxies = hiddenClassProxies;
+    }
+
 
     @Override
     public AopProxy createAopProxy(AdvisedSupport config) throws AopConfigException {
@@ -25,14 +41,22 @@ public class DefaultAopProxyFactory implements AopProxyFactory, Serializable {
             }
             if (targetClass.isInterface() || Proxy.isProxyClass(targetClass) || ClassUtils.isLambdaClass(targetClass)) {
                 //是接口则使用JDK动态代理
-                return new JdkDynamicAopProxy(config);
+                return createInterfaceProxy(config);
             }
             return new ObjenesisCglibAopProxy(config);
         }
         else {
-            return new JdkDynamicAopProxy(config);
+            return createInterfaceProxy(config);
         }
     }
+
+    private AopProxy createInterfaceProxy(AdvisedSupport config) {
+        if (this.hiddenClassProxies && HiddenClassAopProxy.isSupported(config)) {
+            return new HiddenClassAopProxy(config);
+        }
+        return new JdkDynamicAopProxy(config);
+    }
+
     private boolean hasNoUserSuppliedProxyInterfaces(AdvisedSupport config) {
         Class<?>[] ifcs = config.getProxiedInterfaces();
         return (ifcs.length == 0 || (ifcs.length == 1 && SpringProxy.class.isAssignableFrom(ifcs[0])));
@@ -0,0 +1,389 @@
+package com.t13max.ioc.aop.framework;
+
+import com.t13max.ioc.aop.AopInvocationException;
+import com.t13max.ioc.aop.RawTargetAccess;
+import com.t13max.ioc.aop.TargetSource;
+import com.t13max.ioc.aop.support.AopUtils;
+import com.t13max.ioc.core.DecoratingProxy;
+import com.t13max.ioc.util.Assert;
+import com.t13max.ioc.util.ClassUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 基于JDK 21 hidden class的接口代理, 语义与 JdkDynamicAopProxy 相同
+ * 每组接口生成一个代理类(见 HiddenClassProxyGenerator), 代理方法带着方法下标直接进入 invoke, 不经过 InvocationHandler 和 Method 查找;
+ * 连接点由生成的 JoinpointInvoker 按方法下标直接调用目标, 不走反射; 拦截器链以方法下标为槽位缓存在 AdvisedSupport 中
+ * 代理类定义在请求的类加载器所定义的第一个接口旁; 接口或方法签名中的类型无法从代理类访问, 或生成失败时退回JDK动态代理
+ * 代理对象可序列化: 写出时替换为 SerializedProxy, 读入后按相同配置重新创建代理
+ *
+ * @author t13max
+ * @since 00:20 2026/10/18
+ */
+public class HiddenClassAopProxy implements AopProxy, Serializable {
+
+    private static final long serialVersionUID = -2781347659842012835L;
+
+    private static final Logger logger = LogManager.getLogger(HiddenClassAopProxy.class);
+
+    // 链上全是内置拦截器时复用的调用对象
+    private static final ThreadLocal<ReusableHiddenClassMethodInvocation> reusableInvocation = new ThreadLocal<>();
+
+    private final AdvisedSupport advised;
+
+    private final Class<?>[] proxiedInterfaces;
+
+    private final boolean equalsDefined;
+
+    private final boolean hashCodeDefined;
+
+    // 最近一次取得的代理类
+    private transient volatile HiddenClassProxyGenerator.ProxyClass proxyClass;
+
+    // 按不同类加载器取得过的全部代理类, 写入时复制; 通常只有一个
+    private transient volatile HiddenClassProxyGenerator.ProxyClass[] proxyClasses;
+
+    public HiddenClassAopProxy(AdvisedSupport config) throws AopConfigException {
+        Assert.notNull(config, "AdvisedSupport must not be null");
+        this.advised = config;
+        this.proxiedInterfaces = AopProxyUtils.completeProxiedInterfaces(config, true);
+        boolean equalsDefined = false;
+        boolean hashCodeDefined = false;
+        for (Class<?> proxiedInterface : this.proxiedInterfaces) {
+            for (Method method : proxiedInterface.getDeclaredMethods()) {
+                equalsDefined |= AopUtils.isEqualsMethod(method);
+                hashCodeDefined |= AopUtils.isHashCodeMethod(method);
+            }
+        }
+        this.equalsDefined = equalsDefined;
+        this.hashCodeDefined = hashCodeDefined;
+    }
+
+    /**
+     * 能否为该配置生成hidden class代理
+     */
+    static boolean isSupported(AdvisedSupport config) {
+        return HiddenClassProxyGenerator.isSupported(AopProxyUtils.completeProxiedInterfaces(config, true));
+    }
+
+    @Override
+    public Object getProxy() {
+        return getProxy(ClassUtils.getDefaultClassLoader());
+    }
+
+    @Override
+    public Object getProxy(ClassLoader classLoader) {
+        if (logger.isTraceEnabled()) {
+            logger.trace("Creating hidden class proxy: " + this.advised.getTargetSource());
+        }
+        HiddenClassProxyGenerator.ProxyClass proxyClass = obtainProxyClass(classLoader);
+        if (proxyClass == null) {
+            return new JdkDynamicAopProxy(this.advised).getProxy(classLoader);
+        }
+        return proxyClass.newInstance(this);
+    }
+
+    @Override
+    public Class<?> getProxyClass(ClassLoader classLoader) {
+        HiddenClassProxyGenerator.ProxyClass proxyClass = obtainProxyClass(classLoader);
+        if (proxyClass == null) {
+            return new JdkDynamicAopProxy(this.advised).getProxyClass(classLoader);
+        }
+        return proxyClass.proxyType;
+    }
+
+    // hidden class只能定义在宿主接口的类加载器中, 与JDK动态代理一样由传入的类加载器决定: 选该加载器定义的第一个接口作宿主,
+    // 没有则要求所有接口对它可见并沿用第一个接口; 生成失败由生成器缓存, 返回null退回JDK动态代理
+    private HiddenClassProxyGenerator.ProxyClass obtainProxyClass(ClassLoader classLoader) {
+        Class<?> hostInterface = determineHostInterface(classLoader);
+        if (hostInterface == null) {
+            return null;
+        }
+        HiddenClassProxyGenerator.ProxyClass proxyClass = this.proxyClass;
+        if (proxyClass != null && proxyClass.hostInterface == hostInterface) {
+            return proxyClass;
+        }
+        HiddenClassProxyGenerator.ProxyClass[] proxyClasses = this.proxyClasses;
+        if (proxyClasses != null) {
+            for (HiddenClassProxyGenerator.ProxyClass candidate : proxyClasses) {
+                if (candidate.hostInterface == hostInterface) {
+                    return candidate;
+                }
+            }
+        }
+        try {
+            proxyClass = HiddenClassProxyGenerator.getProxyClass(hostInterface, this.proxiedInterfaces);
+        } catch (AopConfigException ex) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Falling back to JDK dynamic proxy: " + ex.getMessage());
+            }
+            return null;
+        }
+        registerProxyClass(proxyClass);
+        return proxyClass;
+    }
+
+    private synchronized void registerProxyClass(HiddenClassProxyGenerator.ProxyClass proxyClass) {
+        HiddenClassProxyGenerator.ProxyClass[] proxyClasses = this.proxyClasses;
+        if (proxyClasses == null) {
+            this.proxyClasses = new HiddenClassProxyGenerator.ProxyClass[]{proxyClass};
+        } else if (!Arrays.asList(proxyClasses).contains(proxyClass)) {
+            HiddenClassProxyGenerator.ProxyClass[] newProxyClasses = Arrays.copyOf(proxyClasses, proxyClasses.length + 1);
+            newProxyClasses[proxyClasses.length] = proxyClass;
+            this.proxyClasses = newProxyClasses;
+        }
+        this.proxyClass = proxyClass;
+    }
+
+    private HiddenClassProxyGenerator.ProxyClass proxyClassFor(Object proxy) {
+        HiddenClassProxyGenerator.ProxyClass proxyClass = this.proxyClass;
+        if (proxyClass.proxyType == proxy.getClass()) {
+            return proxyClass;
+        }
+        for (HiddenClassProxyGenerator.ProxyClass candidate : this.proxyClasses) {
+            if (candidate.proxyType == proxy.getClass()) {
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("Proxy " + proxy.getClass().getName() + " was not created by " + this);
+    }
+
+    private Class<?> determineHostInterface(ClassLoader classLoader) {
+        // 与 JdkDynamicAopProxy 相同: 引导类加载器及AOP所在加载器的祖先都换成AOP所在的加载器
+        ClassLoader aopClassLoader = getClass().getClassLoader();
+        if (classLoader == null || isAncestor(classLoader, aopClassLoader)) {
+            classLoader = aopClassLoader;
+        }
+        for (Class<?> proxiedInterface : this.proxiedInterfaces) {
+            if (proxiedInterface.getClassLoader() == classLoader) {
+                return proxiedInterface;
+            }
+        }
+        for (Class<?> proxiedInterface : this.proxiedInterfaces) {
+            if (!ClassUtils.isVisible(proxiedInterface, classLoader)) {
+                return null;
+            }
+        }
+        return this.proxiedInterfaces[0];
+    }
+
+    private static boolean isAncestor(ClassLoader candidate, ClassLoader classLoader) {
+        for (ClassLoader parent = classLoader.getParent(); parent != null; parent = parent.getParent()) {
+            if (parent == candidate) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 生成的代理方法调用的入口, index为方法在代理类方法表中的下标
+     */
+    public Object invoke(Object proxy, int index, Object[] args) throws Throwable {
+        HiddenClassProxyGenerator.ProxyClass proxyClass = proxyClassFor(proxy);
+        Method method = proxyClass.methods[index];
+        try {
+            return doInvoke(proxyClass, proxy, index, method, args);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            // 与JDK动态代理一致: 方法未声明的受检异常包装后抛出
+            for (Class<?> declaredException : method.getExceptionTypes()) {
+                if (declaredException.isInstance(ex)) {
+                    throw ex;
+                }
+            }
+            throw new UndeclaredThrowableException(ex);
+        }
+    }
+
+    private Object doInvoke(HiddenClassProxyGenerator.ProxyClass proxyClass, Object proxy, int index, Method method, Object[] args) throws Throwable {
+        if (index == HiddenClassProxyGenerator.EQUALS_INDEX && !this.equalsDefined) {
+            return equals(args[0]);
+        } else if (index == HiddenClassProxyGenerator.HASH_CODE_INDEX && !this.hashCodeDefined) {
+            return hashCode();
+        } else if (method.getDeclaringClass() == DecoratingProxy.class) {
+            return AopProxyUtils.ultimateTargetClass(this.advised);
+        } else if (!this.advised.opaque && method.getDeclaringClass().isInterface() &&
+                method.getDeclaringClass().isAssignableFrom(Advised.class)) {
+            return proxyClass.invoker.invoke(index, this.advised, args);
+        }
+
+        Object oldProxy = null;
+        boolean setProxyContext = false;
+        TargetSource targetSource = this.advised.targetSource;
+        Object target = null;
+        try {
+            if (this.advised.exposeProxy) {
+                oldProxy = AopContext.setCurrentProxy(proxy);
+                setProxyContext = true;
+            }
+
+            target = targetSource.getTarget();
+            Class<?> targetClass = (target != null ? target.getClass() : null);
+            // 方法下标就是 AdvisedSupport 中的链槽位
+            List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(proxyClass.methodSlots, index, method, targetClass);
+
+            Object retVal;
+            if (chain.isEmpty()) {
+                // 没有拦截器, 直接调用目标方法
+                retVal = proxyClass.invoker.invoke(index, target, args);
+            } else {
+                InterceptorChain interceptorChain = InterceptorChain.of(chain);
+                if (interceptorChain.reusableInvocation) {
+                    retVal = proceedWithReusableInvocation(proxyClass, proxy, target, index, method, args, targetClass, interceptorChain);
+                } else {
+                    retVal = new HiddenClassMethodInvocation(proxy, target, method, args, targetClass, chain,
+                            proxyClass.invoker, index).proceed();
+                }
+            }
+
+            Class<?> returnType = method.getReturnType();
+            if (retVal != null && retVal == target &&
+                    returnType != Object.class && returnType.isInstance(proxy) &&
+                    !RawTargetAccess.class.isAssignableFrom(method.getDeclaringClass())) {
+                retVal = proxy;
+            } else if (retVal == null && returnType != void.class && returnType.isPrimitive()) {
+                throw new AopInvocationException("Null return value from advice does not match primitive return type for: " + method);
+            }
+            return retVal;
+        } finally {
+            if (target != null && !targetSource.isStatic()) {
+                targetSource.releaseTarget(target);
+            }
+            if (setProxyContext) {
+                AopContext.setCurrentProxy(oldProxy);
+            }
+        }
+    }
+
+    // 线程复用的调用对象在使用期间从ThreadLocal中取走, 嵌套的代理调用拿不到时新建
+    private static Object proceedWithReusableInvocation(HiddenClassProxyGenerator.ProxyClass proxyClass, Object proxy,
+                                                        Object target, int index, Method method, Object[] args,
+                                                        Class<?> targetClass, InterceptorChain chain) throws Throwable {
+        ReusableHiddenClassMethodInvocation invocation = reusableInvocation.get();
+        if (invocation != null) {
+            reusableInvocation.set(null);
+        } else {
+            invocation = new ReusableHiddenClassMethodInvocation();
+        }
+        invocation.reset(proxy, target, method, args, targetClass, chain, proxyClass.invoker, index);
+        try {
+            return invocation.proceed();
+        } finally {
+            invocation.release();
+            reusableInvocation.set(invocation);
+        }
+    }
+
+    /**
+     * 生成的代理类的 writeReplace 调用, hidden class无法按名称反序列化
+     */
+    public Object createSerializedProxy() {
+        return new SerializedProxy(this);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (other == this) {
+            return true;
+        }
+        if (!(other instanceof HiddenClassAopProxy otherProxy)) {
+            return false;
+        }
+        return AopProxyUtils.equalsInProxy(this.advised, otherProxy.advised);
+    }
+
+    @Override
+    public int hashCode() {
+        return HiddenClassAopProxy.class.hashCode() * 13 + this.advised.getTargetSource().hashCode();
+    }
+
+
+    /**
+     * 代理对象的序列化形式, 读入后按原配置重新创建代理
+     */
+    private static final class SerializedProxy implements Serializable {
+
+        private static final long serialVersionUID = 4618364105293512237L;
+
+        private final HiddenClassAopProxy aopProxy;
+
+        SerializedProxy(HiddenClassAopProxy aopProxy) {
+            this.aopProxy = aopProxy;
+        }
+
+        private Object readResolve() {
+            return this.aopProxy.getProxy();
+        }
+    }
+
+
+    /**
+     * 由生成的hidden class实现, 直接调用目标对象上的第index个方法
+     */
+    @FunctionalInterface
+    public interface JoinpointInvoker {
+
+        Object invoke(int index, Object target, Object[] args) throws Throwable;
+    }
+
+
+    /**
+     * 连接点改为通过生成类直接调用
+     */
+    private static final class HiddenClassMethodInvocation extends ReflectiveMethodInvocation {
+
+        private final JoinpointInvoker invoker;
+
+        private final int index;
+
+        HiddenClassMethodInvocation(Object proxy, Object target, Method method, Object[] arguments, Class<?> targetClass,
+                                    List<Object> chain, JoinpointInvoker invoker, int index) {
+            super(proxy, target, method, arguments, targetClass, chain);
+            this.invoker = invoker;
+            this.index = index;
+        }
+
+        @Override
+        protected Object invokeJoinpoint() throws Throwable {
+            return this.invoker.invoke(this.index, this.target, this.arguments);
+        }
+    }
+
+
+    /**
+     * 线程内复用的版本, 连接点同样通过生成类直接调用
+     */
+    private static final class ReusableHiddenClassMethodInvocation extends ReusableMethodInvocation {
+
+        private JoinpointInvoker invoker;
+
+        private int index;
+
+        void reset(Object proxy, Object target, Method method, Object[] arguments, Class<?> targetClass,
+                   InterceptorChain chain, JoinpointInvoker invoker, int index) {
+            reset(proxy, target, method, arguments, targetClass, chain);
+            this.invoker = invoker;
+            this.index = index;
+        }
+
+        @Override
+        void release() {
+            super.release();
+            this.invoker = null;
+        }
+
+        @Override
+        protected Object invokeJoinpoint() throws Throwable {
+            return this.invoker.invoke(this.index, getThis(), getArguments());
+        }
+    }
+
+}
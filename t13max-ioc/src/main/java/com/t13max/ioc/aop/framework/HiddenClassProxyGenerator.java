@@ -0,0 +1,411 @@
+package com.t13max.ioc.aop.framework;
+
+import com.t13max.ioc.util.ClassUtils;
+import com.t13max.ioc.util.ConcurrentReferenceHashMap;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 为一组接口生成hidden class代理
+ * 每个接口方法生成一个转发到 HiddenClassAopProxy.invoke(proxy, index, args) 的实现,
+ * 另外生成一个按index分派的 JoinpointInvoker, 用强制转换后的 invokeinterface 直接调用目标对象, 替代反射调用连接点
+ * 两个都是hidden class, 无法按名称互相引用, 各自只引用接口类型
+ * 前三个index固定为 hashCode/equals/toString; 代理类总是实现 Serializable, 生成的 writeReplace 交给 HiddenClassAopProxy 创建序列化形式
+ *
+ * @author t13max
+ * @since 00:20 2026/10/18
+ */
+final class HiddenClassProxyGenerator implements Opcodes {
+
+    static final int HASH_CODE_INDEX = 0;
+
+    static final int EQUALS_INDEX = 1;
+
+    static final int TO_STRING_INDEX = 2;
+
+    private static final String PROXY_CLASS_SUFFIX = "$$HiddenProxy";
+
+    private static final String INVOKER_CLASS_SUFFIX = "$$HiddenInvoker";
+
+    private static final String INVOKE_DESCRIPTOR = "(ILjava/lang/Object;[Ljava/lang/Object;)Ljava/lang/Object;";
+
+    private static final String HANDLER_FIELD = "handler";
+
+    private static final String HANDLER_DESCRIPTOR = Type.getDescriptor(HiddenClassAopProxy.class);
+
+    private static final Method[] OBJECT_METHODS;
+
+    static {
+        try {
+            OBJECT_METHODS = new Method[]{Object.class.getMethod("hashCode"),
+                    Object.class.getMethod("equals", Object.class), Object.class.getMethod("toString")};
+        } catch (NoSuchMethodException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    // 宿主接口+接口组合 -> 生成的代理类, 软引用, 不阻止类加载器回收
+    private static final Map<ProxyClassKey, ProxyClass> proxyClassCache = new ConcurrentReferenceHashMap<>();
+
+    // 生成失败的组合, 避免每次创建代理都重新生成字节码再失败
+    private static final Map<ProxyClassKey, AopConfigException> failedGenerations = new ConcurrentReferenceHashMap<>();
+
+    private HiddenClassProxyGenerator() {
+    }
+
+    /**
+     * 所有接口、方法签名中需要强制转换的类型都能从代理类所在的包和类加载器访问时才能生成
+     */
+    static boolean isSupported(Class<?>[] interfaces) {
+        return (interfaces.length > 0 && isSupported(interfaces[0], interfaces));
+    }
+
+    static boolean isSupported(Class<?> hostInterface, Class<?>[] interfaces) {
+        ClassLoader classLoader = hostInterface.getClassLoader();
+        if (!ClassUtils.isVisible(HiddenClassAopProxy.class, classLoader)) {
+            return false;
+        }
+        for (Class<?> ifc : interfaces) {
+            if (!Modifier.isPublic(ifc.getModifiers()) || !ClassUtils.isVisible(ifc, classLoader)) {
+                return false;
+            }
+            for (Method method : ifc.getMethods()) {
+                if (!Modifier.isStatic(method.getModifiers()) && (!isAccessible(method.getReturnType(), hostInterface) ||
+                        !Arrays.stream(method.getParameterTypes()).allMatch(type -> isAccessible(type, hostInterface)))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAccessible(Class<?> type, Class<?> hostInterface) {
+        while (type.isArray()) {
+            type = type.componentType();
+        }
+        return (type.isPrimitive() || Modifier.isPublic(type.getModifiers()) ||
+                (type.getClassLoader() == hostInterface.getClassLoader() &&
+                        type.getPackageName().equals(hostInterface.getPackageName())));
+    }
+
+    static ProxyClass getProxyClass(Class<?> hostInterface, Class<?>[] interfaces) {
+        ProxyClassKey key = new ProxyClassKey(hostInterface, List.of(interfaces));
+        ProxyClass proxyClass = proxyClassCache.get(key);
+        if (proxyClass == null) {
+            AopConfigException failure = failedGenerations.get(key);
+            if (failure != null) {
+                throw failure;
+            }
+            try {
+                proxyClass = generate(hostInterface, interfaces);
+            } catch (AopConfigException ex) {
+                failedGenerations.put(key, ex);
+                throw ex;
+            }
+            ProxyClass existing = proxyClassCache.putIfAbsent(key, proxyClass);
+            if (existing != null) {
+                proxyClass = existing;
+            }
+        }
+        return proxyClass;
+    }
+
+    private static ProxyClass generate(Class<?> hostInterface, Class<?>[] interfaces) {
+        if (!isSupported(hostInterface, interfaces)) {
+            throw new AopConfigException("Interfaces " + Arrays.toString(interfaces) +
+                    " are not accessible from a hidden class next to " + hostInterface.getName());
+        }
+        Method[] methods = collectMethods(interfaces);
+        for (Method method : methods) {
+            if (method.getName().equals("writeReplace") && method.getParameterCount() == 0) {
+                throw new AopConfigException("Interface method " + method + " clashes with proxy serialization");
+            }
+        }
+        String baseName = hostInterface.getName().replace('.', '/');
+        try {
+            // 代理类和第一个接口同包同类加载器
+            MethodHandles.Lookup hostLookup = MethodHandles.privateLookupIn(hostInterface, MethodHandles.lookup());
+            MethodHandles.Lookup proxyLookup = hostLookup.defineHiddenClass(
+                    generateProxyBytes(baseName + PROXY_CLASS_SUFFIX, interfaces, methods), true);
+            MethodHandle constructor = proxyLookup.findConstructor(proxyLookup.lookupClass(),
+                    MethodType.methodType(void.class, HiddenClassAopProxy.class));
+            MethodHandles.Lookup invokerLookup = hostLookup.defineHiddenClass(
+                    generateInvokerBytes(baseName + INVOKER_CLASS_SUFFIX, methods), true);
+            HiddenClassAopProxy.JoinpointInvoker invoker = (HiddenClassAopProxy.JoinpointInvoker) invokerLookup
+                    .findConstructor(invokerLookup.lookupClass(), MethodType.methodType(void.class)).invoke();
+            return new ProxyClass(hostInterface, proxyLookup.lookupClass(), methods, constructor, invoker);
+        } catch (Throwable ex) {
+            throw new AopConfigException("Could not generate hidden class proxy for " + Arrays.toString(interfaces), ex);
+        }
+    }
+
+    // 同名同描述符的方法只生成一次, 协变返回类型的方法描述符不同, 各自生成
+    private static Method[] collectMethods(Class<?>[] interfaces) {
+        Map<String, Method> methods = new LinkedHashMap<>();
+        for (Method method : OBJECT_METHODS) {
+            methods.put(method.getName() + Type.getMethodDescriptor(method), method);
+        }
+        for (Class<?> ifc : interfaces) {
+            for (Method method : ifc.getMethods()) {
+                if (!Modifier.isStatic(method.getModifiers())) {
+                    methods.putIfAbsent(method.getName() + Type.getMethodDescriptor(method), method);
+                }
+            }
+        }
+        return methods.values().toArray(new Method[0]);
+    }
+
+    private static ClassWriter createClassWriter() {
+        return new ClassWriter(ClassWriter.COMPUTE_FRAMES) {
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                // 生成的代码没有需要合并引用类型的分支
+                return "java/lang/Object";
+            }
+        };
+    }
+
+    private static void generateConstructorPrologue(MethodVisitor mv) {
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+    }
+
+    private static byte[] generateProxyBytes(String className, Class<?>[] interfaces, Method[] methods) {
+        ClassWriter cw = createClassWriter();
+        List<String> interfaceNames = new ArrayList<>(interfaces.length + 1);
+        boolean serializable = false;
+        for (Class<?> ifc : interfaces) {
+            interfaceNames.add(Type.getInternalName(ifc));
+            serializable |= Serializable.class.isAssignableFrom(ifc);
+        }
+        if (!serializable) {
+            // 与JDK动态代理(java.lang.reflect.Proxy实现了Serializable)保持一致
+            interfaceNames.add(Type.getInternalName(Serializable.class));
+        }
+        cw.visit(V11, ACC_PUBLIC | ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC, className, null, "java/lang/Object",
+                interfaceNames.toArray(new String[0]));
+        cw.visitField(ACC_PRIVATE | ACC_FINAL, HANDLER_FIELD, HANDLER_DESCRIPTOR, null, null).visitEnd();
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "(" + HANDLER_DESCRIPTOR + ")V", null, null);
+        generateConstructorPrologue(mv);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitFieldInsn(PUTFIELD, className, HANDLER_FIELD, HANDLER_DESCRIPTOR);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        for (int index = 0; index < methods.length; index++) {
+            generateProxyMethod(cw, className, methods[index], index);
+        }
+
+        // private Object writeReplace() { return handler.createSerializedProxy(); }
+        mv = cw.visitMethod(ACC_PRIVATE | ACC_FINAL, "writeReplace", "()Ljava/lang/Object;", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, className, HANDLER_FIELD, HANDLER_DESCRIPTOR);
+        mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(HiddenClassAopProxy.class), "createSerializedProxy",
+                "()Ljava/lang/Object;", false);
+        mv.visitInsn(ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    // 参数装箱后交给 handler.invoke(this, index, args), 返回值拆箱或强制转换
+    private static void generateProxyMethod(ClassWriter cw, String className, Method method, int index) {
+        Type[] argumentTypes = Type.getArgumentTypes(method);
+        Type returnType = Type.getReturnType(method);
+        String[] exceptions = Arrays.stream(method.getExceptionTypes()).map(Type::getInternalName).toArray(String[]::new);
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC | ACC_FINAL, method.getName(), Type.getMethodDescriptor(method), null, exceptions);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, className, HANDLER_FIELD, HANDLER_DESCRIPTOR);
+        mv.visitVarInsn(ALOAD, 0);
+        pushInt(mv, index);
+        pushInt(mv, argumentTypes.length);
+        mv.visitTypeInsn(ANEWARRAY, "java/lang/Object");
+        int slot = 1;
+        for (int i = 0; i < argumentTypes.length; i++) {
+            mv.visitInsn(DUP);
+            pushInt(mv, i);
+            mv.visitVarInsn(argumentTypes[i].getOpcode(ILOAD), slot);
+            box(mv, argumentTypes[i]);
+            mv.visitInsn(AASTORE);
+            slot += argumentTypes[i].getSize();
+        }
+        mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(HiddenClassAopProxy.class), "invoke",
+                "(Ljava/lang/Object;I[Ljava/lang/Object;)Ljava/lang/Object;", false);
+        if (returnType.getSort() == Type.VOID) {
+            mv.visitInsn(POP);
+            mv.visitInsn(RETURN);
+        } else {
+            unboxOrCast(mv, returnType);
+            mv.visitInsn(returnType.getOpcode(IRETURN));
+        }
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    // Object invoke(int index, Object target, Object[] args): 按index直接调用目标方法
+    private static byte[] generateInvokerBytes(String className, Method[] methods) {
+        ClassWriter cw = createClassWriter();
+        cw.visit(V11, ACC_PUBLIC | ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC, className, null, "java/lang/Object",
+                new String[]{Type.getInternalName(HiddenClassAopProxy.JoinpointInvoker.class)});
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        generateConstructorPrologue(mv);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        mv = cw.visitMethod(ACC_PUBLIC, "invoke", INVOKE_DESCRIPTOR, null, new String[]{"java/lang/Throwable"});
+        mv.visitCode();
+        Label defaultLabel = new Label();
+        Label[] labels = new Label[methods.length];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = new Label();
+        }
+        mv.visitVarInsn(ILOAD, 1);
+        mv.visitTableSwitchInsn(0, methods.length - 1, defaultLabel, labels);
+        for (int index = 0; index < methods.length; index++) {
+            Method method = methods[index];
+            Class<?> declaringClass = method.getDeclaringClass();
+            String owner = Type.getInternalName(declaringClass);
+            mv.visitLabel(labels[index]);
+            mv.visitVarInsn(ALOAD, 2);
+            mv.visitTypeInsn(CHECKCAST, owner);
+            Type[] argumentTypes = Type.getArgumentTypes(method);
+            for (int i = 0; i < argumentTypes.length; i++) {
+                mv.visitVarInsn(ALOAD, 3);
+                pushInt(mv, i);
+                mv.visitInsn(AALOAD);
+                unboxOrCast(mv, argumentTypes[i]);
+            }
+            boolean isInterface = declaringClass.isInterface();
+            mv.visitMethodInsn((isInterface ? INVOKEINTERFACE : INVOKEVIRTUAL), owner, method.getName(),
+                    Type.getMethodDescriptor(method), isInterface);
+            Type returnType = Type.getReturnType(method);
+            if (returnType.getSort() == Type.VOID) {
+                mv.visitInsn(ACONST_NULL);
+            } else {
+                box(mv, returnType);
+            }
+            mv.visitInsn(ARETURN);
+        }
+        mv.visitLabel(defaultLabel);
+        mv.visitTypeInsn(NEW, "java/lang/IllegalArgumentException");
+        mv.visitInsn(DUP);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/IllegalArgumentException", "<init>", "()V", false);
+        mv.visitInsn(ATHROW);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static void pushInt(MethodVisitor mv, int value) {
+        if (value >= -1 && value <= 5) {
+            mv.visitInsn(ICONST_0 + value);
+        } else if (value <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(BIPUSH, value);
+        } else if (value <= Short.MAX_VALUE) {
+            mv.visitIntInsn(SIPUSH, value);
+        } else {
+            mv.visitLdcInsn(value);
+        }
+    }
+
+    private static void box(MethodVisitor mv, Type type) {
+        Type boxedType = boxedType(type);
+        if (boxedType != null) {
+            mv.visitMethodInsn(INVOKESTATIC, boxedType.getInternalName(), "valueOf",
+                    Type.getMethodDescriptor(boxedType, type), false);
+        }
+    }
+
+    // 基本类型返回值为null的情况已由调用方提前拦截
+    private static void unboxOrCast(MethodVisitor mv, Type type) {
+        Type boxedType = boxedType(type);
+        if (boxedType != null) {
+            mv.visitTypeInsn(CHECKCAST, boxedType.getInternalName());
+            mv.visitMethodInsn(INVOKEVIRTUAL, boxedType.getInternalName(), type.getClassName() + "Value",
+                    "()" + type.getDescriptor(), false);
+        } else if (!type.getDescriptor().equals("Ljava/lang/Object;")) {
+            mv.visitTypeInsn(CHECKCAST, type.getInternalName());
+        }
+    }
+
+    private static Type boxedType(Type type) {
+        return switch (type.getSort()) {
+            case Type.BOOLEAN -> Type.getType(Boolean.class);
+            case Type.CHAR -> Type.getType(Character.class);
+            case Type.BYTE -> Type.getType(Byte.class);
+            case Type.SHORT -> Type.getType(Short.class);
+            case Type.INT -> Type.getType(Integer.class);
+            case Type.FLOAT -> Type.getType(Float.class);
+            case Type.LONG -> Type.getType(Long.class);
+            case Type.DOUBLE -> Type.getType(Double.class);
+            default -> null;
+        };
+    }
+
+
+    private record ProxyClassKey(Class<?> hostInterface, List<Class<?>> interfaces) {
+    }
+
+
+    /**
+     * 生成的代理类: 方法表下标与生成代码中的index一致
+     */
+    static final class ProxyClass {
+
+        final Class<?> hostInterface;
+
+        final Class<?> proxyType;
+
+        final Method[] methods;
+
+        private final MethodHandle constructor;
+
+        final HiddenClassAopProxy.JoinpointInvoker invoker;
+
+        // 方法下标即槽位
+        final MethodSlots methodSlots;
+
+        ProxyClass(Class<?> hostInterface, Class<?> proxyType, Method[] methods, MethodHandle constructor,
+                   HiddenClassAopProxy.JoinpointInvoker invoker) {
+            this.hostInterface = hostInterface;
+            this.proxyType = proxyType;
+            this.methods = methods;
+            this.constructor = constructor;
+            this.invoker = invoker;
+            this.methodSlots = new MethodSlots(methods);
+        }
+
+        Object newInstance(HiddenClassAopProxy handler) {
+            try {
+                return this.constructor.invoke(handler);
+            } catch (Throwable ex) {
+                throw new AopConfigException("Could not instantiate hidden class proxy " + this.proxyType.getName(), ex);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.t13max.ioc.aop.framework;
+
+import com.t13max.ioc.aop.MethodMatcher;
+import com.t13max.ioc.aop.framework.adapter.AfterReturningAdviceInterceptor;
+import com.t13max.ioc.aop.framework.adapter.MethodBeforeAdviceInterceptor;
+import com.t13max.ioc.aop.framework.adapter.ThrowsAdviceInterceptor;
+import com.t13max.ioc.aop.intecept.MethodInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * 编译后的拦截器链: 拦截器和动态匹配器拆成两个定长数组, 调用对象按下标推进, 不再做类型判断
+ * 对外仍是原来的只读 List<Object>(元素为 MethodInterceptor 或 InterceptorAndDynamicMethodMatcher)
+ *
+ * @author t13max
+ * @since 01:10 2026/10/18
+ */
+final class InterceptorChain extends AbstractList<Object> implements RandomAccess {
+
+    static final InterceptorChain EMPTY = new InterceptorChain(new Object[0]);
+
+    private final Object[] elements;
+
+    final MethodInterceptor[] interceptors;
+
+    // 与interceptors一一对应, 静态匹配的位置为null
+    final MethodMatcher[] matchers;
+
+    // 全部是不会在invoke之外持有MethodInvocation的内置拦截器时, 调用对象可以复用
+    final boolean reusableInvocation;
+
+    private InterceptorChain(Object[] elements) {
+        this.elements = elements;
+        this.interceptors = new MethodInterceptor[elements.length];
+        this.matchers = new MethodMatcher[elements.length];
+        boolean reusableInvocation = true;
+        for (int i = 0; i < elements.length; i++) {
+            MethodInterceptor interceptor;
+            if (elements[i] instanceof InterceptorAndDynamicMethodMatcher dm) {
+                interceptor = dm.interceptor();
+                this.matchers[i] = dm.matcher();
+            } else {
+                interceptor = (MethodInterceptor) elements[i];
+            }
+            this.interceptors[i] = interceptor;
+            Class<?> interceptorClass = interceptor.getClass();
+            reusableInvocation &= (interceptorClass == MethodBeforeAdviceInterceptor.class ||
+                    interceptorClass == AfterReturningAdviceInterceptor.class || interceptorClass == ThrowsAdviceInterceptor.class);
+        }
+        this.reusableInvocation = reusableInvocation;
+    }
+
+    static InterceptorChain of(List<?> interceptorsAndDynamicMethodMatchers) {
+        if (interceptorsAndDynamicMethodMatchers instanceof InterceptorChain chain) {
+            return chain;
+        }
+        if (interceptorsAndDynamicMethodMatchers.isEmpty()) {
+            return EMPTY;
+        }
+        return new InterceptorChain(interceptorsAndDynamicMethodMatchers.toArray());
+    }
+
+    /**
+     * index之后下一个要调用的拦截器下标, 动态匹配不通过的直接跳过, 不再递归; 都不调用时返回 interceptors.length
+     */
+    int nextInterceptorIndex(int index, Method method, Class<?> targetClass, Object[] arguments) {
+        while (++index < this.interceptors.length) {
+            MethodMatcher matcher = this.matchers[index];
+            if (matcher == null || matcher.matches(method, targetClass, arguments)) {
+                return index;
+            }
+        }
+        return index;
+    }
+
+    @Override
+    public Object get(int index) {
+        return this.elements[index];
+    }
+
+    @Override
+    public int size() {
+        return this.elements.length;
+    }
+
+}
@@ -17,6 +17,8 @@ import java.io.Serializable;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -31,6 +33,10 @@ public class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializ
 
     private static final boolean coroutinesReactorPresent = ClassUtils.isPresent("kotlinx.coroutines.reactor.MonoKt", JdkDynamicAopProxy.class.getClassLoader());
     private static final Logger logger = LogManager.getLogger(JdkDynamicAopProxy.class);
+
+    // 链上全是内置拦截器时复用的调用对象
+    private static final ThreadLocal<ReusableMethodInvocation> reusableInvocation = new ThreadLocal<>();
+
     private final AdvisedSupport advised;
     private transient ProxiedInterfacesCache cache;
 
@@ -135,7 +141,7 @@ public class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializ
             Class<?> targetClass = (target != null ? target.getClass() : null);
 
             // 获取定义好的拦截器链, 即Advisor列表
-            List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+            List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(this.cache.methodSlots, method, targetClass);
 
             // 如果没有配置拦截器, 就直接通过反射调用目标对象target的method对象,并获取返回值
             if (chain.isEmpty()) {
@@ -144,8 +150,14 @@ public class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializ
             }
             else {
                 // 如果有拦截器链, 则需要先调用拦截器链中的拦截器,再调用目标的对应方法, 这里通过构造ReflectiveMethodInvocation来实现
-                MethodInvocation invocation = new ReflectiveMethodInvocation(proxy, target, method, args, targetClass, chain);
-                retVal = invocation.proceed();
+                InterceptorChain interceptorChain = InterceptorChain.of(chain);
+                if (interceptorChain.reusableInvocation) {
+                    retVal = proceedWithReusableInvocation(proxy, target, method, args, targetClass, interceptorChain);
+                }
+                else {
+                    MethodInvocation invocation = new ReflectiveMethodInvocation(proxy, target, method, args, targetClass, chain);
+                    retVal = invocation.proceed();
+                }
             }
 
             // 获取method返回值的类型
@@ -178,6 +190,26 @@ public class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializ
         }
     }
 
+    // 线程复用的调用对象在使用期间从ThreadLocal中取走, 嵌套的代理调用拿不到时新建
+    private static Object proceedWithReusableInvocation(Object proxy, Object target, Method method, Object[] args,
+                                                        Class<?> targetClass, InterceptorChain chain) throws Throwable {
+        ReusableMethodInvocation invocation = reusableInvocation.get();
+        if (invocation != null) {
+            reusableInvocation.set(null);
+        }
+        else {
+            invocation = new ReusableMethodInvocation();
+        }
+        invocation.reset(proxy, target, method, args, targetClass, chain);
+        try {
+            return invocation.proceed();
+        }
+        finally {
+            invocation.release();
+            reusableInvocation.set(invocation);
+        }
+    }
+
     @Override
     public boolean equals( Object other) {
         if (other == this) {
@@ -232,8 +264,21 @@ public class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializ
 
         final boolean hashCodeDefined;
 
+        // 代理类会分派到 invoke 的方法: 各接口的公共方法以及Object的equals/hashCode/toString
+        final MethodSlots methodSlots;
+
         ProxiedInterfacesCache(AdvisedSupport config) {
             this.proxiedInterfaces = AopProxyUtils.completeProxiedInterfaces(config, true);
+            List<Method> proxiedMethods = new ArrayList<>();
+            for (Class<?> proxiedInterface : this.proxiedInterfaces) {
+                proxiedMethods.addAll(Arrays.asList(proxiedInterface.getMethods()));
+            }
+            for (Method method : Object.class.getMethods()) {
+                if (AopUtils.isEqualsMethod(method) || AopUtils.isHashCodeMethod(method) || AopUtils.isToStringMethod(method)) {
+                    proxiedMethods.add(method);
+                }
+            }
+            this.methodSlots = new MethodSlots(proxiedMethods.toArray(new Method[0]));
 
             // Find any {@link #equals} or {@link #hashCode} method that may be defined
             // on the supplied set of interfaces.
@@ -0,0 +1,139 @@
+package com.t13max.ioc.aop.framework;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 代理类的方法槽位表: 创建代理时给每个代理方法分配连续的槽位, AdvisedSupport 按槽位在数组中存放拦截器链
+ * 查找先按Method对象身份(代理类每次传入同一个Method实例), 未命中再按equals解析一次并记住该实例, 之后不再哈希方法签名
+ *
+ * @author t13max
+ * @since 02:20 2026/10/18
+ */
+final class MethodSlots {
+
+    // 身份表最多记住的Method实例数(相对槽位数), 防止调用方每次传入新的Method副本时无限增长
+    private static final int MAX_ALIASES_PER_SLOT = 4;
+
+    private final Method[] methods;
+
+    private final Map<Method, Integer> slotsByMethod;
+
+    private volatile IdentityTable identityTable;
+
+    MethodSlots(Method[] methods) {
+        this.methods = methods;
+        this.slotsByMethod = new HashMap<>(methods.length * 2);
+        for (int slot = 0; slot < methods.length; slot++) {
+            this.slotsByMethod.putIfAbsent(methods[slot], slot);
+        }
+        this.identityTable = IdentityTable.EMPTY.with(methods);
+    }
+
+    int size() {
+        return this.methods.length;
+    }
+
+    /**
+     * 方法对应的槽位, 不是该代理类的方法时返回-1
+     */
+    int slotOf(Method method) {
+        IdentityTable identityTable = this.identityTable;
+        int slot = identityTable.get(method);
+        if (slot >= 0) {
+            return slot;
+        }
+        Integer resolved = this.slotsByMethod.get(method);
+        if (resolved == null) {
+            return -1;
+        }
+        if (identityTable.size < this.methods.length * MAX_ALIASES_PER_SLOT) {
+            // 并发时可能丢失一次登记, 下次调用会再登记
+            this.identityTable = identityTable.with(method, resolved);
+        }
+        return resolved;
+    }
+
+
+    /**
+     * 开放寻址的身份表, 构建完成后不再修改, 写入时复制一份新表再通过volatile字段发布
+     */
+    private static final class IdentityTable {
+
+        static final IdentityTable EMPTY = new IdentityTable(2);
+
+        private final Method[] keys;
+
+        private final int[] slots;
+
+        int size;
+
+        private IdentityTable(int capacity) {
+            this.keys = new Method[capacity];
+            this.slots = new int[capacity];
+        }
+
+        int get(Method method) {
+            int mask = this.keys.length - 1;
+            for (int i = hash(method) & mask; ; i = (i + 1) & mask) {
+                Method key = this.keys[i];
+                if (key == method) {
+                    return this.slots[i];
+                }
+                if (key == null) {
+                    return -1;
+                }
+            }
+        }
+
+        IdentityTable with(Method[] methods) {
+            IdentityTable table = copy(this.size + methods.length);
+            for (int slot = 0; slot < methods.length; slot++) {
+                table.insert(methods[slot], slot);
+            }
+            return table;
+        }
+
+        IdentityTable with(Method method, int slot) {
+            IdentityTable table = copy(this.size + 1);
+            table.insert(method, slot);
+            return table;
+        }
+
+        // 负载不超过1/2
+        private IdentityTable copy(int expectedSize) {
+            int capacity = 2;
+            while (capacity < expectedSize * 2) {
+                capacity <<= 1;
+            }
+            IdentityTable table = new IdentityTable(capacity);
+            for (int i = 0; i < this.keys.length; i++) {
+                if (this.keys[i] != null) {
+                    table.insert(this.keys[i], this.slots[i]);
+                }
+            }
+            return table;
+        }
+
+        private void insert(Method method, int slot) {
+            int mask = this.keys.length - 1;
+            int i = hash(method) & mask;
+            while (this.keys[i] != null) {
+                if (this.keys[i] == method) {
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            this.keys[i] = method;
+            this.slots[i] = slot;
+            this.size++;
+        }
+
+        private static int hash(Method method) {
+            int h = System.identityHashCode(method);
+            return h ^ (h >>> 16);
+        }
+    }
+
+}
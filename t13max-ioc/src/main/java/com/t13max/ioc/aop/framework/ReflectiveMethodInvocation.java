@@ -1,7 +1,6 @@
 package com.t13max.ioc.aop.framework;
 
 import com.t13max.ioc.aop.ProxyMethodInvocation;
-import com.t13max.ioc.aop.intecept.MethodInterceptor;
 import com.t13max.ioc.aop.intecept.MethodInvocation;
 import com.t13max.ioc.aop.support.AopUtils;
 import com.t13max.ioc.core.BridgeMethodResolver;
@@ -28,6 +27,7 @@ public class ReflectiveMethodInvocation implements ProxyMethodInvocation, Clonea
 
     private Map<String, Object> userAttributes;
     protected final List<?> interceptorsAndDynamicMethodMatchers;
+    private final InterceptorChain chain;
     private int currentInterceptorIndex = -1;
 
     protected ReflectiveMethodInvocation(
@@ -40,6 +40,7 @@ public class ReflectiveMethodInvocation implements ProxyMethodInvocation, Clonea
         this.method = BridgeMethodResolver.findBridgedMethod(method);
         this.arguments = AopProxyUtils.adaptArgumentsIfNecessary(method, arguments);
         this.interceptorsAndDynamicMethodMatchers = interceptorsAndDynamicMethodMatchers;
+        this.chain = InterceptorChain.of(interceptorsAndDynamicMethodMatchers);
     }
 
 
@@ -77,26 +78,18 @@ public class ReflectiveMethodInvocation implements ProxyMethodInvocation, Clonea
     //对目标方法的调用是在invokeJoinpoint()中通过AopUtils的invokeJoinpointUsingReflection()完成的
     @Override
     public Object proceed() throws Throwable {
-        // We start with an index of -1 and increment early.
-        if (this.currentInterceptorIndex == this.interceptorsAndDynamicMethodMatchers.size() - 1) {
-            return invokeJoinpoint();
-        }
-
-        Object interceptorOrInterceptionAdvice = this.interceptorsAndDynamicMethodMatchers.get(++this.currentInterceptorIndex);
-        if (interceptorOrInterceptionAdvice instanceof InterceptorAndDynamicMethodMatcher dm) {
-            //通过拦截器的方法匹配器进行匹配
-            Class<?> targetClass = (this.targetClass != null ? this.targetClass : this.method.getDeclaringClass());
-            if (dm.matcher().matches(this.method, targetClass, this.arguments)) {
-                //执行当前这个拦截器interceptor的增强方法
-                return dm.interceptor().invoke(this);
-            } else {
-                // 如果不匹配,那么process()方法会被递归调用, 直到所有的拦截器都被运行过为止
-                return proceed();
-            }
-        } else {
-            // 如果interceptorOrInterceptionAdvice是一个MethodInterceptor则直接调用其对应的方法
-            return ((MethodInterceptor) interceptorOrInterceptionAdvice).invoke(this);
+        InterceptorChain chain = this.chain;
+        // 按下标推进, 动态匹配不通过的拦截器直接跳过
+        Class<?> targetClass = (this.targetClass != null ? this.targetClass : this.method.getDeclaringClass());
+        int index = chain.nextInterceptorIndex(this.currentInterceptorIndex, this.method, targetClass, this.arguments);
+        if (index < chain.interceptors.length) {
+            this.currentInterceptorIndex = index;
+            //执行当前这个拦截器interceptor的增强方法
+            return chain.interceptors[index].invoke(this);
         }
+        // 下标停在最后一个拦截器, 与原先递归到末尾时相同, 再次proceed()仍调用连接点
+        this.currentInterceptorIndex = index - 1;
+        return invokeJoinpoint();
     }
 
     protected Object invokeJoinpoint() throws Throwable {
@@ -0,0 +1,168 @@
+package com.t13max.ioc.aop.framework;
+
+import com.t13max.ioc.aop.ProxyMethodInvocation;
+import com.t13max.ioc.aop.intecept.MethodInvocation;
+import com.t13max.ioc.aop.support.AopUtils;
+import com.t13max.ioc.core.BridgeMethodResolver;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 线程内复用的调用对象, 只用于 InterceptorChain.reusableInvocation 的链
+ * 每次调用前 reset 绑定, 结束后 release 清掉引用; 推进方式与 ReflectiveMethodInvocation 相同, 后者的字段保持不可变
+ *
+ * @author t13max
+ * @since 06:50 2026/10/18
+ */
+class ReusableMethodInvocation implements ProxyMethodInvocation, Cloneable {
+
+    private Object proxy;
+
+    private Object target;
+
+    private Method method;
+
+    private Object[] arguments;
+
+    private Class<?> targetClass;
+
+    private Map<String, Object> userAttributes;
+
+    private InterceptorChain chain;
+
+    private int currentInterceptorIndex = -1;
+
+    void reset(Object proxy, Object target, Method method, Object[] arguments,
+               Class<?> targetClass, InterceptorChain chain) {
+
+        this.proxy = proxy;
+        this.target = target;
+        this.targetClass = targetClass;
+        this.method = BridgeMethodResolver.findBridgedMethod(method);
+        this.arguments = AopProxyUtils.adaptArgumentsIfNecessary(method, arguments);
+        this.chain = chain;
+        this.currentInterceptorIndex = -1;
+    }
+
+    /**
+     * 调用结束后放回复用前, 清掉对本次调用的引用
+     */
+    void release() {
+        this.proxy = null;
+        this.target = null;
+        this.targetClass = null;
+        this.method = null;
+        this.arguments = null;
+        this.userAttributes = null;
+        this.chain = null;
+    }
+
+
+    @Override
+    public final Object getProxy() {
+        return this.proxy;
+    }
+
+    @Override
+    public final Object getThis() {
+        return this.target;
+    }
+
+    @Override
+    public final AccessibleObject getStaticPart() {
+        return this.method;
+    }
+
+    @Override
+    public final Method getMethod() {
+        return this.method;
+    }
+
+    @Override
+    public final Object[] getArguments() {
+        return this.arguments;
+    }
+
+    @Override
+    public void setArguments(Object... arguments) {
+        this.arguments = arguments;
+    }
+
+    @Override
+    public Object proceed() throws Throwable {
+        InterceptorChain chain = this.chain;
+        Class<?> targetClass = (this.targetClass != null ? this.targetClass : this.method.getDeclaringClass());
+        int index = chain.nextInterceptorIndex(this.currentInterceptorIndex, this.method, targetClass, this.arguments);
+        if (index < chain.interceptors.length) {
+            this.currentInterceptorIndex = index;
+            return chain.interceptors[index].invoke(this);
+        }
+        this.currentInterceptorIndex = index - 1;
+        return invokeJoinpoint();
+    }
+
+    protected Object invokeJoinpoint() throws Throwable {
+        return AopUtils.invokeJoinpointUsingReflection(this.target, this.method, this.arguments);
+    }
+
+    // 克隆出的对象不会放回ThreadLocal, 不受之后reset的影响
+    @Override
+    public MethodInvocation invocableClone() {
+        Object[] cloneArguments = this.arguments;
+        if (this.arguments.length > 0) {
+            cloneArguments = this.arguments.clone();
+        }
+        return invocableClone(cloneArguments);
+    }
+
+    @Override
+    public MethodInvocation invocableClone(Object... arguments) {
+        if (this.userAttributes == null) {
+            this.userAttributes = new HashMap<>();
+        }
+        try {
+            ReusableMethodInvocation clone = (ReusableMethodInvocation) clone();
+            clone.arguments = arguments;
+            return clone;
+        } catch (CloneNotSupportedException ex) {
+            throw new IllegalStateException(
+                    "Should be able to clone object of type [" + getClass() + "]: " + ex);
+        }
+    }
+
+    @Override
+    public void setUserAttribute(String key, Object value) {
+        if (value != null) {
+            if (this.userAttributes == null) {
+                this.userAttributes = new HashMap<>();
+            }
+            this.userAttributes.put(key, value);
+        } else {
+            if (this.userAttributes != null) {
+                this.userAttributes.remove(key);
+            }
+        }
+    }
+
+    @Override
+    public Object getUserAttribute(String key) {
+        return (this.userAttributes != null ? this.userAttributes.get(key) : null);
+    }
+
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ReusableMethodInvocation: ");
+        sb.append(this.method).append("; ");
+        if (this.target == null) {
+            sb.append("target is null");
+        } else {
+            sb.append("target is of class [").append(this.target.getClass().getName()).append(']');
+        }
+        return sb.toString();
+    }
+
+}
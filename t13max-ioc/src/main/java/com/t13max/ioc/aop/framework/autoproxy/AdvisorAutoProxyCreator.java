@@ -0,0 +1,217 @@
+package com.t13max.ioc.aop.framework.autoproxy;
+
+import com.t13max.ioc.aop.Advice;
+import com.t13max.ioc.aop.Advisor;
+import com.t13max.ioc.aop.Pointcut;
+import com.t13max.ioc.aop.framework.AopInfrastructureBean;
+import com.t13max.ioc.aop.framework.ProxyConfig;
+import com.t13max.ioc.aop.framework.ProxyFactory;
+import com.t13max.ioc.aop.support.AopUtils;
+import com.t13max.ioc.aop.target.SingletonTargetSource;
+import com.t13max.ioc.beans.BeansException;
+import com.t13max.ioc.beans.factory.Aware;
+import com.t13max.ioc.beans.factory.BeanClassLoaderAware;
+import com.t13max.ioc.beans.factory.BeanFactory;
+import com.t13max.ioc.beans.factory.BeanFactoryAware;
+import com.t13max.ioc.beans.factory.BeanFactoryUtils;
+import com.t13max.ioc.beans.factory.DisposableBean;
+import com.t13max.ioc.beans.factory.InitializingBean;
+import com.t13max.ioc.beans.factory.config.ConfigurableListableBeanFactory;
+import com.t13max.ioc.beans.factory.config.SmartInstantiationAwareBeanPostProcessor;
+import com.t13max.ioc.core.Ordered;
+import com.t13max.ioc.core.annotation.AnnotationAwareOrderComparator;
+import com.t13max.ioc.util.ClassUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 自动代理创建器: 为匹配到容器中 Advisor bean 的bean创建代理, 不需要逐个配置 ProxyFactoryBean
+ * advisor按 ClassFilter 建立索引(见 AdvisorIndex), 每个bean类只与相关的advisor匹配, 匹配结果按类缓存, 原型bean的多个实例共用
+ * 配置冻结前bean定义数不变时沿用索引, 冻结后advisor集合固定, 索引不再重建
+ *
+ * @author t13max
+ * @since 01:50 2026/10/18
+ */
+@SuppressWarnings("serial")
+public class AdvisorAutoProxyCreator extends ProxyConfig
+        implements SmartInstantiationAwareBeanPostProcessor, BeanFactoryAware, BeanClassLoaderAware, AopInfrastructureBean, Ordered {
+
+    private static final Logger logger = LogManager.getLogger(AdvisorAutoProxyCreator.class);
+
+    private transient ConfigurableListableBeanFactory beanFactory;
+
+    private transient ClassLoader proxyClassLoader = ClassUtils.getDefaultClassLoader();
+
+    private boolean classLoaderConfigured = false;
+
+    private int order = Ordered.LOWEST_PRECEDENCE;
+
+    private transient volatile AdvisorIndex advisorIndex;
+
+    // 提前暴露过引用(循环依赖)的bean, 初始化后不再重复代理
+    private final transient Map<Object, Object> earlyProxyReferences = new ConcurrentHashMap<>(16);
+
+    public void setOrder(int order) {
+        this.order = order;
+    }
+
+    @Override
+    public int getOrder() {
+        return this.order;
+    }
+
+    public void setProxyClassLoader(ClassLoader classLoader) {
+        this.proxyClassLoader = classLoader;
+        this.classLoaderConfigured = (classLoader != null);
+    }
+
+    @Override
+    public void setBeanClassLoader(ClassLoader classLoader) {
+        if (!this.classLoaderConfigured) {
+            this.proxyClassLoader = classLoader;
+        }
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        if (!(beanFactory instanceof ConfigurableListableBeanFactory clbf)) {
+            throw new IllegalArgumentException("AdvisorAutoProxyCreator requires a ConfigurableListableBeanFactory: " + beanFactory);
+        }
+        this.beanFactory = clbf;
+        this.advisorIndex = null;
+    }
+
+    @Override
+    public Object getEarlyBeanReference(Object bean, String beanName) {
+        Object cacheKey = getCacheKey(bean.getClass(), beanName);
+        this.earlyProxyReferences.put(cacheKey, bean);
+        return wrapIfNecessary(bean, beanName);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (bean != null) {
+            Object cacheKey = getCacheKey(bean.getClass(), beanName);
+            if (this.earlyProxyReferences.remove(cacheKey) != bean) {
+                return wrapIfNecessary(bean, beanName);
+            }
+        }
+        return bean;
+    }
+
+    protected Object getCacheKey(Class<?> beanClass, String beanName) {
+        return (beanName != null && !beanName.isEmpty() ? beanName : beanClass);
+    }
+
+    protected Object wrapIfNecessary(Object bean, String beanName) {
+        Class<?> beanClass = bean.getClass();
+        if (isInfrastructureClass(beanClass) || AopUtils.isAopProxy(bean)) {
+            return bean;
+        }
+        Advisor[] advisors = getAdvisorsForClass(beanClass);
+        if (advisors.length == 0) {
+            return bean;
+        }
+        if (logger.isTraceEnabled()) {
+            logger.trace("Creating auto proxy for bean '" + beanName + "' with " + advisors.length + " advisors");
+        }
+        return createProxy(bean, advisors);
+    }
+
+    protected boolean isInfrastructureClass(Class<?> beanClass) {
+        return (Advice.class.isAssignableFrom(beanClass) ||
+                Pointcut.class.isAssignableFrom(beanClass) ||
+                Advisor.class.isAssignableFrom(beanClass) ||
+                AopInfrastructureBean.class.isAssignableFrom(beanClass));
+    }
+
+    /**
+     * 该bean类适用的advisor, 已按 Ordered/@Order 排序
+     */
+    protected Advisor[] getAdvisorsForClass(Class<?> beanClass) {
+        return obtainAdvisorIndex().getAdvisors(beanClass);
+    }
+
+    private AdvisorIndex obtainAdvisorIndex() {
+        AdvisorIndex index = this.advisorIndex;
+        if (index != null && index.frozen) {
+            return index;
+        }
+        boolean configurationFrozen = this.beanFactory.isConfigurationFrozen();
+        int beanDefinitionCount = this.beanFactory.getBeanDefinitionCount();
+        if (index != null && !configurationFrozen && index.beanDefinitionCount == beanDefinitionCount) {
+            // 未冻结时没有新增或移除定义就沿用索引, 不必为每个创建的bean按类型查找一次advisor
+            // 期间手动注册的advisor单例不改变定义数, 最迟在配置冻结时补上
+            return index;
+        }
+        String[] advisorBeanNames = BeanFactoryUtils.beanNamesForTypeIncludingAncestors(this.beanFactory, Advisor.class, true, false);
+        if (index != null && Arrays.equals(index.advisorBeanNames, advisorBeanNames)) {
+            // 配置冻结后不会再注册新的advisor
+            index.beanDefinitionCount = beanDefinitionCount;
+            index.frozen = configurationFrozen;
+            return index;
+        }
+        List<Advisor> advisors = new ArrayList<>(advisorBeanNames.length);
+        boolean complete = true;
+        for (String advisorBeanName : advisorBeanNames) {
+            if (this.beanFactory.isCurrentlyInCreation(advisorBeanName)) {
+                // advisor自身还在创建中(它依赖的bean正在被处理), 本次跳过, 索引不缓存
+                complete = false;
+                continue;
+            }
+            advisors.add(this.beanFactory.getBean(advisorBeanName, Advisor.class));
+        }
+        AnnotationAwareOrderComparator.sort(advisors);
+        index = new AdvisorIndex(advisorBeanNames, advisors, beanDefinitionCount);
+        if (complete) {
+            index.frozen = configurationFrozen;
+            this.advisorIndex = index;
+        }
+        return index;
+    }
+
+    protected Object createProxy(Object bean, Advisor[] advisors) {
+        ProxyFactory proxyFactory = new ProxyFactory();
+        proxyFactory.copyFrom(this);
+        proxyFactory.setTargetSource(new SingletonTargetSource(bean));
+        if (!proxyFactory.isProxyTargetClass()) {
+            evaluateProxyInterfaces(bean.getClass(), proxyFactory);
+        }
+        proxyFactory.addAdvisors(advisors);
+        // advisor已按类匹配过
+        proxyFactory.setPreFiltered(true);
+        return proxyFactory.getProxy(this.proxyClassLoader);
+    }
+
+    // 只有回调接口或空接口时改用类代理
+    protected void evaluateProxyInterfaces(Class<?> beanClass, ProxyFactory proxyFactory) {
+        Class<?>[] targetInterfaces = ClassUtils.getAllInterfacesForClass(beanClass, this.proxyClassLoader);
+        boolean hasReasonableProxyInterface = false;
+        for (Class<?> ifc : targetInterfaces) {
+            if (!isConfigurationCallbackInterface(ifc) && ifc.getMethods().length > 0) {
+                hasReasonableProxyInterface = true;
+                break;
+            }
+        }
+        if (hasReasonableProxyInterface) {
+            for (Class<?> ifc : targetInterfaces) {
+                proxyFactory.addInterface(ifc);
+            }
+        } else {
+            proxyFactory.setProxyTargetClass(true);
+        }
+    }
+
+    protected boolean isConfigurationCallbackInterface(Class<?> ifc) {
+        return (InitializingBean.class == ifc || DisposableBean.class == ifc || Closeable.class == ifc ||
+                AutoCloseable.class == ifc || Aware.class.isAssignableFrom(ifc));
+    }
+
+}
@@ -0,0 +1,249 @@
+package com.t13max.ioc.aop.framework.autoproxy;
+
+import com.t13max.ioc.aop.Advisor;
+import com.t13max.ioc.aop.ClassFilter;
+import com.t13max.ioc.aop.IntroductionAdvisor;
+import com.t13max.ioc.aop.Pointcut;
+import com.t13max.ioc.aop.PointcutAdvisor;
+import com.t13max.ioc.aop.support.AbstractRegexpMethodPointcut;
+import com.t13max.ioc.aop.support.AnnotationClassFilter;
+import com.t13max.ioc.aop.support.AopUtils;
+import com.t13max.ioc.aop.support.PackageClassFilter;
+import com.t13max.ioc.aop.support.RegexpPointcutEngine;
+import com.t13max.ioc.aop.support.RootClassFilter;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按advisor的ClassFilter建立的索引: 注解、包、类型三类过滤器按键归桶
+ * ClassFilter为TRUE的正则切点(AbstractRegexpMethodPointcut)按各包含正则的字面量前缀放进前缀树, 用类型层级上的类名查找
+ * 其余advisor(含没有字面量前缀的正则)每个bean类都要检查
+ * bean类只和命中的桶以及无法索引的advisor做完整匹配(AopUtils.findAdvisorsThatCanApply), 结果按bean类缓存
+ *
+ * @author t13max
+ * @since 01:50 2026/10/18
+ */
+final class AdvisorIndex {
+
+    private static final Advisor[] NO_ADVISORS = new Advisor[0];
+
+    final String[] advisorBeanNames;
+
+    // 已排序, 下标即优先级
+    private final Advisor[] advisors;
+
+    private final BitSet unindexed = new BitSet();
+
+    private final Map<Class<? extends Annotation>, BitSet> byAnnotation = new HashMap<>();
+
+    private final Map<Class<?>, BitSet> byType = new HashMap<>();
+
+    private final Map<String, BitSet> byPackage = new HashMap<>();
+
+    private final Map<String, BitSet> bySubpackage = new HashMap<>();
+
+    private final PrefixNode byMethodNamePrefix = new PrefixNode();
+
+    // 按bean类缓存匹配结果, 原型bean的各个实例共用
+    private final Map<Class<?>, Advisor[]> advisorsPerClass = new ConcurrentHashMap<>(256);
+
+    // 构建或上次确认时容器中的bean定义数, 未冻结时据此判断是否需要重新比对advisor名称
+    volatile int beanDefinitionCount;
+
+    // 构建后确认advisor集合不会再变化时置为true, 之后不再比对advisor名称
+    volatile boolean frozen;
+
+    AdvisorIndex(String[] advisorBeanNames, List<Advisor> advisors, int beanDefinitionCount) {
+        this.advisorBeanNames = advisorBeanNames;
+        this.beanDefinitionCount = beanDefinitionCount;
+        this.advisors = advisors.toArray(NO_ADVISORS);
+        for (int i = 0; i < this.advisors.length; i++) {
+            ClassFilter classFilter = getClassFilter(this.advisors[i]);
+            if (classFilter instanceof AnnotationClassFilter annotationFilter) {
+                this.byAnnotation.computeIfAbsent(annotationFilter.getAnnotationType(), key -> new BitSet()).set(i);
+            } else if (classFilter instanceof RootClassFilter rootFilter) {
+                this.byType.computeIfAbsent(rootFilter.getRootClass(), key -> new BitSet()).set(i);
+            } else if (classFilter instanceof PackageClassFilter packageFilter) {
+                (packageFilter.isIncludeSubpackages() ? this.bySubpackage : this.byPackage)
+                        .computeIfAbsent(packageFilter.getPackageName(), key -> new BitSet()).set(i);
+            } else if (!indexByMethodNamePrefix(this.advisors[i], classFilter, i)) {
+                this.unindexed.set(i);
+            }
+        }
+    }
+
+    // 正则对 "类名.方法名" 做完整匹配, 字面量前缀必然是该字符串的前缀; 任一正则没有前缀时无法索引
+    private boolean indexByMethodNamePrefix(Advisor advisor, ClassFilter classFilter, int index) {
+        if (classFilter != ClassFilter.TRUE || !(advisor instanceof PointcutAdvisor pointcutAdvisor)) {
+            return false;
+        }
+        Pointcut pointcut = pointcutAdvisor.getPointcut();
+        if (!(pointcut instanceof AbstractRegexpMethodPointcut regexpPointcut) || regexpPointcut.getPatterns().length == 0) {
+            return false;
+        }
+        String[] patterns = regexpPointcut.getPatterns();
+        String[] prefixes = new String[patterns.length];
+        for (int i = 0; i < patterns.length; i++) {
+            prefixes[i] = RegexpPointcutEngine.literalPrefix(patterns[i]);
+            if (prefixes[i].isEmpty()) {
+                return false;
+            }
+        }
+        for (String prefix : prefixes) {
+            this.byMethodNamePrefix.add(prefix, index);
+        }
+        return true;
+    }
+
+    private static ClassFilter getClassFilter(Advisor advisor) {
+        if (advisor instanceof IntroductionAdvisor introductionAdvisor) {
+            return introductionAdvisor.getClassFilter();
+        } else if (advisor instanceof PointcutAdvisor pointcutAdvisor) {
+            return pointcutAdvisor.getPointcut().getClassFilter();
+        }
+        return null;
+    }
+
+    boolean isEmpty() {
+        return (this.advisors.length == 0);
+    }
+
+    /**
+     * 适用于该bean类的advisor, 按advisor顺序排列
+     */
+    Advisor[] getAdvisors(Class<?> beanClass) {
+        Advisor[] result = this.advisorsPerClass.get(beanClass);
+        if (result == null) {
+            result = findAdvisors(beanClass);
+            this.advisorsPerClass.put(beanClass, result);
+        }
+        return result;
+    }
+
+    private Advisor[] findAdvisors(Class<?> beanClass) {
+        if (this.advisors.length == 0) {
+            return NO_ADVISORS;
+        }
+        BitSet candidates = (BitSet) this.unindexed.clone();
+        if (!this.byType.isEmpty()) {
+            for (Class<?> type : getTypeHierarchy(beanClass)) {
+                or(candidates, this.byType.get(type));
+            }
+        }
+        if (!this.byAnnotation.isEmpty()) {
+            for (Class<? extends Annotation> annotationType : getAnnotationTypes(beanClass)) {
+                or(candidates, this.byAnnotation.get(annotationType));
+            }
+        }
+        if (!this.byMethodNamePrefix.subtree.isEmpty()) {
+            // 匹配时用目标类和方法声明类的限定名, 两者都在类型层级内
+            for (Class<?> type : getTypeHierarchy(beanClass)) {
+                this.byMethodNamePrefix.collect(type.getName() + '.', candidates);
+            }
+        }
+        if (!this.byPackage.isEmpty() || !this.bySubpackage.isEmpty()) {
+            String packageName = beanClass.getPackageName();
+            or(candidates, this.byPackage.get(packageName));
+            or(candidates, this.bySubpackage.get(packageName));
+            for (int dot = packageName.lastIndexOf('.'); dot > 0; dot = packageName.lastIndexOf('.', dot - 1)) {
+                or(candidates, this.bySubpackage.get(packageName.substring(0, dot)));
+            }
+        }
+        if (candidates.isEmpty()) {
+            return NO_ADVISORS;
+        }
+        List<Advisor> candidateAdvisors = new ArrayList<>(candidates.cardinality());
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            candidateAdvisors.add(this.advisors[i]);
+        }
+        // 候选集合是超集, 仍需按原规则逐个确认(含方法匹配)
+        return AopUtils.findAdvisorsThatCanApply(candidateAdvisors, beanClass).toArray(NO_ADVISORS);
+    }
+
+    private static void or(BitSet candidates, BitSet bucket) {
+        if (bucket != null) {
+            candidates.or(bucket);
+        }
+    }
+
+    // 类本身、所有父类以及所有接口
+    private static Set<Class<?>> getTypeHierarchy(Class<?> beanClass) {
+        Set<Class<?>> types = new HashSet<>();
+        for (Class<?> current = beanClass; current != null; current = current.getSuperclass()) {
+            addInterfaces(current, types);
+        }
+        return types;
+    }
+
+    private static void addInterfaces(Class<?> type, Set<Class<?>> types) {
+        if (types.add(type)) {
+            for (Class<?> ifc : type.getInterfaces()) {
+                addInterfaces(ifc, types);
+            }
+        }
+    }
+
+    // 类型层级上声明的全部注解及其元注解, 覆盖 AnnotationClassFilter 两种匹配方式可能命中的注解
+    private static Set<Class<? extends Annotation>> getAnnotationTypes(Class<?> beanClass) {
+        Set<Class<? extends Annotation>> annotationTypes = new HashSet<>();
+        for (Class<?> type : getTypeHierarchy(beanClass)) {
+            for (Annotation annotation : type.getDeclaredAnnotations()) {
+                addAnnotationType(annotation.annotationType(), annotationTypes);
+            }
+        }
+        return annotationTypes;
+    }
+
+    private static void addAnnotationType(Class<? extends Annotation> annotationType, Set<Class<? extends Annotation>> annotationTypes) {
+        if (annotationType.getName().startsWith("java.lang.annotation.") || !annotationTypes.add(annotationType)) {
+            return;
+        }
+        for (Annotation metaAnnotation : annotationType.getDeclaredAnnotations()) {
+            addAnnotationType(metaAnnotation.annotationType(), annotationTypes);
+        }
+    }
+
+
+    private static final class PrefixNode {
+
+        private final Map<Character, PrefixNode> children = new HashMap<>(4);
+
+        // 前缀恰好到此结束的advisor
+        private final BitSet advisors = new BitSet();
+
+        // 前缀经过此节点的全部advisor
+        private final BitSet subtree = new BitSet();
+
+        void add(String prefix, int index) {
+            PrefixNode node = this;
+            node.subtree.set(index);
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.children.computeIfAbsent(prefix.charAt(i), key -> new PrefixNode());
+                node.subtree.set(index);
+            }
+            node.advisors.set(index);
+        }
+
+        // 前缀是 "类名." 的前缀, 或 "类名." 是前缀的前缀(后面还有方法名部分)
+        void collect(String qualifiedTypeName, BitSet candidates) {
+            PrefixNode node = this;
+            for (int i = 0; i < qualifiedTypeName.length(); i++) {
+                candidates.or(node.advisors);
+                node = node.children.get(qualifiedTypeName.charAt(i));
+                if (node == null) {
+                    return;
+                }
+            }
+            candidates.or(node.subtree);
+        }
+    }
+
+}
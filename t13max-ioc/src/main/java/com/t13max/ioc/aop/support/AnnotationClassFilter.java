@@ -0,0 +1,60 @@
+package com.t13max.ioc.aop.support;
+
+import com.t13max.ioc.aop.ClassFilter;
+import com.t13max.ioc.core.annotation.AnnotatedElementUtils;
+import com.t13max.ioc.util.Assert;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * 按类上的注解匹配, checkInherited为true时同时查找父类和接口上的注解(含元注解)
+ *
+ * @author t13max
+ * @since 01:40 2026/10/18
+ */
+public class AnnotationClassFilter implements ClassFilter {
+
+    private final Class<? extends Annotation> annotationType;
+
+    private final boolean checkInherited;
+
+    public AnnotationClassFilter(Class<? extends Annotation> annotationType) {
+        this(annotationType, false);
+    }
+
+    public AnnotationClassFilter(Class<? extends Annotation> annotationType, boolean checkInherited) {
+        Assert.notNull(annotationType, "Annotation type must not be null");
+        this.annotationType = annotationType;
+        this.checkInherited = checkInherited;
+    }
+
+    public Class<? extends Annotation> getAnnotationType() {
+        return this.annotationType;
+    }
+
+    public boolean isCheckInherited() {
+        return this.checkInherited;
+    }
+
+    @Override
+    public boolean matches(Class<?> clazz) {
+        return (this.checkInherited ? AnnotatedElementUtils.hasAnnotation(clazz, this.annotationType) :
+                clazz.isAnnotationPresent(this.annotationType));
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return (this == other || (other instanceof AnnotationClassFilter otherCf &&
+                this.annotationType.equals(otherCf.annotationType) && this.checkInherited == otherCf.checkInherited));
+    }
+
+    @Override
+    public int hashCode() {
+        return this.annotationType.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getName() + ": " + this.annotationType;
+    }
+}
@@ -1,5 +1,8 @@
 package com.t13max.ioc.aop.support;
 
+import com.t13max.ioc.aop.MethodMatcher;
+
+import java.lang.reflect.Method;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -12,13 +15,60 @@ public class JdkRegexpMethodPointcut extends AbstractRegexpMethodPointcut {
     private Pattern[] compiledPatterns = new Pattern[0];
     private Pattern[] compiledExclusionPatterns = new Pattern[0];
 
+    // 设置了共享引擎时由引擎统一匹配(见 RegexpPointcutEngine)
+    private transient RegexpPointcutEngine pointcutEngine;
+    private transient MethodMatcher engineMethodMatcher;
+
+    public void setPointcutEngine(RegexpPointcutEngine pointcutEngine) {
+        if (this.pointcutEngine != pointcutEngine) {
+            releaseFromEngine();
+            this.pointcutEngine = pointcutEngine;
+        }
+        registerWithEngine();
+    }
+
+    /**
+     * 释放在共享引擎中的注册, 之后回到自身的正则匹配; 切点不再使用时调用
+     */
+    public void releaseFromEngine() {
+        if (this.engineMethodMatcher != null) {
+            this.pointcutEngine.unregister(this.engineMethodMatcher);
+            this.engineMethodMatcher = null;
+        }
+    }
+
+    public RegexpPointcutEngine getPointcutEngine() {
+        return this.pointcutEngine;
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        MethodMatcher engineMethodMatcher = this.engineMethodMatcher;
+        if (engineMethodMatcher != null) {
+            return engineMethodMatcher.matches(method, targetClass);
+        }
+        return super.matches(method, targetClass);
+    }
+
+    // 模式变化后替换原来的注册, 先设包含再设排除时中间那组注册也会随之释放
+    private void registerWithEngine() {
+        if (this.pointcutEngine == null || this.compiledPatterns.length == 0) {
+            releaseFromEngine();
+            return;
+        }
+        this.engineMethodMatcher = this.pointcutEngine.replace(
+                this.engineMethodMatcher, getPatterns(), getExcludedPatterns());
+    }
+
     @Override
     protected void initPatternRepresentation(String[] patterns) throws PatternSyntaxException {
         this.compiledPatterns = compilePatterns(patterns);
+        registerWithEngine();
     }
     @Override
     protected void initExcludedPatternRepresentation(String[] excludedPatterns) throws PatternSyntaxException {
         this.compiledExclusionPatterns = compilePatterns(excludedPatterns);
+        registerWithEngine();
     }
     @Override
     protected boolean matches(String pattern, int patternIndex) {
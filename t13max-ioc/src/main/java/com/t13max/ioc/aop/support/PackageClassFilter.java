@@ -0,0 +1,64 @@
+package com.t13max.ioc.aop.support;
+
+import com.t13max.ioc.aop.ClassFilter;
+import com.t13max.ioc.util.Assert;
+
+import java.io.Serializable;
+
+/**
+ * 匹配给定包(可选包含子包)下的类
+ *
+ * @author t13max
+ * @since 01:40 2026/10/18
+ */
+@SuppressWarnings("serial")
+public class PackageClassFilter implements ClassFilter, Serializable {
+
+    private final String packageName;
+
+    private final boolean includeSubpackages;
+
+    public PackageClassFilter(String packageName) {
+        this(packageName, true);
+    }
+
+    public PackageClassFilter(String packageName, boolean includeSubpackages) {
+        Assert.notNull(packageName, "Package name must not be null");
+        this.packageName = packageName;
+        this.includeSubpackages = includeSubpackages;
+    }
+
+    public String getPackageName() {
+        return this.packageName;
+    }
+
+    public boolean isIncludeSubpackages() {
+        return this.includeSubpackages;
+    }
+
+    @Override
+    public boolean matches(Class<?> clazz) {
+        String candidate = clazz.getPackageName();
+        if (candidate.equals(this.packageName)) {
+            return true;
+        }
+        return (this.includeSubpackages && candidate.length() > this.packageName.length() &&
+                candidate.startsWith(this.packageName) && candidate.charAt(this.packageName.length()) == '.');
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return (this == other || (other instanceof PackageClassFilter that &&
+                this.packageName.equals(that.packageName) && this.includeSubpackages == that.includeSubpackages));
+    }
+
+    @Override
+    public int hashCode() {
+        return this.packageName.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getName() + ": " + this.packageName + (this.includeSubpackages ? ".*" : "");
+    }
+}
@@ -0,0 +1,344 @@
+package com.t13max.ioc.aop.support;
+
+import com.t13max.ioc.aop.MethodMatcher;
+import com.t13max.ioc.util.Assert;
+import com.t13max.ioc.util.ClassUtils;
+import com.t13max.ioc.util.ConcurrentReferenceHashMap;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * 多个正则切点共用的匹配引擎: 所有注册的包含/排除正则按字面量前缀合并进一棵前缀树,
+ * 一个方法签名只沿树走一遍, 只对前缀吻合的正则执行完整匹配; 没有字面量前缀的正则(如 ".*set.*")每次都参与匹配
+ * 结果按 (Method, Class) 缓存(软引用, 不阻止类卸载), 同一方法一次算出所有注册切点的结果, 后续切点直接查缓存
+ * 注册按正则组合计数, 最后一个使用者释放(unregister/replace)后移除
+ * 匹配语义与 AbstractRegexpMethodPointcut 相同: 目标类限定名或声明类限定名命中任一包含正则且未命中排除正则
+ *
+ * @author t13max
+ * @since 02:50 2026/10/18
+ */
+public class RegexpPointcutEngine {
+
+    private static final String REGEX_META_CHARS = ".[]()*+?{}|^$";
+
+    private final List<Registration> registrations = new ArrayList<>();
+
+    // 相同的正则组合只注册一次
+    private final Map<List<String>, Registration> registrationsByPatterns = new HashMap<>();
+
+    private volatile CompiledState state;
+
+    /**
+     * 注册一组正则, 返回对应的方法匹配器; 新的正则组合会使之前的匹配缓存失效
+     * 不再使用时应通过 unregister 或 replace 释放
+     */
+    public synchronized MethodMatcher register(String[] patterns, String[] excludedPatterns) throws PatternSyntaxException {
+        Assert.notNull(patterns, "'patterns' must not be null");
+        String[] exclusions = (excludedPatterns != null ? excludedPatterns : new String[0]);
+        List<String> key = new ArrayList<>(patterns.length + exclusions.length + 1);
+        for (String pattern : patterns) {
+            key.add(pattern.strip());
+        }
+        // 包含与排除之间的分隔, 正则本身不会是null
+        key.add(null);
+        for (String pattern : exclusions) {
+            key.add(pattern.strip());
+        }
+        Registration registration = this.registrationsByPatterns.get(key);
+        if (registration == null) {
+            registration = new Registration(key, compilePatterns(patterns), compilePatterns(exclusions));
+            this.registrations.add(registration);
+            this.registrationsByPatterns.put(key, registration);
+            this.state = null;
+        }
+        registration.references++;
+        return registration.methodMatcher;
+    }
+
+    /**
+     * 释放 register 返回的匹配器; 该正则组合的最后一个使用者释放后从引擎移除, 匹配缓存随之失效
+     * 释放后的匹配器仍可使用, 但每次直接执行正则
+     */
+    public synchronized void unregister(MethodMatcher methodMatcher) {
+        Registration registration = getRegistration(methodMatcher);
+        if (registration.references == 0) {
+            return;
+        }
+        if (--registration.references == 0) {
+            this.registrations.remove(registration);
+            this.registrationsByPatterns.remove(registration.key);
+            this.state = null;
+        }
+    }
+
+    /**
+     * 用新的正则组合替换之前注册的匹配器(可以为null), 相当于先 register 再 unregister 旧的
+     */
+    public synchronized MethodMatcher replace(MethodMatcher previous, String[] patterns, String[] excludedPatterns)
+            throws PatternSyntaxException {
+
+        // 先注册, 正则组合不变时沿用原来的注册
+        MethodMatcher methodMatcher = register(patterns, excludedPatterns);
+        if (previous != null) {
+            unregister(previous);
+        }
+        return methodMatcher;
+    }
+
+    private Registration getRegistration(MethodMatcher methodMatcher) {
+        if (!(methodMatcher instanceof EngineMethodMatcher engineMatcher) || engineMatcher.registration.engine != this) {
+            throw new IllegalArgumentException("MethodMatcher was not registered with this engine: " + methodMatcher);
+        }
+        return engineMatcher.registration;
+    }
+
+    public synchronized int getRegistrationCount() {
+        return this.registrations.size();
+    }
+
+    private static Pattern[] compilePatterns(String[] source) {
+        Pattern[] destination = new Pattern[source.length];
+        for (int i = 0; i < source.length; i++) {
+            destination[i] = Pattern.compile(source[i].strip());
+        }
+        return destination;
+    }
+
+    boolean matches(Registration registration, Method method, Class<?> targetClass) {
+        CompiledState state = obtainState();
+        Integer slot = state.slots.get(registration);
+        if (slot == null) {
+            // 已释放的注册
+            return registration.matches(method, targetClass);
+        }
+        return state.matchedRegistrations(method, targetClass).get(slot);
+    }
+
+    private CompiledState obtainState() {
+        CompiledState state = this.state;
+        if (state == null) {
+            synchronized (this) {
+                state = this.state;
+                if (state == null) {
+                    state = new CompiledState(this.registrations);
+                    this.state = state;
+                }
+            }
+        }
+        return state;
+    }
+
+    /**
+     * 正则完整匹配时必然出现的字面量前缀; 含分支(|)或以元字符开头时为空串
+     */
+    public static String literalPrefix(String regex) {
+        if (regex.indexOf('|') >= 0) {
+            return "";
+        }
+        StringBuilder prefix = new StringBuilder();
+        int i = (regex.startsWith("^") ? 1 : 0);
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            char literal;
+            int next;
+            if (c == '\\') {
+                // 只接受转义的标点(如 \.), \d \w \Q 等到此为止
+                if (i + 1 >= regex.length() || Character.isLetterOrDigit(regex.charAt(i + 1))) {
+                    break;
+                }
+                literal = regex.charAt(i + 1);
+                next = i + 2;
+            } else if (REGEX_META_CHARS.indexOf(c) >= 0) {
+                break;
+            } else {
+                literal = c;
+                next = i + 1;
+            }
+            if (next < regex.length()) {
+                char quantifier = regex.charAt(next);
+                if (quantifier == '*' || quantifier == '?' || quantifier == '{') {
+                    // 该字符可以不出现
+                    break;
+                }
+                if (quantifier == '+') {
+                    prefix.append(literal);
+                    break;
+                }
+            }
+            prefix.append(literal);
+            i = next;
+        }
+        return prefix.toString();
+    }
+
+
+    private final class Registration {
+
+        final RegexpPointcutEngine engine = RegexpPointcutEngine.this;
+
+        final List<String> key;
+
+        final Pattern[] patterns;
+
+        final Pattern[] excludedPatterns;
+
+        final EngineMethodMatcher methodMatcher = new EngineMethodMatcher(this);
+
+        // 由引擎的锁保护
+        int references;
+
+        Registration(List<String> key, Pattern[] patterns, Pattern[] excludedPatterns) {
+            this.key = key;
+            this.patterns = patterns;
+            this.excludedPatterns = excludedPatterns;
+        }
+
+        // 不经过前缀树和缓存的匹配, 语义与引擎相同
+        boolean matches(Method method, Class<?> targetClass) {
+            return (matches(ClassUtils.getQualifiedMethodName(method, targetClass)) ||
+                    (targetClass != method.getDeclaringClass() &&
+                            matches(ClassUtils.getQualifiedMethodName(method, method.getDeclaringClass()))));
+        }
+
+        private boolean matches(String signature) {
+            for (Pattern pattern : this.patterns) {
+                if (pattern.matcher(signature).matches()) {
+                    for (Pattern excludedPattern : this.excludedPatterns) {
+                        if (excludedPattern.matcher(signature).matches()) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+
+    // 前缀树上挂的一条正则, slot 是所属注册在本次编译中的位置
+    private record PatternRef(int slot, Pattern pattern, boolean exclusion) {
+    }
+
+
+    private static final class TrieNode {
+
+        final Map<Character, TrieNode> children = new HashMap<>(4);
+
+        final List<PatternRef> patterns = new ArrayList<>(1);
+    }
+
+
+    private record MethodKey(Method method, Class<?> targetClass) {
+    }
+
+
+    /**
+     * 某一时刻全部注册正则编译成的前缀树和对应的匹配缓存, 注册或释放后整体替换
+     */
+    private static final class CompiledState {
+
+        private final TrieNode root = new TrieNode();
+
+        private final int registrationCount;
+
+        // 注册 -> 结果BitSet中的位置, 构建后只读
+        final Map<Registration, Integer> slots;
+
+        private final Map<MethodKey, BitSet> matchCache = new ConcurrentReferenceHashMap<>(256);
+
+        CompiledState(List<Registration> registrations) {
+            this.registrationCount = registrations.size();
+            this.slots = new IdentityHashMap<>(registrations.size());
+            for (int slot = 0; slot < registrations.size(); slot++) {
+                Registration registration = registrations.get(slot);
+                this.slots.put(registration, slot);
+                for (Pattern pattern : registration.patterns) {
+                    insert(new PatternRef(slot, pattern, false));
+                }
+                for (Pattern pattern : registration.excludedPatterns) {
+                    insert(new PatternRef(slot, pattern, true));
+                }
+            }
+        }
+
+        private void insert(PatternRef ref) {
+            TrieNode node = this.root;
+            String prefix = literalPrefix(ref.pattern().pattern());
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.children.computeIfAbsent(prefix.charAt(i), key -> new TrieNode());
+            }
+            node.patterns.add(ref);
+        }
+
+        BitSet matchedRegistrations(Method method, Class<?> targetClass) {
+            MethodKey key = new MethodKey(method, targetClass);
+            BitSet matched = this.matchCache.get(key);
+            if (matched == null) {
+                matched = evaluate(ClassUtils.getQualifiedMethodName(method, targetClass));
+                if (targetClass != method.getDeclaringClass()) {
+                    matched.or(evaluate(ClassUtils.getQualifiedMethodName(method, method.getDeclaringClass())));
+                }
+                this.matchCache.put(key, matched);
+            }
+            return matched;
+        }
+
+        // 命中任一包含正则且未命中排除正则的注册; 排除正则只对已命中的注册执行
+        private BitSet evaluate(String signature) {
+            List<PatternRef> candidates = new ArrayList<>();
+            TrieNode node = this.root;
+            int i = 0;
+            while (node != null) {
+                candidates.addAll(node.patterns);
+                node = (i < signature.length() ? node.children.get(signature.charAt(i++)) : null);
+            }
+            BitSet included = new BitSet(this.registrationCount);
+            for (PatternRef ref : candidates) {
+                if (!ref.exclusion() && !included.get(ref.slot()) && ref.pattern().matcher(signature).matches()) {
+                    included.set(ref.slot());
+                }
+            }
+            if (!included.isEmpty()) {
+                for (PatternRef ref : candidates) {
+                    if (ref.exclusion() && included.get(ref.slot()) && ref.pattern().matcher(signature).matches()) {
+                        included.clear(ref.slot());
+                    }
+                }
+            }
+            return included;
+        }
+    }
+
+
+    /**
+     * 引擎中某一组正则对应的静态方法匹配器
+     */
+    private static final class EngineMethodMatcher extends StaticMethodMatcher {
+
+        private final Registration registration;
+
+        EngineMethodMatcher(Registration registration) {
+            this.registration = registration;
+        }
+
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return this.registration.engine.matches(this.registration, method, targetClass);
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getName() + ": " + this.registration.key;
+        }
+    }
+
+}
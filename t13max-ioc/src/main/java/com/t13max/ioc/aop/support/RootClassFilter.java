@@ -0,0 +1,47 @@
+package com.t13max.ioc.aop.support;
+
+import com.t13max.ioc.aop.ClassFilter;
+import com.t13max.ioc.util.Assert;
+
+import java.io.Serializable;
+
+/**
+ * 匹配给定类型及其子类型
+ *
+ * @author t13max
+ * @since 01:40 2026/10/18
+ */
+@SuppressWarnings("serial")
+public class RootClassFilter implements ClassFilter, Serializable {
+
+    private final Class<?> clazz;
+
+    public RootClassFilter(Class<?> clazz) {
+        Assert.notNull(clazz, "Class must not be null");
+        this.clazz = clazz;
+    }
+
+    public Class<?> getRootClass() {
+        return this.clazz;
+    }
+
+    @Override
+    public boolean matches(Class<?> candidate) {
+        return this.clazz.isAssignableFrom(candidate);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return (this == other || (other instanceof RootClassFilter that && this.clazz.equals(that.clazz)));
+    }
+
+    @Override
+    public int hashCode() {
+        return this.clazz.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getName() + ": " + this.clazz.getName();
+    }
+}
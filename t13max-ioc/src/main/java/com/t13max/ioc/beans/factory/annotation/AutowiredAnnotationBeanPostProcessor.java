@@ -3,6 +3,9 @@ package com.t13max.ioc.beans.factory.annotation;
 import java.beans.PropertyDescriptor;
 import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
@@ -371,6 +374,11 @@ public class AutowiredAnnotationBeanPostProcessor implements SmartInstantiationA
 		return pvs;
 	}
 
+	@Override
+	public boolean requiresPropertyProcessing(Class<?> beanClass, String beanName) {
+		return !findAutowiringMetadata(beanName, beanClass, null).isEmpty();
+	}
+
 	
 	public void processInjection(Object bean) throws BeanCreationException {
 		Class<?> clazz = bean.getClass();
@@ -543,7 +551,12 @@ public class AutowiredAnnotationBeanPostProcessor implements SmartInstantiationA
 
 	
 	private  Object resolveCachedArgument( String beanName,  Object cachedArgument) {
-		if (cachedArgument instanceof DependencyDescriptor descriptor) {
+		if (cachedArgument instanceof ShortcutDependencyDescriptor shortcut && shortcut.singletonTarget) {
+			// 目标是已创建的单例, 直接按名称取, 不再走resolveDependency
+			Assert.state(this.beanFactory != null, "No BeanFactory available");
+			return shortcut.resolveShortcut(this.beanFactory);
+		}
+		else if (cachedArgument instanceof DependencyDescriptor descriptor) {
 			Assert.state(this.beanFactory != null, "No BeanFactory available");
 			return this.beanFactory.resolveDependency(descriptor, beanName, null, null);
 		}
@@ -554,6 +567,44 @@ public class AutowiredAnnotationBeanPostProcessor implements SmartInstantiationA
 
 
 	
+	private ShortcutDependencyDescriptor createShortcut(DependencyDescriptor descriptor, String autowiredBeanName) {
+		return new ShortcutDependencyDescriptor(descriptor, autowiredBeanName,
+				(this.beanFactory != null && this.beanFactory.isSingleton(autowiredBeanName)));
+	}
+
+	// 字段注入句柄, 签名统一为 (Object, Object)void; 静态字段或无法生成时返回null, 退回反射
+	private static  MethodHandle createFieldSetter(Field field) {
+		if (Modifier.isStatic(field.getModifiers())) {
+			return null;
+		}
+		try {
+			ReflectionUtils.makeAccessible(field);
+			return MethodHandles.lookup().unreflectSetter(field)
+					.asType(MethodType.methodType(void.class, Object.class, Object.class));
+		}
+		catch (IllegalAccessException | RuntimeException ex) {
+			return null;
+		}
+	}
+
+	// 方法注入句柄, 签名统一为 (Object, Object[])Object
+	private static  MethodHandle createMethodInvoker(Method method) {
+		if (Modifier.isStatic(method.getModifiers())) {
+			return null;
+		}
+		try {
+			ReflectionUtils.makeAccessible(method);
+			int parameterCount = method.getParameterCount();
+			return MethodHandles.lookup().unreflect(method).asFixedArity()
+					.asType(MethodType.genericMethodType(parameterCount + 1))
+					.asSpreader(Object[].class, parameterCount);
+		}
+		catch (IllegalAccessException | RuntimeException ex) {
+			return null;
+		}
+	}
+
+
 	private abstract static class AutowiredElement extends InjectionMetadata.InjectedElement {
 
 		protected final boolean required;
@@ -572,6 +623,10 @@ public class AutowiredAnnotationBeanPostProcessor implements SmartInstantiationA
 
 		private volatile  Object cachedFieldValue;
 
+		private volatile boolean setterResolved;
+
+		private volatile  MethodHandle setter;
+
 		public AutowiredFieldElement(Field field, boolean required) {
 			super(field, null, required);
 		}
@@ -595,8 +650,19 @@ public class AutowiredAnnotationBeanPostProcessor implements SmartInstantiationA
 				value = resolveFieldValue(field, bean, beanName);
 			}
 			if (value != null) {
-				ReflectionUtils.makeAccessible(field);
-				field.set(bean, value);
+				if (!this.setterResolved) {
+					this.setter = createFieldSetter(field);
+					this.setterResolved = true;
+				}
+				MethodHandle setter = this.setter;
+				if (setter != null && field.getDeclaringClass().isInstance(bean) &&
+						ClassUtils.isAssignableValue(field.getType(), value)) {
+					setter.invokeExact(bean, value);
+				}
+				else {
+					ReflectionUtils.makeAccessible(field);
+					field.set(bean, value);
+				}
 			}
 		}
 
@@ -622,7 +688,7 @@ public class AutowiredAnnotationBeanPostProcessor implements SmartInstantiationA
 							String autowiredBeanName = autowiredBeanNames.iterator().next();
 							if (beanFactory.containsBean(autowiredBeanName) &&
 									beanFactory.isTypeMatch(autowiredBeanName, field.getType())) {
-								cachedFieldValue = new ShortcutDependencyDescriptor(desc, autowiredBeanName);
+								cachedFieldValue = createShortcut(desc, autowiredBeanName);
 							}
 						}
 						this.cachedFieldValue = cachedFieldValue;
@@ -646,6 +712,10 @@ public class AutowiredAnnotationBeanPostProcessor implements SmartInstantiationA
 
 		private volatile Object  [] cachedMethodArguments;
 
+		private volatile boolean invokerResolved;
+
+		private volatile  MethodHandle invoker;
+
 		public AutowiredMethodElement(Method method, boolean required,  PropertyDescriptor pd) {
 			super(method, pd, required);
 		}
@@ -672,16 +742,40 @@ public class AutowiredAnnotationBeanPostProcessor implements SmartInstantiationA
 				arguments = resolveMethodArguments(method, bean, beanName);
 			}
 			if (arguments != null) {
-				try {
-					ReflectionUtils.makeAccessible(method);
-					method.invoke(bean, arguments);
+				if (!this.invokerResolved) {
+					this.invoker = createMethodInvoker(method);
+					this.invokerResolved = true;
 				}
-				catch (InvocationTargetException ex) {
-					throw ex.getTargetException();
+				MethodHandle invoker = this.invoker;
+				if (invoker != null && method.getDeclaringClass().isInstance(bean) &&
+						isInvocable(method.getParameterTypes(), arguments)) {
+					Object ignored = (Object) invoker.invokeExact(bean, arguments);
+				}
+				else {
+					try {
+						ReflectionUtils.makeAccessible(method);
+						method.invoke(bean, arguments);
+					}
+					catch (InvocationTargetException ex) {
+						throw ex.getTargetException();
+					}
 				}
 			}
 		}
 
+		// 句柄不做反射那样的参数校验, 不匹配时交给method.invoke给出原有异常
+		private static boolean isInvocable(Class<?>[] paramTypes, Object[] arguments) {
+			if (paramTypes.length != arguments.length) {
+				return false;
+			}
+			for (int i = 0; i < arguments.length; i++) {
+				if (arguments[i] == null ? paramTypes[i].isPrimitive() : !ClassUtils.isAssignableValue(paramTypes[i], arguments[i])) {
+					return false;
+				}
+			}
+			return true;
+		}
+
 		private  Object  [] resolveCachedArguments( String beanName, Object  [] cachedMethodArguments) {
 			if (cachedMethodArguments == null) {
 				return null;
@@ -729,8 +823,7 @@ public class AutowiredAnnotationBeanPostProcessor implements SmartInstantiationA
 								String autowiredBeanName = it.next();
 								if (arguments[i] != null && beanFactory.containsBean(autowiredBeanName) &&
 										beanFactory.isTypeMatch(autowiredBeanName, paramTypes[i])) {
-									cachedMethodArguments[i] = new ShortcutDependencyDescriptor(
-											descriptors[i], autowiredBeanName);
+									cachedMethodArguments[i] = createShortcut(descriptors[i], autowiredBeanName);
 								}
 							}
 						}
@@ -754,9 +847,13 @@ public class AutowiredAnnotationBeanPostProcessor implements SmartInstantiationA
 
 		private final String shortcut;
 
-		public ShortcutDependencyDescriptor(DependencyDescriptor original, String shortcut) {
+		// 目标为单例时注入直接走getBean, 不必每次经过resolveDependency
+		private final boolean singletonTarget;
+
+		public ShortcutDependencyDescriptor(DependencyDescriptor original, String shortcut, boolean singletonTarget) {
 			super(original);
 			this.shortcut = shortcut;
+			this.singletonTarget = singletonTarget;
 		}
 
 		@Override
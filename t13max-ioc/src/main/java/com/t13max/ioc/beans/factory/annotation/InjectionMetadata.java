@@ -0,0 +1,271 @@
+package com.t13max.ioc.beans.factory.annotation;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
+import com.t13max.ioc.beans.MutablePropertyValues;
+import com.t13max.ioc.beans.PropertyValues;
+import com.t13max.ioc.beans.factory.support.RootBeanDefinition;
+import com.t13max.ioc.util.CollectionUtils;
+import com.t13max.ioc.util.ReflectionUtils;
+
+/**
+ * 一个类上需要注入的成员(字段/方法)集合, 由注解驱动的后置处理器构建并按类缓存
+ *
+ * @Author: t13max
+ * @Since: 09:15 2026/10/17
+ */
+public class InjectionMetadata {
+
+	/**
+	 * 没有任何注入点的类共用的空元数据, 永不需要刷新
+	 */
+	public static final InjectionMetadata EMPTY = new InjectionMetadata(Object.class, Collections.emptyList()) {
+		@Override
+		protected boolean needsRefresh(Class<?> clazz) {
+			return false;
+		}
+		@Override
+		public void checkConfigMembers(RootBeanDefinition beanDefinition) {
+		}
+		@Override
+		public void inject(Object target, String beanName, PropertyValues pvs) {
+		}
+		@Override
+		public void clear(PropertyValues pvs) {
+		}
+	};
+
+
+	private final Class<?> targetClass;
+
+	private final Collection<InjectedElement> injectedElements;
+
+	// checkConfigMembers 之后只保留未被其他处理器登记过的成员
+	private volatile Set<InjectedElement> checkedElements;
+
+
+	public InjectionMetadata(Class<?> targetClass, Collection<InjectedElement> elements) {
+		this.targetClass = targetClass;
+		this.injectedElements = elements;
+	}
+
+
+	public Collection<InjectedElement> getInjectedElements() {
+		return Collections.unmodifiableCollection(this.injectedElements);
+	}
+
+	/**
+	 * 返回对给定属性值仍需注入的元素, 已由显式属性值覆盖的setter会被跳过
+	 */
+	public Collection<InjectedElement> getInjectedElements(PropertyValues pvs) {
+		return this.injectedElements.stream().filter(candidate -> candidate.shouldInject(pvs)).toList();
+	}
+
+	public boolean isEmpty() {
+		return this.injectedElements.isEmpty();
+	}
+
+	protected boolean needsRefresh(Class<?> clazz) {
+		return (this.targetClass != clazz);
+	}
+
+	public void checkConfigMembers(RootBeanDefinition beanDefinition) {
+		if (this.injectedElements.isEmpty()) {
+			this.checkedElements = Collections.emptySet();
+			return;
+		}
+		Set<InjectedElement> checkedElements = CollectionUtils.newLinkedHashSet(this.injectedElements.size());
+		for (InjectedElement element : this.injectedElements) {
+			Member member = element.getMember();
+			if (!beanDefinition.isExternallyManagedConfigMember(member)) {
+				beanDefinition.registerExternallyManagedConfigMember(member);
+				checkedElements.add(element);
+			}
+		}
+		this.checkedElements = checkedElements;
+	}
+
+	public void inject(Object target, String beanName, PropertyValues pvs) throws Throwable {
+		Collection<InjectedElement> checkedElements = this.checkedElements;
+		Collection<InjectedElement> elementsToIterate =
+				(checkedElements != null ? checkedElements : this.injectedElements);
+		for (InjectedElement element : elementsToIterate) {
+			element.inject(target, beanName, pvs);
+		}
+	}
+
+	/**
+	 * 清除属性跳过标记, 元数据刷新前调用
+	 */
+	public void clear(PropertyValues pvs) {
+		Collection<InjectedElement> checkedElements = this.checkedElements;
+		Collection<InjectedElement> elementsToIterate =
+				(checkedElements != null ? checkedElements : this.injectedElements);
+		for (InjectedElement element : elementsToIterate) {
+			element.clearPropertySkipping(pvs);
+		}
+	}
+
+
+	public static InjectionMetadata forElements(Collection<InjectedElement> elements, Class<?> clazz) {
+		return (elements.isEmpty() ? new InjectionMetadata(clazz, Collections.emptyList()) :
+				new InjectionMetadata(clazz, elements));
+	}
+
+	public static boolean needsRefresh(InjectionMetadata metadata, Class<?> clazz) {
+		return (metadata == null || metadata.needsRefresh(clazz));
+	}
+
+
+	/**
+	 * 单个注入点: 字段, 或带属性描述的setter/普通方法
+	 */
+	public abstract static class InjectedElement {
+
+		protected final Member member;
+
+		protected final boolean isField;
+
+		protected final PropertyDescriptor pd;
+
+		protected volatile Boolean skip;
+
+		protected InjectedElement(Member member, PropertyDescriptor pd) {
+			this.member = member;
+			this.isField = (member instanceof Field);
+			this.pd = pd;
+		}
+
+		public final Member getMember() {
+			return this.member;
+		}
+
+		protected final Class<?> getResourceType() {
+			if (this.isField) {
+				return ((Field) this.member).getType();
+			}
+			else if (this.pd != null) {
+				return this.pd.getPropertyType();
+			}
+			else {
+				return ((Method) this.member).getParameterTypes()[0];
+			}
+		}
+
+		protected final void checkResourceType(Class<?> resourceType) {
+			if (this.isField) {
+				Class<?> fieldType = ((Field) this.member).getType();
+				if (!(resourceType.isAssignableFrom(fieldType) || fieldType.isAssignableFrom(resourceType))) {
+					throw new IllegalStateException("Specified field type [" + fieldType +
+							"] is incompatible with resource type [" + resourceType.getName() + "]");
+				}
+			}
+			else {
+				Class<?> paramType =
+						(this.pd != null ? this.pd.getPropertyType() : ((Method) this.member).getParameterTypes()[0]);
+				if (!(resourceType.isAssignableFrom(paramType) || paramType.isAssignableFrom(resourceType))) {
+					throw new IllegalStateException("Specified parameter type [" + paramType +
+							"] is incompatible with resource type [" + resourceType.getName() + "]");
+				}
+			}
+		}
+
+		protected boolean shouldInject(PropertyValues pvs) {
+			if (this.isField) {
+				return true;
+			}
+			return !checkPropertySkipping(pvs);
+		}
+
+		/**
+		 * 默认按 getResourceToInject 的结果反射注入, 子类可自行解析依赖后覆盖
+		 */
+		protected void inject(Object target, String requestingBeanName, PropertyValues pvs) throws Throwable {
+			if (!shouldInject(pvs)) {
+				return;
+			}
+			if (this.isField) {
+				Field field = (Field) this.member;
+				ReflectionUtils.makeAccessible(field);
+				field.set(target, getResourceToInject(target, requestingBeanName));
+			}
+			else {
+				try {
+					Method method = (Method) this.member;
+					ReflectionUtils.makeAccessible(method);
+					method.invoke(target, getResourceToInject(target, requestingBeanName));
+				}
+				catch (InvocationTargetException ex) {
+					throw ex.getTargetException();
+				}
+			}
+		}
+
+		// 显式给出了同名属性值时跳过该setter, 结果按元素缓存
+		protected boolean checkPropertySkipping(PropertyValues pvs) {
+			Boolean skip = this.skip;
+			if (skip != null) {
+				return skip;
+			}
+			if (pvs == null) {
+				this.skip = false;
+				return false;
+			}
+			synchronized (pvs) {
+				skip = this.skip;
+				if (skip != null) {
+					return skip;
+				}
+				if (this.pd != null) {
+					if (pvs.contains(this.pd.getName())) {
+						this.skip = true;
+						return true;
+					}
+					else if (pvs instanceof MutablePropertyValues mpvs) {
+						mpvs.registerProcessedProperty(this.pd.getName());
+					}
+				}
+				this.skip = false;
+				return false;
+			}
+		}
+
+		protected void clearPropertySkipping(PropertyValues pvs) {
+			if (pvs == null) {
+				return;
+			}
+			synchronized (pvs) {
+				if (Boolean.FALSE.equals(this.skip) && this.pd != null && pvs instanceof MutablePropertyValues mpvs) {
+					mpvs.clearProcessedProperty(this.pd.getName());
+				}
+			}
+		}
+
+		protected Object getResourceToInject(Object target, String requestingBeanName) {
+			return null;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return (this == other || (other instanceof InjectedElement that && this.member.equals(that.member)));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.member.getClass().hashCode() * 29 + this.member.getName().hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return getClass().getSimpleName() + " for " + this.member;
+		}
+	}
+
+}
@@ -30,5 +30,7 @@ public interface ConfigurableListableBeanFactory extends ListableBeanFactory, Au
 
     boolean isConfigurationFrozen();
 
+    void preResolveBeanDefinitions();
+
     void preInstantiateSingletons() throws BeansException;
 }
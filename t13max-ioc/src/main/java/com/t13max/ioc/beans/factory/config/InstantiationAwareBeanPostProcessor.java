@@ -20,4 +20,9 @@ public interface InstantiationAwareBeanPostProcessor extends BeanPostProcessor {
 		return pvs;
 	}
 
+	// 对给定bean class是否可能修改属性, 返回false的处理器在原型bean的实例化计划里被跳过
+	default boolean requiresPropertyProcessing(Class<?> beanClass, String beanName) {
+		return true;
+	}
+
 }
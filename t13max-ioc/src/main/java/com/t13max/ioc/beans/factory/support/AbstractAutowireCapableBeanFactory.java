@@ -16,6 +16,7 @@ import java.lang.reflect.Modifier;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
 import java.util.function.Supplier;
 
 /**
@@ -49,7 +50,7 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
         ignoreDependencyInterface(BeanNameAware.class);
         ignoreDependencyInterface(BeanFactoryAware.class);
         ignoreDependencyInterface(BeanClassLoaderAware.class);
-        this.instantiationStrategy = new CglibSubclassingInstantiationStrategy();
+        this.instantiationStrategy = new MethodHandleInstantiationStrategy();
     }
 
     public AbstractAutowireCapableBeanFactory(BeanFactory parentBeanFactory) {
@@ -216,7 +217,7 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
     public Object applyBeanPostProcessorsBeforeInitialization(Object existingBean, String beanName) throws BeansException {
 
         Object result = existingBean;
-        for (BeanPostProcessor processor : getBeanPostProcessors()) {
+        for (BeanPostProcessor processor : getBeanPostProcessorCache().beforeInitialization) {
             Object current = processor.postProcessBeforeInitialization(result, beanName);
             if (current == null) {
                 return result;
@@ -231,7 +232,7 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
     public Object applyBeanPostProcessorsAfterInitialization(Object existingBean, String beanName) throws BeansException {
 
         Object result = existingBean;
-        for (BeanPostProcessor processor : getBeanPostProcessors()) {
+        for (BeanPostProcessor processor : getBeanPostProcessorCache().afterInitialization) {
             Object current = processor.postProcessAfterInitialization(result, beanName);
             if (current == null) {
                 return result;
@@ -336,6 +337,12 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
             mbd.resolvedTargetType = beanType;
         }
 
+        // 原型bean: 取首次创建时记录的计划, 处理器或bean class变化时作废
+        PrototypeInstantiationPlan plan = (mbd.isPrototype() ? mbd.prototypeInstantiationPlan : null);
+        if (plan != null && !plan.isValidFor(getBeanPostProcessorCache(), beanType)) {
+            plan = null;
+        }
+
         //调用后置处理器
         synchronized (mbd.postProcessingLock) {
             if (!mbd.postProcessed) {
@@ -363,7 +370,9 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
         Object exposedObject = bean;
         try {
             // 把生成的bean对象的依赖关系设置好,完成整个依赖注入过程
-            populateBean(beanName, mbd, instanceWrapper);
+            if (plan == null || plan.isPopulationRequired()) {
+                populateBean(beanName, mbd, instanceWrapper);
+            }
             //初始化bean对象
             exposedObject = initializeBean(beanName, exposedObject, mbd);
         } catch (Throwable ex) {
@@ -412,10 +421,54 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
         } catch (BeanDefinitionValidationException ex) {
             throw new BeanCreationException(mbd.getResourceDescription(), beanName, "Invalid destruction signature", ex);
         }
+        if (plan == null && mbd.isPrototype() && beanType != NullBean.class) {
+            mbd.prototypeInstantiationPlan = buildPrototypeInstantiationPlan(beanName, mbd, beanType);
+        }
         // 为应用返回所需要的实例对象
         return exposedObject;
     }
 
+    // 记录原型bean的实例化计划, 解析结果只依赖合并定义、bean class和当前的后置处理器
+    private PrototypeInstantiationPlan buildPrototypeInstantiationPlan(String beanName, RootBeanDefinition mbd, Class<?> beanClass) {
+        BeanPostProcessorCache bppCache = getBeanPostProcessorCache();
+        // 只保留对该bean class确实有事可做的属性处理器, 例如没有注入点时跳过AutowiredAnnotationBeanPostProcessor
+        List<InstantiationAwareBeanPostProcessor> propertyProcessors = new ArrayList<>(bppCache.propertyProcessing.size());
+        for (InstantiationAwareBeanPostProcessor bp : bppCache.propertyProcessing) {
+            if (bp.requiresPropertyProcessing(beanClass, beanName)) {
+                propertyProcessors.add(bp);
+            }
+        }
+        int resolvedAutowireMode = mbd.getResolvedAutowireMode();
+        boolean populationRequired = (mbd.hasPropertyValues() ||
+                resolvedAutowireMode == AUTOWIRE_BY_NAME || resolvedAutowireMode == AUTOWIRE_BY_TYPE ||
+                mbd.getDependencyCheck() != AbstractBeanDefinition.DEPENDENCY_CHECK_NONE ||
+                (!mbd.isSynthetic() && !bppCache.afterInstantiation.isEmpty()) ||
+                !propertyProcessors.isEmpty());
+        List<Method> initMethods = new ArrayList<>();
+        String[] initMethodNames = mbd.getInitMethodNames();
+        if (initMethodNames != null) {
+            boolean isInitializingBean = InitializingBean.class.isAssignableFrom(beanClass);
+            for (String initMethodName : initMethodNames) {
+                if (StringUtils.hasLength(initMethodName) &&
+                        !(isInitializingBean && "afterPropertiesSet".equals(initMethodName)) &&
+                        !mbd.hasAnyExternallyManagedInitMethod(initMethodName)) {
+                    Method initMethod;
+                    try {
+                        initMethod = resolveCustomInitMethod(beanName, beanClass, mbd, initMethodName);
+                    } catch (BeanDefinitionValidationException ex) {
+                        // 不可重放, 保持原有流程
+                        return null;
+                    }
+                    if (initMethod != null) {
+                        initMethods.add(initMethod);
+                    }
+                }
+            }
+        }
+        return new PrototypeInstantiationPlan(bppCache, beanClass, populationRequired,
+                List.copyOf(propertyProcessors), initMethods.toArray(new Method[0]));
+    }
+
     @Override
     protected Class<?> predictBeanType(String beanName, RootBeanDefinition mbd, Class<?>... typesToMatch) {
         Class<?> targetType = determineTargetType(beanName, mbd, typesToMatch);
@@ -692,15 +745,12 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 
     private FactoryBean<?> getSingletonFactoryBeanForTypeCheck(String beanName, RootBeanDefinition mbd) {
         Boolean lockFlag = isCurrentThreadAllowedToHoldSingletonLock();
-        if (lockFlag == null) {
-            this.singletonLock.lock();
-        } else {
-            boolean locked = (lockFlag && this.singletonLock.tryLock());
-            if (!locked) {
-                // Avoid shortcut FactoryBean instance but allow for subsequent type-based resolution.
-                resolveBeanClass(mbd, beanName);
-                return null;
-            }
+        Lock lock = getSingletonLock(beanName);
+        boolean locked = (lockFlag == null ? lockSingleton(beanName, lock) : (lockFlag && lock.tryLock()));
+        if (!locked) {
+            // Avoid shortcut FactoryBean instance but allow for subsequent type-based resolution.
+            resolveBeanClass(mbd, beanName);
+            return null;
         }
 
         try {
@@ -750,7 +800,7 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 
             return getFactoryBean(beanName, instance);
         } finally {
-            this.singletonLock.unlock();
+            lock.unlock();
         }
     }
 
@@ -1003,7 +1053,7 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
         // state of the bean before properties are set. This can be used, for example,
         // to support styles of field injection.
         if (!mbd.isSynthetic() && hasInstantiationAwareBeanPostProcessors()) {
-            for (InstantiationAwareBeanPostProcessor bp : getBeanPostProcessorCache().instantiationAware) {
+            for (InstantiationAwareBeanPostProcessor bp : getBeanPostProcessorCache().afterInstantiation) {
                 if (!bp.postProcessAfterInstantiation(bw.getWrappedInstance(), beanName)) {
                     return;
                 }
@@ -1029,11 +1079,16 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
             }
             pvs = newPvs;
         }
-        if (hasInstantiationAwareBeanPostProcessors()) {
+        BeanPostProcessorCache bppCache = getBeanPostProcessorCache();
+        PrototypeInstantiationPlan plan = mbd.prototypeInstantiationPlan;
+        List<InstantiationAwareBeanPostProcessor> propertyProcessors =
+                (plan != null && plan.isValidFor(bppCache, bw.getWrappedClass()) ?
+                        plan.getPropertyProcessors() : bppCache.propertyProcessing);
+        if (!propertyProcessors.isEmpty()) {
             if (pvs == null) {
                 pvs = mbd.getPropertyValues();
             }
-            for (InstantiationAwareBeanPostProcessor bp : getBeanPostProcessorCache().instantiationAware) {
+            for (InstantiationAwareBeanPostProcessor bp : propertyProcessors) {
                 PropertyValues pvsToUse = bp.postProcessProperties(pvs, bw.getWrappedInstance(), beanName);
                 if (pvsToUse == null) {
                     return;
@@ -1353,6 +1408,19 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
             ((InitializingBean) bean).afterPropertiesSet();
         }
 
+        PrototypeInstantiationPlan plan = (mbd != null ? mbd.prototypeInstantiationPlan : null);
+        if (plan != null && plan.isInitMethodsValidFor(bean.getClass())) {
+            // 重放已解析的init方法
+            for (Method initMethod : plan.getInitMethods()) {
+                try {
+                    initMethod.invoke(bean);
+                } catch (InvocationTargetException ex) {
+                    throw ex.getTargetException();
+                }
+            }
+            return;
+        }
+
         if (mbd != null && bean.getClass() != NullBean.class) {
             String[] initMethodNames = mbd.getInitMethodNames();
             if (initMethodNames != null) {
@@ -1370,8 +1438,23 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 
     protected void invokeCustomInitMethod(String beanName, Object bean, RootBeanDefinition mbd, String initMethodName) throws Throwable {
 
+        Method methodToInvoke = resolveCustomInitMethod(beanName, bean.getClass(), mbd, initMethodName);
+        if (methodToInvoke == null) {
+            return;
+        }
+
+        try {
+            // 反射调用
+            methodToInvoke.invoke(bean);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+
+    // 解析自定义init方法, 不存在且不强制时返回null
+    private Method resolveCustomInitMethod(String beanName, Class<?> beanClass, RootBeanDefinition mbd, String initMethodName) {
+
         // 获取 initMethod 名称
-        Class<?> beanClass = bean.getClass();
         MethodDescriptor descriptor = MethodDescriptor.create(beanName, beanClass, initMethodName);
         String methodName = descriptor.methodName();
 
@@ -1389,7 +1472,7 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
                     logger.trace("No default init method named '" + methodName + "' found on bean with name '" + beanName + "'");
                 }
                 // Ignore non-existent default lifecycle methods.
-                return;
+                return null;
             }
         }
 
@@ -1398,14 +1481,8 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
         }
         // 尝试获取接口方法
         Method methodToInvoke = ClassUtils.getPubliclyAccessibleMethodIfPossible(initMethod, beanClass);
-
-        try {
-            // 反射调用
-            ReflectionUtils.makeAccessible(methodToInvoke);
-            methodToInvoke.invoke(bean);
-        } catch (InvocationTargetException ex) {
-            throw ex.getTargetException();
-        }
+        ReflectionUtils.makeAccessible(methodToInvoke);
+        return methodToInvoke;
     }
 
 
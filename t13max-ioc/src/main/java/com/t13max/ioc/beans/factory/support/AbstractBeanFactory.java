@@ -812,10 +812,25 @@ public abstract class AbstractBeanFactory extends FactoryBeanRegistrySupport imp
             if (bppCache == null) {
                 bppCache = new BeanPostProcessorCache();
                 for (BeanPostProcessor bpp : this.beanPostProcessors) {
+                    if (overrides(bpp, BeanPostProcessor.class, "postProcessBeforeInitialization", Object.class, String.class)) {
+                        bppCache.beforeInitialization.add(bpp);
+                    }
+                    if (overrides(bpp, BeanPostProcessor.class, "postProcessAfterInitialization", Object.class, String.class)) {
+                        bppCache.afterInitialization.add(bpp);
+                    }
                     if (bpp instanceof InstantiationAwareBeanPostProcessor instantiationAwareBpp) {
                         bppCache.instantiationAware.add(instantiationAwareBpp);
+                        if (overrides(bpp, InstantiationAwareBeanPostProcessor.class, "postProcessAfterInstantiation", Object.class, String.class)) {
+                            bppCache.afterInstantiation.add(instantiationAwareBpp);
+                        }
+                        if (overrides(bpp, InstantiationAwareBeanPostProcessor.class, "postProcessProperties", PropertyValues.class, Object.class, String.class)) {
+                            bppCache.propertyProcessing.add(instantiationAwareBpp);
+                        }
                         if (bpp instanceof SmartInstantiationAwareBeanPostProcessor smartInstantiationAwareBpp) {
                             bppCache.smartInstantiationAware.add(smartInstantiationAwareBpp);
+                            if (!isTypePreserving(smartInstantiationAwareBpp)) {
+                                bppCache.typePreserving = false;
+                            }
                         }
                     }
                     if (bpp instanceof DestructionAwareBeanPostProcessor destructionAwareBpp) {
@@ -831,6 +846,26 @@ public abstract class AbstractBeanFactory extends FactoryBeanRegistrySupport imp
         }
     }
 
+    // 未覆盖predictBeanType的处理器不会改变bean的预测类型
+    // 提前暴露或初始化后换成其他类型实例的bean由DefaultListableBeanFactory单独移出类型索引
+    private static boolean isTypePreserving(SmartInstantiationAwareBeanPostProcessor bpp) {
+        try {
+            return (bpp.getClass().getMethod("predictBeanType", Class.class, String.class).getDeclaringClass() ==
+                    SmartInstantiationAwareBeanPostProcessor.class);
+        } catch (NoSuchMethodException ex) {
+            return false;
+        }
+    }
+
+    // 接口默认实现原样返回bean, 未覆盖该方法的处理器可以直接跳过
+    private static boolean overrides(BeanPostProcessor bpp, Class<?> ifc, String methodName, Class<?>... parameterTypes) {
+        try {
+            return (bpp.getClass().getMethod(methodName, parameterTypes).getDeclaringClass() != ifc);
+        } catch (NoSuchMethodException ex) {
+            return true;
+        }
+    }
+
     private void resetBeanPostProcessorCache() {
         synchronized (this.beanPostProcessors) {
             this.beanPostProcessorCache = null;
@@ -991,6 +1026,21 @@ public abstract class AbstractBeanFactory extends FactoryBeanRegistrySupport imp
                 bean, beanName, mbd, getBeanPostProcessorCache().destructionAware).destroy();
     }
 
+    @Override
+    public void destroySingletons() {
+        super.destroySingletons();
+        // 自身需要销毁的作用域(如对象池作用域)随容器一起关闭
+        for (Scope scope : this.scopes.values()) {
+            if (scope instanceof DisposableBean disposableScope) {
+                try {
+                    disposableScope.destroy();
+                } catch (Throwable ex) {
+                    logger.warn("Destruction of scope [" + scope + "] failed", ex);
+                }
+            }
+        }
+    }
+
     @Override
     public void destroyScopedBean(String beanName) {
         RootBeanDefinition mbd = getMergedLocalBeanDefinition(beanName);
@@ -1199,6 +1249,7 @@ public abstract class AbstractBeanFactory extends FactoryBeanRegistrySupport imp
         RootBeanDefinition bd = this.mergedBeanDefinitions.get(beanName);
         if (bd != null) {
             bd.stale = true;
+            bd.prototypeInstantiationPlan = null;
         }
     }
 
@@ -1604,6 +1655,18 @@ public abstract class AbstractBeanFactory extends FactoryBeanRegistrySupport imp
         final List<DestructionAwareBeanPostProcessor> destructionAware = new ArrayList<>();
 
         final List<MergedBeanDefinitionPostProcessor> mergedDefinition = new ArrayList<>();
+
+        // 以下只包含真正覆盖了对应回调的处理器
+        final List<BeanPostProcessor> beforeInitialization = new ArrayList<>();
+
+        final List<BeanPostProcessor> afterInitialization = new ArrayList<>();
+
+        final List<InstantiationAwareBeanPostProcessor> afterInstantiation = new ArrayList<>();
+
+        final List<InstantiationAwareBeanPostProcessor> propertyProcessing = new ArrayList<>();
+
+        // 没有处理器会预测出与bean class不同的类型
+        boolean typePreserving = true;
     }
 
 
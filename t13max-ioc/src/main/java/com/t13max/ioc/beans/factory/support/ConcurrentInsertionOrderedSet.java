@@ -0,0 +1,117 @@
+package com.t13max.ioc.beans.factory.support;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 保持插入顺序的并发Set, 代替 synchronized LinkedHashSet
+ * 每个元素分配递增序号, 成员判断走ConcurrentHashMap, 遍历按序号走ConcurrentSkipListMap, 读写都不加锁
+ * 迭代器是弱一致的, 与并发修改同时进行时不会抛ConcurrentModificationException
+ *
+ * @Author: t13max
+ * @Since: 20:30 2026/10/17
+ */
+final class ConcurrentInsertionOrderedSet<E> extends AbstractSet<E> {
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final ConcurrentHashMap<E, Long> positions = new ConcurrentHashMap<>(8);
+
+    private final ConcurrentSkipListMap<Long, E> elements = new ConcurrentSkipListMap<>();
+
+
+    @Override
+    public boolean add(E element) {
+        if (this.positions.containsKey(element)) {
+            return false;
+        }
+        Long position = this.sequence.incrementAndGet();
+        // 先放入有序表再登记位置, remove看到位置时有序表里一定已有对应条目
+        this.elements.put(position, element);
+        if (this.positions.putIfAbsent(element, position) != null) {
+            this.elements.remove(position);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object element) {
+        Long position = this.positions.remove(element);
+        if (position == null) {
+            return false;
+        }
+        this.elements.remove(position);
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object element) {
+        return this.positions.containsKey(element);
+    }
+
+    @Override
+    public int size() {
+        return this.positions.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.positions.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+        for (E element : this.positions.keySet()) {
+            remove(element);
+        }
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        Iterator<Map.Entry<Long, E>> iterator = this.elements.entrySet().iterator();
+        return new Iterator<>() {
+
+            private E next;
+
+            private E last;
+
+            @Override
+            public boolean hasNext() {
+                while (this.next == null && iterator.hasNext()) {
+                    Map.Entry<Long, E> entry = iterator.next();
+                    // 跳过add竞争失败后尚未撤回的条目
+                    if (entry.getKey().equals(positions.get(entry.getValue()))) {
+                        this.next = entry.getValue();
+                    }
+                }
+                return (this.next != null);
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                this.last = this.next;
+                this.next = null;
+                return this.last;
+            }
+
+            @Override
+            public void remove() {
+                if (this.last == null) {
+                    throw new IllegalStateException();
+                }
+                ConcurrentInsertionOrderedSet.this.remove(this.last);
+                this.last = null;
+            }
+        };
+    }
+
+}
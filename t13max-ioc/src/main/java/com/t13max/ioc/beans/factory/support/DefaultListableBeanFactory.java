@@ -1,6 +1,8 @@
 package com.t13max.ioc.beans.factory.support;
 
+import com.t13max.ioc.beans.BeanUtils;
 import com.t13max.ioc.beans.BeansException;
+import com.t13max.ioc.beans.PropertyValue;
 import com.t13max.ioc.beans.TypeConverter;
 import com.t13max.ioc.beans.factory.*;
 import com.t13max.ioc.beans.factory.InjectionPoint;
@@ -17,12 +19,21 @@ import java.io.*;
 import java.lang.annotation.Annotation;
 import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
+import java.lang.reflect.Type;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -36,6 +47,11 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 
     public static final String STRICT_LOCKING_PROPERTY_NAME = "spring.locking.strict";
 
+    public static final String PARALLEL_PRE_INSTANTIATION_PROPERTY_NAME = "spring.preinstantiation.parallel";
+
+    // 待解析的定义少于该数量时串行解析, 不值得起线程
+    private static final int PARALLEL_PRE_RESOLUTION_THRESHOLD = 32;
+
     private static Class<?> jakartaInjectProviderClass;
 
     static {
@@ -59,6 +75,8 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 
     private Executor bootstrapExecutor;
 
+    private boolean parallelPreInstantiation = SpringProperties.getFlag(PARALLEL_PRE_INSTANTIATION_PROPERTY_NAME);
+
     private Comparator<Object> dependencyComparator;
 
     private AutowireCandidateResolver autowireCandidateResolver = SimpleAutowireCandidateResolver.INSTANCE;
@@ -74,6 +92,15 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
     private final Map<Class<?>, String[]> allBeanNamesByType = new ConcurrentHashMap<>(64);
 
     private final Map<Class<?>, String[]> singletonBeanNamesByType = new ConcurrentHashMap<>(64);
+
+    // 配置冻结后单值依赖的解析结果: (依赖描述, 请求方) -> 胜出的beanName, 与按类型缓存同时失效
+    private final transient Map<ResolvedDependencyKey, ResolvedDependency> resolvedDependencyCache = new ConcurrentHashMap<>(256);
+
+    // 每次按类型缓存失效时递增, ObjectProvider据此判断绑定的bean是否仍然有效
+    private final AtomicLong beanRegistryGeneration = new AtomicLong();
+
+    // 配置冻结后Collection/List/Set/Map注入的已排序不可变快照, 同类型同注解的注入点共享
+    private final transient Map<MultipleBeanKey, MultipleBeanSnapshot> multipleBeanSnapshotCache = new ConcurrentHashMap<>(64);
     //按注册顺序排列的beanDefinition名称列表
     private volatile List<String> beanDefinitionNames = new ArrayList<>(256);
     //
@@ -83,6 +110,22 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 
     private volatile boolean configurationFrozen;
 
+    // 类型索引: 原始类型(含父类和接口) -> 注册顺序 -> beanName, 只收录类型可由bean class静态确定的定义
+    private final transient Map<Class<?>, NavigableMap<Long, String>> beanNamesByIndexedType = new ConcurrentHashMap<>(256);
+
+    private final transient Map<String, IndexedBeanType> beanTypeIndexEntries = new ConcurrentHashMap<>(256);
+
+    // 类型无法静态确定的定义(按注册顺序), 查询时总是参与完整匹配
+    private final transient NavigableMap<Long, String> unindexedBeanNames = new ConcurrentSkipListMap<>();
+
+    // 按原始类型合并好的候选名单, 索引有任何变化时整体清空
+    private final transient Map<Class<?>, List<String>> beanTypeIndexCandidates = new ConcurrentHashMap<>(256);
+
+    private long beanTypeIndexSequence;
+
+    // BeanFactoryPostProcessor执行完之前定义仍可能被修改, 由clearMetadataCache启用索引
+    private volatile boolean beanTypeIndexActive;
+
     private volatile String mainThreadPrefix;
 
     private final NamedThreadLocal<PreInstantiation> preInstantiationThread =
@@ -136,8 +179,20 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
         return this.bootstrapExecutor;
     }
 
+    /**
+     * 按依赖图并行预实例化单例, 使用bootstrapExecutor, 未配置时使用虚拟线程
+     */
+    public void setParallelPreInstantiation(boolean parallelPreInstantiation) {
+        this.parallelPreInstantiation = parallelPreInstantiation;
+    }
+
+    public boolean isParallelPreInstantiation() {
+        return this.parallelPreInstantiation;
+    }
+
     public void setDependencyComparator(Comparator<Object> dependencyComparator) {
         this.dependencyComparator = dependencyComparator;
+        this.multipleBeanSnapshotCache.clear();
     }
 
     public Comparator<Object> getDependencyComparator() {
@@ -150,6 +205,8 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
             beanFactoryAware.setBeanFactory(this);
         }
         this.autowireCandidateResolver = autowireCandidateResolver;
+        this.resolvedDependencyCache.clear();
+        this.multipleBeanSnapshotCache.clear();
     }
 
     public AutowireCandidateResolver getAutowireCandidateResolver() {
@@ -239,15 +296,42 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
     @Override
     public <T> ObjectProvider<T> getBeanProvider(ResolvableType requiredType, boolean allowEagerInit) {
         return new BeanObjectProvider<>() {
+
+            private transient volatile ProviderBinding binding;
+
             @Override
             public T getObject() throws BeansException {
-                T resolved = resolveBean(requiredType, null, false);
+                T resolved = resolveBoundBean(false);
                 if (resolved == null) {
                     throw new NoSuchBeanDefinitionException(requiredType);
                 }
                 return resolved;
             }
 
+            // 配置冻结后绑定到首次解析出的bean: 单例直接返回持有的实例, 其他作用域按名称getBean, 不再按类型查找
+            @SuppressWarnings("unchecked")
+            private T resolveBoundBean(boolean nonUniqueAsNull) {
+                ProviderBinding binding = this.binding;
+                if (binding != null && binding.generation() == beanRegistryGeneration.get()) {
+                    if (binding.singletonInstance() != null) {
+                        return (T) binding.singletonInstance();
+                    }
+                    NamedBeanHolder<T> namedBean = resolveNamedBean(binding.beanName(), requiredType, null);
+                    return (namedBean != null ? namedBean.getBeanInstance() : null);
+                }
+                if (!configurationFrozen) {
+                    return resolveBean(requiredType, null, nonUniqueAsNull);
+                }
+                long generation = beanRegistryGeneration.get();
+                NamedBeanHolder<T> namedBean = resolveNamedBean(requiredType, null, nonUniqueAsNull);
+                if (namedBean == null) {
+                    return resolveBean(requiredType, null, nonUniqueAsNull);
+                }
+                String beanName = namedBean.getBeanName();
+                this.binding = new ProviderBinding(generation, beanName, (isSingleton(beanName) ? namedBean.getBeanInstance() : null));
+                return namedBean.getBeanInstance();
+            }
+
             @Override
             public T getObject(Object... args) throws BeansException {
                 T resolved = resolveBean(requiredType, args, false);
@@ -260,7 +344,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
             @Override
             public T getIfAvailable() throws BeansException {
                 try {
-                    return resolveBean(requiredType, null, false);
+                    return resolveBoundBean(false);
                 } catch (ScopeNotActiveException ex) {
                     // Ignore resolved bean in non-active scope
                     return null;
@@ -282,7 +366,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
             @Override
             public T getIfUnique() throws BeansException {
                 try {
-                    return resolveBean(requiredType, null, true);
+                    return resolveBoundBean(true);
                 } catch (ScopeNotActiveException ex) {
                     // Ignore resolved bean in non-active scope
                     return null;
@@ -422,7 +506,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
         List<String> result = new ArrayList<>();
 
         // Check all bean definitions.
-        for (String beanName : this.beanDefinitionNames) {
+        for (String beanName : getBeanNamesForTypeCandidates(type)) {
             // Only consider bean as eligible if the bean name is not defined as alias for some other bean.
             if (!isAlias(beanName)) {
                 try {
@@ -505,6 +589,47 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
         return StringUtils.toStringArray(result);
     }
 
+    /**
+     * 需要做完整类型匹配的beanName, 保持注册顺序
+     * 索引可用时只返回索引中该原始类型下的定义和类型无法预测的定义, 否则返回全部定义
+     */
+    private Collection<String> getBeanNamesForTypeCandidates(ResolvableType type) {
+        Class<?> rawType = type.resolve();
+        if (rawType == null || !this.beanTypeIndexActive || !getBeanPostProcessorCache().typePreserving) {
+            return this.beanDefinitionNames;
+        }
+        List<String> candidates = this.beanTypeIndexCandidates.get(rawType);
+        if (candidates == null) {
+            // 与索引的修改互斥, 避免把修改前合并的名单放进已清空的缓存
+            synchronized (this.beanTypeIndexEntries) {
+                candidates = this.beanTypeIndexCandidates.computeIfAbsent(rawType, key ->
+                        mergeInRegistrationOrder(this.beanNamesByIndexedType.get(key), this.unindexedBeanNames));
+            }
+        }
+        return candidates;
+    }
+
+    private static List<String> mergeInRegistrationOrder(NavigableMap<Long, String> indexed, NavigableMap<Long, String> unindexed) {
+        if (indexed == null || indexed.isEmpty()) {
+            return List.copyOf(unindexed.values());
+        }
+        List<String> merged = new ArrayList<>(indexed.size() + unindexed.size());
+        Iterator<Map.Entry<Long, String>> left = indexed.entrySet().iterator();
+        Iterator<Map.Entry<Long, String>> right = unindexed.entrySet().iterator();
+        Map.Entry<Long, String> l = left.next();
+        Map.Entry<Long, String> r = (right.hasNext() ? right.next() : null);
+        while (l != null || r != null) {
+            if (r == null || (l != null && l.getKey() < r.getKey())) {
+                merged.add(l.getValue());
+                l = (left.hasNext() ? left.next() : null);
+            } else {
+                merged.add(r.getValue());
+                r = (right.hasNext() ? right.next() : null);
+            }
+        }
+        return Collections.unmodifiableList(merged);
+    }
+
     private boolean isSingleton(String beanName, RootBeanDefinition mbd, BeanDefinitionHolder dbd) {
         return (dbd != null ? mbd.isSingleton() : isSingleton(beanName));
     }
@@ -681,6 +806,8 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
                         "] does not implement specified dependency type [" + dependencyType.getName() + "]");
             }
             this.resolvableDependencies.put(dependencyType, autowiredValue);
+            this.resolvedDependencyCache.clear();
+            this.multipleBeanSnapshotCache.clear();
         }
     }
 
@@ -760,6 +887,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
         super.clearMetadataCache();
         this.mergedBeanDefinitionHolders.clear();
         clearByTypeCache();
+        rebuildBeanTypeIndex();
     }
 
     @Override
@@ -817,6 +945,11 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
         }
     }
 
+    @Override
+    protected boolean isCurrentThreadInParallelPreInstantiation() {
+        return (this.preInstantiationThread.get() == PreInstantiation.PARALLEL);
+    }
+
     @Override
     protected Boolean isCurrentThreadAllowedToHoldSingletonLock() {
         String mainThreadPrefix = this.mainThreadPrefix;
@@ -828,10 +961,10 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
             if (preInstantiation != null) {
                 // A Spring-managed bootstrap thread:
                 // MAIN is allowed to lock (true) or even forced to lock (null),
-                // BACKGROUND is never allowed to lock (false).
+                // BACKGROUND and PARALLEL are never allowed to lock (false).
                 return switch (preInstantiation) {
                     case MAIN -> (Boolean.TRUE.equals(this.strictLocking) ? null : true);
-                    case BACKGROUND -> false;
+                    case BACKGROUND, PARALLEL -> false;
                 };
             }
 
@@ -854,6 +987,80 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
         return null;
     }
 
+    /**
+     * 合并所有bean定义并解析目标类型, 在BeanFactoryPostProcessor执行完后调用, 之后的按类型查找直接命中合并定义上的缓存
+     * 合并本身在锁内串行; 类加载和工厂方法返回类型的解析并行: 先处理普通类和静态工厂方法,
+     * 再处理工厂bean类型已知且不是FactoryBean的实例工厂方法(如@Bean), 解析过程不会创建任何bean
+     * 这里只记录目标类型, 不应用SmartInstantiationAwareBeanPostProcessor的预测, 此时它们还没注册
+     */
+    @Override
+    public void preResolveBeanDefinitions() {
+        if (getTempClassLoader() != null) {
+            // 类型匹配用临时类加载器时目标类型不缓存
+            return;
+        }
+        List<String> beanNames = new ArrayList<>(this.beanDefinitionNames);
+        Map<String, RootBeanDefinition> classBased = new LinkedHashMap<>();
+        Map<String, RootBeanDefinition> instanceFactoryBased = new LinkedHashMap<>();
+        for (String beanName : beanNames) {
+            RootBeanDefinition mbd;
+            try {
+                mbd = getMergedLocalBeanDefinition(beanName);
+            } catch (BeansException ex) {
+                // 错误留到真正使用时再抛出
+                logger.trace("Skipping eager merge of bean definition '" + beanName + "'", ex);
+                continue;
+            }
+            if (!mbd.isAbstract() && mbd.getTargetType() == null) {
+                (mbd.getFactoryBeanName() != null ? instanceFactoryBased : classBased).put(beanName, mbd);
+            }
+        }
+        resolveTargetTypes(classBased);
+        instanceFactoryBased.entrySet().removeIf(entry -> !isResolvedPlainBean(entry.getValue().getFactoryBeanName()));
+        resolveTargetTypes(instanceFactoryBased);
+    }
+
+    private boolean isResolvedPlainBean(String beanName) {
+        String canonicalName = canonicalName(beanName);
+        if (!containsBeanDefinition(canonicalName)) {
+            return false;
+        }
+        try {
+            Class<?> targetType = getMergedLocalBeanDefinition(canonicalName).getTargetType();
+            return (targetType != null && !FactoryBean.class.isAssignableFrom(targetType));
+        } catch (BeansException ex) {
+            return false;
+        }
+    }
+
+    private void resolveTargetTypes(Map<String, RootBeanDefinition> definitions) {
+        if (definitions.size() < PARALLEL_PRE_RESOLUTION_THRESHOLD) {
+            definitions.forEach(this::resolveTargetType);
+            return;
+        }
+        Executor executor = getBootstrapExecutor();
+        ExecutorService virtualThreads = (executor == null ? Executors.newVirtualThreadPerTaskExecutor() : null);
+        try {
+            List<CompletableFuture<?>> futures = new ArrayList<>(definitions.size());
+            definitions.forEach((beanName, mbd) -> futures.add(CompletableFuture.runAsync(
+                    () -> resolveTargetType(beanName, mbd), (executor != null ? executor : virtualThreads))));
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        } finally {
+            if (virtualThreads != null) {
+                virtualThreads.shutdown();
+            }
+        }
+    }
+
+    private void resolveTargetType(String beanName, RootBeanDefinition mbd) {
+        try {
+            determineTargetType(beanName, mbd);
+        } catch (Throwable ex) {
+            // 解析失败的定义按原来的方式在使用时再解析
+            logger.trace("Skipping eager type resolution of bean '" + beanName + "'", ex);
+        }
+    }
+
     @Override
     public void preInstantiateSingletons() throws BeansException {
         if (logger.isTraceEnabled()) {
@@ -870,12 +1077,16 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
         this.preInstantiationThread.set(PreInstantiation.MAIN);
         this.mainThreadPrefix = getThreadNamePrefix();
         try {
-            for (String beanName : beanNames) {
-                RootBeanDefinition mbd = getMergedLocalBeanDefinition(beanName);
-                if (!mbd.isAbstract() && mbd.isSingleton()) {
-                    CompletableFuture<?> future = preInstantiateSingleton(beanName, mbd);
-                    if (future != null) {
-                        futures.add(future);
+            if (this.parallelPreInstantiation) {
+                preInstantiateSingletonsInParallel(beanNames, futures);
+            } else {
+                for (String beanName : beanNames) {
+                    RootBeanDefinition mbd = getMergedLocalBeanDefinition(beanName);
+                    if (!mbd.isAbstract() && mbd.isSingleton()) {
+                        CompletableFuture<?> future = preInstantiateSingleton(beanName, mbd);
+                        if (future != null) {
+                            futures.add(future);
+                        }
                     }
                 }
             }
@@ -935,6 +1146,10 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
             try {
                 instantiateSingleton(beanName);
             } catch (BeanCurrentlyInCreationException ex) {
+                if (this.preInstantiationThread.get() == PreInstantiation.PARALLEL) {
+                    // 并行线程不跳过, 交给依赖图推迟到主线程
+                    throw ex;
+                }
                 logger.info("Bean '" + beanName + "' marked for pre-instantiation (not lazy-init) " +
                         "but currently initialized by other thread - skipping it in mainline thread");
             }
@@ -942,6 +1157,170 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
         return null;
     }
 
+    private void preInstantiateSingletonsInParallel(List<String> beanNames, List<CompletableFuture<?>> futures) {
+        List<String> eagerBeanNames = new ArrayList<>();
+        for (String beanName : beanNames) {
+            RootBeanDefinition mbd = getMergedLocalBeanDefinition(beanName);
+            if (!mbd.isAbstract() && mbd.isSingleton()) {
+                if (mbd.isLazyInit()) {
+                    // 延迟初始化的bean在这里最多启动后台初始化, 不进依赖图
+                    preInstantiateSingleton(beanName, mbd);
+                } else {
+                    eagerBeanNames.add(beanName);
+                }
+            }
+        }
+        // 建图期间同一依赖类型只查一次候选
+        Map<Class<?>, Set<String>> candidatesByType = new HashMap<>();
+        SingletonInstantiationGraph graph = new SingletonInstantiationGraph(eagerBeanNames,
+                beanName -> resolvePreInstantiationDependencies(beanName, candidatesByType));
+
+        Executor executor = getBootstrapExecutor();
+        ExecutorService virtualThreads = (executor == null ? Executors.newVirtualThreadPerTaskExecutor() : null);
+        Queue<CompletableFuture<?>> parallelFutures = new ConcurrentLinkedQueue<>();
+        try {
+            graph.execute((executor != null ? executor : virtualThreads),
+                    beanName -> preInstantiateSingletonInParallelThread(beanName, parallelFutures),
+                    ex -> ex instanceof BeansException beansException &&
+                            beansException.contains(BeanCurrentlyInCreationException.class));
+        } finally {
+            if (virtualThreads != null) {
+                virtualThreads.shutdown();
+            }
+        }
+
+        // 环上的bean和与其他线程冲突的bean回到主线程按原顺序创建
+        Set<String> remaining = new HashSet<>(graph.getCyclicBeanNames());
+        remaining.addAll(graph.getDeferredBeanNames());
+        futures.addAll(parallelFutures);
+        for (String beanName : eagerBeanNames) {
+            if (remaining.contains(beanName)) {
+                CompletableFuture<?> future = preInstantiateSingleton(beanName, getMergedLocalBeanDefinition(beanName));
+                if (future != null) {
+                    futures.add(future);
+                }
+            }
+        }
+        if (logger.isInfoEnabled()) {
+            logger.info("Pre-instantiated " + graph.report() +
+                    (remaining.isEmpty() ? "" : ", " + remaining.size() + " on main thread"));
+        }
+    }
+
+    /**
+     * 预实例化依赖图的边, 只是调度提示: depends-on、构造参数和属性中的bean引用、
+     * 候选构造器的参数类型、以及MergedBeanDefinitionPostProcessor登记的注入字段和方法
+     */
+    private Set<String> resolvePreInstantiationDependencies(String beanName, Map<Class<?>, Set<String>> candidatesByType) {
+        Set<String> dependencies = new LinkedHashSet<>();
+        try {
+            RootBeanDefinition mbd = getMergedLocalBeanDefinition(beanName);
+            String[] dependsOn = mbd.getDependsOn();
+            if (dependsOn != null) {
+                for (String dep : dependsOn) {
+                    dependencies.add(canonicalName(dep));
+                }
+            }
+            if (mbd.getFactoryBeanName() != null) {
+                dependencies.add(canonicalName(mbd.getFactoryBeanName()));
+            }
+            for (ConstructorArgumentValues.ValueHolder valueHolder : mbd.getConstructorArgumentValues().getIndexedArgumentValues().values()) {
+                addReferencedBeanName(valueHolder.getValue(), dependencies);
+            }
+            for (ConstructorArgumentValues.ValueHolder valueHolder : mbd.getConstructorArgumentValues().getGenericArgumentValues()) {
+                addReferencedBeanName(valueHolder.getValue(), dependencies);
+            }
+            for (PropertyValue pv : mbd.getPropertyValues().getPropertyValueList()) {
+                addReferencedBeanName(pv.getValue(), dependencies);
+            }
+            if (mbd.getFactoryMethodName() != null) {
+                return dependencies;
+            }
+            Class<?> beanClass = resolveBeanClass(mbd, beanName);
+            if (beanClass == null || FactoryBean.class.isAssignableFrom(beanClass)) {
+                return dependencies;
+            }
+            Constructor<?>[] ctors = determineConstructorsFromBeanPostProcessors(beanClass, beanName);
+            if (ctors == null && beanClass.getDeclaredConstructors().length == 1) {
+                ctors = beanClass.getDeclaredConstructors();
+            }
+            if (ctors != null) {
+                for (Constructor<?> ctor : ctors) {
+                    for (int i = 0; i < ctor.getParameterCount(); i++) {
+                        addBeanNamesForDependencyType(ResolvableType.forConstructorParameter(ctor, i), dependencies, candidatesByType);
+                    }
+                }
+            }
+            // 提前执行合并定义的后置处理(与doCreateBean中相同), 以拿到注解注入点
+            synchronized (mbd.postProcessingLock) {
+                if (!mbd.postProcessed) {
+                    applyMergedBeanDefinitionPostProcessors(mbd, beanClass, beanName);
+                    mbd.markAsPostProcessed();
+                }
+            }
+            for (Member member : mbd.getExternallyManagedConfigMembers()) {
+                if (member instanceof Field field) {
+                    addBeanNamesForDependencyType(ResolvableType.forField(field), dependencies, candidatesByType);
+                } else if (member instanceof Method method) {
+                    for (int i = 0; i < method.getParameterCount(); i++) {
+                        addBeanNamesForDependencyType(ResolvableType.forMethodParameter(method, i), dependencies, candidatesByType);
+                    }
+                }
+            }
+        } catch (BeansException | LinkageError ex) {
+            // 推断失败只会少几条边, 创建时由getBean按需解决
+            logger.trace(LogMessage.format("Failed to determine dependencies of bean '%s'", beanName), ex);
+        }
+        return dependencies;
+    }
+
+    private void addReferencedBeanName(Object value, Set<String> dependencies) {
+        if (value instanceof RuntimeBeanReference reference && !reference.isToParent()) {
+            dependencies.add(canonicalName(reference.getBeanName()));
+        } else if (value instanceof BeanDefinitionHolder holder) {
+            dependencies.add(canonicalName(holder.getBeanName()));
+        }
+    }
+
+    private void addBeanNamesForDependencyType(ResolvableType type, Set<String> dependencies,
+                                               Map<Class<?>, Set<String>> candidatesByType) {
+        Class<?> rawType = type.resolve();
+        if (rawType == null || ObjectFactory.class.isAssignableFrom(rawType) ||
+                (jakartaInjectProviderClass != null && jakartaInjectProviderClass == rawType)) {
+            // 延迟获取的依赖不需要提前创建
+            return;
+        }
+        if (rawType.isArray()) {
+            rawType = type.getComponentType().resolve();
+        } else if (Collection.class.isAssignableFrom(rawType) || Optional.class == rawType) {
+            rawType = type.getGeneric(0).resolve();
+        } else if (Map.class.isAssignableFrom(rawType)) {
+            rawType = type.getGeneric(1).resolve();
+        }
+        if (rawType == null || rawType == Object.class || BeanUtils.isSimpleProperty(rawType)) {
+            return;
+        }
+        dependencies.addAll(candidatesByType.computeIfAbsent(rawType, key -> {
+            Set<String> candidates = new LinkedHashSet<>();
+            for (String candidate : getBeanNamesForType(key, true, false)) {
+                candidates.add(canonicalName(BeanFactoryUtils.transformedBeanName(candidate)));
+            }
+            return candidates;
+        }));
+    }
+
+    private void preInstantiateSingletonInParallelThread(String beanName, Queue<CompletableFuture<?>> futures) {
+        this.preInstantiationThread.set(PreInstantiation.PARALLEL);
+        try {
+            CompletableFuture<?> future = preInstantiateSingleton(beanName, getMergedLocalBeanDefinition(beanName));
+            if (future != null) {
+                futures.add(future);
+            }
+        } finally {
+            this.preInstantiationThread.remove();
+        }
+    }
+
     private void instantiateSingletonInBackgroundThread(String beanName) {
         this.preInstantiationThread.set(PreInstantiation.BACKGROUND);
         try {
@@ -1048,6 +1427,10 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
         if (beanDefinition.isPrimary()) {
             this.primaryBeanNames.add(beanName);
         }
+
+        if (this.beanTypeIndexActive) {
+            indexBeanType(beanName, beanDefinition);
+        }
     }
 
     private void logBeanDefinitionOverriding(String beanName, BeanDefinition beanDefinition,
@@ -1110,6 +1493,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
             this.beanDefinitionNames.remove(beanName);
         }
         this.frozenBeanDefinitionNames = null;
+        removeIndexedBeanType(beanName);
 
         resetBeanDefinition(beanName);
     }
@@ -1208,6 +1592,153 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
     private void clearByTypeCache() {
         this.allBeanNamesByType.clear();
         this.singletonBeanNamesByType.clear();
+        this.resolvedDependencyCache.clear();
+        this.multipleBeanSnapshotCache.clear();
+        this.beanRegistryGeneration.incrementAndGet();
+    }
+
+    @Override
+    protected void addSingleton(String beanName, Object singletonObject) {
+        super.addSingleton(beanName, singletonObject);
+        unindexIfTypeChanged(beanName, singletonObject);
+    }
+
+    @Override
+    protected Object getEarlyBeanReference(String beanName, RootBeanDefinition mbd, Object bean) {
+        Object exposedObject = super.getEarlyBeanReference(beanName, mbd, bean);
+        if (exposedObject != bean && exposedObject != null) {
+            // 循环依赖中提前暴露了代理, 创建完成前其他bean按类型查找到的就是它
+            unindexIfTypeChanged(beanName, exposedObject);
+        }
+        return exposedObject;
+    }
+
+    // 实例类型与bean class不同(如被代理), 之后按实例匹配, 不能再走索引
+    private void unindexIfTypeChanged(String beanName, Object beanInstance) {
+        IndexedBeanType entry = this.beanTypeIndexEntries.get(beanName);
+        if (entry != null && entry.type() != null && beanInstance.getClass() != entry.type()) {
+            synchronized (this.beanTypeIndexEntries) {
+                removeIndexedBeanType(beanName);
+                this.beanTypeIndexEntries.put(beanName, new IndexedBeanType(null, entry.order()));
+                this.unindexedBeanNames.put(entry.order(), beanName);
+            }
+        }
+    }
+
+    private void rebuildBeanTypeIndex() {
+        synchronized (this.beanTypeIndexEntries) {
+            this.beanNamesByIndexedType.clear();
+            this.beanTypeIndexEntries.clear();
+            this.unindexedBeanNames.clear();
+            this.beanTypeIndexCandidates.clear();
+            this.beanTypeIndexSequence = 0;
+            for (String beanName : this.beanDefinitionNames) {
+                BeanDefinition bd = this.beanDefinitionMap.get(beanName);
+                if (bd != null) {
+                    indexBeanType(beanName, bd);
+                }
+            }
+            this.beanTypeIndexActive = true;
+        }
+    }
+
+    private void indexBeanType(String beanName, BeanDefinition bd) {
+        synchronized (this.beanTypeIndexEntries) {
+            IndexedBeanType existing = this.beanTypeIndexEntries.get(beanName);
+            // 覆盖注册的定义沿用原来的顺序, 与beanDefinitionNames保持一致
+            long order = (existing != null ? existing.order() : this.beanTypeIndexSequence++);
+            removeIndexedBeanType(beanName);
+            Class<?> type = predictIndexedBeanType(beanName, bd);
+            this.beanTypeIndexEntries.put(beanName, new IndexedBeanType(type, order));
+            if (type == null) {
+                this.unindexedBeanNames.put(order, beanName);
+                return;
+            }
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                addIndexedBeanName(current, order, beanName);
+            }
+            for (Class<?> ifc : ClassUtils.getAllInterfacesForClassAsSet(type)) {
+                addIndexedBeanName(ifc, order, beanName);
+            }
+        }
+    }
+
+    private void addIndexedBeanName(Class<?> type, long order, String beanName) {
+        this.beanNamesByIndexedType.computeIfAbsent(type, key -> new ConcurrentSkipListMap<>()).put(order, beanName);
+    }
+
+    private void removeIndexedBeanType(String beanName) {
+        synchronized (this.beanTypeIndexEntries) {
+            // 新增、覆盖和移出索引都经过这里
+            this.beanTypeIndexCandidates.clear();
+            IndexedBeanType entry = this.beanTypeIndexEntries.remove(beanName);
+            if (entry == null) {
+                return;
+            }
+            if (entry.type() == null) {
+                this.unindexedBeanNames.remove(entry.order());
+                return;
+            }
+            for (Class<?> current = entry.type(); current != null; current = current.getSuperclass()) {
+                removeIndexedBeanName(current, entry.order());
+            }
+            for (Class<?> ifc : ClassUtils.getAllInterfacesForClassAsSet(entry.type())) {
+                removeIndexedBeanName(ifc, entry.order());
+            }
+        }
+    }
+
+    private void removeIndexedBeanName(Class<?> type, long order) {
+        NavigableMap<Long, String> beanNames = this.beanNamesByIndexedType.get(type);
+        if (beanNames != null) {
+            beanNames.remove(order);
+        }
+    }
+
+    /**
+     * 只有普通的、按bean class直接实例化的定义才能静态确定类型
+     * 工厂方法、父定义、FactoryBean、方法覆盖、已存在实例等情况返回null, 交给完整匹配
+     */
+    private Class<?> predictIndexedBeanType(String beanName, BeanDefinition bd) {
+        if (!(bd instanceof AbstractBeanDefinition abd) || bd instanceof RootBeanDefinition ||
+                abd.isAbstract() || abd.getParentName() != null || abd.getFactoryBeanName() != null ||
+                abd.getFactoryMethodName() != null || abd.hasMethodOverrides() || containsSingleton(beanName)) {
+            return null;
+        }
+        Class<?> beanClass;
+        if (abd.hasBeanClass()) {
+            beanClass = abd.getBeanClass();
+        } else {
+            String beanClassName = abd.getBeanClassName();
+            if (beanClassName == null || !isAllowEagerClassLoading()) {
+                return null;
+            }
+            try {
+                beanClass = ClassUtils.forName(beanClassName, getBeanClassLoader());
+            } catch (ClassNotFoundException | LinkageError ex) {
+                return null;
+            }
+        }
+        return (FactoryBean.class.isAssignableFrom(beanClass) ? null : beanClass);
+    }
+
+    // 依赖描述按注入点、描述类型、required/eager/嵌套层级和所在类比较
+    private record ResolvedDependencyKey(DependencyDescriptor descriptor, String requestingBeanName) {
+    }
+
+    private record ResolvedDependency(String beanName, boolean byName) {
+    }
+
+    private record MultipleBeanKey(Type type, String resolvedType, List<Annotation> annotations, boolean eager) {
+    }
+
+    private record MultipleBeanSnapshot(long generation, List<String> beanNames, Set<String> selfReferenceNames, Object value) {
+    }
+
+    private record ProviderBinding(long generation, String beanName, Object singletonInstance) {
+    }
+
+    private record IndexedBeanType(Class<?> type, long order) {
     }
 
 
@@ -1330,6 +1861,21 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 
             Class<?> type = descriptor.getDependencyType();
 
+            // 配置冻结后, 同一注入点的候选、限定符、primary/priority判断结果不变, 直接使用上次胜出的bean
+            ResolvedDependencyKey cacheKey = null;
+            if (this.configurationFrozen) {
+                cacheKey = new ResolvedDependencyKey(descriptor, beanName);
+                ResolvedDependency resolved = this.resolvedDependencyCache.get(cacheKey);
+                if (resolved != null) {
+                    if (autowiredBeanNames != null) {
+                        autowiredBeanNames.add(resolved.beanName());
+                    }
+                    Object candidate = (resolved.byName() ? getBean(resolved.beanName()) :
+                            descriptor.resolveCandidate(resolved.beanName(), type, this));
+                    return resolveInstance(candidate, descriptor, type, resolved.beanName());
+                }
+            }
+
             // Step 2: pre-defined value or expression, for example, from @Value
             Object value = getAutowireCandidateResolver().getSuggestedValue(descriptor);
             if (value != null) {
@@ -1364,6 +1910,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
                         if (autowiredBeanNames != null) {
                             autowiredBeanNames.add(dependencyName);
                         }
+                        cacheResolvedDependency(cacheKey, dependencyName, true);
                         Object dependencyBean = getBean(dependencyName);
                         return resolveInstance(dependencyBean, descriptor, type, dependencyName);
                     }
@@ -1419,6 +1966,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
             if (autowiredBeanNames != null) {
                 autowiredBeanNames.add(autowiredBeanName);
             }
+            cacheResolvedDependency(cacheKey, autowiredBeanName, false);
             if (instanceCandidate instanceof Class) {
                 instanceCandidate = descriptor.resolveCandidate(autowiredBeanName, type, this);
             }
@@ -1428,6 +1976,13 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
         }
     }
 
+    // 只缓存容器内的bean, registerResolvableDependency注册的对象不是bean, 不能按名称取回
+    private void cacheResolvedDependency(ResolvedDependencyKey cacheKey, String autowiredBeanName, boolean byName) {
+        if (cacheKey != null && (containsBeanDefinition(autowiredBeanName) || containsSingleton(autowiredBeanName))) {
+            this.resolvedDependencyCache.put(cacheKey, new ResolvedDependency(autowiredBeanName, byName));
+        }
+    }
+
     private Object resolveInstance(Object candidate, DependencyDescriptor descriptor, Class<?> type, String name) {
         Object result = candidate;
         if (result instanceof NullBean) {
@@ -1487,14 +2042,95 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
                 }
             }
             return result;
-        } else if (Collection.class == type || Set.class == type || List.class == type) {
-            return resolveMultipleBeanCollection(descriptor, beanName, autowiredBeanNames, typeConverter);
-        } else if (Map.class == type) {
-            return resolveMultipleBeanMap(descriptor, beanName, autowiredBeanNames, typeConverter);
+        } else if (Collection.class == type || Set.class == type || List.class == type || Map.class == type) {
+            MultipleBeanKey snapshotKey = multipleBeanSnapshotKey(descriptor);
+            if (snapshotKey == null) {
+                return (Map.class == type ? resolveMultipleBeanMap(descriptor, beanName, autowiredBeanNames, typeConverter) :
+                        resolveMultipleBeanCollection(descriptor, beanName, autowiredBeanNames, typeConverter));
+            }
+            long generation = this.beanRegistryGeneration.get();
+            MultipleBeanSnapshot snapshot = this.multipleBeanSnapshotCache.get(snapshotKey);
+            if (snapshot != null && snapshot.generation() == generation &&
+                    (beanName == null || !snapshot.selfReferenceNames().contains(beanName))) {
+                if (autowiredBeanNames != null) {
+                    autowiredBeanNames.addAll(snapshot.beanNames());
+                }
+                return snapshot.value();
+            }
+            Set<String> matchedBeanNames = new LinkedHashSet<>();
+            Object result = (Map.class == type ? resolveMultipleBeanMap(descriptor, beanName, matchedBeanNames, typeConverter) :
+                    resolveMultipleBeanCollection(descriptor, beanName, matchedBeanNames, typeConverter));
+            if (autowiredBeanNames != null) {
+                autowiredBeanNames.addAll(matchedBeanNames);
+            }
+            if (result != null) {
+                snapshot = createMultipleBeanSnapshot(descriptor, beanName, generation, matchedBeanNames, result);
+                if (snapshot != null) {
+                    this.multipleBeanSnapshotCache.put(snapshotKey, snapshot);
+                    return snapshot.value();
+                }
+            }
+            return result;
         }
         return null;
     }
 
+    // 只对冻结后的普通注入点建快照; 泛型无法完全解析时不同注入点可能解析出不同类型, 不共享
+    private MultipleBeanKey multipleBeanSnapshotKey(DependencyDescriptor descriptor) {
+        if (!this.configurationFrozen || descriptor.getClass() != DependencyDescriptor.class) {
+            return null;
+        }
+        ResolvableType resolvableType = descriptor.getResolvableType();
+        if (resolvableType.hasUnresolvableGenerics()) {
+            return null;
+        }
+        return new MultipleBeanKey(resolvableType.getType(), resolvableType.toString(),
+                List.of(descriptor.getAnnotations()), descriptor.isEager());
+    }
+
+    /**
+     * 所有匹配的bean都是本容器的单例时才能共享同一份结果; 构建时记下候选bean及其工厂bean的名称,
+     * 它们作为请求方时会排除自引用, 结果与快照不同, 仍走完整解析
+     */
+    private MultipleBeanSnapshot createMultipleBeanSnapshot(DependencyDescriptor descriptor, String beanName, long generation,
+                                                            Set<String> matchedBeanNames, Object result) {
+        for (String matchedBeanName : matchedBeanNames) {
+            if (!containsLocalBean(matchedBeanName) || !isSingleton(matchedBeanName)) {
+                return null;
+            }
+        }
+        ResolvableType resolvableType = descriptor.getResolvableType();
+        Class<?> elementType = (Map.class == descriptor.getDependencyType() ?
+                resolvableType.asMap().resolveGeneric(1) : resolvableType.asCollection().resolveGeneric());
+        if (elementType == null) {
+            return null;
+        }
+        Set<String> selfReferenceNames = new HashSet<>();
+        for (String candidate : BeanFactoryUtils.beanNamesForTypeIncludingAncestors(this, elementType, true, descriptor.isEager())) {
+            selfReferenceNames.add(candidate);
+            if (containsBeanDefinition(candidate)) {
+                String factoryBeanName = getMergedLocalBeanDefinition(candidate).getFactoryBeanName();
+                if (factoryBeanName != null) {
+                    selfReferenceNames.add(factoryBeanName);
+                }
+            }
+        }
+        if (beanName != null && selfReferenceNames.contains(beanName)) {
+            return null;
+        }
+        Object value;
+        if (result instanceof List<?> list) {
+            value = Collections.unmodifiableList(list);
+        } else if (result instanceof Set<?> set) {
+            value = Collections.unmodifiableSet(set);
+        } else if (result instanceof Map<?, ?> map) {
+            value = Collections.unmodifiableMap(map);
+        } else {
+            return null;
+        }
+        return new MultipleBeanSnapshot(generation, List.copyOf(matchedBeanNames), Set.copyOf(selfReferenceNames), value);
+    }
+
 
     private Object resolveMultipleBeansFallback(DependencyDescriptor descriptor, String beanName, Set<String> autowiredBeanNames, TypeConverter typeConverter) {
 
@@ -1999,10 +2635,42 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 
         private final String beanName;
 
+        // getIfAvailable/getIfUnique使用的描述在创建时构建一次, 每次调用不再分配
+        private final DependencyDescriptor availableDescriptor;
+
+        private final DependencyDescriptor uniqueDescriptor;
+
         public DependencyObjectProvider(DependencyDescriptor descriptor, String beanName) {
             this.descriptor = new NestedDependencyDescriptor(descriptor);
             this.optional = (this.descriptor.getDependencyType() == Optional.class);
             this.beanName = beanName;
+            this.availableDescriptor = new DependencyDescriptor(this.descriptor) {
+                @Override
+                public boolean isRequired() {
+                    return false;
+                }
+
+                @Override
+                public boolean usesStandardBeanLookup() {
+                    return true;
+                }
+            };
+            this.uniqueDescriptor = new DependencyDescriptor(this.descriptor) {
+                @Override
+                public boolean isRequired() {
+                    return false;
+                }
+
+                @Override
+                public boolean usesStandardBeanLookup() {
+                    return true;
+                }
+
+                @Override
+                public Object resolveNotUnique(ResolvableType type, Map<String, Object> matchingBeans) {
+                    return null;
+                }
+            };
         }
 
         @Override
@@ -2043,18 +2711,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
                 if (this.optional) {
                     return createOptionalDependency(this.descriptor, this.beanName);
                 } else {
-                    DependencyDescriptor descriptorToUse = new DependencyDescriptor(this.descriptor) {
-                        @Override
-                        public boolean isRequired() {
-                            return false;
-                        }
-
-                        @Override
-                        public boolean usesStandardBeanLookup() {
-                            return true;
-                        }
-                    };
-                    return doResolveDependency(descriptorToUse, this.beanName, null, null);
+                    return doResolveDependency(this.availableDescriptor, this.beanName, null, null);
                 }
             } catch (ScopeNotActiveException ex) {
                 // Ignore resolved bean in non-active scope
@@ -2076,27 +2733,11 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 
         @Override
         public Object getIfUnique() throws BeansException {
-            DependencyDescriptor descriptorToUse = new DependencyDescriptor(this.descriptor) {
-                @Override
-                public boolean isRequired() {
-                    return false;
-                }
-
-                @Override
-                public boolean usesStandardBeanLookup() {
-                    return true;
-                }
-
-                @Override
-                public Object resolveNotUnique(ResolvableType type, Map<String, Object> matchingBeans) {
-                    return null;
-                }
-            };
             try {
                 if (this.optional) {
-                    return createOptionalDependency(descriptorToUse, this.beanName);
+                    return createOptionalDependency(this.uniqueDescriptor, this.beanName);
                 } else {
-                    return doResolveDependency(descriptorToUse, this.beanName, null, null);
+                    return doResolveDependency(this.uniqueDescriptor, this.beanName, null, null);
                 }
             } catch (ScopeNotActiveException ex) {
                 // Ignore resolved bean in non-active scope
@@ -2235,7 +2876,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 
     private enum PreInstantiation {
 
-        MAIN, BACKGROUND
+        MAIN, BACKGROUND, PARALLEL
     }
 
 }
@@ -3,11 +3,13 @@ package com.t13max.ioc.beans.factory.support;
 import com.t13max.ioc.beans.factory.*;
 import com.t13max.ioc.beans.factory.config.SingletonBeanRegistry;
 import com.t13max.ioc.core.SimpleAliasRegistry;
+import com.t13max.ioc.core.SpringProperties;
 import com.t13max.ioc.util.Assert;
 import com.t13max.ioc.util.StringUtils;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -21,8 +23,13 @@ import java.util.function.Consumer;
  */
 public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements SingletonBeanRegistry {
 
+    public static final String STRIPED_LOCKING_PROPERTY_NAME = "spring.locking.striped";
+
     private static final int SUPPRESSED_EXCEPTIONS_LIMIT = 100;
 
+    // 等待单个bean的创建锁时, 每隔这么久检查一次线程间的循环等待
+    private static final long DEADLOCK_CHECK_INTERVAL_MILLIS = 10;
+
     //单例创建锁
     final Lock singletonLock = new ReentrantLock();
     //单例 一级缓存
@@ -34,7 +41,7 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
     //单例 二级缓存(早期bean)
     private final Map<String, Object> earlySingletonObjects = new ConcurrentHashMap<>(16);
 
-    private final Set<String> registeredSingletons = Collections.synchronizedSet(new LinkedHashSet<>(256));
+    private final Set<String> registeredSingletons = new ConcurrentInsertionOrderedSet<>();
     //当前正在实例化的bean
     private final Set<String> singletonsCurrentlyInCreation = ConcurrentHashMap.newKeySet(16);
 
@@ -50,10 +57,21 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 
     private final Map<String, Thread> currentCreationThreads = new ConcurrentHashMap<>();
 
+    // 按bean划分的创建锁, 不相关的单例可以同时创建
+    private final Map<String, CreationLock> creationLocks = new ConcurrentHashMap<>(256);
+
+    // 正在等待某个bean创建锁的线程 -> beanName, 与各创建锁的持有线程一起构成等待图
+    private final Map<Thread, String> creationWaitingBeans = new ConcurrentHashMap<>();
+
+    private volatile boolean stripedLocking = SpringProperties.getFlag(STRIPED_LOCKING_PROPERTY_NAME);
+
     private volatile boolean singletonsCurrentlyInDestruction = false;
 
     private Set<Exception> suppressedExceptions;
 
+    // 分段锁模式下多个线程同时创建单例, 被抑制的异常按线程记录
+    private final ThreadLocal<Set<Exception>> threadSuppressedExceptions = new ThreadLocal<>();
+
     private final Map<String, DisposableBean> disposableBeans = new LinkedHashMap<>();
 
     private final Map<String, Set<String>> containedBeanMap = new ConcurrentHashMap<>(16);
@@ -101,6 +119,17 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
         this.registeredSingletons.add(beanName);
     }
 
+    /**
+     * 每个bean使用独立的创建锁代替全局singletonLock, 线程间的循环等待会以BeanCurrentlyInCreationException打断
+     */
+    public void setStripedLocking(boolean stripedLocking) {
+        this.stripedLocking = stripedLocking;
+    }
+
+    public boolean isStripedLocking() {
+        return this.stripedLocking;
+    }
+
     @Override
     public void addSingletonCallback(String beanName, Consumer<Object> singletonConsumer) {
         this.singletonCallbacks.put(beanName, singletonConsumer);
@@ -122,7 +151,8 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
             //为空 && 允许提前应用
             if (singletonObject == null && allowEarlyReference) {
                 //加锁
-                if (!this.singletonLock.tryLock()) {
+                Lock lock = (this.stripedLocking ? getCreationLock(beanName) : this.singletonLock);
+                if (!lock.tryLock()) {
                     // 避免在Bean原始创建线程之外,过早推断单例Bean
                     return null;
                 }
@@ -150,7 +180,7 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
                         }
                     }
                 } finally {
-                    this.singletonLock.unlock();
+                    lock.unlock();
                 }
             }
         }
@@ -160,6 +190,9 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
     @SuppressWarnings("NullAway") // Dataflow analysis limitation
     public Object getSingleton(String beanName, ObjectFactory<?> singletonFactory) {
         Assert.notNull(beanName, "Bean name must not be null");
+        if (this.stripedLocking) {
+            return getSingletonWithCreationLock(beanName, singletonFactory);
+        }
 
         Thread currentThread = Thread.currentThread();
         Boolean lockFlag = isCurrentThreadAllowedToHoldSingletonLock();
@@ -198,6 +231,14 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
                             return singletonObject;
                         }
                     }
+                } else if (!acquireLock && isCurrentThreadInParallelPreInstantiation()) {
+                    // 并行预实例化的线程不持锁, 同样登记为宽松创建, 其他线程可以等它完成而不是直接失败
+                    this.lenientCreationLock.lock();
+                    try {
+                        this.singletonsInLenientCreation.add(beanName);
+                    } finally {
+                        this.lenientCreationLock.unlock();
+                    }
                 }
 
                 if (this.singletonsCurrentlyInDestruction) {
@@ -323,6 +364,143 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
         }
     }
 
+    private Object getSingletonWithCreationLock(String beanName, ObjectFactory<?> singletonFactory) {
+        Object singletonObject = this.singletonObjects.get(beanName);
+        if (singletonObject != null) {
+            return singletonObject;
+        }
+        CreationLock lock = getCreationLock(beanName);
+        if (!lockForCreation(beanName, lock)) {
+            // 不能在创建线程之外取它提前暴露的引用(对方仍在填充该bean), 直接失败;
+            // 并行预实例化时由调度方推迟到主线程创建
+            throw new BeanCurrentlyInCreationException(beanName, "Circular wait between threads creating " +
+                    "singletons - bean '" + beanName + "' is being created by a thread that waits for this thread");
+        }
+        try {
+            singletonObject = this.singletonObjects.get(beanName);
+            if (singletonObject != null) {
+                return singletonObject;
+            }
+            if (this.singletonsCurrentlyInDestruction) {
+                throw new BeanCreationNotAllowedException(beanName, "Singleton bean creation not allowed while singletons of this factory are in destruction " + "(Do not request a bean from a BeanFactory in a destroy method implementation!)");
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug("Creating shared instance of singleton bean '{}'", beanName);
+            }
+            // 同一线程重入时在这里按原有方式报告循环依赖
+            beforeSingletonCreation(beanName);
+            boolean newSingleton = false;
+            boolean recordSuppressedExceptions = (this.threadSuppressedExceptions.get() == null);
+            if (recordSuppressedExceptions) {
+                this.threadSuppressedExceptions.set(new LinkedHashSet<>());
+            }
+            try {
+                this.currentCreationThreads.put(beanName, Thread.currentThread());
+                try {
+                    singletonObject = singletonFactory.getObject();
+                } finally {
+                    this.currentCreationThreads.remove(beanName);
+                }
+                newSingleton = true;
+            } catch (IllegalStateException ex) {
+                singletonObject = this.singletonObjects.get(beanName);
+                if (singletonObject == null) {
+                    throw ex;
+                }
+            } catch (BeanCreationException ex) {
+                if (recordSuppressedExceptions) {
+                    for (Exception suppressedException : this.threadSuppressedExceptions.get()) {
+                        ex.addRelatedCause(suppressedException);
+                    }
+                }
+                throw ex;
+            } finally {
+                if (recordSuppressedExceptions) {
+                    this.threadSuppressedExceptions.remove();
+                }
+                afterSingletonCreation(beanName);
+            }
+            if (newSingleton) {
+                addSingleton(beanName, singletonObject);
+                // 单例已就绪, 仍在等这把锁的线程拿到后会先看到singletonObjects里的实例, 不再需要保留
+                this.creationLocks.remove(beanName, lock);
+            }
+            return singletonObject;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private CreationLock getCreationLock(String beanName) {
+        // 创建失败时锁不回收: 重试的等待方持有的锁对象必须与后来者拿到的是同一个
+        return this.creationLocks.computeIfAbsent(beanName, name -> new CreationLock());
+    }
+
+    /**
+     * 单例创建之外的加锁点(FactoryBean取对象、类型检查时提前创建FactoryBean)使用的锁:
+     * 分段模式下为该bean自己的创建锁, 与该bean的创建互斥并参与循环等待检测; 否则为全局singletonLock
+     */
+    Lock getSingletonLock(String beanName) {
+        return (this.stripedLocking ? getCreationLock(beanName) : this.singletonLock);
+    }
+
+    /**
+     * 阻塞获取getSingletonLock返回的锁; 分段模式下发现线程间循环等待时返回false, 调用方按未持锁处理
+     */
+    boolean lockSingleton(String beanName, Lock lock) {
+        if (lock instanceof CreationLock creationLock) {
+            return lockForCreation(beanName, creationLock);
+        }
+        lock.lock();
+        return true;
+    }
+
+    // 发现线程间循环等待时返回false, 不再等待
+    private boolean lockForCreation(String beanName, CreationLock lock) {
+        if (lock.tryLock()) {
+            return true;
+        }
+        Thread currentThread = Thread.currentThread();
+        this.creationWaitingBeans.put(currentThread, beanName);
+        try {
+            while (true) {
+                if (isCircularCreationWait(beanName, currentThread)) {
+                    return false;
+                }
+                try {
+                    if (lock.tryLock(DEADLOCK_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                } catch (InterruptedException ex) {
+                    currentThread.interrupt();
+                    throw new BeanCurrentlyInCreationException(beanName, "Interrupted while waiting for singleton creation");
+                }
+            }
+        } finally {
+            this.creationWaitingBeans.remove(currentThread);
+        }
+    }
+
+    // 沿 bean -> 持锁线程 -> 该线程等待的bean 走下去, 回到当前线程即为死锁
+    private boolean isCircularCreationWait(String beanName, Thread currentThread) {
+        String waitingFor = beanName;
+        for (int i = 0; i <= this.creationWaitingBeans.size(); i++) {
+            CreationLock lock = this.creationLocks.get(waitingFor);
+            Thread owner = (lock != null ? lock.owner() : null);
+            if (owner == null) {
+                return false;
+            }
+            if (owner == currentThread) {
+                return true;
+            }
+            waitingFor = this.creationWaitingBeans.get(owner);
+            if (waitingFor == null) {
+                return false;
+            }
+        }
+        return false;
+    }
+
     private boolean checkDependentWaitingThreads(Thread waitingThread, Thread candidateThread) {
         Thread threadToCheck = waitingThread;
         while ((threadToCheck = this.lenientWaitingThreads.get(threadToCheck)) != null) {
@@ -338,9 +516,18 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
         return null;
     }
 
+    //当前线程是否为并行预实例化的工作线程
+    protected boolean isCurrentThreadInParallelPreInstantiation() {
+        return false;
+    }
+
     protected void onSuppressedException(Exception ex) {
-        if (this.suppressedExceptions != null && this.suppressedExceptions.size() < SUPPRESSED_EXCEPTIONS_LIMIT) {
-            this.suppressedExceptions.add(ex);
+        Set<Exception> suppressedExceptions = this.threadSuppressedExceptions.get();
+        if (suppressedExceptions == null) {
+            suppressedExceptions = this.suppressedExceptions;
+        }
+        if (suppressedExceptions != null && suppressedExceptions.size() < SUPPRESSED_EXCEPTIONS_LIMIT) {
+            suppressedExceptions.add(ex);
         }
     }
 
@@ -414,41 +601,44 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
     }
 
     public void registerContainedBean(String containedBeanName, String containingBeanName) {
-        synchronized (this.containedBeanMap) {
-            Set<String> containedBeans =
-                    this.containedBeanMap.computeIfAbsent(containingBeanName, k -> new LinkedHashSet<>(8));
-            if (!containedBeans.add(containedBeanName)) {
-                return;
-            }
+        if (addToBeanSet(this.containedBeanMap, canonicalName(containingBeanName), canonicalName(containedBeanName))) {
+            registerDependentBean(containedBeanName, containingBeanName);
         }
-        registerDependentBean(containedBeanName, containingBeanName);
     }
 
     //注册依赖关系
     public void registerDependentBean(String beanName, String dependentBeanName) {
 
-        //别名
+        //别名, 两侧都用规范名, destroyBean按规范名摘除
         String canonicalName = canonicalName(beanName);
+        String canonicalDependentName = canonicalName(dependentBeanName);
 
         //存入依赖映射
-        synchronized (this.dependentBeanMap) {
-            Set<String> dependentBeans = this.dependentBeanMap.computeIfAbsent(canonicalName, k -> new LinkedHashSet<>(8));
-            if (!dependentBeans.add(dependentBeanName)) {
-                return;
-            }
+        if (addToBeanSet(this.dependentBeanMap, canonicalName, canonicalDependentName)) {
+            addToBeanSet(this.dependenciesForBeanMap, canonicalDependentName, canonicalName);
         }
+    }
 
-        synchronized (this.dependenciesForBeanMap) {
-            Set<String> dependenciesForBean = this.dependenciesForBeanMap.computeIfAbsent(dependentBeanName, k -> new LinkedHashSet<>(8));
-            dependenciesForBean.add(canonicalName);
-        }
+    // 在key所在的桶内原子地创建并添加, 与removeFromBeanSet的删空移除互斥, 不会加到已被移除的Set上
+    private static boolean addToBeanSet(Map<String, Set<String>> map, String key, String value) {
+        boolean[] added = new boolean[1];
+        map.compute(key, (k, beanNames) -> {
+            if (beanNames == null) {
+                beanNames = new ConcurrentInsertionOrderedSet<>();
+            }
+            added[0] = beanNames.add(value);
+            return beanNames;
+        });
+        return added[0];
+    }
+
+    private static void removeFromBeanSet(Map<String, Set<String>> map, String key, String value) {
+        map.computeIfPresent(key, (k, beanNames) -> (beanNames.remove(value) && beanNames.isEmpty() ? null : beanNames));
     }
 
     //是否存在依赖关系
     protected boolean isDependent(String beanName, String dependentBeanName) {
-        synchronized (this.dependentBeanMap) {
-            return isDependent(beanName, dependentBeanName, null);
-        }
+        return isDependent(beanName, canonicalName(dependentBeanName), null);
     }
 
     private boolean isDependent(String beanName, String dependentBeanName, Set<String> alreadySeen) {
@@ -477,27 +667,23 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
     }
 
     protected boolean hasDependentBean(String beanName) {
-        return this.dependentBeanMap.containsKey(beanName);
+        return this.dependentBeanMap.containsKey(canonicalName(beanName));
     }
 
     public String[] getDependentBeans(String beanName) {
-        Set<String> dependentBeans = this.dependentBeanMap.get(beanName);
+        Set<String> dependentBeans = this.dependentBeanMap.get(canonicalName(beanName));
         if (dependentBeans == null) {
             return new String[0];
         }
-        synchronized (this.dependentBeanMap) {
-            return StringUtils.toStringArray(dependentBeans);
-        }
+        return StringUtils.toStringArray(dependentBeans);
     }
 
     public String[] getDependenciesForBean(String beanName) {
-        Set<String> dependenciesForBean = this.dependenciesForBeanMap.get(beanName);
+        Set<String> dependenciesForBean = this.dependenciesForBeanMap.get(canonicalName(beanName));
         if (dependenciesForBean == null) {
             return new String[0];
         }
-        synchronized (this.dependenciesForBeanMap) {
-            return StringUtils.toStringArray(dependenciesForBean);
-        }
+        return StringUtils.toStringArray(dependenciesForBean);
     }
 
     public void destroySingletons() {
@@ -528,6 +714,7 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 
     protected void clearSingletonCache() {
         this.singletonObjects.clear();
+        this.creationLocks.clear();
         this.singletonFactories.clear();
         this.earlySingletonObjects.clear();
         this.registeredSingletons.clear();
@@ -566,11 +753,8 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 
     protected void destroyBean(String beanName, DisposableBean bean) {
         // Trigger destruction of dependent beans first...
-        Set<String> dependentBeanNames;
-        synchronized (this.dependentBeanMap) {
-            // Within full synchronization in order to guarantee a disconnected Set
-            dependentBeanNames = this.dependentBeanMap.remove(beanName);
-        }
+        // remove与addToBeanSet在同一个桶内互斥, 拿到的是已断开的Set
+        Set<String> dependentBeanNames = this.dependentBeanMap.remove(beanName);
         if (dependentBeanNames != null) {
             if (logger.isTraceEnabled()) {
                 logger.trace("Retrieved dependent beans for bean '" + beanName + "': " + dependentBeanNames);
@@ -592,11 +776,7 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
         }
 
         // Trigger destruction of contained beans...
-        Set<String> containedBeans;
-        synchronized (this.containedBeanMap) {
-            // Within full synchronization in order to guarantee a disconnected Set
-            containedBeans = this.containedBeanMap.remove(beanName);
-        }
+        Set<String> containedBeans = this.containedBeanMap.remove(beanName);
         if (containedBeans != null) {
             for (String containedBeanName : containedBeans) {
                 destroySingleton(containedBeanName);
@@ -604,19 +784,26 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
         }
 
         // Remove destroyed bean from other beans' dependencies.
-        synchronized (this.dependentBeanMap) {
-            for (Iterator<Map.Entry<String, Set<String>>> it = this.dependentBeanMap.entrySet().iterator(); it.hasNext(); ) {
-                Map.Entry<String, Set<String>> entry = it.next();
-                Set<String> dependenciesToClean = entry.getValue();
-                dependenciesToClean.remove(beanName);
-                if (dependenciesToClean.isEmpty()) {
-                    it.remove();
-                }
+        // 只需处理它依赖的那些bean, 不用遍历整个dependentBeanMap
+        Set<String> dependencies = this.dependenciesForBeanMap.remove(beanName);
+        if (dependencies != null) {
+            for (String dependency : dependencies) {
+                removeFromBeanSet(this.dependentBeanMap, dependency, beanName);
             }
         }
+    }
+
 
-        // Remove destroyed bean's prepared dependency information.
-        this.dependenciesForBeanMap.remove(beanName);
+    /**
+     * 能查询持有线程的创建锁, 供循环等待检测使用
+     */
+    private static final class CreationLock extends ReentrantLock {
+
+        private static final long serialVersionUID = 1L;
+
+        Thread owner() {
+            return getOwner();
+        }
     }
 
 }
@@ -7,6 +7,7 @@ import com.t13max.ioc.core.ResolvableType;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
 
 /**
  * FactoryBean的注册表
@@ -60,12 +61,13 @@ public abstract class FactoryBeanRegistrySupport extends DefaultSingletonBeanReg
         // 是单例, 已经包含
         if (factory.isSingleton() && containsSingleton(beanName)) {
             Boolean lockFlag = isCurrentThreadAllowedToHoldSingletonLock();
+            // 分段模式下锁住FactoryBean自己的创建锁, 不占用全局锁
+            Lock lock = getSingletonLock(beanName);
             boolean locked;
             if (lockFlag == null) {
-                this.singletonLock.lock();
-                locked = true;
+                locked = lockSingleton(beanName, lock);
             } else {
-                locked = (lockFlag && this.singletonLock.tryLock());
+                locked = (lockFlag && lock.tryLock());
             }
             try {
                 // SmartFactoryBean返回多种类型, 不缓存
@@ -111,7 +113,7 @@ public abstract class FactoryBeanRegistrySupport extends DefaultSingletonBeanReg
                 return object;
             } finally {
                 if (locked) {
-                    this.singletonLock.unlock();
+                    lock.unlock();
                 }
             }
         } else {
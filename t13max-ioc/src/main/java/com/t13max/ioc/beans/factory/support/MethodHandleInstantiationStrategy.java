@@ -0,0 +1,184 @@
+package com.t13max.ioc.beans.factory.support;
+
+import com.t13max.ioc.beans.BeanInstantiationException;
+import com.t13max.ioc.beans.factory.BeanFactory;
+import com.t13max.ioc.util.ClassUtils;
+import com.t13max.ioc.util.ReflectionUtils;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.Supplier;
+
+/**
+ * 用MethodHandle代替反射调用构造器/工厂方法的实例化策略
+ * 解析好的构造器或工厂方法第一次使用时生成调用句柄, 缓存在合并定义上, 无参构造器进一步用LambdaMetafactory生成Supplier
+ * 生成句柄本身有开销, 只对非单例定义启用; 单例、方法注入、参数与签名不匹配等情况仍走父类的反射流程
+ *
+ * @Author: t13max
+ * @Since: 21:45 2026/10/17
+ */
+public class MethodHandleInstantiationStrategy extends CglibSubclassingInstantiationStrategy {
+
+    @Override
+    public Object instantiate(RootBeanDefinition bd, String beanName, BeanFactory owner) {
+        if (!bd.isSingleton() && !bd.hasMethodOverrides()) {
+            Executable executable;
+            synchronized (bd.constructorArgumentLock) {
+                executable = bd.resolvedConstructorOrFactoryMethod;
+            }
+            // 首次创建由父类解析默认构造器
+            if (executable instanceof Constructor<?> ctor && ctor.getParameterCount() == 0) {
+                Instantiator instantiator = obtainInstantiator(bd, ctor);
+                if (instantiator.isCompiled()) {
+                    return instantiator.construct(ctor, new Object[0]);
+                }
+            }
+        }
+        return super.instantiate(bd, beanName, owner);
+    }
+
+    @Override
+    public Object instantiate(RootBeanDefinition bd, String beanName, BeanFactory owner, Constructor<?> ctor, Object... args) {
+        if (!bd.isSingleton() && !bd.hasMethodOverrides() && isInvocable(ctor, args)) {
+            Instantiator instantiator = obtainInstantiator(bd, ctor);
+            if (instantiator.isCompiled()) {
+                return instantiator.construct(ctor, args);
+            }
+        }
+        return super.instantiate(bd, beanName, owner, ctor, args);
+    }
+
+    @Override
+    public Object instantiate(RootBeanDefinition bd, String beanName, BeanFactory owner, Object factoryBean, Method factoryMethod, Object... args) {
+        if (!bd.isSingleton() && isInvocable(factoryMethod, args) &&
+                (factoryBean != null ? factoryMethod.getDeclaringClass().isInstance(factoryBean) :
+                        Modifier.isStatic(factoryMethod.getModifiers()))) {
+            Instantiator instantiator = obtainInstantiator(bd, factoryMethod);
+            if (instantiator.isCompiled()) {
+                Method priorInvokedFactoryMethod = getCurrentlyInvokedFactoryMethod();
+                try {
+                    setCurrentlyInvokedFactoryMethod(factoryMethod);
+                    Object result = instantiator.invoke(bd, owner, factoryMethod, factoryBean, args);
+                    return (result != null ? result : new NullBean());
+                } finally {
+                    setCurrentlyInvokedFactoryMethod(priorInvokedFactoryMethod);
+                }
+            }
+        }
+        return super.instantiate(bd, beanName, owner, factoryBean, factoryMethod, args);
+    }
+
+    private static Instantiator obtainInstantiator(RootBeanDefinition bd, Executable executable) {
+        Instantiator instantiator = bd.resolvedInstantiator;
+        if (instantiator == null || instantiator.executable != executable) {
+            // 并发下可能重复生成, 结果等价, 后写入的生效
+            instantiator = Instantiator.create(executable);
+            bd.resolvedInstantiator = instantiator;
+        }
+        return instantiator;
+    }
+
+    /**
+     * 参数个数和类型都能直接传给句柄; 否则交给反射流程, 由它补默认值或给出原有的异常信息
+     */
+    private static boolean isInvocable(Executable executable, Object[] args) {
+        Class<?>[] parameterTypes = executable.getParameterTypes();
+        if (parameterTypes.length != args.length) {
+            return false;
+        }
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] == null ? parameterTypes[i].isPrimitive() : !ClassUtils.isAssignableValue(parameterTypes[i], args[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * 某个构造器或工厂方法的调用句柄, 签名统一为 (Object[])Object 或 (Object, Object[])Object
+     * 无法生成时两者都为null, 记录下来避免每次重试
+     */
+    static final class Instantiator {
+
+        final Executable executable;
+
+        private final MethodHandle handle;
+
+        private final Supplier<?> supplier;
+
+        private Instantiator(Executable executable, MethodHandle handle, Supplier<?> supplier) {
+            this.executable = executable;
+            this.handle = handle;
+            this.supplier = supplier;
+        }
+
+        static Instantiator create(Executable executable) {
+            try {
+                // 已设置accessible的成员unreflect时不再做访问检查
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                int parameterCount = executable.getParameterCount();
+                if (executable instanceof Constructor<?> ctor) {
+                    ReflectionUtils.makeAccessible(ctor);
+                    MethodHandle handle = lookup.unreflectConstructor(ctor).asFixedArity();
+                    Supplier<?> supplier = (parameterCount == 0 ? createSupplier(ctor, handle) : null);
+                    return new Instantiator(executable, handle.asType(MethodType.genericMethodType(parameterCount))
+                            .asSpreader(Object[].class, parameterCount), supplier);
+                }
+                Method method = (Method) executable;
+                ReflectionUtils.makeAccessible(method);
+                MethodHandle handle = lookup.unreflect(method).asFixedArity();
+                if (Modifier.isStatic(method.getModifiers())) {
+                    handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                }
+                return new Instantiator(executable, handle.asType(MethodType.genericMethodType(parameterCount + 1))
+                        .asSpreader(Object[].class, parameterCount), null);
+            } catch (ReflectiveOperationException | RuntimeException ex) {
+                return new Instantiator(executable, null, null);
+            }
+        }
+
+        // 生成直接new对象的Supplier, 需要能私有访问bean class; 不行就退回句柄调用
+        private static Supplier<?> createSupplier(Constructor<?> ctor, MethodHandle handle) {
+            try {
+                Class<?> declaringClass = ctor.getDeclaringClass();
+                MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+                return (Supplier<?>) LambdaMetafactory.metafactory(lookup, "get",
+                        MethodType.methodType(Supplier.class), MethodType.methodType(Object.class),
+                        handle, MethodType.methodType(declaringClass)).getTarget().invoke();
+            } catch (Throwable ex) {
+                return null;
+            }
+        }
+
+        boolean isCompiled() {
+            return (this.handle != null);
+        }
+
+        Object construct(Constructor<?> ctor, Object[] args) {
+            try {
+                if (this.supplier != null) {
+                    return this.supplier.get();
+                }
+                return (Object) this.handle.invokeExact(args);
+            } catch (Throwable ex) {
+                throw new BeanInstantiationException(ctor, "Constructor threw exception", ex);
+            }
+        }
+
+        Object invoke(RootBeanDefinition bd, BeanFactory owner, Method factoryMethod, Object factoryBean, Object[] args) {
+            try {
+                return (Object) this.handle.invokeExact(factoryBean, args);
+            } catch (Throwable ex) {
+                throw factoryMethodFailure(bd, owner, factoryMethod, ex);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.t13max.ioc.beans.factory.support;
+
+import com.t13max.ioc.beans.factory.config.InstantiationAwareBeanPostProcessor;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * 原型bean的实例化计划, 首次创建完成后记录, 之后的创建直接重放
+ * 构造器及其参数已经缓存在合并定义上, 这里补上每次都要重新解析的部分: 是否需要属性填充, 对该bean生效的属性处理器, 以及解析好的init方法
+ * 计划绑定创建时的后置处理器快照和bean class, 任一变化即失效重建; resetBeanDefinition时随合并定义清除
+ *
+ * @Author: t13max
+ * @Since: 21:10 2026/10/17
+ */
+final class PrototypeInstantiationPlan {
+
+    private final AbstractBeanFactory.BeanPostProcessorCache postProcessors;
+
+    private final Class<?> beanClass;
+
+    private final boolean populationRequired;
+
+    private final List<InstantiationAwareBeanPostProcessor> propertyProcessors;
+
+    private final Method[] initMethods;
+
+    PrototypeInstantiationPlan(AbstractBeanFactory.BeanPostProcessorCache postProcessors, Class<?> beanClass,
+                               boolean populationRequired, List<InstantiationAwareBeanPostProcessor> propertyProcessors,
+                               Method[] initMethods) {
+
+        this.postProcessors = postProcessors;
+        this.beanClass = beanClass;
+        this.populationRequired = populationRequired;
+        this.propertyProcessors = propertyProcessors;
+        this.initMethods = initMethods;
+    }
+
+    /**
+     * 处理器列表每次变更都会生成新的快照, 按引用比较即可
+     */
+    boolean isValidFor(AbstractBeanFactory.BeanPostProcessorCache postProcessors, Class<?> beanClass) {
+        return (this.postProcessors == postProcessors && this.beanClass == beanClass);
+    }
+
+    boolean isInitMethodsValidFor(Class<?> beanClass) {
+        return (this.beanClass == beanClass);
+    }
+
+    boolean isPopulationRequired() {
+        return this.populationRequired;
+    }
+
+    List<InstantiationAwareBeanPostProcessor> getPropertyProcessors() {
+        return this.propertyProcessors;
+    }
+
+    Method[] getInitMethods() {
+        return this.initMethods;
+    }
+
+}
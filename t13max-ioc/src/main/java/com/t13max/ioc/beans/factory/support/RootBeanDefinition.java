@@ -33,6 +33,12 @@ public class RootBeanDefinition extends AbstractBeanDefinition{
 
     Executable resolvedConstructorOrFactoryMethod;    boolean constructorArgumentsResolved = false;    Object [] resolvedConstructorArguments;    Object [] preparedConstructorArguments;    final Object postProcessingLock = new Object();    boolean postProcessed = false;    volatile Boolean beforeInstantiationResolved;
 
+    // 原型bean首次创建后记录的实例化计划, 合并定义重建时随旧定义一起丢弃; 不参与序列化和复制
+    transient volatile PrototypeInstantiationPlan prototypeInstantiationPlan;
+
+    // resolvedConstructorOrFactoryMethod对应的调用句柄, 由MethodHandleInstantiationStrategy生成; 不参与序列化和复制
+    transient volatile MethodHandleInstantiationStrategy.Instantiator resolvedInstantiator;
+
     private Set<Member> externallyManagedConfigMembers;
 
     private Set<String> externallyManagedInitMethods;
@@ -1,5 +1,7 @@
 package com.t13max.ioc.beans.factory.support;
 
+import com.t13max.ioc.beans.BeanInstantiationException;
+import com.t13max.ioc.beans.BeanUtils;
 import com.t13max.ioc.beans.factory.BeanFactory;
 import com.t13max.ioc.beans.factory.config.ConfigurableBeanFactory;
 import com.t13max.ioc.util.ReflectionUtils;
@@ -113,13 +115,18 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
             throw new BeanInstantiationException(factoryMethod, "Cannot access factory method '" + factoryMethod.getName() + "'; is it public?", ex);
         }
         catch (InvocationTargetException ex) {
-            String msg = "Factory method '" + factoryMethod.getName() + "' threw exception with message: " + ex.getTargetException().getMessage();
-            if (bd.getFactoryBeanName() != null && owner instanceof ConfigurableBeanFactory cbf &&
-                    cbf.isCurrentlyInCreation(bd.getFactoryBeanName())) {
-                msg = "Circular reference involving containing bean '" + bd.getFactoryBeanName() + "' - consider " + "declaring the factory method as static for independence from its containing instance. " + msg;
-            }
-            throw new BeanInstantiationException(factoryMethod, msg, ex.getTargetException());
+            throw factoryMethodFailure(bd, owner, factoryMethod, ex.getTargetException());
+        }
+    }
+
+    // 工厂方法自身抛出的异常
+    static BeanInstantiationException factoryMethodFailure(RootBeanDefinition bd, BeanFactory owner, Method factoryMethod, Throwable targetException) {
+        String msg = "Factory method '" + factoryMethod.getName() + "' threw exception with message: " + targetException.getMessage();
+        if (bd.getFactoryBeanName() != null && owner instanceof ConfigurableBeanFactory cbf &&
+                cbf.isCurrentlyInCreation(bd.getFactoryBeanName())) {
+            msg = "Circular reference involving containing bean '" + bd.getFactoryBeanName() + "' - consider " + "declaring the factory method as static for independence from its containing instance. " + msg;
         }
+        return new BeanInstantiationException(factoryMethod, msg, targetException);
     }
 
 }
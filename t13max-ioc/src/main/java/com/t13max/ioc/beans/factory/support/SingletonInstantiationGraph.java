@@ -0,0 +1,232 @@
+package com.t13max.ioc.beans.factory.support;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 单例预实例化的依赖图, 依赖全部完成的bean才会提交给执行器, 互不依赖的子图并行创建
+ * 图只用于调度, 漏掉的依赖仍由getBean按需创建, 并发冲突交给单例注册表的宽松创建处理
+ * 环上(以及依赖环)的bean不参与并行, 由调用方在主线程按原顺序创建
+ * 调度只在调用线程进行: 任务完成后回报给调用线程, 由它提交就绪的依赖方, 任务之间不会互相提交
+ *
+ * @Author: t13max
+ * @Since: 19:05 2026/10/17
+ */
+final class SingletonInstantiationGraph {
+
+    private final Map<String, Node> nodes = new LinkedHashMap<>();
+
+    // 拓扑序, 计算关键路径时按此顺序保证依赖先于依赖方
+    private final List<Node> topologicalOrder = new ArrayList<>();
+
+    private final List<String> cyclicBeanNames = new ArrayList<>();
+
+    private final Collection<String> deferredBeanNames = new ConcurrentLinkedQueue<>();
+
+    private long wallTimeNanos;
+
+
+    SingletonInstantiationGraph(List<String> beanNames, Function<String, Set<String>> dependencyResolver) {
+        for (String beanName : beanNames) {
+            this.nodes.put(beanName, new Node(beanName));
+        }
+        for (Node node : this.nodes.values()) {
+            for (String dependency : dependencyResolver.apply(node.beanName)) {
+                Node target = this.nodes.get(dependency);
+                if (target != null && target != node && node.dependencies.add(target)) {
+                    target.dependents.add(node);
+                }
+            }
+        }
+        sortTopologically();
+    }
+
+    private void sortTopologically() {
+        Map<Node, Integer> inDegree = new LinkedHashMap<>();
+        List<Node> ready = new ArrayList<>();
+        for (Node node : this.nodes.values()) {
+            inDegree.put(node, node.dependencies.size());
+            if (node.dependencies.isEmpty()) {
+                ready.add(node);
+            }
+        }
+        for (int i = 0; i < ready.size(); i++) {
+            Node node = ready.get(i);
+            this.topologicalOrder.add(node);
+            for (Node dependent : node.dependents) {
+                if (inDegree.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        for (Node node : this.nodes.values()) {
+            if (inDegree.get(node) > 0) {
+                node.cyclic = true;
+                this.cyclicBeanNames.add(node.beanName);
+            }
+        }
+        // 不调度的节点不需要就绪通知
+        if (!this.cyclicBeanNames.isEmpty()) {
+            for (Node node : this.nodes.values()) {
+                node.dependents.removeIf(dependent -> dependent.cyclic);
+            }
+        }
+    }
+
+    /**
+     * 并行执行无环部分, 阻塞到全部完成; 出现非冲突类异常时停止调度并抛出第一个异常
+     */
+    void execute(Executor executor, Consumer<String> instantiator, Predicate<Throwable> deferrable) {
+        int remaining = this.topologicalOrder.size();
+        if (remaining == 0) {
+            return;
+        }
+        BlockingQueue<Node> completed = new LinkedBlockingQueue<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        long start = System.nanoTime();
+        for (Node node : this.topologicalOrder) {
+            node.pending = node.dependencies.size();
+        }
+        for (Node node : this.topologicalOrder) {
+            if (node.dependencies.isEmpty()) {
+                dispatch(node, executor, instantiator, deferrable, completed, failure);
+            }
+        }
+        try {
+            while (remaining > 0) {
+                Node node = completed.take();
+                remaining--;
+                // 失败后不再创建, 但仍要逐个回报让计数归零
+                for (Node dependent : node.dependents) {
+                    if (--dependent.pending == 0) {
+                        dispatch(dependent, executor, instantiator, deferrable, completed, failure);
+                    }
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for parallel singleton instantiation", ex);
+        }
+        this.wallTimeNanos = System.nanoTime() - start;
+        Throwable ex = failure.get();
+        if (ex instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (ex instanceof Error error) {
+            throw error;
+        }
+    }
+
+    private void dispatch(Node node, Executor executor, Consumer<String> instantiator,
+                          Predicate<Throwable> deferrable, BlockingQueue<Node> completed, AtomicReference<Throwable> failure) {
+
+        if (failure.get() != null) {
+            completed.add(node);
+            return;
+        }
+        Runnable task = () -> {
+            try {
+                if (failure.get() == null) {
+                    long start = System.nanoTime();
+                    try {
+                        instantiator.accept(node.beanName);
+                    } catch (RuntimeException | Error ex) {
+                        if (deferrable.test(ex)) {
+                            this.deferredBeanNames.add(node.beanName);
+                        } else {
+                            failure.compareAndSet(null, ex);
+                        }
+                    } finally {
+                        node.durationNanos = System.nanoTime() - start;
+                    }
+                }
+            } finally {
+                completed.add(node);
+            }
+        };
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException ex) {
+            // 执行器饱和时在调用线程创建; 任务只回报完成, 不会在这里继续展开依赖方
+            task.run();
+        }
+    }
+
+    List<String> getCyclicBeanNames() {
+        return this.cyclicBeanNames;
+    }
+
+    Collection<String> getDeferredBeanNames() {
+        return this.deferredBeanNames;
+    }
+
+    /**
+     * 关键路径(按实际耗时加权的最长依赖链)和实际并行度(总耗时/墙钟时间)
+     */
+    String report() {
+        Map<Node, Long> pathNanos = new LinkedHashMap<>();
+        Map<Node, Node> predecessors = new LinkedHashMap<>();
+        Node last = null;
+        long totalNanos = 0;
+        for (Node node : this.topologicalOrder) {
+            long longest = 0;
+            for (Node dependency : node.dependencies) {
+                Long dependencyNanos = pathNanos.get(dependency);
+                if (dependencyNanos != null && dependencyNanos > longest) {
+                    longest = dependencyNanos;
+                    predecessors.put(node, dependency);
+                }
+            }
+            long nanos = longest + node.durationNanos;
+            pathNanos.put(node, nanos);
+            totalNanos += node.durationNanos;
+            if (last == null || nanos > pathNanos.get(last)) {
+                last = node;
+            }
+        }
+        List<String> criticalPath = new ArrayList<>();
+        for (Node node = last; node != null; node = predecessors.get(node)) {
+            criticalPath.add(0, node.beanName);
+        }
+        double parallelism = (this.wallTimeNanos > 0 ? (double) totalNanos / this.wallTimeNanos : 1.0);
+        return String.format("%d singletons in %d ms, parallelism %.2f, critical path %d ms %s",
+                this.topologicalOrder.size(), this.wallTimeNanos / 1_000_000, parallelism,
+                (last != null ? pathNanos.get(last) / 1_000_000 : 0), criticalPath);
+    }
+
+
+    private static final class Node {
+
+        final String beanName;
+
+        final Set<Node> dependencies = new LinkedHashSet<>();
+
+        final List<Node> dependents = new ArrayList<>();
+
+        // 尚未完成的依赖数, 只在调用线程读写
+        int pending;
+
+        volatile long durationNanos;
+
+        boolean cyclic;
+
+        Node(String beanName) {
+            this.beanName = beanName;
+        }
+    }
+
+}
@@ -0,0 +1,213 @@
+package com.t13max.ioc.context.annotation;
+
+import com.t13max.ioc.core.io.Resource;
+import com.t13max.ioc.core.type.classreading.MetadataReader;
+import com.t13max.ioc.core.type.classreading.MetadataReaderCodec;
+import com.t13max.ioc.util.ResourceUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 组件扫描结果的磁盘缓存, 每个类路径根(jar或目录)单独一个缓存文件
+ * 记录通过 TypeFilter 的类的相对路径及其解析出的元数据, 命中时不再遍历资源和解析类文件; Condition 依赖运行环境, 每次启动仍重新判断
+ * jar 以文件长度+修改时间为指纹, 目录以其下 .class 文件的路径/长度/修改时间摘要为指纹(只stat不读内容)
+ * 过滤结果还依赖其他根中的类型(元注解/父类/接口), 因此每个条目同时校验整个类路径的组合指纹
+ *
+ * @Author: t13max
+ * @Since: 16:40 2026/10/17
+ */
+final class ClassPathScanCache {
+
+    private static final Logger logger = LogManager.getLogger(ClassPathScanCache.class);
+
+    private static final int MAGIC = 0x5343414E;
+
+    private final File directory;
+
+    // 同一次启动内根的指纹只计算一次, 目录根的摘要需要遍历整个目录
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+
+    ClassPathScanCache(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * 返回命中缓存的候选类, key 为相对根的路径; 未命中或根不可缓存时返回null
+     */
+    Map<String, MetadataReader> lookup(Resource root, String cacheKey, String fingerprint, ClassLoader classLoader) {
+        if (fingerprint == null) {
+            return null;
+        }
+        File file = cacheFile(root, cacheKey);
+        if (!file.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (in.readInt() != MAGIC || in.readInt() != MetadataReaderCodec.getFormatVersion() ||
+                    !fingerprint.equals(in.readUTF())) {
+                return null;
+            }
+            int count = in.readInt();
+            Map<String, MetadataReader> result = new LinkedHashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                String relativePath = in.readUTF();
+                result.put(relativePath, MetadataReaderCodec.decode(root.createRelative(relativePath), in, classLoader));
+            }
+            return result;
+        } catch (IOException | RuntimeException ex) {
+            logger.debug("Ignoring unreadable scan cache " + file + ": " + ex.getMessage());
+            return null;
+        }
+    }
+
+    void store(Resource root, String cacheKey, String fingerprint, Map<String, MetadataReader> candidates) {
+        if (fingerprint == null) {
+            return;
+        }
+        for (MetadataReader metadataReader : candidates.values()) {
+            if (!MetadataReaderCodec.isEncodable(metadataReader)) {
+                return;
+            }
+        }
+        File file = cacheFile(root, cacheKey);
+        try {
+            Files.createDirectories(this.directory.toPath());
+            // 先写临时文件再原子替换, 并发启动的多个进程不会读到半个文件
+            Path tempFile = Files.createTempFile(this.directory.toPath(), file.getName(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(MetadataReaderCodec.getFormatVersion());
+                out.writeUTF(fingerprint);
+                out.writeInt(candidates.size());
+                for (Map.Entry<String, MetadataReader> entry : candidates.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    MetadataReaderCodec.encode(entry.getValue(), out);
+                }
+            }
+            Files.move(tempFile, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            logger.debug("Failed to write scan cache " + file + ": " + ex.getMessage());
+        }
+    }
+
+    /**
+     * 整个类路径的组合指纹, 任一根无法计算指纹时返回null, 此时不使用缓存
+     */
+    String classPathFingerprint(Resource[] classPathRoots) {
+        List<String> entries = new ArrayList<>(classPathRoots.length);
+        for (Resource root : classPathRoots) {
+            String fingerprint = fingerprint(root);
+            if (fingerprint == null) {
+                return null;
+            }
+            entries.add(location(root) + "=" + fingerprint);
+        }
+        entries.sort(null);
+        MessageDigest digest = newDigest();
+        for (String entry : entries) {
+            digest.update((entry + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * 计算类路径根的指纹, 无法计算(如vfs/模块路径)时返回null表示该根不参与缓存
+     */
+    String fingerprint(Resource root) {
+        String location = location(root);
+        String fingerprint = this.fingerprints.get(location);
+        if (fingerprint == null) {
+            fingerprint = computeFingerprint(root);
+            if (fingerprint != null) {
+                this.fingerprints.put(location, fingerprint);
+            }
+        }
+        return fingerprint;
+    }
+
+    void clearFingerprints() {
+        this.fingerprints.clear();
+    }
+
+    private String computeFingerprint(Resource root) {
+        try {
+            URL url = root.getURL();
+            if (ResourceUtils.isJarURL(url)) {
+                File jarFile = ResourceUtils.getFile(ResourceUtils.extractArchiveURL(url));
+                return "jar:" + jarFile.length() + ":" + jarFile.lastModified();
+            }
+            if (ResourceUtils.isFileURL(url)) {
+                File rootDir = root.getFile();
+                return (rootDir.isDirectory() ? "dir:" + directoryDigest(rootDir.toPath()) : null);
+            }
+        } catch (IOException ex) {
+            logger.debug("Cannot fingerprint " + root + ": " + ex.getMessage());
+        }
+        return null;
+    }
+
+    // 遍历顺序依赖文件系统, 排序后再摘要, 同样的目录内容总是得到同样的指纹
+    private static String directoryDigest(Path rootDir) throws IOException {
+        List<String> entries = new ArrayList<>();
+        Files.walkFileTree(rootDir, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                String path = rootDir.relativize(file).toString().replace(File.separatorChar, '/');
+                if (path.endsWith(".class")) {
+                    entries.add(path + "|" + attrs.size() + "|" + attrs.lastModifiedTime().toMillis());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        entries.sort(null);
+        MessageDigest digest = newDigest();
+        for (String entry : entries) {
+            digest.update((entry + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private File cacheFile(Resource root, String cacheKey) {
+        byte[] hash = newDigest().digest((location(root) + "|" + cacheKey).getBytes(StandardCharsets.UTF_8));
+        return new File(this.directory, HexFormat.of().formatHex(hash) + ".scan");
+    }
+
+    private static String location(Resource root) {
+        try {
+            return root.getURL().toString();
+        } catch (IOException ex) {
+            return root.getDescription();
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
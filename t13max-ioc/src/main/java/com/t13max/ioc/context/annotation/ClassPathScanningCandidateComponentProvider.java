@@ -28,15 +28,20 @@ import com.t13max.ioc.stereotype.Indexed;
 import com.t13max.ioc.util.AnnotationUtils;
 import com.t13max.ioc.util.Assert;
 import com.t13max.ioc.util.ClassUtils;
+import com.t13max.ioc.util.ResourceUtils;
+import com.t13max.ioc.util.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.awt.*;
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
 
 /**
  * @Author: t13max
@@ -50,6 +55,17 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 
     private static final boolean shouldIgnoreClassFormatException = SpringProperties.getFlag(IGNORE_CLASSFORMAT_PROPERTY_NAME);
 
+    public static final String VERIFY_INDEX_PROPERTY_NAME = "spring.index.verify";
+
+    private static final boolean shouldVerifyIndex = SpringProperties.getFlag(VERIFY_INDEX_PROPERTY_NAME);
+
+    public static final String PARALLEL_SCAN_PROPERTY_NAME = "spring.classpath.scan.parallel";
+
+    // 资源数低于该值时并行调度的开销大于收益, 仍然串行扫描
+    static final int PARALLEL_SCAN_THRESHOLD = 64;
+
+    public static final String SCAN_CACHE_PROPERTY_NAME = "spring.classpath.scan.cache";
+
     protected final Logger logger = LogManager.getLogger(getClass());
 
     private String resourcePattern = DEFAULT_RESOURCE_PATTERN;
@@ -68,6 +84,13 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 
     private CandidateComponentsIndex componentsIndex;
 
+    private boolean parallelScan = SpringProperties.getFlag(PARALLEL_SCAN_PROPERTY_NAME);
+
+    private ClassPathScanCache scanCache = createScanCache(SpringProperties.getProperty(SCAN_CACHE_PROPERTY_NAME));
+
+    // 整个类路径的组合指纹, 每个provider只计算一次; 空串表示类路径不可缓存
+    private String classPathFingerprint;
+
     protected ClassPathScanningCandidateComponentProvider() {
     }
 
@@ -116,6 +139,23 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
         }
     }
 
+    public void setParallelScan(boolean parallelScan) {
+        this.parallelScan = parallelScan;
+    }
+
+    public boolean isParallelScan() {
+        return this.parallelScan;
+    }
+
+    public void setScanCacheDirectory(File directory) {
+        this.scanCache = (directory != null ? new ClassPathScanCache(directory) : null);
+        this.classPathFingerprint = null;
+    }
+
+    private static ClassPathScanCache createScanCache(String directory) {
+        return (StringUtils.hasText(directory) ? new ClassPathScanCache(new File(directory)) : null);
+    }
+
     public void setEnvironment(Environment environment) {
         Assert.notNull(environment, "Environment must not be null");
         this.environment = environment;
@@ -139,6 +179,10 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
         this.resourcePatternResolver = ResourcePatternUtils.getResourcePatternResolver(resourceLoader);
         this.metadataReaderFactory = new CachingMetadataReaderFactory(resourceLoader);
         this.componentsIndex = CandidateComponentsIndexLoader.loadIndex(this.resourcePatternResolver.getClassLoader());
+        this.classPathFingerprint = null;
+        if (this.scanCache != null) {
+            this.scanCache.clearFingerprints();
+        }
     }
 
     public final ResourceLoader getResourceLoader() {
@@ -165,6 +209,9 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 
     public Set<BeanDefinition> findCandidateComponents(String basePackage) {
         if (this.componentsIndex != null && indexSupportsIncludeFilters()) {
+            if (shouldVerifyIndex) {
+                return verifyCandidateComponentsIndex(this.componentsIndex, basePackage);
+            }
             return addCandidateComponentsFromIndex(this.componentsIndex, basePackage);
         } else {
             return scanCandidateComponents(basePackage);
@@ -204,17 +251,49 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
         return null;
     }
 
+    private Set<String> getIndexedCandidateTypes(CandidateComponentsIndex index, String basePackage) {
+        Set<String> types = new HashSet<>();
+        for (TypeFilter filter : this.includeFilters) {
+            String stereotype = extractStereotype(filter);
+            if (stereotype == null) {
+                throw new IllegalArgumentException("Failed to extract stereotype from " + filter);
+            }
+            types.addAll(index.getCandidateTypes(basePackage, stereotype));
+        }
+        return types;
+    }
+
+    // 用真实的类路径扫描结果校验索引, 索引过期时告警并以扫描结果为准
+    private Set<BeanDefinition> verifyCandidateComponentsIndex(CandidateComponentsIndex index, String basePackage) {
+        Set<String> indexedTypes = getIndexedCandidateTypes(index, basePackage);
+        Set<BeanDefinition> scanned = scanCandidateComponents(basePackage);
+        Set<String> notIndexed = new TreeSet<>();
+        for (BeanDefinition candidate : scanned) {
+            if (!indexedTypes.contains(candidate.getBeanClassName())) {
+                notIndexed.add(candidate.getBeanClassName());
+            }
+        }
+        Set<String> removed = new TreeSet<>();
+        for (String type : indexedTypes) {
+            String resourcePath = ResourceUtils.CLASSPATH_URL_PREFIX +
+                    ClassUtils.convertClassNameToResourcePath(type) + ClassUtils.CLASS_FILE_SUFFIX;
+            if (!getResourceLoader().getResource(resourcePath).exists()) {
+                removed.add(type);
+            }
+        }
+        if (notIndexed.isEmpty() && removed.isEmpty()) {
+            return addCandidateComponentsFromIndex(index, basePackage);
+        }
+        logger.warn("Stale candidate components index [" + CandidateComponentsIndexLoader.COMPONENTS_RESOURCE_LOCATION +
+                "] for base package '" + basePackage + "': missing " + notIndexed + ", no longer present " + removed +
+                " - falling back to classpath scanning; rebuild with t13max-indexer on the annotation processor path");
+        return scanned;
+    }
+
     private Set<BeanDefinition> addCandidateComponentsFromIndex(CandidateComponentsIndex index, String basePackage) {
         Set<BeanDefinition> candidates = new LinkedHashSet<>();
         try {
-            Set<String> types = new HashSet<>();
-            for (TypeFilter filter : this.includeFilters) {
-                String stereotype = extractStereotype(filter);
-                if (stereotype == null) {
-                    throw new IllegalArgumentException("Failed to extract stereotype from " + filter);
-                }
-                types.addAll(index.getCandidateTypes(basePackage, stereotype));
-            }
+            Set<String> types = getIndexedCandidateTypes(index, basePackage);
             boolean traceEnabled = logger.isTraceEnabled();
             boolean debugEnabled = logger.isDebugEnabled();
             for (String type : types) {
@@ -247,62 +326,221 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
     private Set<BeanDefinition> scanCandidateComponents(String basePackage) {
         Set<BeanDefinition> candidates = new LinkedHashSet<>();
         try {
+            String packagePath = resolveBasePackage(basePackage);
+            String cacheKey = (this.scanCache != null ? getScanCacheKey(packagePath) : null);
+            if (cacheKey != null) {
+                scanCandidateComponentsWithCache(packagePath, cacheKey, candidates);
+                return candidates;
+            }
             String packageSearchPath = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX +
-                    resolveBasePackage(basePackage) + '/' + this.resourcePattern;
+                    packagePath + '/' + this.resourcePattern;
             Resource[] resources = getResourcePatternResolver().getResources(packageSearchPath);
-            boolean traceEnabled = logger.isTraceEnabled();
-            boolean debugEnabled = logger.isDebugEnabled();
-            for (Resource resource : resources) {
-                String filename = resource.getFilename();
-                if (filename != null && filename.contains(ClassUtils.CGLIB_CLASS_SEPARATOR)) {
-                    // Ignore CGLIB-generated classes in the classpath
-                    continue;
-                }
-                if (traceEnabled) {
-                    logger.trace("Scanning " + resource);
+            collectCandidateComponents(resources, null, candidates);
+        } catch (IOException ex) {
+            throw new BeanDefinitionStoreException("I/O failure during classpath scanning", ex);
+        }
+        return candidates;
+    }
+
+    // 按类路径根逐个扫描, 指纹未变的根直接使用缓存的候选类及其元数据, 跳过资源遍历和类文件解析
+    private void scanCandidateComponentsWithCache(String packagePath, String cacheKey, Set<BeanDefinition> candidates)
+            throws IOException {
+
+        String classPathFingerprint = getClassPathFingerprint();
+        if (classPathFingerprint == null) {
+            Resource[] resources = getResourcePatternResolver().getResources(
+                    ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX + packagePath + '/' + this.resourcePattern);
+            collectCandidateComponents(resources, null, candidates);
+            return;
+        }
+        ClassLoader classLoader = getResourcePatternResolver().getClassLoader();
+        Resource[] roots = getResourcePatternResolver().getResources(
+                ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX + packagePath + '/');
+        for (Resource root : roots) {
+            String rootFingerprint = this.scanCache.fingerprint(root);
+            String fingerprint = (rootFingerprint != null ? rootFingerprint + "|" + classPathFingerprint : null);
+            Map<String, MetadataReader> cached = this.scanCache.lookup(root, cacheKey, fingerprint, classLoader);
+            if (cached != null) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Using cached scan result for " + root + ": " + cached.size() + " type(s)");
                 }
-                try {
-                    MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(resource);
-                    if (isCandidateComponent(metadataReader)) {
-                        ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
-                        sbd.setSource(resource);
-                        if (isCandidateComponent(sbd)) {
-                            if (debugEnabled) {
-                                logger.debug("Identified candidate component class: " + resource);
-                            }
-                            candidates.add(sbd);
-                        } else {
-                            if (debugEnabled) {
-                                logger.debug("Ignored because not a concrete top-level class: " + resource);
-                            }
-                        }
-                    } else {
-                        if (traceEnabled) {
-                            logger.trace("Ignored because not matching any filter: " + resource);
-                        }
-                    }
-                } catch (FileNotFoundException ex) {
-                    if (traceEnabled) {
-                        logger.trace("Ignored non-readable " + resource + ": " + ex.getMessage());
+                boolean traceEnabled = logger.isTraceEnabled();
+                boolean debugEnabled = logger.isDebugEnabled();
+                for (MetadataReader metadataReader : cached.values()) {
+                    ScannedGenericBeanDefinition sbd = scanCandidateComponent(metadataReader.getResource(),
+                            metadataReader, traceEnabled, debugEnabled, null);
+                    if (sbd != null) {
+                        candidates.add(sbd);
                     }
-                } catch (ClassFormatException ex) {
-                    if (shouldIgnoreClassFormatException) {
-                        if (debugEnabled) {
-                            logger.debug("Ignored incompatible class format in " + resource + ": " + ex.getMessage());
-                        }
-                    } else {
-                        throw new BeanDefinitionStoreException("Incompatible class format in " + resource +
-                                ": set system property 'spring.classformat.ignore' to 'true' " +
-                                "if you mean to ignore such files during classpath scanning", ex);
+                }
+                continue;
+            }
+            String rootLocation = root.getURL().toString();
+            if (!rootLocation.endsWith("/")) {
+                rootLocation += "/";
+            }
+            Resource[] resources = getResourcePatternResolver().getResources(rootLocation + this.resourcePattern);
+            Map<Resource, MetadataReader> typeMatches = new ConcurrentHashMap<>();
+            collectCandidateComponents(resources, typeMatches, candidates);
+            Map<String, MetadataReader> relativeMatches = new LinkedHashMap<>();
+            for (Resource resource : resources) {
+                MetadataReader metadataReader = typeMatches.get(resource);
+                if (metadataReader != null) {
+                    String location = resource.getURL().toString();
+                    if (!location.startsWith(rootLocation)) {
+                        relativeMatches = null;
+                        break;
                     }
-                } catch (Throwable ex) {
-                    throw new BeanDefinitionStoreException("Failed to read candidate component class: " + resource, ex);
+                    relativeMatches.put(location.substring(rootLocation.length()), metadataReader);
                 }
             }
-        } catch (IOException ex) {
-            throw new BeanDefinitionStoreException("I/O failure during classpath scanning", ex);
+            if (relativeMatches != null) {
+                this.scanCache.store(root, cacheKey, fingerprint, relativeMatches);
+            }
         }
-        return candidates;
+    }
+
+    private String getClassPathFingerprint() throws IOException {
+        String fingerprint = this.classPathFingerprint;
+        if (fingerprint == null) {
+            Resource[] classPathRoots = getResourcePatternResolver().getResources(
+                    ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX);
+            fingerprint = this.scanCache.classPathFingerprint(classPathRoots);
+            if (fingerprint == null) {
+                fingerprint = "";
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Class path contains roots that cannot be fingerprinted, scan cache disabled");
+                }
+            }
+            this.classPathFingerprint = fingerprint;
+        }
+        return (fingerprint.isEmpty() ? null : fingerprint);
+    }
+
+    private String getScanCacheKey(String packagePath) {
+        // 过滤器决定了缓存内容, 无法描述的自定义过滤器不使用缓存
+        StringBuilder key = new StringBuilder(packagePath).append('|').append(this.resourcePattern);
+        for (TypeFilter filter : this.excludeFilters) {
+            String stereotype = extractStereotype(filter);
+            if (stereotype == null) {
+                return null;
+            }
+            key.append("|-").append(filter.getClass().getName()).append(':').append(stereotype);
+            appendFilterFlags(filter, key);
+        }
+        for (TypeFilter filter : this.includeFilters) {
+            String stereotype = extractStereotype(filter);
+            if (stereotype == null) {
+                return null;
+            }
+            key.append("|+").append(filter.getClass().getName()).append(':').append(stereotype);
+            appendFilterFlags(filter, key);
+        }
+        return key.toString();
+    }
+
+    // 同一注解的过滤器是否匹配元注解、接口上的注解会改变扫描结果
+    private static void appendFilterFlags(TypeFilter filter, StringBuilder key) {
+        if (filter instanceof AnnotationTypeFilter annotationTypeFilter) {
+            key.append(annotationTypeFilter.isConsiderMetaAnnotations() ? ",meta" : "")
+                    .append(annotationTypeFilter.isConsiderInterfaces() ? ",interfaces" : "");
+        }
+    }
+
+    private void collectCandidateComponents(Resource[] resources, Map<Resource, MetadataReader> typeMatches,
+                                            Set<BeanDefinition> candidates) {
+        boolean traceEnabled = logger.isTraceEnabled();
+        boolean debugEnabled = logger.isDebugEnabled();
+        if (this.parallelScan && resources.length >= PARALLEL_SCAN_THRESHOLD) {
+            // 并行读取和过滤, 结果按资源下标落位, 保证和串行扫描顺序一致
+            getMetadataReaderFactory();
+            getConditionEvaluator();
+            ScannedGenericBeanDefinition[] results = new ScannedGenericBeanDefinition[resources.length];
+            IntStream.range(0, resources.length).parallel().forEach(i ->
+                    results[i] = scanCandidateComponent(resources[i], null, traceEnabled, debugEnabled, typeMatches));
+            for (ScannedGenericBeanDefinition sbd : results) {
+                if (sbd != null) {
+                    candidates.add(sbd);
+                }
+            }
+        } else {
+            for (Resource resource : resources) {
+                ScannedGenericBeanDefinition sbd = scanCandidateComponent(resource, null, traceEnabled, debugEnabled, typeMatches);
+                if (sbd != null) {
+                    candidates.add(sbd);
+                }
+            }
+        }
+    }
+
+    // metadataReader 为缓存读回的元数据, 为null时从资源解析
+    private ScannedGenericBeanDefinition scanCandidateComponent(Resource resource, MetadataReader metadataReader,
+                                                               boolean traceEnabled, boolean debugEnabled,
+                                                               Map<Resource, MetadataReader> typeMatches) {
+        String filename = resource.getFilename();
+        if (filename != null && filename.contains(ClassUtils.CGLIB_CLASS_SEPARATOR)) {
+            // Ignore CGLIB-generated classes in the classpath
+            return null;
+        }
+        if (traceEnabled) {
+            logger.trace("Scanning " + resource);
+        }
+        try {
+            if (metadataReader == null) {
+                metadataReader = getMetadataReaderFactory().getMetadataReader(resource);
+            }
+            return evaluateCandidateComponent(resource, metadataReader, traceEnabled, debugEnabled, typeMatches);
+        } catch (FileNotFoundException ex) {
+            if (traceEnabled) {
+                logger.trace("Ignored non-readable " + resource + ": " + ex.getMessage());
+            }
+        } catch (ClassFormatException ex) {
+            if (shouldIgnoreClassFormatException) {
+                if (debugEnabled) {
+                    logger.debug("Ignored incompatible class format in " + resource + ": " + ex.getMessage());
+                }
+            } else {
+                throw new BeanDefinitionStoreException("Incompatible class format in " + resource +
+                        ": set system property 'spring.classformat.ignore' to 'true' " +
+                        "if you mean to ignore such files during classpath scanning", ex);
+            }
+        } catch (Throwable ex) {
+            throw new BeanDefinitionStoreException("Failed to read candidate component class: " + resource, ex);
+        }
+        return null;
+    }
+
+    private ScannedGenericBeanDefinition evaluateCandidateComponent(Resource resource, MetadataReader metadataReader,
+                                                                    boolean traceEnabled, boolean debugEnabled,
+                                                                    Map<Resource, MetadataReader> typeMatches)
+            throws IOException {
+
+        if (isCandidateComponent(metadataReader)) {
+            if (typeMatches != null) {
+                typeMatches.put(resource, metadataReader);
+            }
+            ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
+            sbd.setSource(resource);
+            if (isCandidateComponent(sbd)) {
+                if (debugEnabled) {
+                    logger.debug("Identified candidate component class: " + resource);
+                }
+                return sbd;
+            } else {
+                if (debugEnabled) {
+                    logger.debug("Ignored because not a concrete top-level class: " + resource);
+                }
+            }
+        } else {
+            if (typeMatches != null && matchesTypeFilters(metadataReader)) {
+                // 只是Condition不满足, 环境变化后可能成为候选, 仍需进入缓存
+                typeMatches.put(resource, metadataReader);
+            }
+            if (traceEnabled) {
+                logger.trace("Ignored because not matching any filter: " + resource);
+            }
+        }
+        return null;
     }
 
     protected String resolveBasePackage(String basePackage) {
@@ -310,6 +548,10 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
     }
 
     protected boolean isCandidateComponent(MetadataReader metadataReader) throws IOException {
+        return (matchesTypeFilters(metadataReader) && isConditionMatch(metadataReader));
+    }
+
+    private boolean matchesTypeFilters(MetadataReader metadataReader) throws IOException {
         for (TypeFilter tf : this.excludeFilters) {
             if (tf.match(metadataReader, getMetadataReaderFactory())) {
                 return false;
@@ -317,18 +559,22 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
         }
         for (TypeFilter tf : this.includeFilters) {
             if (tf.match(metadataReader, getMetadataReaderFactory())) {
-                return isConditionMatch(metadataReader);
+                return true;
             }
         }
         return false;
     }
 
     private boolean isConditionMatch(MetadataReader metadataReader) {
+        return !getConditionEvaluator().shouldSkip(metadataReader.getAnnotationMetadata());
+    }
+
+    private ConditionEvaluator getConditionEvaluator() {
         if (this.conditionEvaluator == null) {
             this.conditionEvaluator =
                     new ConditionEvaluator(getRegistry(), this.environment, this.resourcePatternResolver);
         }
-        return !this.conditionEvaluator.shouldSkip(metadataReader.getAnnotationMetadata());
+        return this.conditionEvaluator;
     }
 
     protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
@@ -0,0 +1,196 @@
+package com.t13max.ioc.context.index;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+
+import com.t13max.ioc.util.AntPathMatcher;
+import com.t13max.ioc.util.ClassUtils;
+import com.t13max.ioc.util.ResourceUtils;
+
+/**
+ * META-INF/spring.components.idx 的只读视图, 由 t13max-indexer 在编译期生成
+ * 文件直接内存映射(jar内的索引则整体读入), 查询时只做二分和顺序比较, 不构建任何堆上的Map
+ *
+ * 格式(大端):
+ * int magic, int version, int stereotypeCount, int typeCount,
+ * int[stereotypeCount] stereotype偏移(按名字字节序排序), int[typeCount] 类型偏移(按全类名字节序排序),
+ * stereotype记录: u2 len + utf8, 类型记录: u2 len + utf8 + u2 count + u2[count] stereotype下标
+ *
+ * @Author: t13max
+ * @Since: 14:20 2026/10/17
+ */
+final class BinaryCandidateComponentsIndex {
+
+	static final int MAGIC = 0x54314958;
+
+	static final int VERSION = 1;
+
+	private static final int HEADER_SIZE = 16;
+
+	private static final AntPathMatcher pathMatcher = new AntPathMatcher(".");
+
+	private final ByteBuffer buffer;
+
+	private final int stereotypeCount;
+
+	private final int typeCount;
+
+	private final int typeTableOffset;
+
+
+	BinaryCandidateComponentsIndex(ByteBuffer buffer) {
+		if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+			throw new IllegalArgumentException("Not a candidate components index");
+		}
+		if (buffer.getInt(4) != VERSION) {
+			throw new IllegalArgumentException("Unsupported candidate components index version " + buffer.getInt(4));
+		}
+		this.buffer = buffer;
+		this.stereotypeCount = buffer.getInt(8);
+		this.typeCount = buffer.getInt(12);
+		this.typeTableOffset = HEADER_SIZE + this.stereotypeCount * 4;
+	}
+
+
+	static BinaryCandidateComponentsIndex load(URL url) throws IOException {
+		if (ResourceUtils.URL_PROTOCOL_FILE.equals(url.getProtocol())) {
+			try (FileChannel channel = FileChannel.open(Path.of(url.toURI()), StandardOpenOption.READ)) {
+				return new BinaryCandidateComponentsIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+			}
+			catch (URISyntaxException ex) {
+				throw new IOException("Invalid index location " + url, ex);
+			}
+		}
+		try (InputStream is = url.openStream()) {
+			return new BinaryCandidateComponentsIndex(ByteBuffer.wrap(is.readAllBytes()));
+		}
+	}
+
+	int size() {
+		return this.typeCount;
+	}
+
+	void collectCandidateTypes(String basePackage, String stereotype, Set<String> result) {
+		int stereotypeId = findStereotype(stereotype.getBytes(StandardCharsets.UTF_8));
+		if (stereotypeId < 0) {
+			return;
+		}
+		boolean pattern = pathMatcher.isPattern(basePackage);
+		byte[] prefix = (pattern ? literalPrefix(basePackage) : basePackage).getBytes(StandardCharsets.UTF_8);
+		// 按全类名排序后, 同一前缀的类型是连续的一段
+		for (int i = lowerBound(prefix); i < this.typeCount; i++) {
+			int offset = typeOffset(i);
+			if (!startsWith(offset, prefix)) {
+				break;
+			}
+			if (hasStereotype(offset, stereotypeId)) {
+				String type = readString(offset);
+				if (!pattern || pathMatcher.match(basePackage, ClassUtils.getPackageName(type))) {
+					result.add(type);
+				}
+			}
+		}
+	}
+
+	private int findStereotype(byte[] name) {
+		int low = 0;
+		int high = this.stereotypeCount - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int cmp = compare(this.buffer.getInt(HEADER_SIZE + mid * 4), name);
+			if (cmp < 0) {
+				low = mid + 1;
+			}
+			else if (cmp > 0) {
+				high = mid - 1;
+			}
+			else {
+				return mid;
+			}
+		}
+		return -1;
+	}
+
+	private int lowerBound(byte[] key) {
+		int low = 0;
+		int high = this.typeCount;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (compare(typeOffset(mid), key) < 0) {
+				low = mid + 1;
+			}
+			else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	private boolean hasStereotype(int offset, int stereotypeId) {
+		int idsOffset = offset + 2 + length(offset);
+		int count = this.buffer.getShort(idsOffset) & 0xFFFF;
+		for (int i = 0; i < count; i++) {
+			if ((this.buffer.getShort(idsOffset + 2 + i * 2) & 0xFFFF) == stereotypeId) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private int typeOffset(int index) {
+		return this.buffer.getInt(this.typeTableOffset + index * 4);
+	}
+
+	private int length(int offset) {
+		return this.buffer.getShort(offset) & 0xFFFF;
+	}
+
+	private int compare(int offset, byte[] key) {
+		int length = length(offset);
+		int common = Math.min(length, key.length);
+		for (int i = 0; i < common; i++) {
+			int cmp = (this.buffer.get(offset + 2 + i) & 0xFF) - (key[i] & 0xFF);
+			if (cmp != 0) {
+				return cmp;
+			}
+		}
+		return length - key.length;
+	}
+
+	private boolean startsWith(int offset, byte[] prefix) {
+		if (length(offset) < prefix.length) {
+			return false;
+		}
+		for (int i = 0; i < prefix.length; i++) {
+			if (this.buffer.get(offset + 2 + i) != prefix[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private String readString(int offset) {
+		byte[] bytes = new byte[length(offset)];
+		this.buffer.get(offset + 2, bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static String literalPrefix(String pattern) {
+		for (int i = 0; i < pattern.length(); i++) {
+			char c = pattern.charAt(i);
+			if (c == '*' || c == '?' || c == '{') {
+				return pattern.substring(0, i);
+			}
+		}
+		return pattern;
+	}
+
+}
@@ -1,6 +1,7 @@
 package com.t13max.ioc.context.index;
 
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Properties;
 import java.util.Set;
@@ -15,9 +16,14 @@ import com.t13max.ioc.util.MultiValueMap;
 public class CandidateComponentsIndex {
 	private static final AntPathMatcher pathMatcher = new AntPathMatcher(".");
 	private final MultiValueMap<String, Entry> index;
+	private final List<BinaryCandidateComponentsIndex> binaryIndexes;
 
 	CandidateComponentsIndex(List<Properties> content) {
+		this(content, Collections.emptyList());
+	}
+	CandidateComponentsIndex(List<Properties> content, List<BinaryCandidateComponentsIndex> binaryIndexes) {
 		this.index = parseIndex(content);
+		this.binaryIndexes = binaryIndexes;
 	}
 	private static MultiValueMap<String, Entry> parseIndex(List<Properties> content) {
 		MultiValueMap<String, Entry> index = new LinkedMultiValueMap<>();
@@ -35,13 +41,27 @@ public class CandidateComponentsIndex {
 
 	public Set<String> getCandidateTypes(String basePackage, String stereotype) {
 		List<Entry> candidates = this.index.get(stereotype);
+		if (this.binaryIndexes.isEmpty()) {
+			if (candidates != null) {
+				return candidates.parallelStream()
+						.filter(t -> t.match(basePackage))
+						.map(t -> t.type)
+						.collect(Collectors.toSet());
+			}
+			return Collections.emptySet();
+		}
+		Set<String> result = new HashSet<>();
+		for (BinaryCandidateComponentsIndex binaryIndex : this.binaryIndexes) {
+			binaryIndex.collectCandidateTypes(basePackage, stereotype, result);
+		}
 		if (candidates != null) {
-			return candidates.parallelStream()
-					.filter(t -> t.match(basePackage))
-					.map(t -> t.type)
-					.collect(Collectors.toSet());
+			for (Entry candidate : candidates) {
+				if (candidate.match(basePackage)) {
+					result.add(candidate.type);
+				}
+			}
 		}
-		return Collections.emptySet();
+		return result;
 	}
 
 	private static class Entry {
@@ -23,6 +23,8 @@ public final class CandidateComponentsIndexLoader {
 
 	public static final String COMPONENTS_RESOURCE_LOCATION = "META-INF/spring.components";
 
+	public static final String BINARY_COMPONENTS_RESOURCE_NAME = "spring.components.idx";
+
 	public static final String IGNORE_INDEX = "spring.index.ignore";
 
 	private static final boolean shouldIgnoreIndex = SpringProperties.getFlag(IGNORE_INDEX);
@@ -51,16 +53,25 @@ public final class CandidateComponentsIndexLoader {
 				return null;
 			}
 			List<Properties> result = new ArrayList<>();
+			List<BinaryCandidateComponentsIndex> binaryResult = new ArrayList<>();
 			while (urls.hasMoreElements()) {
 				URL url = urls.nextElement();
+				// 同目录下有二进制索引时优先使用, 不再解析properties
+				BinaryCandidateComponentsIndex binaryIndex = loadBinaryIndex(url);
+				if (binaryIndex != null) {
+					binaryResult.add(binaryIndex);
+					continue;
+				}
 				Properties properties = PropertiesLoaderUtils.loadProperties(new UrlResource(url));
 				result.add(properties);
 			}
 			if (logger.isDebugEnabled()) {
-				logger.debug("Loaded " + result.size() + " index(es)");
+				logger.debug("Loaded " + (result.size() + binaryResult.size()) + " index(es), " +
+						binaryResult.size() + " binary");
 			}
-			int totalCount = result.stream().mapToInt(Properties::size).sum();
-			return (totalCount > 0 ? new CandidateComponentsIndex(result) : null);
+			int totalCount = result.stream().mapToInt(Properties::size).sum() +
+					binaryResult.stream().mapToInt(BinaryCandidateComponentsIndex::size).sum();
+			return (totalCount > 0 ? new CandidateComponentsIndex(result, binaryResult) : null);
 		}
 		catch (IOException ex) {
 			throw new IllegalStateException("Unable to load indexes from location [" +
@@ -68,4 +79,18 @@ public final class CandidateComponentsIndexLoader {
 		}
 	}
 
+	private static BinaryCandidateComponentsIndex loadBinaryIndex(URL propertiesUrl) {
+		try {
+			URL binaryUrl = new URL(propertiesUrl, BINARY_COMPONENTS_RESOURCE_NAME);
+			return BinaryCandidateComponentsIndex.load(binaryUrl);
+		}
+		catch (IOException | IllegalArgumentException ex) {
+			// 没有二进制索引或格式不兼容时回退到properties
+			if (logger.isTraceEnabled()) {
+				logger.trace("No usable binary index next to " + propertiesUrl + ": " + ex.getMessage());
+			}
+			return null;
+		}
+	}
+
 }
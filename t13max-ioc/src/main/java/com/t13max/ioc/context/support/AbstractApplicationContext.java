@@ -341,6 +341,9 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader i
                 // 调用所有注册的BeanFactoryPostProcessor的Bean
                 invokeBeanFactoryPostProcessors(beanFactory);
 
+                // bean定义不再变化, 提前合并并解析目标类型
+                beanFactory.preResolveBeanDefinitions();
+
                 // BeanPostProcessor是Bean后置处理器,用于监听容器触发的事件
                 registerBeanPostProcessors(beanFactory);
 
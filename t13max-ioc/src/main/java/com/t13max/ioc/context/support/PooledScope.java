@@ -0,0 +1,439 @@
+package com.t13max.ioc.context.support;
+
+import com.t13max.ioc.beans.BeansException;
+import com.t13max.ioc.beans.factory.BeanFactory;
+import com.t13max.ioc.beans.factory.DisposableBean;
+import com.t13max.ioc.beans.factory.ObjectFactory;
+import com.t13max.ioc.beans.factory.ObjectProvider;
+import com.t13max.ioc.beans.factory.config.ConfigurableBeanFactory;
+import com.t13max.ioc.beans.factory.config.Scope;
+import com.t13max.ioc.util.Assert;
+import com.t13max.ioc.util.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 对象池作用域, 用于构建代价高的原型bean(编解码器、缓冲区、解析器等)
+ * 通过 PooledObjectProvider 借出实例, 池空时才真正创建; 用完通过 release 归还, 超出池容量的实例直接销毁
+ * 普通的 getBean 或依赖注入不动池中的空闲实例, 与原型bean一样新建后交给调用方, 其销毁回调不由容器执行
+ * 每个bean一个有界无锁池(CAS槽位数组), 创建时注册的销毁回调(DisposableBeanAdapter)跟随实例,
+ * 实例被淘汰或容器关闭时执行
+ *
+ * @Author: t13max
+ * @Since: 22:50 2026/10/17
+ */
+public class PooledScope implements Scope, DisposableBean {
+
+    public static final String SCOPE_POOLED = "pooled";
+
+    public static final int DEFAULT_MAX_IDLE = 16;
+
+    private static final Logger logger = LogManager.getLogger(PooledScope.class);
+
+    // 正在由本线程创建的实例, 创建过程中登记的销毁回调挂到它上面
+    private static final ThreadLocal<PooledInstance> currentlyCreated = new ThreadLocal<>();
+
+    // 本线程正通过 PooledObjectProvider 借出, 只由同一作用域内对应bean的get消费, depends-on和嵌套创建的依赖不受影响
+    private static final ThreadLocal<TrackedBorrow> trackedBorrow = new ThreadLocal<>();
+
+    private final int maxIdle;
+
+    private final Map<String, BeanPool> pools = new ConcurrentHashMap<>(16);
+
+    // 通过 PooledObjectProvider 借出的实例, 按对象身份归还
+    private final Map<IdentityKey, PooledInstance> borrowed = new ConcurrentHashMap<>(64);
+
+    private volatile BiPredicate<String, Object> validator;
+
+    private volatile BiConsumer<String, Object> resetter;
+
+    private volatile boolean destroyed;
+
+    public PooledScope() {
+        this(DEFAULT_MAX_IDLE);
+    }
+
+    public PooledScope(int maxIdle) {
+        Assert.isTrue(maxIdle > 0, "maxIdle must be positive");
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * 借出前校验实例, 不通过的实例销毁后继续取下一个
+     */
+    public void setValidator(BiPredicate<String, Object> validator) {
+        this.validator = validator;
+    }
+
+    /**
+     * 归还时重置实例状态
+     */
+    public void setResetter(BiConsumer<String, Object> resetter) {
+        this.resetter = resetter;
+    }
+
+    @Override
+    public Object get(String name, ObjectFactory<?> objectFactory) {
+        TrackedBorrow borrow = trackedBorrow.get();
+        if (borrow == null || borrow.scope() != this || !borrow.names().contains(name)) {
+            // 无法归还的查找按原型处理, 不取走空闲实例
+            return create(objectFactory).bean;
+        }
+        trackedBorrow.remove();
+        long start = System.nanoTime();
+        BeanPool pool = obtainPool(name);
+        PooledInstance instance;
+        while ((instance = pool.poll()) != null && !isValid(name, instance)) {
+            destroyInstance(name, instance);
+        }
+        if (instance == null) {
+            pool.misses.increment();
+            instance = create(objectFactory);
+        }
+        instance.pool = pool;
+        this.borrowed.put(new IdentityKey(instance.bean), instance);
+        pool.borrowed(System.nanoTime() - start);
+        return instance.bean;
+    }
+
+    /**
+     * 归还借出的实例; 重置失败、池已满或作用域已销毁时直接销毁
+     */
+    public void release(String name, Object bean) {
+        PooledInstance instance = this.borrowed.remove(new IdentityKey(bean));
+        if (instance == null) {
+            if (this.destroyed) {
+                // 关闭时已经销毁
+                return;
+            }
+            throw new IllegalArgumentException("Object [" + bean + "] was not borrowed from pooled scope for bean '" + name +
+                    "' (only instances obtained through PooledObjectProvider can be released)");
+        }
+        BeanPool pool = instance.pool;
+        pool.active.decrementAndGet();
+        BiConsumer<String, Object> resetter = this.resetter;
+        if (resetter != null) {
+            try {
+                resetter.accept(name, bean);
+            } catch (RuntimeException ex) {
+                logger.debug("Reset of pooled bean '" + name + "' failed, discarding instance", ex);
+                destroyInstance(name, instance);
+                return;
+            }
+        }
+        // 池已被remove时不再放回
+        if (this.destroyed || this.pools.get(name) != pool || !pool.offer(instance)) {
+            destroyInstance(name, instance);
+        }
+    }
+
+    @Override
+    public Object remove(String name) {
+        // 丢弃空闲实例, 已借出的实例归还时再销毁
+        BeanPool pool = this.pools.remove(name);
+        if (pool != null) {
+            pool.drain(instance -> destroyInstance(name, instance));
+        }
+        return null;
+    }
+
+    @Override
+    public void registerDestructionCallback(String name, Runnable callback) {
+        PooledInstance instance = currentlyCreated.get();
+        if (instance != null) {
+            instance.destructionCallback = callback;
+        }
+    }
+
+    @Override
+    public Object resolveContextualObject(String key) {
+        return null;
+    }
+
+    @Override
+    public String getConversationId() {
+        return null;
+    }
+
+    /**
+     * 返回该bean的借还句柄: getObject借出, release归还
+     */
+    public <T> PooledObjectProvider<T> getObjectProvider(BeanFactory beanFactory, String name, Class<T> requiredType) {
+        return new PooledObjectProvider<>(beanFactory, name, requiredType);
+    }
+
+    public PoolMetrics getMetrics(String name) {
+        BeanPool pool = this.pools.get(name);
+        return (pool != null ? pool.metrics() : null);
+    }
+
+    @Override
+    public void destroy() {
+        this.destroyed = true;
+        for (String name : this.pools.keySet()) {
+            remove(name);
+        }
+        // 容器关闭时仍未归还的实例一并销毁
+        for (IdentityKey key : this.borrowed.keySet()) {
+            PooledInstance instance = this.borrowed.remove(key);
+            if (instance != null) {
+                destroyInstance(instance.pool.name, instance);
+            }
+        }
+    }
+
+    private BeanPool obtainPool(String name) {
+        BeanPool pool = this.pools.get(name);
+        if (pool == null) {
+            pool = this.pools.computeIfAbsent(name, key -> new BeanPool(key, this.maxIdle));
+        }
+        return pool;
+    }
+
+    private PooledInstance create(ObjectFactory<?> objectFactory) {
+        PooledInstance instance = new PooledInstance();
+        // 池化bean依赖另一个池化bean时会嵌套创建
+        PooledInstance outer = currentlyCreated.get();
+        currentlyCreated.set(instance);
+        try {
+            instance.bean = objectFactory.getObject();
+        } finally {
+            if (outer != null) {
+                currentlyCreated.set(outer);
+            } else {
+                currentlyCreated.remove();
+            }
+        }
+        return instance;
+    }
+
+    private boolean isValid(String name, PooledInstance instance) {
+        BiPredicate<String, Object> validator = this.validator;
+        if (validator == null) {
+            return true;
+        }
+        try {
+            return validator.test(name, instance.bean);
+        } catch (RuntimeException ex) {
+            logger.debug("Validation of pooled bean '" + name + "' failed", ex);
+            return false;
+        }
+    }
+
+    private void destroyInstance(String name, PooledInstance instance) {
+        Runnable callback = instance.destructionCallback;
+        if (callback != null) {
+            try {
+                callback.run();
+            } catch (Throwable ex) {
+                logger.warn("Destruction of pooled bean '" + name + "' failed", ex);
+            }
+        }
+    }
+
+
+    /**
+     * 单个bean的指标快照
+     */
+    public record PoolMetrics(long borrows, long misses, long averageBorrowNanos, int active, int highWaterMark, int idle) {
+    }
+
+
+    public final class PooledObjectProvider<T> implements ObjectProvider<T> {
+
+        private final BeanFactory beanFactory;
+
+        private final String name;
+
+        private final Class<T> requiredType;
+
+        // bean名称及其别名, 作用域get收到的是规范名称
+        private volatile Set<String> names;
+
+        private PooledObjectProvider(BeanFactory beanFactory, String name, Class<T> requiredType) {
+            this.beanFactory = beanFactory;
+            this.name = name;
+            this.requiredType = requiredType;
+        }
+
+        @Override
+        public T getObject() throws BeansException {
+            TrackedBorrow previous = trackedBorrow.get();
+            trackedBorrow.set(new TrackedBorrow(PooledScope.this, obtainPooledNames()));
+            try {
+                return this.beanFactory.getBean(this.name, this.requiredType);
+            } finally {
+                // depends-on中的借出结束后恢复外层尚未消费的标记
+                if (previous != null) {
+                    trackedBorrow.set(previous);
+                } else {
+                    trackedBorrow.remove();
+                }
+            }
+        }
+
+        // 每次借出前确认bean仍属于本作用域, 否则标记会被其他池化bean的get误消费
+        private Set<String> obtainPooledNames() {
+            if (!(this.beanFactory instanceof ConfigurableBeanFactory cbf)) {
+                throw new IllegalStateException("PooledObjectProvider requires a ConfigurableBeanFactory");
+            }
+            String scopeName = cbf.getMergedBeanDefinition(this.name).getScope();
+            if (!StringUtils.hasLength(scopeName) || cbf.getRegisteredScope(scopeName) != PooledScope.this) {
+                throw new IllegalStateException("Bean '" + this.name + "' is not bound to this pooled scope (scope '" +
+                        scopeName + "')");
+            }
+            Set<String> names = this.names;
+            if (names == null) {
+                names = new HashSet<>();
+                names.add(this.name);
+                Collections.addAll(names, this.beanFactory.getAliases(this.name));
+                this.names = names;
+            }
+            return names;
+        }
+
+        @Override
+        public Stream<T> stream() {
+            return Stream.of(getObject());
+        }
+
+        public void release(T bean) {
+            PooledScope.this.release(this.name, bean);
+        }
+    }
+
+
+    private record TrackedBorrow(PooledScope scope, Set<String> names) {
+    }
+
+
+    private static final class PooledInstance {
+
+        Object bean;
+
+        BeanPool pool;
+
+        volatile Runnable destructionCallback;
+    }
+
+
+    private static final class IdentityKey {
+
+        private final Object target;
+
+        IdentityKey(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return (this == other || (other instanceof IdentityKey that && this.target == that.target));
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this.target);
+        }
+    }
+
+
+    /**
+     * 固定槽位的无锁池, 借还各自从线程相关的位置开始扫描, 减少在同一槽位上的CAS竞争
+     */
+    private static final class BeanPool {
+
+        final String name;
+
+        private final AtomicReferenceArray<PooledInstance> slots;
+
+        private final AtomicInteger idle = new AtomicInteger();
+
+        final AtomicInteger active = new AtomicInteger();
+
+        private final AtomicInteger highWaterMark = new AtomicInteger();
+
+        private final LongAdder borrows = new LongAdder();
+
+        final LongAdder misses = new LongAdder();
+
+        private final LongAdder borrowNanos = new LongAdder();
+
+        BeanPool(String name, int capacity) {
+            this.name = name;
+            this.slots = new AtomicReferenceArray<>(capacity);
+        }
+
+        PooledInstance poll() {
+            if (this.idle.get() == 0) {
+                return null;
+            }
+            int length = this.slots.length();
+            int start = startIndex(length);
+            for (int i = 0; i < length; i++) {
+                int index = (start + i) % length;
+                PooledInstance instance = this.slots.get(index);
+                if (instance != null && this.slots.compareAndSet(index, instance, null)) {
+                    this.idle.decrementAndGet();
+                    return instance;
+                }
+            }
+            return null;
+        }
+
+        boolean offer(PooledInstance instance) {
+            int length = this.slots.length();
+            if (this.idle.get() >= length) {
+                return false;
+            }
+            int start = startIndex(length);
+            for (int i = 0; i < length; i++) {
+                int index = (start + i) % length;
+                if (this.slots.get(index) == null && this.slots.compareAndSet(index, null, instance)) {
+                    this.idle.incrementAndGet();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void drain(Consumer<PooledInstance> action) {
+            for (int i = 0; i < this.slots.length(); i++) {
+                PooledInstance instance = this.slots.getAndSet(i, null);
+                if (instance != null) {
+                    this.idle.decrementAndGet();
+                    action.accept(instance);
+                }
+            }
+        }
+
+        void borrowed(long nanos) {
+            this.borrows.increment();
+            this.borrowNanos.add(nanos);
+            this.highWaterMark.accumulateAndGet(this.active.incrementAndGet(), Math::max);
+        }
+
+        PoolMetrics metrics() {
+            long borrows = this.borrows.sum();
+            return new PoolMetrics(borrows, this.misses.sum(), (borrows > 0 ? this.borrowNanos.sum() / borrows : 0),
+                    this.active.get(), this.highWaterMark.get(), this.idle.get());
+        }
+
+        private static int startIndex(int length) {
+            return (int) (Thread.currentThread().threadId() % length);
+        }
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.t13max.ioc.context.support;
+
+import com.t13max.ioc.beans.factory.ObjectFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 线程/任务作用域内的bean及其销毁回调, 只由绑定它的线程访问, 不加锁
+ *
+ * @Author: t13max
+ * @Since: 22:20 2026/10/17
+ */
+final class ScopedBeanStore {
+
+    private static final Logger logger = LogManager.getLogger(ScopedBeanStore.class);
+
+    private static final AtomicLong idGenerator = new AtomicLong();
+
+    private final long id = idGenerator.incrementAndGet();
+
+    private final Map<String, Object> beans = new LinkedHashMap<>(8);
+
+    private final Map<String, Runnable> destructionCallbacks = new LinkedHashMap<>(8);
+
+    long getId() {
+        return this.id;
+    }
+
+    Object get(String name, ObjectFactory<?> objectFactory) {
+        Object scopedObject = this.beans.get(name);
+        if (scopedObject == null) {
+            scopedObject = objectFactory.getObject();
+            this.beans.put(name, scopedObject);
+        }
+        return scopedObject;
+    }
+
+    Object remove(String name) {
+        // 被移除的bean由调用方负责销毁, 回调一并丢弃
+        this.destructionCallbacks.remove(name);
+        return this.beans.remove(name);
+    }
+
+    void registerDestructionCallback(String name, Runnable callback) {
+        this.destructionCallbacks.put(name, callback);
+    }
+
+    boolean isEmpty() {
+        return this.beans.isEmpty() && this.destructionCallbacks.isEmpty();
+    }
+
+    /**
+     * 按创建的逆序执行销毁回调, 单个回调失败不影响其余回调
+     */
+    void destroy() {
+        List<Map.Entry<String, Runnable>> callbacks = new ArrayList<>(this.destructionCallbacks.entrySet());
+        this.destructionCallbacks.clear();
+        this.beans.clear();
+        for (int i = callbacks.size() - 1; i >= 0; i--) {
+            Map.Entry<String, Runnable> callback = callbacks.get(i);
+            try {
+                callback.getValue().run();
+            } catch (Throwable ex) {
+                logger.warn("Destruction callback for scoped bean '" + callback.getKey() + "' failed", ex);
+            }
+        }
+    }
+
+}
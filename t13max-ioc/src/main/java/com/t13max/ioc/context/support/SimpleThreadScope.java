@@ -0,0 +1,90 @@
+package com.t13max.ioc.context.support;
+
+import com.t13max.ioc.beans.factory.ObjectFactory;
+import com.t13max.ioc.beans.factory.config.Scope;
+import com.t13max.ioc.core.NamedThreadLocal;
+
+/**
+ * 线程作用域, 每个线程持有自己的一份bean
+ * 线程池/虚拟线程下用 decorate 包装任务, 任务结束即执行销毁回调并移除ThreadLocal,
+ * 复用的载体线程不会残留上一个任务的bean, 大量短命虚拟线程也不会各自挂着一份作用域
+ * 未包装的线程需要自行调用 destroyCurrentThreadBeans
+ *
+ * @Author: t13max
+ * @Since: 22:20 2026/10/17
+ */
+public class SimpleThreadScope implements Scope {
+
+    public static final String SCOPE_THREAD = "thread";
+
+    private final ThreadLocal<ScopedBeanStore> threadScope = new NamedThreadLocal<>("SimpleThreadScope");
+
+    @Override
+    public Object get(String name, ObjectFactory<?> objectFactory) {
+        return obtainStore().get(name, objectFactory);
+    }
+
+    @Override
+    public Object remove(String name) {
+        ScopedBeanStore store = this.threadScope.get();
+        if (store == null) {
+            return null;
+        }
+        Object scopedObject = store.remove(name);
+        if (store.isEmpty()) {
+            this.threadScope.remove();
+        }
+        return scopedObject;
+    }
+
+    @Override
+    public void registerDestructionCallback(String name, Runnable callback) {
+        obtainStore().registerDestructionCallback(name, callback);
+    }
+
+    @Override
+    public Object resolveContextualObject(String key) {
+        return null;
+    }
+
+    @Override
+    public String getConversationId() {
+        Thread thread = Thread.currentThread();
+        // 虚拟线程默认没有名字
+        return (!thread.getName().isEmpty() ? thread.getName() : "thread-" + thread.threadId());
+    }
+
+    /**
+     * 销毁当前线程的作用域bean并解除绑定
+     */
+    public void destroyCurrentThreadBeans() {
+        ScopedBeanStore store = this.threadScope.get();
+        if (store != null) {
+            this.threadScope.remove();
+            store.destroy();
+        }
+    }
+
+    /**
+     * 包装任务, 任务结束后销毁本线程在任务中创建的作用域bean
+     */
+    public Runnable decorate(Runnable task) {
+        return () -> {
+            try {
+                task.run();
+            } finally {
+                destroyCurrentThreadBeans();
+            }
+        };
+    }
+
+    private ScopedBeanStore obtainStore() {
+        ScopedBeanStore store = this.threadScope.get();
+        if (store == null) {
+            store = new ScopedBeanStore();
+            this.threadScope.set(store);
+        }
+        return store;
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.t13max.ioc.context.support;
+
+import com.t13max.ioc.beans.factory.ObjectFactory;
+import com.t13max.ioc.beans.factory.config.Scope;
+import com.t13max.ioc.core.NamedThreadLocal;
+
+import java.util.concurrent.Callable;
+
+/**
+ * 任务作用域, 语义同 ScopedValue.where(...).run(...): 只在 run/call 的执行期间有效, 返回时销毁并解除绑定
+ * 支持嵌套, 内层任务拥有独立的一份bean, 结束后恢复外层绑定
+ * Java 21 的 ScopedValue 仍是预览特性, 这里用严格成对 set/remove 的 ThreadLocal 实现,
+ * 绑定不会超出任务范围, 线程复用或大量虚拟线程下都不会残留bean
+ *
+ * @Author: t13max
+ * @Since: 22:20 2026/10/17
+ */
+public class TaskScope implements Scope {
+
+    public static final String SCOPE_TASK = "task";
+
+    private final ThreadLocal<ScopedBeanStore> currentTask = new NamedThreadLocal<>("TaskScope");
+
+    public void run(Runnable task) {
+        ScopedBeanStore previous = bind();
+        try {
+            task.run();
+        } finally {
+            unbind(previous);
+        }
+    }
+
+    public <T> T call(Callable<T> task) throws Exception {
+        ScopedBeanStore previous = bind();
+        try {
+            return task.call();
+        } finally {
+            unbind(previous);
+        }
+    }
+
+    public boolean isActive() {
+        return (this.currentTask.get() != null);
+    }
+
+    @Override
+    public Object get(String name, ObjectFactory<?> objectFactory) {
+        return obtainStore().get(name, objectFactory);
+    }
+
+    @Override
+    public Object remove(String name) {
+        ScopedBeanStore store = this.currentTask.get();
+        return (store != null ? store.remove(name) : null);
+    }
+
+    @Override
+    public void registerDestructionCallback(String name, Runnable callback) {
+        obtainStore().registerDestructionCallback(name, callback);
+    }
+
+    @Override
+    public Object resolveContextualObject(String key) {
+        return null;
+    }
+
+    @Override
+    public String getConversationId() {
+        ScopedBeanStore store = this.currentTask.get();
+        return (store != null ? "task-" + store.getId() : null);
+    }
+
+    private ScopedBeanStore bind() {
+        ScopedBeanStore previous = this.currentTask.get();
+        this.currentTask.set(new ScopedBeanStore());
+        return previous;
+    }
+
+    private void unbind(ScopedBeanStore previous) {
+        ScopedBeanStore store = this.currentTask.get();
+        if (previous != null) {
+            this.currentTask.set(previous);
+        } else {
+            this.currentTask.remove();
+        }
+        if (store != null) {
+            store.destroy();
+        }
+    }
+
+    private ScopedBeanStore obtainStore() {
+        ScopedBeanStore store = this.currentTask.get();
+        if (store == null) {
+            throw new IllegalStateException("No task scope bound to thread [" + Thread.currentThread() +
+                    "] - run the work through TaskScope.run/call");
+        }
+        return store;
+    }
+
+}
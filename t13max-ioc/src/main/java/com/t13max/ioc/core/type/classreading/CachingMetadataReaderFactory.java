@@ -1,9 +1,15 @@
 package com.t13max.ioc.core.type.classreading;
 
 import java.io.IOException;
-import java.util.LinkedHashMap;
+import java.util.AbstractMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 
 
@@ -59,6 +65,23 @@ public class CachingMetadataReaderFactory implements MetadataReaderFactory {
 			return (this.metadataReaderCache != null ? Integer.MAX_VALUE : 0);
 		}
 	}
+
+	// 以下统计只针对本地缓存, 使用共享的资源缓存时返回0
+	public long getCacheHitCount() {
+		return (this.metadataReaderCache instanceof LocalResourceCache localResourceCache ?
+				localResourceCache.hits.sum() : 0);
+	}
+
+	public long getCacheMissCount() {
+		return (this.metadataReaderCache instanceof LocalResourceCache localResourceCache ?
+				localResourceCache.misses.sum() : 0);
+	}
+
+	public long getCacheEvictionCount() {
+		return (this.metadataReaderCache instanceof LocalResourceCache localResourceCache ?
+				localResourceCache.evictions.sum() : 0);
+	}
+
 	@Override
 	public MetadataReader getMetadataReader(String className) throws IOException {
 		return this.delegate.getMetadataReader(className);
@@ -70,7 +93,10 @@ public class CachingMetadataReaderFactory implements MetadataReaderFactory {
 			MetadataReader metadataReader = this.metadataReaderCache.get(resource);
 			if (metadataReader == null) {
 				metadataReader = this.delegate.getMetadataReader(resource);
-				this.metadataReaderCache.put(resource, metadataReader);
+				MetadataReader existing = this.metadataReaderCache.putIfAbsent(resource, metadataReader);
+				if (existing != null) {
+					metadataReader = existing;
+				}
 			}
 			return metadataReader;
 		}
@@ -91,9 +117,7 @@ public class CachingMetadataReaderFactory implements MetadataReaderFactory {
 
 	public void clearCache() {
 		if (this.metadataReaderCache instanceof LocalResourceCache) {
-			synchronized (this.metadataReaderCache) {
-				this.metadataReaderCache.clear();
-			}
+			this.metadataReaderCache.clear();
 		}
 		else if (this.metadataReaderCache != null) {
 			// Shared resource cache -> reset to local cache.
@@ -101,22 +125,199 @@ public class CachingMetadataReaderFactory implements MetadataReaderFactory {
 		}
 	}
 
-	@SuppressWarnings("serial")
-	private static class LocalResourceCache extends LinkedHashMap<Resource, MetadataReader> {
+	/**
+	 * 有界的无锁缓存, 淘汰采用CLOCK(second chance): 命中只置访问位, 不调整任何链表,
+	 * 超出上限时从环头取条目, 访问过的清位后放回队尾, 未访问的淘汰
+	 * 实现ConcurrentMap, 并行扫描时不需要在一把全局锁上排队
+	 * 删除或替换时旧条目同时移出环(线性查找, 不在扫描的热路径上), 环的长度与条目数一致
+	 */
+	static class LocalResourceCache extends AbstractMap<Resource, MetadataReader>
+			implements ConcurrentMap<Resource, MetadataReader> {
+
+		private final ConcurrentHashMap<Resource, CacheEntry> entries;
+
+		private final ConcurrentLinkedQueue<CacheEntry> clock = new ConcurrentLinkedQueue<>();
+
+		private final AtomicInteger size = new AtomicInteger();
+
+		private final LongAdder hits = new LongAdder();
+
+		private final LongAdder misses = new LongAdder();
+
+		private final LongAdder evictions = new LongAdder();
+
 		private volatile int cacheLimit;
+
 		public LocalResourceCache(int cacheLimit) {
-			super(cacheLimit, 0.75f, true);
+			this.entries = new ConcurrentHashMap<>(Math.min(cacheLimit, 1024));
 			this.cacheLimit = cacheLimit;
 		}
+
 		public void setCacheLimit(int cacheLimit) {
 			this.cacheLimit = cacheLimit;
+			evict();
 		}
+
 		public int getCacheLimit() {
 			return this.cacheLimit;
 		}
+
+		@Override
+		public MetadataReader get(Object key) {
+			CacheEntry entry = this.entries.get(key);
+			if (entry == null) {
+				this.misses.increment();
+				return null;
+			}
+			if (!entry.referenced) {
+				entry.referenced = true;
+			}
+			this.hits.increment();
+			return entry.value;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return this.entries.containsKey(key);
+		}
+
+		@Override
+		public MetadataReader put(Resource key, MetadataReader value) {
+			CacheEntry entry = new CacheEntry(key, value);
+			CacheEntry previous = this.entries.put(key, entry);
+			if (previous != null) {
+				this.clock.remove(previous);
+				this.clock.offer(entry);
+				return previous.value;
+			}
+			added(entry);
+			return null;
+		}
+
+		@Override
+		public MetadataReader putIfAbsent(Resource key, MetadataReader value) {
+			CacheEntry entry = new CacheEntry(key, value);
+			CacheEntry existing = this.entries.putIfAbsent(key, entry);
+			if (existing != null) {
+				return existing.value;
+			}
+			added(entry);
+			return null;
+		}
+
+		@Override
+		public MetadataReader remove(Object key) {
+			CacheEntry entry = this.entries.remove(key);
+			if (entry == null) {
+				return null;
+			}
+			this.clock.remove(entry);
+			this.size.decrementAndGet();
+			return entry.value;
+		}
+
+		@Override
+		public boolean remove(Object key, Object value) {
+			CacheEntry entry = this.entries.get(key);
+			if (entry != null && entry.value.equals(value) && this.entries.remove(key, entry)) {
+				this.clock.remove(entry);
+				this.size.decrementAndGet();
+				return true;
+			}
+			return false;
+		}
+
+		@Override
+		public boolean replace(Resource key, MetadataReader oldValue, MetadataReader newValue) {
+			CacheEntry entry = this.entries.get(key);
+			CacheEntry replacement = new CacheEntry(key, newValue);
+			if (entry != null && entry.value.equals(oldValue) && this.entries.replace(key, entry, replacement)) {
+				this.clock.remove(entry);
+				this.clock.offer(replacement);
+				return true;
+			}
+			return false;
+		}
+
+		@Override
+		public MetadataReader replace(Resource key, MetadataReader value) {
+			CacheEntry replacement = new CacheEntry(key, value);
+			CacheEntry previous = this.entries.replace(key, replacement);
+			if (previous == null) {
+				return null;
+			}
+			this.clock.remove(previous);
+			this.clock.offer(replacement);
+			return previous.value;
+		}
+
+		@Override
+		public int size() {
+			return this.entries.size();
+		}
+
+		@Override
+		public void clear() {
+			CacheEntry entry;
+			while ((entry = this.clock.poll()) != null) {
+				if (this.entries.remove(entry.key, entry)) {
+					this.size.decrementAndGet();
+				}
+			}
+		}
+
 		@Override
-		protected boolean removeEldestEntry(Map.Entry<Resource, MetadataReader> eldest) {
-			return size() > this.cacheLimit;
+		public Set<Entry<Resource, MetadataReader>> entrySet() {
+			Set<Entry<Resource, MetadataReader>> result = new LinkedHashSet<>();
+			this.entries.forEach((key, entry) -> result.add(new SimpleImmutableEntry<>(key, entry.value)));
+			return result;
+		}
+
+		// 环中的条目数, 与并发的淘汰交错时可能短暂多出已失效的条目
+		int clockLength() {
+			return this.clock.size();
+		}
+
+		private void added(CacheEntry entry) {
+			this.clock.offer(entry);
+			if (this.size.incrementAndGet() > this.cacheLimit) {
+				evict();
+			}
+		}
+
+		private void evict() {
+			while (this.size.get() > this.cacheLimit) {
+				CacheEntry candidate = this.clock.poll();
+				if (candidate == null) {
+					return;
+				}
+				if (this.entries.get(candidate.key) != candidate) {
+					// 已被替换或删除的条目
+					continue;
+				}
+				if (candidate.referenced) {
+					candidate.referenced = false;
+					this.clock.offer(candidate);
+				}
+				else if (this.entries.remove(candidate.key, candidate)) {
+					this.size.decrementAndGet();
+					this.evictions.increment();
+				}
+			}
+		}
+	}
+
+	private static final class CacheEntry {
+
+		final Resource key;
+
+		final MetadataReader value;
+
+		volatile boolean referenced;
+
+		CacheEntry(Resource key, MetadataReader value) {
+			this.key = key;
+			this.value = value;
 		}
 	}
 
@@ -0,0 +1,413 @@
+package com.t13max.ioc.core.type.classreading;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.t13max.ioc.core.type.classreading.ClassFileSummary.AnnotationValue;
+import com.t13max.ioc.core.type.classreading.ClassFileSummary.ArrayValue;
+import com.t13max.ioc.core.type.classreading.ClassFileSummary.EnumValue;
+import com.t13max.ioc.core.type.classreading.ClassFileSummary.MethodSummary;
+import com.t13max.ioc.util.ClassUtils;
+
+/**
+ * 直接解析 .class 字节的轻量解析器, 只读取常量池/类头/方法与注解属性
+ * 只产出不含类加载的 ClassFileSummary, 组件扫描时不会触发候选类的加载和静态初始化, 仅注解类型本身会被解析
+ *
+ * @Author: t13max
+ * @Since: 10:12 2026/10/17
+ */
+final class ClassFileParser {
+
+	private static final int MAGIC = 0xCAFEBABE;
+
+	private static final int ACC_STATIC = 0x0008;
+
+	private static final int ACC_BRIDGE = 0x0040;
+
+	private static final int ACC_INTERFACE = 0x0200;
+
+	private static final int ACC_SYNTHETIC = 0x1000;
+
+	private static final int CONSTANT_UTF8 = 1;
+
+	private static final int CONSTANT_INTEGER = 3;
+
+	private static final int CONSTANT_FLOAT = 4;
+
+	private static final int CONSTANT_LONG = 5;
+
+	private static final int CONSTANT_DOUBLE = 6;
+
+	private static final int CONSTANT_CLASS = 7;
+
+	private static final int CONSTANT_STRING = 8;
+
+	private static final int CONSTANT_FIELDREF = 9;
+
+	private static final int CONSTANT_METHODREF = 10;
+
+	private static final int CONSTANT_INTERFACE_METHODREF = 11;
+
+	private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+	private static final int CONSTANT_METHOD_HANDLE = 15;
+
+	private static final int CONSTANT_METHOD_TYPE = 16;
+
+	private static final int CONSTANT_DYNAMIC = 17;
+
+	private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+
+	private static final int CONSTANT_MODULE = 19;
+
+	private static final int CONSTANT_PACKAGE = 20;
+
+	private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+	private static final String INNER_CLASSES = "InnerClasses";
+
+	private static final String ENCLOSING_METHOD = "EnclosingMethod";
+
+	private final byte[] bytes;
+
+	// 常量池各项在字节数组中的起始偏移 (指向tag之后)
+	private final int[] cpOffsets;
+
+	// utf8常量按需解码后缓存
+	private final String[] utf8Cache;
+
+	private int pos;
+
+	private String className;
+
+
+	private ClassFileParser(byte[] bytes) throws ClassFormatException {
+		this.bytes = bytes;
+		if (bytes.length < 10 || readInt(0) != MAGIC) {
+			throw new ClassFormatException("Not a class file: invalid magic number");
+		}
+		int cpCount = readUnsignedShort(8);
+		this.cpOffsets = new int[cpCount];
+		this.utf8Cache = new String[cpCount];
+		this.pos = 10;
+	}
+
+
+	static SimpleAnnotationMetadata parse(byte[] bytes, ClassLoader classLoader) throws ClassFormatException {
+		return read(bytes).toMetadata(classLoader);
+	}
+
+	static ClassFileSummary read(byte[] bytes) throws ClassFormatException {
+		try {
+			return new ClassFileParser(bytes).read();
+		}
+		catch (ArrayIndexOutOfBoundsException | IllegalStateException ex) {
+			throw new ClassFormatException("Malformed class file: " + ex.getMessage(), ex);
+		}
+	}
+
+	private ClassFileSummary read() throws ClassFormatException {
+		readConstantPool();
+
+		int access = u2();
+		this.className = classNameAt(u2());
+		int superIndex = u2();
+		String superClassName = (superIndex != 0 && (access & ACC_INTERFACE) == 0 ? classNameAt(superIndex) : null);
+		int interfaceCount = u2();
+		String[] interfaceNames = new String[interfaceCount];
+		for (int i = 0; i < interfaceCount; i++) {
+			interfaceNames[i] = classNameAt(u2());
+		}
+
+		// 字段: 只跳过
+		int fieldCount = u2();
+		for (int i = 0; i < fieldCount; i++) {
+			this.pos += 6;
+			skipAttributes(u2());
+		}
+
+		int methodCount = u2();
+		List<MethodSummary> declaredMethods = new ArrayList<>(methodCount);
+		for (int i = 0; i < methodCount; i++) {
+			MethodSummary method = readMethod();
+			if (method != null) {
+				declaredMethods.add(method);
+			}
+		}
+
+		String enclosingClassName = null;
+		boolean independentInnerClass = false;
+		Set<String> memberClassNames = new LinkedHashSet<>(4);
+		List<AnnotationValue> annotations = Collections.emptyList();
+
+		int attributeCount = u2();
+		for (int i = 0; i < attributeCount; i++) {
+			String attributeName = utf8At(u2());
+			int length = u4();
+			int end = this.pos + length;
+			switch (attributeName) {
+				case RUNTIME_VISIBLE_ANNOTATIONS -> annotations = readAnnotations();
+				case ENCLOSING_METHOD -> {
+					// 局部类或匿名类, 一定不是独立类
+					enclosingClassName = classNameAt(u2());
+					independentInnerClass = false;
+				}
+				case INNER_CLASSES -> {
+					int classes = u2();
+					for (int j = 0; j < classes; j++) {
+						int innerIndex = u2();
+						int outerIndex = u2();
+						this.pos += 2;
+						int innerAccess = u2();
+						if (outerIndex == 0) {
+							continue;
+						}
+						String innerName = classNameAt(innerIndex);
+						String outerName = classNameAt(outerIndex);
+						if (this.className.equals(innerName)) {
+							enclosingClassName = outerName;
+							independentInnerClass = ((innerAccess & ACC_STATIC) != 0);
+						}
+						else if (this.className.equals(outerName)) {
+							memberClassNames.add(innerName);
+						}
+					}
+				}
+				default -> {
+				}
+			}
+			this.pos = end;
+		}
+
+		return new ClassFileSummary(this.className, access, enclosingClassName, superClassName,
+				independentInnerClass, interfaceNames, memberClassNames.toArray(new String[0]),
+				declaredMethods, annotations);
+	}
+
+	private void readConstantPool() throws ClassFormatException {
+		int count = this.cpOffsets.length;
+		for (int i = 1; i < count; i++) {
+			int tag = this.bytes[this.pos++];
+			this.cpOffsets[i] = this.pos;
+			switch (tag) {
+				case CONSTANT_UTF8 -> this.pos += 2 + readUnsignedShort(this.pos);
+				case CONSTANT_CLASS, CONSTANT_STRING, CONSTANT_METHOD_TYPE, CONSTANT_MODULE, CONSTANT_PACKAGE ->
+						this.pos += 2;
+				case CONSTANT_METHOD_HANDLE -> this.pos += 3;
+				case CONSTANT_INTEGER, CONSTANT_FLOAT, CONSTANT_FIELDREF, CONSTANT_METHODREF,
+						CONSTANT_INTERFACE_METHODREF, CONSTANT_NAME_AND_TYPE, CONSTANT_DYNAMIC,
+						CONSTANT_INVOKE_DYNAMIC -> this.pos += 4;
+				case CONSTANT_LONG, CONSTANT_DOUBLE -> {
+					// 8字节常量占两个槽位
+					this.pos += 8;
+					i++;
+				}
+				default -> throw new ClassFormatException("Unknown constant pool tag " + tag + " at index " + i);
+			}
+		}
+	}
+
+	private MethodSummary readMethod() {
+		int access = u2();
+		int nameIndex = u2();
+		int descriptorIndex = u2();
+		int attributeCount = u2();
+		String name = utf8At(nameIndex);
+		// 与反射元数据保持一致: 忽略构造器/静态块/桥接与合成方法
+		boolean skip = ((access & (ACC_BRIDGE | ACC_SYNTHETIC)) != 0 || name.charAt(0) == '<');
+		if (skip) {
+			skipAttributes(attributeCount);
+			return null;
+		}
+		String descriptor = utf8At(descriptorIndex);
+		List<AnnotationValue> annotations = Collections.emptyList();
+		for (int i = 0; i < attributeCount; i++) {
+			String attributeName = utf8At(u2());
+			int length = u4();
+			int end = this.pos + length;
+			if (RUNTIME_VISIBLE_ANNOTATIONS.equals(attributeName)) {
+				annotations = readAnnotations();
+			}
+			this.pos = end;
+		}
+		String returnTypeName = toClassName(descriptor.substring(descriptor.indexOf(')') + 1));
+		return new MethodSummary(name, access, descriptor, returnTypeName, annotations);
+	}
+
+	private List<AnnotationValue> readAnnotations() {
+		int count = u2();
+		List<AnnotationValue> annotations = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			annotations.add(readAnnotation());
+		}
+		return annotations;
+	}
+
+	private AnnotationValue readAnnotation() {
+		String typeName = toClassName(utf8At(u2()));
+		int pairCount = u2();
+		Map<String, Object> attributes = new LinkedHashMap<>(pairCount * 2);
+		for (int i = 0; i < pairCount; i++) {
+			String name = utf8At(u2());
+			attributes.put(name, readElementValue());
+		}
+		return new AnnotationValue(typeName, attributes);
+	}
+
+	private Object readElementValue() {
+		int tag = this.bytes[this.pos++];
+		switch (tag) {
+			case 'B':
+				return (byte) intAt(u2());
+			case 'C':
+				return (char) intAt(u2());
+			case 'S':
+				return (short) intAt(u2());
+			case 'Z':
+				return intAt(u2()) != 0;
+			case 'I':
+				return intAt(u2());
+			case 'J':
+				return longAt(u2());
+			case 'F':
+				return Float.intBitsToFloat(intAt(u2()));
+			case 'D':
+				return Double.longBitsToDouble(longAt(u2()));
+			case 's':
+				return utf8At(u2());
+			case 'c':
+				// 与ASM读取方式一致, Class值以类名形式保存, 使用时再按需解析
+				return toClassName(utf8At(u2()));
+			case 'e':
+				return new EnumValue(toClassName(utf8At(u2())), utf8At(u2()));
+			case '@':
+				return readAnnotation();
+			case '[':
+				return readArrayValue();
+			default:
+				throw new IllegalStateException("Unknown element value tag '" + (char) tag + "' in " + this.className);
+		}
+	}
+
+	private ArrayValue readArrayValue() {
+		int count = u2();
+		if (count == 0) {
+			return new ArrayValue((char) 0, new Object[0]);
+		}
+		char firstTag = (char) this.bytes[this.pos];
+		Object[] elements = new Object[count];
+		for (int i = 0; i < count; i++) {
+			elements[i] = readElementValue();
+		}
+		return new ArrayValue(firstTag, elements);
+	}
+
+	private void skipAttributes(int count) {
+		for (int i = 0; i < count; i++) {
+			this.pos += 2;
+			int length = u4();
+			this.pos += length;
+		}
+	}
+
+	private static String toClassName(String descriptor) {
+		int dimensions = 0;
+		while (descriptor.charAt(dimensions) == '[') {
+			dimensions++;
+		}
+		char type = descriptor.charAt(dimensions);
+		String name = switch (type) {
+			case 'V' -> "void";
+			case 'Z' -> "boolean";
+			case 'C' -> "char";
+			case 'B' -> "byte";
+			case 'S' -> "short";
+			case 'I' -> "int";
+			case 'F' -> "float";
+			case 'J' -> "long";
+			case 'D' -> "double";
+			case 'L' -> descriptor.substring(dimensions + 1, descriptor.length() - 1).replace('/', '.');
+			default -> throw new IllegalStateException("Invalid type descriptor: " + descriptor);
+		};
+		if (dimensions == 0) {
+			return name;
+		}
+		StringBuilder sb = new StringBuilder(name.length() + dimensions * 2).append(name);
+		for (int i = 0; i < dimensions; i++) {
+			sb.append(ClassUtils.ARRAY_SUFFIX);
+		}
+		return sb.toString();
+	}
+
+	private String classNameAt(int index) {
+		return utf8At(readUnsignedShort(this.cpOffsets[index])).replace('/', '.');
+	}
+
+	private int intAt(int index) {
+		return readInt(this.cpOffsets[index]);
+	}
+
+	private long longAt(int index) {
+		int offset = this.cpOffsets[index];
+		return ((long) readInt(offset) << 32) | (readInt(offset + 4) & 0xFFFFFFFFL);
+	}
+
+	private String utf8At(int index) {
+		String value = this.utf8Cache[index];
+		if (value == null) {
+			value = decodeUtf8(this.cpOffsets[index]);
+			this.utf8Cache[index] = value;
+		}
+		return value;
+	}
+
+	// 常量池使用的是 modified UTF-8
+	private String decodeUtf8(int offset) {
+		int length = readUnsignedShort(offset);
+		int index = offset + 2;
+		int end = index + length;
+		char[] chars = new char[length];
+		int count = 0;
+		while (index < end) {
+			int c = this.bytes[index++] & 0xFF;
+			if (c < 0x80) {
+				chars[count++] = (char) c;
+			}
+			else if ((c & 0xE0) == 0xC0) {
+				chars[count++] = (char) (((c & 0x1F) << 6) | (this.bytes[index++] & 0x3F));
+			}
+			else {
+				chars[count++] = (char) (((c & 0x0F) << 12) | ((this.bytes[index++] & 0x3F) << 6) |
+						(this.bytes[index++] & 0x3F));
+			}
+		}
+		return new String(chars, 0, count);
+	}
+
+	private int u2() {
+		int value = readUnsignedShort(this.pos);
+		this.pos += 2;
+		return value;
+	}
+
+	private int u4() {
+		int value = readInt(this.pos);
+		this.pos += 4;
+		return value;
+	}
+
+	private int readUnsignedShort(int offset) {
+		return ((this.bytes[offset] & 0xFF) << 8) | (this.bytes[offset + 1] & 0xFF);
+	}
+
+	private int readInt(int offset) {
+		return ((this.bytes[offset] & 0xFF) << 24) | ((this.bytes[offset + 1] & 0xFF) << 16) |
+				((this.bytes[offset + 2] & 0xFF) << 8) | (this.bytes[offset + 3] & 0xFF);
+	}
+
+}
@@ -0,0 +1,398 @@
+package com.t13max.ioc.core.type.classreading;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.t13max.ioc.core.annotation.MergedAnnotation;
+import com.t13max.ioc.core.annotation.MergedAnnotations;
+import com.t13max.ioc.core.type.MethodMetadata;
+import com.t13max.ioc.util.ClassUtils;
+
+/**
+ * ClassFileParser 从字节码读出的原始数据, 注解/枚举只保留类型名, 不做任何类加载
+ * 通过 toMetadata 按 ClassLoader 解析为 AnnotationMetadata; 可以写入/读回二进制形式, 供扫描缓存跳过类文件解析
+ *
+ * @Author: t13max
+ * @Since: 09:40 2026/10/17
+ */
+final class ClassFileSummary {
+
+	// 二进制格式变化时递增, 旧格式的数据直接视为不可用
+	static final int FORMAT_VERSION = 1;
+
+	private final String className;
+
+	private final int access;
+
+	private final String enclosingClassName;
+
+	private final String superClassName;
+
+	private final boolean independentInnerClass;
+
+	private final String[] interfaceNames;
+
+	private final String[] memberClassNames;
+
+	private final List<MethodSummary> methods;
+
+	private final List<AnnotationValue> annotations;
+
+
+	ClassFileSummary(String className, int access, String enclosingClassName, String superClassName,
+			boolean independentInnerClass, String[] interfaceNames, String[] memberClassNames,
+			List<MethodSummary> methods, List<AnnotationValue> annotations) {
+
+		this.className = className;
+		this.access = access;
+		this.enclosingClassName = enclosingClassName;
+		this.superClassName = superClassName;
+		this.independentInnerClass = independentInnerClass;
+		this.interfaceNames = interfaceNames;
+		this.memberClassNames = memberClassNames;
+		this.methods = methods;
+		this.annotations = annotations;
+	}
+
+
+	String getClassName() {
+		return this.className;
+	}
+
+	SimpleAnnotationMetadata toMetadata(ClassLoader classLoader) {
+		MethodMetadata[] declaredMethods = new MethodMetadata[this.methods.size()];
+		for (int i = 0; i < declaredMethods.length; i++) {
+			MethodSummary method = this.methods.get(i);
+			Object source = new Source(this.className + '.' + method.name() + method.descriptor());
+			declaredMethods[i] = new SimpleMethodMetadata(method.name(), method.access(), this.className,
+					method.returnTypeName(), resolveAnnotations(method.annotations(), source, classLoader));
+		}
+		return new SimpleAnnotationMetadata(this.className, this.access, this.enclosingClassName,
+				this.superClassName, this.independentInnerClass, this.interfaceNames, this.memberClassNames,
+				declaredMethods, resolveAnnotations(this.annotations, new Source(this.className), classLoader));
+	}
+
+	private static MergedAnnotations resolveAnnotations(List<AnnotationValue> values, Object source,
+			ClassLoader classLoader) {
+
+		List<MergedAnnotation<?>> annotations = new ArrayList<>(values.size());
+		for (AnnotationValue value : values) {
+			MergedAnnotation<?> annotation = resolveAnnotation(value, source, classLoader);
+			if (annotation != null) {
+				annotations.add(annotation);
+			}
+		}
+		return MergedAnnotations.of(annotations);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static MergedAnnotation<?> resolveAnnotation(AnnotationValue value, Object source, ClassLoader classLoader) {
+		if (isPlainAnnotation(value.typeName())) {
+			return null;
+		}
+		Class<Annotation> annotationType;
+		try {
+			annotationType = (Class<Annotation>) ClassUtils.forName(value.typeName(), classLoader);
+		}
+		catch (ClassNotFoundException | LinkageError ex) {
+			// 注解类型不在类路径上: 与反射行为一致, 直接忽略
+			return null;
+		}
+		Map<String, Object> attributes = new LinkedHashMap<>(value.attributes().size() * 2);
+		value.attributes().forEach((name, raw) -> {
+			Object resolved = resolveValue(raw, source, classLoader);
+			if (resolved != null) {
+				attributes.put(name, resolved);
+			}
+		});
+		return MergedAnnotation.of(classLoader, source, annotationType, attributes);
+	}
+
+	private static Object resolveValue(Object raw, Object source, ClassLoader classLoader) {
+		if (raw instanceof EnumValue enumValue) {
+			return resolveEnum(enumValue, classLoader);
+		}
+		if (raw instanceof AnnotationValue annotationValue) {
+			return resolveAnnotation(annotationValue, source, classLoader);
+		}
+		if (raw instanceof ArrayValue arrayValue) {
+			return resolveArray(arrayValue, source, classLoader);
+		}
+		return raw;
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static Object resolveEnum(EnumValue value, ClassLoader classLoader) {
+		try {
+			Class<? extends Enum> enumType = (Class<? extends Enum>) ClassUtils.forName(value.typeName(), classLoader);
+			return Enum.valueOf(enumType, value.constantName());
+		}
+		catch (ClassNotFoundException | LinkageError | IllegalArgumentException ex) {
+			return null;
+		}
+	}
+
+	private static Object resolveArray(ArrayValue value, Object source, ClassLoader classLoader) {
+		List<Object> elements = new ArrayList<>(value.elements().length);
+		for (Object raw : value.elements()) {
+			Object element = resolveValue(raw, source, classLoader);
+			if (element != null) {
+				elements.add(element);
+			}
+		}
+		if (elements.isEmpty()) {
+			return new Object[0];
+		}
+		Class<?> componentType = switch (value.tag()) {
+			case 'B' -> byte.class;
+			case 'C' -> char.class;
+			case 'S' -> short.class;
+			case 'Z' -> boolean.class;
+			case 'I' -> int.class;
+			case 'J' -> long.class;
+			case 'F' -> float.class;
+			case 'D' -> double.class;
+			case '@' -> MergedAnnotation.class;
+			default -> {
+				Object first = elements.get(0);
+				yield (first instanceof Enum<?> enumValue ? enumValue.getDeclaringClass() : first.getClass());
+			}
+		};
+		Object array = Array.newInstance(componentType, elements.size());
+		for (int i = 0; i < elements.size(); i++) {
+			Array.set(array, i, elements.get(i));
+		}
+		return array;
+	}
+
+	private static boolean isPlainAnnotation(String typeName) {
+		return (typeName.startsWith("java.lang.") || typeName.startsWith("com.t13max.ioc.lang."));
+	}
+
+
+	void writeTo(DataOutput out) throws IOException {
+		out.writeUTF(this.className);
+		out.writeInt(this.access);
+		writeNullableString(out, this.enclosingClassName);
+		writeNullableString(out, this.superClassName);
+		out.writeBoolean(this.independentInnerClass);
+		writeStrings(out, this.interfaceNames);
+		writeStrings(out, this.memberClassNames);
+		out.writeInt(this.methods.size());
+		for (MethodSummary method : this.methods) {
+			out.writeUTF(method.name());
+			out.writeInt(method.access());
+			out.writeUTF(method.descriptor());
+			out.writeUTF(method.returnTypeName());
+			writeAnnotations(out, method.annotations());
+		}
+		writeAnnotations(out, this.annotations);
+	}
+
+	static ClassFileSummary readFrom(DataInput in) throws IOException {
+		String className = in.readUTF();
+		int access = in.readInt();
+		String enclosingClassName = readNullableString(in);
+		String superClassName = readNullableString(in);
+		boolean independentInnerClass = in.readBoolean();
+		String[] interfaceNames = readStrings(in);
+		String[] memberClassNames = readStrings(in);
+		int methodCount = in.readInt();
+		List<MethodSummary> methods = new ArrayList<>(methodCount);
+		for (int i = 0; i < methodCount; i++) {
+			methods.add(new MethodSummary(in.readUTF(), in.readInt(), in.readUTF(), in.readUTF(), readAnnotations(in)));
+		}
+		return new ClassFileSummary(className, access, enclosingClassName, superClassName, independentInnerClass,
+				interfaceNames, memberClassNames, methods, readAnnotations(in));
+	}
+
+	private static void writeAnnotations(DataOutput out, List<AnnotationValue> annotations) throws IOException {
+		out.writeInt(annotations.size());
+		for (AnnotationValue annotation : annotations) {
+			writeAnnotation(out, annotation);
+		}
+	}
+
+	private static List<AnnotationValue> readAnnotations(DataInput in) throws IOException {
+		int count = in.readInt();
+		List<AnnotationValue> annotations = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			annotations.add(readAnnotation(in));
+		}
+		return annotations;
+	}
+
+	private static void writeAnnotation(DataOutput out, AnnotationValue annotation) throws IOException {
+		out.writeUTF(annotation.typeName());
+		out.writeInt(annotation.attributes().size());
+		for (Map.Entry<String, Object> entry : annotation.attributes().entrySet()) {
+			out.writeUTF(entry.getKey());
+			writeValue(out, entry.getValue());
+		}
+	}
+
+	private static AnnotationValue readAnnotation(DataInput in) throws IOException {
+		String typeName = in.readUTF();
+		int count = in.readInt();
+		Map<String, Object> attributes = new LinkedHashMap<>(count * 2);
+		for (int i = 0; i < count; i++) {
+			attributes.put(in.readUTF(), readValue(in));
+		}
+		return new AnnotationValue(typeName, attributes);
+	}
+
+	// 与类文件 element_value 使用同样的标记; Class 值和字符串一样按类名保存
+	private static void writeValue(DataOutput out, Object value) throws IOException {
+		if (value instanceof Byte b) {
+			out.writeByte('B');
+			out.writeByte(b);
+		}
+		else if (value instanceof Character c) {
+			out.writeByte('C');
+			out.writeChar(c);
+		}
+		else if (value instanceof Short s) {
+			out.writeByte('S');
+			out.writeShort(s);
+		}
+		else if (value instanceof Boolean z) {
+			out.writeByte('Z');
+			out.writeBoolean(z);
+		}
+		else if (value instanceof Integer i) {
+			out.writeByte('I');
+			out.writeInt(i);
+		}
+		else if (value instanceof Long j) {
+			out.writeByte('J');
+			out.writeLong(j);
+		}
+		else if (value instanceof Float f) {
+			out.writeByte('F');
+			out.writeFloat(f);
+		}
+		else if (value instanceof Double d) {
+			out.writeByte('D');
+			out.writeDouble(d);
+		}
+		else if (value instanceof String s) {
+			out.writeByte('s');
+			out.writeUTF(s);
+		}
+		else if (value instanceof EnumValue e) {
+			out.writeByte('e');
+			out.writeUTF(e.typeName());
+			out.writeUTF(e.constantName());
+		}
+		else if (value instanceof AnnotationValue a) {
+			out.writeByte('@');
+			writeAnnotation(out, a);
+		}
+		else if (value instanceof ArrayValue a) {
+			out.writeByte('[');
+			out.writeChar(a.tag());
+			out.writeInt(a.elements().length);
+			for (Object element : a.elements()) {
+				writeValue(out, element);
+			}
+		}
+		else {
+			throw new IllegalStateException("Unexpected attribute value type: " + value.getClass().getName());
+		}
+	}
+
+	private static Object readValue(DataInput in) throws IOException {
+		int tag = in.readByte();
+		switch (tag) {
+			case 'B':
+				return in.readByte();
+			case 'C':
+				return in.readChar();
+			case 'S':
+				return in.readShort();
+			case 'Z':
+				return in.readBoolean();
+			case 'I':
+				return in.readInt();
+			case 'J':
+				return in.readLong();
+			case 'F':
+				return in.readFloat();
+			case 'D':
+				return in.readDouble();
+			case 's':
+				return in.readUTF();
+			case 'e':
+				return new EnumValue(in.readUTF(), in.readUTF());
+			case '@':
+				return readAnnotation(in);
+			case '[': {
+				char elementTag = in.readChar();
+				Object[] elements = new Object[in.readInt()];
+				for (int i = 0; i < elements.length; i++) {
+					elements[i] = readValue(in);
+				}
+				return new ArrayValue(elementTag, elements);
+			}
+			default:
+				throw new ClassFormatException("Unknown attribute value tag '" + (char) tag + "'");
+		}
+	}
+
+	private static void writeNullableString(DataOutput out, String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+	private static String readNullableString(DataInput in) throws IOException {
+		return (in.readBoolean() ? in.readUTF() : null);
+	}
+
+	private static void writeStrings(DataOutput out, String[] values) throws IOException {
+		out.writeInt(values.length);
+		for (String value : values) {
+			out.writeUTF(value);
+		}
+	}
+
+	private static String[] readStrings(DataInput in) throws IOException {
+		String[] values = new String[in.readInt()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = in.readUTF();
+		}
+		return values;
+	}
+
+
+	record MethodSummary(String name, int access, String descriptor, String returnTypeName,
+			List<AnnotationValue> annotations) {
+	}
+
+	record AnnotationValue(String typeName, Map<String, Object> attributes) {
+	}
+
+	record EnumValue(String typeName, String constantName) {
+	}
+
+	// tag 为第一个元素的 element_value 标记, 空数组时为0
+	record ArrayValue(char tag, Object[] elements) {
+	}
+
+	private record Source(String declaringName) {
+
+		@Override
+		public String toString() {
+			return this.declaringName;
+		}
+	}
+
+}
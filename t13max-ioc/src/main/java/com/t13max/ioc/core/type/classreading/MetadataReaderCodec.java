@@ -0,0 +1,41 @@
+package com.t13max.ioc.core.type.classreading;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import com.t13max.ioc.core.io.Resource;
+
+/**
+ * MetadataReader 的二进制读写, 保存的是解析 .class 得到的原始数据而非类文件本身
+ * 读回时只需按 ClassLoader 解析注解类型, 不再读取和解析类文件; 仅支持由 ClassFileParser 产生的 MetadataReader
+ *
+ * @Author: t13max
+ * @Since: 09:40 2026/10/17
+ */
+public final class MetadataReaderCodec {
+
+	private MetadataReaderCodec() {
+	}
+
+
+	public static int getFormatVersion() {
+		return ClassFileSummary.FORMAT_VERSION;
+	}
+
+	public static boolean isEncodable(MetadataReader metadataReader) {
+		return (metadataReader instanceof SimpleMetadataReader);
+	}
+
+	public static void encode(MetadataReader metadataReader, DataOutput out) throws IOException {
+		if (!(metadataReader instanceof SimpleMetadataReader simpleMetadataReader)) {
+			throw new IllegalArgumentException("Cannot encode " + metadataReader.getClass().getName());
+		}
+		simpleMetadataReader.getSummary().writeTo(out);
+	}
+
+	public static MetadataReader decode(Resource resource, DataInput in, ClassLoader classLoader) throws IOException {
+		return new SimpleMetadataReader(resource, ClassFileSummary.readFrom(in), classLoader);
+	}
+
+}
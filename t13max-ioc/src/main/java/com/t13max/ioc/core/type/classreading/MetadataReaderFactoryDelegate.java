@@ -0,0 +1,21 @@
+package com.t13max.ioc.core.type.classreading;
+
+import com.t13max.ioc.core.io.ResourceLoader;
+
+/**
+ * MetadataReaderFactory 静态工厂方法的内部实现
+ *
+ * @Author: t13max
+ * @Since: 10:12 2026/10/17
+ */
+abstract class MetadataReaderFactoryDelegate {
+
+	static MetadataReaderFactory create(ResourceLoader resourceLoader) {
+		return new SimpleMetadataReaderFactory(resourceLoader);
+	}
+
+	static MetadataReaderFactory create(ClassLoader classLoader) {
+		return new SimpleMetadataReaderFactory(classLoader);
+	}
+
+}
@@ -0,0 +1,161 @@
+package com.t13max.ioc.core.type.classreading;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import com.t13max.ioc.core.annotation.MergedAnnotations;
+import com.t13max.ioc.core.type.AnnotationMetadata;
+import com.t13max.ioc.core.type.MethodMetadata;
+
+/**
+ * 由 ClassFileParser 直接从字节码构建的 AnnotationMetadata, 不持有 Class 引用
+ *
+ * @Author: t13max
+ * @Since: 10:12 2026/10/17
+ */
+final class SimpleAnnotationMetadata implements AnnotationMetadata {
+
+	private static final int ACC_FINAL = 0x0010;
+
+	private static final int ACC_INTERFACE = 0x0200;
+
+	private static final int ACC_ABSTRACT = 0x0400;
+
+	private static final int ACC_ANNOTATION = 0x2000;
+
+	private final String className;
+
+	private final int access;
+
+	private final String enclosingClassName;
+
+	private final String superClassName;
+
+	private final boolean independentInnerClass;
+
+	private final String[] interfaceNames;
+
+	private final String[] memberClassNames;
+
+	private final MethodMetadata[] declaredMethods;
+
+	private final MergedAnnotations mergedAnnotations;
+
+	private Set<String> annotationTypes;
+
+
+	SimpleAnnotationMetadata(String className, int access, String enclosingClassName,
+			String superClassName, boolean independentInnerClass, String[] interfaceNames,
+			String[] memberClassNames, MethodMetadata[] declaredMethods, MergedAnnotations mergedAnnotations) {
+
+		this.className = className;
+		this.access = access;
+		this.enclosingClassName = enclosingClassName;
+		this.superClassName = superClassName;
+		this.independentInnerClass = independentInnerClass;
+		this.interfaceNames = interfaceNames;
+		this.memberClassNames = memberClassNames;
+		this.declaredMethods = declaredMethods;
+		this.mergedAnnotations = mergedAnnotations;
+	}
+
+	@Override
+	public String getClassName() {
+		return this.className;
+	}
+
+	@Override
+	public boolean isInterface() {
+		return (this.access & ACC_INTERFACE) != 0;
+	}
+
+	@Override
+	public boolean isAnnotation() {
+		return (this.access & ACC_ANNOTATION) != 0;
+	}
+
+	@Override
+	public boolean isAbstract() {
+		return (this.access & ACC_ABSTRACT) != 0;
+	}
+
+	@Override
+	public boolean isFinal() {
+		return (this.access & ACC_FINAL) != 0;
+	}
+
+	@Override
+	public boolean isIndependent() {
+		return (this.enclosingClassName == null || this.independentInnerClass);
+	}
+
+	@Override
+	public String getEnclosingClassName() {
+		return this.enclosingClassName;
+	}
+
+	@Override
+	public String getSuperClassName() {
+		return this.superClassName;
+	}
+
+	@Override
+	public String[] getInterfaceNames() {
+		return this.interfaceNames.clone();
+	}
+
+	@Override
+	public String[] getMemberClassNames() {
+		return this.memberClassNames.clone();
+	}
+
+	@Override
+	public MergedAnnotations getAnnotations() {
+		return this.mergedAnnotations;
+	}
+
+	@Override
+	public Set<String> getAnnotationTypes() {
+		Set<String> annotationTypes = this.annotationTypes;
+		if (annotationTypes == null) {
+			annotationTypes = Collections.unmodifiableSet(AnnotationMetadata.super.getAnnotationTypes());
+			this.annotationTypes = annotationTypes;
+		}
+		return annotationTypes;
+	}
+
+	@Override
+	public Set<MethodMetadata> getAnnotatedMethods(String annotationName) {
+		Set<MethodMetadata> result = new LinkedHashSet<>(4);
+		for (MethodMetadata method : this.declaredMethods) {
+			if (method.isAnnotated(annotationName)) {
+				result.add(method);
+			}
+		}
+		return Collections.unmodifiableSet(result);
+	}
+
+	@Override
+	public Set<MethodMetadata> getDeclaredMethods() {
+		Set<MethodMetadata> result = new LinkedHashSet<>(this.declaredMethods.length);
+		Collections.addAll(result, this.declaredMethods);
+		return Collections.unmodifiableSet(result);
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return (this == other || (other instanceof SimpleAnnotationMetadata that && this.className.equals(that.className)));
+	}
+
+	@Override
+	public int hashCode() {
+		return this.className.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return this.className;
+	}
+
+}
@@ -0,0 +1,71 @@
+package com.t13max.ioc.core.type.classreading;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.t13max.ioc.core.io.Resource;
+import com.t13max.ioc.core.type.AnnotationMetadata;
+import com.t13max.ioc.core.type.ClassMetadata;
+import com.t13max.ioc.util.FileCopyUtils;
+
+/**
+ * 基于 ClassFileParser 的 MetadataReader, 只读取 .class 字节, 不加载目标类
+ *
+ * @Author: t13max
+ * @Since: 10:12 2026/10/17
+ */
+final class SimpleMetadataReader implements MetadataReader {
+
+	private final Resource resource;
+
+	private final ClassFileSummary summary;
+
+	private final AnnotationMetadata annotationMetadata;
+
+
+	SimpleMetadataReader(Resource resource, ClassLoader classLoader) throws IOException {
+		this(resource, read(resource, readClassBytes(resource)), classLoader);
+	}
+
+	SimpleMetadataReader(Resource resource, ClassFileSummary summary, ClassLoader classLoader) {
+		this.resource = resource;
+		this.summary = summary;
+		this.annotationMetadata = summary.toMetadata(classLoader);
+	}
+
+	private static byte[] readClassBytes(Resource resource) throws IOException {
+		try (InputStream is = resource.getInputStream()) {
+			return FileCopyUtils.copyToByteArray(is);
+		}
+	}
+
+	private static ClassFileSummary read(Resource resource, byte[] bytes) throws ClassFormatException {
+		try {
+			return ClassFileParser.read(bytes);
+		}
+		catch (ClassFormatException ex) {
+			throw new ClassFormatException("Failed to parse class file " + resource + ": " + ex.getMessage(), ex);
+		}
+	}
+
+
+	ClassFileSummary getSummary() {
+		return this.summary;
+	}
+
+	@Override
+	public Resource getResource() {
+		return this.resource;
+	}
+
+	@Override
+	public ClassMetadata getClassMetadata() {
+		return this.annotationMetadata;
+	}
+
+	@Override
+	public AnnotationMetadata getAnnotationMetadata() {
+		return this.annotationMetadata;
+	}
+
+}
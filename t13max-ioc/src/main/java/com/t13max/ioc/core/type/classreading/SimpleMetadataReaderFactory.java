@@ -0,0 +1,71 @@
+package com.t13max.ioc.core.type.classreading;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+import com.t13max.ioc.core.io.DefaultResourceLoader;
+import com.t13max.ioc.core.io.Resource;
+import com.t13max.ioc.core.io.ResourceLoader;
+import com.t13max.ioc.util.ClassUtils;
+import com.t13max.ioc.util.ResourceUtils;
+
+/**
+ * 每次请求都重新解析 .class 字节的 MetadataReaderFactory, 需要缓存时使用 CachingMetadataReaderFactory
+ *
+ * @Author: t13max
+ * @Since: 10:12 2026/10/17
+ */
+public class SimpleMetadataReaderFactory implements MetadataReaderFactory {
+
+	private final ResourceLoader resourceLoader;
+
+
+	public SimpleMetadataReaderFactory() {
+		this.resourceLoader = new DefaultResourceLoader();
+	}
+
+	public SimpleMetadataReaderFactory(ResourceLoader resourceLoader) {
+		this.resourceLoader = (resourceLoader != null ? resourceLoader : new DefaultResourceLoader());
+	}
+
+	public SimpleMetadataReaderFactory(ClassLoader classLoader) {
+		this.resourceLoader =
+				(classLoader != null ? new DefaultResourceLoader(classLoader) : new DefaultResourceLoader());
+	}
+
+
+	public final ResourceLoader getResourceLoader() {
+		return this.resourceLoader;
+	}
+
+	@Override
+	public MetadataReader getMetadataReader(String className) throws IOException {
+		try {
+			String resourcePath = ResourceUtils.CLASSPATH_URL_PREFIX +
+					ClassUtils.convertClassNameToResourcePath(className) + ClassUtils.CLASS_FILE_SUFFIX;
+			Resource resource = this.resourceLoader.getResource(resourcePath);
+			return getMetadataReader(resource);
+		}
+		catch (FileNotFoundException ex) {
+			// 可能是以 '.' 分隔的内部类名, 按 '$' 再尝试一次
+			int lastDotIndex = className.lastIndexOf('.');
+			if (lastDotIndex != -1) {
+				String innerClassName =
+						className.substring(0, lastDotIndex) + '$' + className.substring(lastDotIndex + 1);
+				String innerClassResourcePath = ResourceUtils.CLASSPATH_URL_PREFIX +
+						ClassUtils.convertClassNameToResourcePath(innerClassName) + ClassUtils.CLASS_FILE_SUFFIX;
+				Resource innerClassResource = this.resourceLoader.getResource(innerClassResourcePath);
+				if (innerClassResource.exists()) {
+					return getMetadataReader(innerClassResource);
+				}
+			}
+			throw ex;
+		}
+	}
+
+	@Override
+	public MetadataReader getMetadataReader(Resource resource) throws IOException {
+		return new SimpleMetadataReader(resource, this.resourceLoader.getClassLoader());
+	}
+
+}
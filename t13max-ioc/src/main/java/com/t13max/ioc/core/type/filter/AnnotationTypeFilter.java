@@ -13,6 +13,7 @@ import com.t13max.ioc.util.ClassUtils;
 public class AnnotationTypeFilter extends AbstractTypeHierarchyTraversingFilter {
 	private final Class<? extends Annotation> annotationType;
 	private final boolean considerMetaAnnotations;
+	private final boolean considerInterfaces;
 
 
 	public AnnotationTypeFilter(Class<? extends Annotation> annotationType) {
@@ -28,11 +29,20 @@ public class AnnotationTypeFilter extends AbstractTypeHierarchyTraversingFilter
 		super(annotationType.isAnnotationPresent(Inherited.class), considerInterfaces);
 		this.annotationType = annotationType;
 		this.considerMetaAnnotations = considerMetaAnnotations;
+		this.considerInterfaces = considerInterfaces;
 	}
 
 	public final Class<? extends Annotation> getAnnotationType() {
 		return this.annotationType;
 	}
+
+	public final boolean isConsiderMetaAnnotations() {
+		return this.considerMetaAnnotations;
+	}
+
+	public final boolean isConsiderInterfaces() {
+		return this.considerInterfaces;
+	}
 	@Override
 	protected boolean matchSelf(MetadataReader metadataReader) {
 		AnnotationMetadata metadata = metadataReader.getAnnotationMetadata();
@@ -0,0 +1,87 @@
+package com.t13max.ioc.aop.framework;
+
+import com.t13max.ioc.aop.Advice;
+import com.t13max.ioc.aop.intecept.MethodInterceptor;
+import com.t13max.ioc.aop.intecept.MethodInvocation;
+
+/**
+ * 代理调用吞吐(次/秒): JDK动态代理、CGLIB、hidden class 三种代理, 分别在无通知、1个通知、5个通知下对比
+ * 调用一个带基本类型参数和返回值的方法, 装箱和连接点调用的开销都计入
+ * 运行: 以测试类路径执行 main, 可选参数 每轮调用数 轮数
+ *
+ * @author t13max
+ * @since 13:40 2026/10/17
+ */
+public class AopProxyBenchmark {
+
+    private static final int[] ADVICE_COUNTS = {0, 1, 5};
+
+    public static void main(String[] args) {
+        int perRound = (args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000);
+        int rounds = (args.length > 1 ? Integer.parseInt(args[1]) : 10);
+
+        System.out.printf("%d calls per round, %d rounds (first 3 rounds are warm-up)%n", perRound, rounds);
+        for (int adviceCount : ADVICE_COUNTS) {
+            Counter jdk = (Counter) new JdkDynamicAopProxy(createConfig(adviceCount)).getProxy();
+            Counter cglib = (Counter) new CglibAopProxy(createConfig(adviceCount)).getProxy();
+            Counter hidden = (Counter) new HiddenClassAopProxy(createConfig(adviceCount)).getProxy();
+            if (!hidden.getClass().isHidden()) {
+                throw new IllegalStateException("Hidden class proxy fell back to " + hidden.getClass());
+            }
+            for (int round = 0; round < rounds; round++) {
+                double jdkRate = measure(jdk, perRound);
+                double cglibRate = measure(cglib, perRound);
+                double hiddenRate = measure(hidden, perRound);
+                if (round >= 3) {
+                    System.out.printf("%d advice  round %2d  jdk: %,13.0f/s  cglib: %,13.0f/s  hidden: %,13.0f/s%n",
+                            adviceCount, round, jdkRate, cglibRate, hiddenRate);
+                }
+            }
+        }
+    }
+
+    private static AdvisedSupport createConfig(int adviceCount) {
+        AdvisedSupport config = new AdvisedSupport(Counter.class);
+        config.setTarget(new SimpleCounter());
+        for (int i = 0; i < adviceCount; i++) {
+            config.addAdvice(new PassThroughInterceptor());
+        }
+        return config;
+    }
+
+    private static double measure(Counter counter, int count) {
+        long sum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            sum += counter.add(i, 1);
+        }
+        long nanos = System.nanoTime() - start;
+        if (sum == 0) {
+            throw new IllegalStateException();
+        }
+        return count / (nanos / 1_000_000_000.0);
+    }
+
+
+    public interface Counter {
+
+        long add(long value, int delta);
+    }
+
+    public static class SimpleCounter implements Counter {
+
+        @Override
+        public long add(long value, int delta) {
+            return value + delta;
+        }
+    }
+
+    static class PassThroughInterceptor implements MethodInterceptor, Advice {
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            return invocation.proceed();
+        }
+    }
+
+}
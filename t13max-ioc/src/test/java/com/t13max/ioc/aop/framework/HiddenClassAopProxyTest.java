@@ -0,0 +1,375 @@
+package com.t13max.ioc.aop.framework;
+
+import com.t13max.ioc.aop.Advice;
+import com.t13max.ioc.aop.AopInvocationException;
+import com.t13max.ioc.aop.intecept.MethodInterceptor;
+import com.t13max.ioc.aop.intecept.MethodInvocation;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * hidden class代理与JDK动态代理的行为一致性: 基本类型与数组、默认方法、受检异常包装、equals/hashCode/Advised、
+ * 序列化、类加载器选择以及无法生成时退回JDK动态代理
+ *
+ * @author t13max
+ * @since 13:10 2026/10/17
+ */
+public class HiddenClassAopProxyTest {
+
+    @Test
+    public void primitivesAndArraysRoundTrip() {
+        Calculator proxy = (Calculator) createProxy(new SimpleCalculator(), Calculator.class, new CountingInterceptor());
+        assertTrue(proxy.getClass().isHidden());
+        assertEquals(7, proxy.add(3, 4));
+        assertEquals(Long.MAX_VALUE - 1, proxy.decrement(Long.MAX_VALUE));
+        assertEquals(1.5, proxy.half(3.0), 0.0);
+        assertTrue(proxy.negate(false));
+        assertEquals('B', proxy.next('A'));
+        assertEquals((byte) 2, proxy.twice((byte) 1));
+        assertEquals((short) -1, proxy.flip((short) 1));
+        assertEquals(0.5f, proxy.ratio(1, 2), 0.0f);
+        assertArrayEquals(new int[]{3, 2, 1}, proxy.reverse(new int[]{1, 2, 3}));
+        assertArrayEquals(new String[]{"a", "b"}, proxy.split("a,b"));
+        assertArrayEquals(new long[0][], proxy.empty());
+        proxy.reset();
+    }
+
+    @Test
+    public void nullForPrimitiveReturnRejected() {
+        Calculator proxy = (Calculator) createProxy(new SimpleCalculator(), Calculator.class, new NullReturningInterceptor());
+        assertThrows(AopInvocationException.class, () -> proxy.add(1, 2));
+    }
+
+    @Test
+    public void defaultMethodsDispatchToTarget() {
+        CountingInterceptor interceptor = new CountingInterceptor();
+        Greeter proxy = (Greeter) createProxy(new PlainGreeter(), Greeter.class, interceptor);
+        assertEquals("Hello, world", proxy.greet("world"));
+        assertEquals("Hi, world", new OverridingGreeter().greet("world"));
+        Greeter overriding = (Greeter) createProxy(new OverridingGreeter(), Greeter.class, interceptor);
+        assertEquals("Hi, world", overriding.greet("world"));
+        // 默认方法调用的 name() 经过目标对象自身, 不再经过代理
+        assertEquals(2, interceptor.count.get());
+    }
+
+    @Test
+    public void declaredCheckedExceptionPropagates() {
+        Thrower proxy = (Thrower) createProxy(new FailingThrower(), Thrower.class, new CountingInterceptor());
+        assertThrows(IOException.class, proxy::declared);
+        assertThrows(IllegalStateException.class, proxy::unchecked);
+    }
+
+    @Test
+    public void undeclaredCheckedExceptionWrapped() {
+        Thrower proxy = (Thrower) createProxy(new FailingThrower(), Thrower.class, new CheckedThrowingInterceptor());
+        UndeclaredThrowableException ex = assertThrows(UndeclaredThrowableException.class, proxy::unchecked);
+        assertTrue(ex.getUndeclaredThrowable() instanceof Exception);
+        // 声明过的受检异常原样抛出
+        assertThrows(IOException.class, proxy::declared);
+    }
+
+    @Test
+    public void equalsHashCodeAndAdvised() throws Exception {
+        SimpleCalculator target = new SimpleCalculator();
+        CountingInterceptor interceptor = new CountingInterceptor();
+        ProxyFactory proxyFactory = proxyFactory(target, Calculator.class, interceptor);
+        Object first = proxyFactory.getProxy();
+        Object second = proxyFactory.getProxy();
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertNotEquals(first, createProxy(new SimpleCalculator(), Calculator.class, interceptor));
+
+        assertTrue(first instanceof Advised);
+        Advised advised = (Advised) first;
+        assertEquals(1, advised.getAdvisors().length);
+        assertSame(target, advised.getTargetSource().getTarget());
+        // equals/hashCode和Advised方法都不经过拦截器, toString经过
+        assertEquals(0, interceptor.count.get());
+        assertEquals(target.toString(), first.toString());
+        assertEquals(1, interceptor.count.get());
+    }
+
+    @Test
+    public void proxyIsSerializable() throws Exception {
+        Calculator proxy = (Calculator) createProxy(new SimpleCalculator(), Calculator.class, new CountingInterceptor());
+        assertTrue(proxy instanceof Serializable);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(proxy);
+        }
+        Object copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = in.readObject();
+        }
+        assertTrue(copy.getClass().isHidden());
+        assertEquals(5, ((Calculator) copy).add(2, 3));
+        assertEquals(1, ((Advised) copy).getAdvisors().length);
+    }
+
+    @Test
+    public void requestedClassLoaderIsHonoured() throws Exception {
+        ProxyFactory proxyFactory = proxyFactory(new SimpleCalculator(), Calculator.class, new CountingInterceptor());
+        // 接口对该加载器不可见, 与JDK动态代理一样拒绝, 而不是忽略传入的加载器
+        try (URLClassLoader isolated = new URLClassLoader(new URL[0], null)) {
+            assertThrows(IllegalArgumentException.class, () -> proxyFactory.getProxy(isolated));
+        }
+        // 能看到全部接口的子加载器沿用第一个接口作宿主
+        try (URLClassLoader child = new URLClassLoader(new URL[0], getClass().getClassLoader())) {
+            Class<?> proxyClass = proxyFactory.getProxyClass(child);
+            assertTrue(proxyClass.isHidden());
+            assertSame(Calculator.class.getClassLoader(), proxyClass.getClassLoader());
+        }
+    }
+
+    @Test
+    public void fallsBackToJdkProxyForInaccessibleInterface() {
+        Object proxy = createProxy(new HiddenImpl(), PackagePrivateService.class, new CountingInterceptor());
+        assertTrue(Proxy.isProxyClass(proxy.getClass()));
+        assertEquals("hidden", ((PackagePrivateService) proxy).name());
+    }
+
+    @Test
+    public void failedGenerationIsCached() {
+        Class<?>[] interfaces = {Replacing.class};
+        AopConfigException first = assertThrows(AopConfigException.class,
+                () -> HiddenClassProxyGenerator.getProxyClass(Replacing.class, interfaces));
+        AopConfigException second = assertThrows(AopConfigException.class,
+                () -> HiddenClassProxyGenerator.getProxyClass(Replacing.class, interfaces));
+        assertSame(first, second);
+
+        Object proxy = createProxy((Replacing) () -> "replaced", Replacing.class, new CountingInterceptor());
+        assertTrue(Proxy.isProxyClass(proxy.getClass()));
+        assertEquals("replaced", ((Replacing) proxy).writeReplace());
+    }
+
+
+    private static Object createProxy(Object target, Class<?> proxyInterface, Advice advice) {
+        return proxyFactory(target, proxyInterface, advice).getProxy();
+    }
+
+    private static ProxyFactory proxyFactory(Object target, Class<?> proxyInterface, Advice advice) {
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addInterface(proxyInterface);
+        proxyFactory.addAdvice(advice);
+        proxyFactory.setAopProxyFactory(new DefaultAopProxyFactory(true));
+        return proxyFactory;
+    }
+
+
+    public interface Calculator {
+
+        int add(int a, int b);
+
+        long decrement(long value);
+
+        double half(double value);
+
+        boolean negate(boolean value);
+
+        char next(char value);
+
+        byte twice(byte value);
+
+        short flip(short value);
+
+        float ratio(int a, int b);
+
+        int[] reverse(int[] values);
+
+        String[] split(String value);
+
+        long[][] empty();
+
+        void reset();
+    }
+
+    public static class SimpleCalculator implements Calculator, Serializable {
+
+        @Override
+        public int add(int a, int b) {
+            return a + b;
+        }
+
+        @Override
+        public long decrement(long value) {
+            return value - 1;
+        }
+
+        @Override
+        public double half(double value) {
+            return value / 2;
+        }
+
+        @Override
+        public boolean negate(boolean value) {
+            return !value;
+        }
+
+        @Override
+        public char next(char value) {
+            return (char) (value + 1);
+        }
+
+        @Override
+        public byte twice(byte value) {
+            return (byte) (value * 2);
+        }
+
+        @Override
+        public short flip(short value) {
+            return (short) -value;
+        }
+
+        @Override
+        public float ratio(int a, int b) {
+            return (float) a / b;
+        }
+
+        @Override
+        public int[] reverse(int[] values) {
+            int[] reversed = new int[values.length];
+            for (int i = 0; i < values.length; i++) {
+                reversed[i] = values[values.length - 1 - i];
+            }
+            return reversed;
+        }
+
+        @Override
+        public String[] split(String value) {
+            return value.split(",");
+        }
+
+        @Override
+        public long[][] empty() {
+            return new long[0][];
+        }
+
+        @Override
+        public void reset() {
+        }
+
+        @Override
+        public String toString() {
+            return "SimpleCalculator";
+        }
+    }
+
+    public interface Greeter {
+
+        String name();
+
+        default String greet(String who) {
+            return "Hello, " + who;
+        }
+    }
+
+    public static class PlainGreeter implements Greeter {
+
+        @Override
+        public String name() {
+            return "plain";
+        }
+    }
+
+    public static class OverridingGreeter implements Greeter {
+
+        @Override
+        public String name() {
+            return "overriding";
+        }
+
+        @Override
+        public String greet(String who) {
+            return "Hi, " + who;
+        }
+    }
+
+    public interface Thrower {
+
+        void declared() throws IOException;
+
+        void unchecked();
+    }
+
+    public static class FailingThrower implements Thrower {
+
+        @Override
+        public void declared() throws IOException {
+            throw new IOException("declared");
+        }
+
+        @Override
+        public void unchecked() {
+            throw new IllegalStateException("unchecked");
+        }
+    }
+
+    interface PackagePrivateService {
+
+        String name();
+    }
+
+    static class HiddenImpl implements PackagePrivateService {
+
+        @Override
+        public String name() {
+            return "hidden";
+        }
+    }
+
+    // 与生成的序列化方法冲突, 只能退回JDK动态代理
+    public interface Replacing {
+
+        Object writeReplace();
+    }
+
+    static class CountingInterceptor implements MethodInterceptor, Advice, Serializable {
+
+        final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            this.count.incrementAndGet();
+            return invocation.proceed();
+        }
+    }
+
+    static class NullReturningInterceptor implements MethodInterceptor, Advice {
+
+        @Override
+        public Object invoke(MethodInvocation invocation) {
+            return null;
+        }
+    }
+
+    // 对未声明受检异常的方法抛出受检异常, 声明过的方法照常执行
+    static class CheckedThrowingInterceptor implements MethodInterceptor, Advice {
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            if (invocation.getMethod().getExceptionTypes().length == 0) {
+                throw new Exception("undeclared");
+            }
+            return invocation.proceed();
+        }
+    }
+
+}
@@ -0,0 +1,176 @@
+package com.t13max.ioc.aop.framework;
+
+import com.t13max.ioc.aop.MethodMatcher;
+import com.t13max.ioc.aop.ProxyMethodInvocation;
+import com.t13max.ioc.aop.intecept.MethodInterceptor;
+import com.t13max.ioc.aop.intecept.MethodInvocation;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * 拦截器链的推进: 动态匹配不通过的拦截器循环跳过不递归, 拦截器多次 proceed() 和克隆后 proceed() 的行为与原先一致;
+ * 复用的调用对象与 ReflectiveMethodInvocation 表现相同
+ *
+ * @author t13max
+ * @since 07:00 2026/10/18
+ */
+public class ReflectiveMethodInvocationTest {
+
+    private static final Method INCREMENT;
+
+    static {
+        try {
+            INCREMENT = Counter.class.getMethod("increment");
+        } catch (NoSuchMethodException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Test
+    public void nonMatchingDynamicInterceptorsSkippedWithoutRecursion() throws Throwable {
+        CountingMatcher matcher = new CountingMatcher(false);
+        CountingInterceptor skipped = new CountingInterceptor();
+        List<Object> chain = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            chain.add(new InterceptorAndDynamicMethodMatcher(skipped, matcher));
+        }
+        CountingInterceptor last = new CountingInterceptor();
+        chain.add(last);
+
+        for (Supplier<ProxyMethodInvocation> invocation : invocations(chain)) {
+            matcher.count.set(0);
+            assertEquals(1, invocation.get().proceed());
+            assertEquals(200_000, matcher.count.get());
+        }
+        assertEquals(0, skipped.count.get());
+        assertEquals(3, last.count.get());
+    }
+
+    @Test
+    public void repeatedProceedFromLastInterceptorInvokesJoinpointAgain() throws Throwable {
+        CountingMatcher matcher = new CountingMatcher(false);
+        for (Supplier<ProxyMethodInvocation> invocation : invocations(
+                List.of(new ProceedTwiceInterceptor(), new InterceptorAndDynamicMethodMatcher(new CountingInterceptor(), matcher)))) {
+            matcher.count.set(0);
+            // 第二次 proceed() 时下标已在末尾, 直接调用连接点, 不再匹配
+            assertEquals(2, invocation.get().proceed());
+            assertEquals(1, matcher.count.get());
+        }
+    }
+
+    @Test
+    public void repeatedProceedDoesNotRerunLaterInterceptors() throws Throwable {
+        CountingInterceptor later = new CountingInterceptor();
+        for (Supplier<ProxyMethodInvocation> invocation : invocations(List.of(new ProceedTwiceInterceptor(), later))) {
+            later.count.set(0);
+            assertEquals(2, invocation.get().proceed());
+            assertEquals(1, later.count.get());
+        }
+    }
+
+    @Test
+    public void clonedInvocationRunsRemainingInterceptors() throws Throwable {
+        CountingInterceptor later = new CountingInterceptor();
+        MethodInterceptor cloning = invocation -> {
+            ((ProxyMethodInvocation) invocation).invocableClone().proceed();
+            return ((ProxyMethodInvocation) invocation).invocableClone().proceed();
+        };
+        for (Supplier<ProxyMethodInvocation> invocation : invocations(List.of(cloning, later))) {
+            later.count.set(0);
+            assertEquals(2, invocation.get().proceed());
+            assertEquals(2, later.count.get());
+        }
+    }
+
+    @Test
+    public void releasedInvocationDropsReferences() throws Throwable {
+        ReusableMethodInvocation invocation = new ReusableMethodInvocation();
+        invocation.reset(null, new Counter(), INCREMENT, new Object[0], Counter.class,
+                InterceptorChain.of(List.of(new CountingInterceptor())));
+        invocation.setUserAttribute("key", "value");
+        assertEquals(1, invocation.proceed());
+        invocation.release();
+        assertNull(invocation.getThis());
+        assertNull(invocation.getArguments());
+        assertNull(invocation.getUserAttribute("key"));
+    }
+
+
+    // 一个新建的 ReflectiveMethodInvocation, 再把同一个复用调用对象先后绑定两次, 每次都是新的目标
+    private static List<Supplier<ProxyMethodInvocation>> invocations(List<Object> chain) {
+        ReusableMethodInvocation reusable = new ReusableMethodInvocation();
+        Supplier<ProxyMethodInvocation> rebind = () -> {
+            reusable.release();
+            reusable.reset(null, new Counter(), INCREMENT, new Object[0], Counter.class, InterceptorChain.of(chain));
+            return reusable;
+        };
+        return List.of(() -> new ReflectiveMethodInvocation(null, new Counter(), INCREMENT, new Object[0], Counter.class, chain),
+                rebind, rebind);
+    }
+
+
+    public static class Counter {
+
+        private int count;
+
+        public int increment() {
+            return ++this.count;
+        }
+    }
+
+    static class CountingInterceptor implements MethodInterceptor {
+
+        final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            this.count.incrementAndGet();
+            return invocation.proceed();
+        }
+    }
+
+    static class ProceedTwiceInterceptor implements MethodInterceptor {
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            invocation.proceed();
+            return invocation.proceed();
+        }
+    }
+
+    static class CountingMatcher implements MethodMatcher {
+
+        final AtomicInteger count = new AtomicInteger();
+
+        private final boolean matches;
+
+        CountingMatcher(boolean matches) {
+            this.matches = matches;
+        }
+
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return true;
+        }
+
+        @Override
+        public boolean isRuntime() {
+            return true;
+        }
+
+        @Override
+        public boolean matches(Method method, Class<?> targetClass, Object... args) {
+            this.count.incrementAndGet();
+            return this.matches;
+        }
+    }
+
+}
@@ -0,0 +1,226 @@
+package com.t13max.ioc.aop.framework.autoproxy;
+
+import com.t13max.ioc.aop.Advice;
+import com.t13max.ioc.aop.Advisor;
+import com.t13max.ioc.aop.ClassFilter;
+import com.t13max.ioc.aop.intecept.MethodInterceptor;
+import com.t13max.ioc.aop.intecept.MethodInvocation;
+import com.t13max.ioc.aop.support.AnnotationClassFilter;
+import com.t13max.ioc.aop.support.AopUtils;
+import com.t13max.ioc.aop.support.DefaultPointcutAdvisor;
+import com.t13max.ioc.aop.support.JdkRegexpMethodPointcut;
+import com.t13max.ioc.aop.support.PackageClassFilter;
+import com.t13max.ioc.aop.support.RootClassFilter;
+import com.t13max.ioc.aop.support.StaticMethodMatcherPointcut;
+import com.t13max.ioc.beans.factory.support.DefaultListableBeanFactory;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 自动代理的advisor匹配开销: 200个advisor、5000个不同的bean类, 按索引匹配与对全部advisor逐个匹配对比
+ * advisor包括包过滤器、带字面量前缀的正则、类型/注解过滤器以及没有前缀只能逐个检查的正则
+ * 每轮使用新的创建器, 按类缓存不跨轮; 代理创建的开销两边都计入
+ * 运行: 以测试类路径执行 main, 可选参数 bean类数量 轮数
+ *
+ * @author t13max
+ * @since 04:10 2026/10/18
+ */
+public class AdvisorAutoProxyBenchmark {
+
+    private static final String PACKAGE = "com/t13max/ioc/bench/aop/p";
+
+    private static final int PACKAGES = 50;
+
+    public static void main(String[] args) throws Exception {
+        int beanCount = (args.length > 0 ? Integer.parseInt(args[0]) : 5000);
+        int rounds = (args.length > 1 ? Integer.parseInt(args[1]) : 10);
+
+        Object[] beans = createBeans(beanCount);
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        List<Advisor> advisors = createAdvisors();
+        for (int i = 0; i < advisors.size(); i++) {
+            beanFactory.registerSingleton("advisor" + i, advisors.get(i));
+        }
+        beanFactory.freezeConfiguration();
+
+        System.out.printf("%d advisors, %d bean classes, %d rounds (first 3 rounds are warm-up)%n",
+                advisors.size(), beanCount, rounds);
+        for (int round = 0; round < rounds; round++) {
+            Result indexed = measure(new AdvisorAutoProxyCreator(), beanFactory, beans);
+            Result fullScan = measure(new FullScanAutoProxyCreator(advisors), beanFactory, beans);
+            if (round >= 3) {
+                System.out.printf("round %2d  indexed: %s%n          full scan: %s%n", round, indexed, fullScan);
+            }
+        }
+    }
+
+    private static Result measure(AdvisorAutoProxyCreator creator, DefaultListableBeanFactory beanFactory, Object[] beans) {
+        creator.setBeanFactory(beanFactory);
+        int proxied = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < beans.length; i++) {
+            if (creator.postProcessAfterInitialization(beans[i], "bean" + i) != beans[i]) {
+                proxied++;
+            }
+        }
+        return new Result((System.nanoTime() - start) / 1_000_000.0, proxied);
+    }
+
+    // 50个包过滤器、100个带前缀的正则、25个类型过滤器、25个注解过滤器、25个没有前缀的正则(不匹配任何类)
+    private static List<Advisor> createAdvisors() {
+        List<Advisor> advisors = new ArrayList<>(200);
+        String packageName = PACKAGE.replace('/', '.');
+        for (int i = 0; i < PACKAGES; i++) {
+            advisors.add(filteredAdvisor(new PackageClassFilter(packageName + i)));
+        }
+        for (int i = 0; i < 100; i++) {
+            advisors.add(regexpAdvisor(packageName.replace(".", "\\.") + (i % PACKAGES) + "\\.Generated" + i + "\\d*\\.run"));
+        }
+        for (int i = 0; i < 25; i++) {
+            advisors.add(filteredAdvisor(new RootClassFilter(Tagged.class)));
+        }
+        for (int i = 0; i < 25; i++) {
+            advisors.add(filteredAdvisor(new AnnotationClassFilter(Marker.class)));
+        }
+        for (int i = 0; i < 25; i++) {
+            advisors.add(regexpAdvisor(".*\\.audit" + i));
+        }
+        return advisors;
+    }
+
+    private static Advisor regexpAdvisor(String pattern) {
+        JdkRegexpMethodPointcut pointcut = new JdkRegexpMethodPointcut();
+        pointcut.setPattern(pattern);
+        return new DefaultPointcutAdvisor(pointcut, new NoOpInterceptor());
+    }
+
+    private static Advisor filteredAdvisor(ClassFilter classFilter) {
+        AnyMethodPointcut pointcut = new AnyMethodPointcut();
+        pointcut.setClassFilter(classFilter);
+        return new DefaultPointcutAdvisor(pointcut, new NoOpInterceptor());
+    }
+
+    // 每个类实现 Service, 每20个类带 @Marker, 每25个类实现 Tagged, 均匀分布在50个包里
+    private static Object[] createBeans(int beanCount) throws Exception {
+        Map<String, byte[]> classes = new HashMap<>(beanCount * 2);
+        String[] classNames = new String[beanCount];
+        for (int i = 0; i < beanCount; i++) {
+            String internalName = PACKAGE + (i % PACKAGES) + "/Generated" + i;
+            List<String> interfaces = new ArrayList<>(2);
+            interfaces.add(Type.getInternalName(Service.class));
+            if (i % 25 == 0) {
+                interfaces.add(Type.getInternalName(Tagged.class));
+            }
+            ClassWriter writer = new ClassWriter(0);
+            writer.visit(Opcodes.V11, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, internalName, null,
+                    "java/lang/Object", interfaces.toArray(new String[0]));
+            if (i % 20 == 0) {
+                writer.visitAnnotation(Type.getDescriptor(Marker.class), true).visitEnd();
+            }
+            MethodVisitor constructor = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+            constructor.visitCode();
+            constructor.visitVarInsn(Opcodes.ALOAD, 0);
+            constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+            constructor.visitInsn(Opcodes.RETURN);
+            constructor.visitMaxs(1, 1);
+            constructor.visitEnd();
+            MethodVisitor run = writer.visitMethod(Opcodes.ACC_PUBLIC, "run", "()V", null, null);
+            run.visitCode();
+            run.visitInsn(Opcodes.RETURN);
+            run.visitMaxs(0, 1);
+            run.visitEnd();
+            writer.visitEnd();
+            classNames[i] = internalName.replace('/', '.');
+            classes.put(classNames[i], writer.toByteArray());
+        }
+        GeneratedClassLoader classLoader = new GeneratedClassLoader(classes);
+        Object[] beans = new Object[beanCount];
+        for (int i = 0; i < beanCount; i++) {
+            beans[i] = Class.forName(classNames[i], true, classLoader).getDeclaredConstructor().newInstance();
+        }
+        return beans;
+    }
+
+
+    public interface Service {
+
+        void run();
+    }
+
+    public interface Tagged {
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Marker {
+    }
+
+    // 每次对全部advisor逐个匹配, 即建立索引之前的做法
+    static class FullScanAutoProxyCreator extends AdvisorAutoProxyCreator {
+
+        // advisor都没有顺序, 注册顺序即排序结果
+        private final List<Advisor> advisors;
+
+        FullScanAutoProxyCreator(List<Advisor> advisors) {
+            this.advisors = advisors;
+        }
+
+        @Override
+        protected Advisor[] getAdvisorsForClass(Class<?> beanClass) {
+            return AopUtils.findAdvisorsThatCanApply(this.advisors, beanClass).toArray(new Advisor[0]);
+        }
+    }
+
+    static class AnyMethodPointcut extends StaticMethodMatcherPointcut {
+
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return true;
+        }
+    }
+
+    static class NoOpInterceptor implements MethodInterceptor, Advice {
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            return invocation.proceed();
+        }
+    }
+
+    private static final class GeneratedClassLoader extends ClassLoader {
+
+        private final Map<String, byte[]> classes;
+
+        GeneratedClassLoader(Map<String, byte[]> classes) {
+            super(AdvisorAutoProxyBenchmark.class.getClassLoader());
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] bytes = this.classes.get(name);
+            if (bytes == null) {
+                throw new ClassNotFoundException(name);
+            }
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+
+    private record Result(double millis, int proxied) {
+
+        @Override
+        public String toString() {
+            return String.format("%8.1f ms, %d proxied", this.millis, this.proxied);
+        }
+    }
+
+}
@@ -0,0 +1,162 @@
+package com.t13max.ioc.aop.framework.autoproxy;
+
+import com.t13max.ioc.aop.Advice;
+import com.t13max.ioc.aop.Advisor;
+import com.t13max.ioc.aop.ClassFilter;
+import com.t13max.ioc.aop.intecept.MethodInterceptor;
+import com.t13max.ioc.aop.intecept.MethodInvocation;
+import com.t13max.ioc.aop.support.AnnotationClassFilter;
+import com.t13max.ioc.aop.support.AopUtils;
+import com.t13max.ioc.aop.support.DefaultIntroductionAdvisor;
+import com.t13max.ioc.aop.support.DefaultPointcutAdvisor;
+import com.t13max.ioc.aop.support.JdkRegexpMethodPointcut;
+import com.t13max.ioc.aop.support.PackageClassFilter;
+import com.t13max.ioc.aop.support.RootClassFilter;
+import com.t13max.ioc.aop.support.StaticMethodMatcherPointcut;
+import org.junit.Test;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * 索引查找与对全部advisor逐个匹配(AopUtils.findAdvisorsThatCanApply)结果一致, 包括按字面量前缀索引的正则切点
+ *
+ * @author t13max
+ * @since 03:40 2026/10/18
+ */
+public class AdvisorIndexTest {
+
+    private static final String PREFIX = "com\\.t13max\\.ioc\\.aop\\.framework\\.autoproxy\\.AdvisorIndexTest\\$";
+
+    private static final Class<?>[] BEAN_CLASSES = {
+            OrderService.class, PriorityOrderService.class, InventoryRepository.class, AnnotatedBean.class,
+            PlainBean.class, String.class, ArrayList.class};
+
+    @Test
+    public void indexedLookupEqualsFullScan() {
+        List<Advisor> advisors = createAdvisors();
+        AdvisorIndex index = new AdvisorIndex(new String[0], advisors, 0);
+        for (Class<?> beanClass : BEAN_CLASSES) {
+            Advisor[] expected = AopUtils.findAdvisorsThatCanApply(advisors, beanClass).toArray(new Advisor[0]);
+            assertArrayEquals(beanClass.getName(), expected, index.getAdvisors(beanClass));
+        }
+    }
+
+    @Test
+    public void regexpPrefixMatchesTargetAndDeclaringClass() {
+        Advisor orderPlace = regexpAdvisor(PREFIX + "OrderService\\.place");
+        Advisor repositoryMethods = regexpAdvisor(PREFIX + "Repository\\..*");
+        Advisor objectToString = regexpAdvisor("java\\.lang\\.Object\\.toString");
+        List<Advisor> advisors = List.of(orderPlace, repositoryMethods, objectToString);
+        AdvisorIndex index = new AdvisorIndex(new String[0], advisors, 0);
+
+        // 子类的方法签名用子类名, 但声明类仍是父类, 两者都要能查到
+        assertArrayEquals(new Advisor[]{orderPlace, objectToString}, index.getAdvisors(PriorityOrderService.class));
+        assertArrayEquals(new Advisor[]{repositoryMethods, objectToString}, index.getAdvisors(InventoryRepository.class));
+        assertArrayEquals(new Advisor[]{objectToString}, index.getAdvisors(PlainBean.class));
+    }
+
+    @Test
+    public void resultCachedPerClass() {
+        AdvisorIndex index = new AdvisorIndex(new String[0], createAdvisors(), 0);
+        assertSame(index.getAdvisors(OrderService.class), index.getAdvisors(OrderService.class));
+        assertEquals(0, new AdvisorIndex(new String[0], List.of(), 0).getAdvisors(OrderService.class).length);
+    }
+
+
+    private static List<Advisor> createAdvisors() {
+        List<Advisor> advisors = new ArrayList<>();
+        advisors.add(regexpAdvisor(PREFIX + "OrderService\\.place"));
+        advisors.add(regexpAdvisor(PREFIX + "Order.*\\.cancel", PREFIX + "Inventory.*"));
+        advisors.add(regexpAdvisor(PREFIX + "PriorityOrderService\\.place"));
+        advisors.add(regexpAdvisor(PREFIX + "Repository\\.find"));
+        advisors.add(regexpAdvisor("java\\.util\\.List\\.size"));
+        // 没有字面量前缀, 只能每次检查
+        advisors.add(regexpAdvisor(".*\\.find.*"));
+        advisors.add(regexpAdvisor("(com|org)\\.t13max\\..*"));
+        JdkRegexpMethodPointcut excluding = new JdkRegexpMethodPointcut();
+        excluding.setPatterns(PREFIX + ".*Service\\..*");
+        excluding.setExcludedPatterns(".*\\.cancel");
+        advisors.add(new DefaultPointcutAdvisor(excluding, new NoOpInterceptor()));
+        advisors.add(filteredAdvisor(new PackageClassFilter("com.t13max.ioc.aop")));
+        advisors.add(filteredAdvisor(new PackageClassFilter("java.util", false)));
+        advisors.add(filteredAdvisor(new RootClassFilter(Repository.class)));
+        advisors.add(filteredAdvisor(new AnnotationClassFilter(Marker.class)));
+        advisors.add(new DefaultIntroductionAdvisor(new NoOpInterceptor()));
+        advisors.add(new DefaultPointcutAdvisor(new NoOpInterceptor()));
+        return advisors;
+    }
+
+    private static Advisor regexpAdvisor(String... patterns) {
+        JdkRegexpMethodPointcut pointcut = new JdkRegexpMethodPointcut();
+        pointcut.setPatterns(patterns);
+        return new DefaultPointcutAdvisor(pointcut, new NoOpInterceptor());
+    }
+
+    private static Advisor filteredAdvisor(ClassFilter classFilter) {
+        AnyMethodPointcut pointcut = new AnyMethodPointcut();
+        pointcut.setClassFilter(classFilter);
+        return new DefaultPointcutAdvisor(pointcut, new NoOpInterceptor());
+    }
+
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Marker {
+    }
+
+    public static class OrderService {
+
+        public void place() {
+        }
+
+        public void cancel() {
+        }
+    }
+
+    public static class PriorityOrderService extends OrderService {
+    }
+
+    public interface Repository {
+
+        Object find(String id);
+    }
+
+    public static class InventoryRepository implements Repository {
+
+        @Override
+        public Object find(String id) {
+            return id;
+        }
+    }
+
+    @Marker
+    public static class AnnotatedBean {
+    }
+
+    public static class PlainBean {
+    }
+
+    static class AnyMethodPointcut extends StaticMethodMatcherPointcut {
+
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return true;
+        }
+    }
+
+    static class NoOpInterceptor implements MethodInterceptor, Advice {
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            return invocation.proceed();
+        }
+    }
+
+}
@@ -0,0 +1,177 @@
+package com.t13max.ioc.aop.support;
+
+import com.t13max.ioc.aop.MethodMatcher;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 共享正则引擎的注册计数: 修改正则或释放切点后不留下多余的注册, 匹配结果始终与切点自身的正则匹配一致
+ *
+ * @author t13max
+ * @since 05:10 2026/10/18
+ */
+public class RegexpPointcutEngineTest {
+
+    private static final String PREFIX = "com\\.t13max\\.ioc\\.aop\\.support\\.RegexpPointcutEngineTest\\$";
+
+    private static final String[] PATTERNS = {
+            "java\\.util\\.ArrayList\\.add.*", "java\\.lang\\.String\\.(index|lastIndex)Of", ".*\\.toString",
+            "java\\.lang\\.Object\\..*", ".*\\.get.*", "java\\.util\\..*\\.remove", PREFIX + "OrderService\\.place.*",
+            ".*Service\\.cancel", "java\\.lang\\.String\\.char.*", ".*\\.hashCode", PREFIX + ".*"};
+
+    private static final String[] EXCLUDED_PATTERNS = {
+            ".*\\.add", ".*\\.toString", "java\\.lang\\..*", ".*Order.*", PREFIX + "Priority.*"};
+
+    private static final Class<?>[] TARGET_CLASSES = {
+            OrderService.class, PriorityOrderService.class, ArrayList.class, String.class};
+
+    @Test
+    public void settingExcludedPatternsReplacesRegistration() {
+        RegexpPointcutEngine engine = new RegexpPointcutEngine();
+        JdkRegexpMethodPointcut pointcut = new JdkRegexpMethodPointcut();
+        pointcut.setPointcutEngine(engine);
+        pointcut.setPatterns(PREFIX + ".*");
+        pointcut.setExcludedPatterns(".*\\.cancel");
+        assertEquals(1, engine.getRegistrationCount());
+
+        pointcut.setPatterns(PREFIX + "Order.*");
+        assertEquals(1, engine.getRegistrationCount());
+        pointcut.releaseFromEngine();
+        assertEquals(0, engine.getRegistrationCount());
+    }
+
+    @Test
+    public void identicalPatternsShareRegistration() {
+        RegexpPointcutEngine engine = new RegexpPointcutEngine();
+        MethodMatcher first = engine.register(new String[]{".*\\.place"}, null);
+        MethodMatcher second = engine.register(new String[]{" .*\\.place "}, new String[0]);
+        assertSame(first, second);
+        assertEquals(1, engine.getRegistrationCount());
+
+        engine.unregister(first);
+        assertEquals(1, engine.getRegistrationCount());
+        engine.unregister(second);
+        assertEquals(0, engine.getRegistrationCount());
+        // 多余的释放不影响计数
+        engine.unregister(second);
+        assertEquals(0, engine.getRegistrationCount());
+    }
+
+    @Test
+    public void releasedMatcherStillMatches() throws Exception {
+        RegexpPointcutEngine engine = new RegexpPointcutEngine();
+        MethodMatcher released = engine.register(new String[]{".*\\.place"}, null);
+        engine.unregister(released);
+        engine.register(new String[]{".*\\.cancel"}, null);
+        assertTrue(released.matches(OrderService.class.getMethod("place"), OrderService.class));
+        assertFalse(released.matches(OrderService.class.getMethod("cancel"), OrderService.class));
+    }
+
+    @Test
+    public void foreignMatcherRejected() {
+        RegexpPointcutEngine engine = new RegexpPointcutEngine();
+        MethodMatcher foreign = new RegexpPointcutEngine().register(new String[]{".*"}, null);
+        assertThrows(IllegalArgumentException.class, () -> engine.unregister(foreign));
+        assertThrows(IllegalArgumentException.class, () -> engine.unregister(MethodMatcher.TRUE));
+    }
+
+    @Test
+    public void randomRegistrationsMatchStandaloneAndReleaseCleanly() {
+        Random random = new Random(42);
+        RegexpPointcutEngine engine = new RegexpPointcutEngine();
+        List<JdkRegexpMethodPointcut> live = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            int operation = random.nextInt(10);
+            if (operation < 5 || live.isEmpty()) {
+                JdkRegexpMethodPointcut pointcut = new JdkRegexpMethodPointcut();
+                pointcut.setPointcutEngine(engine);
+                configure(pointcut, random);
+                live.add(pointcut);
+            } else if (operation < 8) {
+                configure(live.get(random.nextInt(live.size())), random);
+            } else {
+                live.remove(random.nextInt(live.size())).releaseFromEngine();
+            }
+            assertEquals(distinctPatternCount(live), engine.getRegistrationCount());
+            if (i % 30 == 0) {
+                assertSameMatches(live);
+            }
+        }
+        assertSameMatches(live);
+        for (JdkRegexpMethodPointcut pointcut : live) {
+            pointcut.releaseFromEngine();
+        }
+        assertEquals(0, engine.getRegistrationCount());
+    }
+
+
+    // 先设包含再(可能)设排除, 与通常的属性注入顺序相同
+    private static void configure(JdkRegexpMethodPointcut pointcut, Random random) {
+        pointcut.setPatterns(pick(PATTERNS, 1 + random.nextInt(3), random));
+        if (random.nextBoolean()) {
+            pointcut.setExcludedPatterns(pick(EXCLUDED_PATTERNS, 1 + random.nextInt(2), random));
+        }
+    }
+
+    private static String[] pick(String[] source, int count, Random random) {
+        String[] picked = new String[count];
+        for (int i = 0; i < count; i++) {
+            picked[i] = source[random.nextInt(source.length)];
+        }
+        return picked;
+    }
+
+    private static int distinctPatternCount(List<JdkRegexpMethodPointcut> pointcuts) {
+        Set<List<List<String>>> distinct = new HashSet<>();
+        for (JdkRegexpMethodPointcut pointcut : pointcuts) {
+            distinct.add(List.of(Arrays.asList(pointcut.getPatterns()), Arrays.asList(pointcut.getExcludedPatterns())));
+        }
+        return distinct.size();
+    }
+
+    private static void assertSameMatches(List<JdkRegexpMethodPointcut> pointcuts) {
+        for (JdkRegexpMethodPointcut pointcut : pointcuts) {
+            JdkRegexpMethodPointcut standalone = new JdkRegexpMethodPointcut();
+            standalone.setPatterns(pointcut.getPatterns());
+            if (pointcut.getExcludedPatterns().length > 0) {
+                standalone.setExcludedPatterns(pointcut.getExcludedPatterns());
+            }
+            for (Class<?> targetClass : TARGET_CLASSES) {
+                for (Method method : targetClass.getMethods()) {
+                    assertEquals(pointcut + " " + method, standalone.matches(method, targetClass),
+                            pointcut.matches(method, targetClass));
+                }
+            }
+        }
+    }
+
+
+    public static class OrderService {
+
+        public void place() {
+        }
+
+        public void cancel() {
+        }
+    }
+
+    public static class PriorityOrderService extends OrderService {
+
+        public void expedite() {
+        }
+    }
+
+}
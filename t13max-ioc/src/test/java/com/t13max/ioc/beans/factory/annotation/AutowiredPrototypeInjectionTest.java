@@ -0,0 +1,106 @@
+package com.t13max.ioc.beans.factory.annotation;
+
+import com.t13max.ioc.beans.factory.config.BeanDefinition;
+import com.t13max.ioc.beans.factory.support.DefaultListableBeanFactory;
+import com.t13max.ioc.beans.factory.support.RootBeanDefinition;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * 原型bean的字段/方法注入: 元数据按类缓存后, 每次getBean仍要完整注入, 且单例依赖的快捷解析结果一致
+ *
+ * @Author: t13max
+ * @Since: 11:40 2026/10/17
+ */
+public class AutowiredPrototypeInjectionTest {
+
+    private DefaultListableBeanFactory beanFactory;
+
+    @Before
+    public void setUp() {
+        this.beanFactory = new DefaultListableBeanFactory();
+        AutowiredAnnotationBeanPostProcessor processor = new AutowiredAnnotationBeanPostProcessor();
+        processor.setBeanFactory(this.beanFactory);
+        this.beanFactory.addBeanPostProcessor(processor);
+        this.beanFactory.registerBeanDefinition("service", new RootBeanDefinition(Service.class));
+        RootBeanDefinition helper = new RootBeanDefinition(Helper.class);
+        helper.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+        this.beanFactory.registerBeanDefinition("helper", helper);
+        RootBeanDefinition client = new RootBeanDefinition(Client.class);
+        client.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+        this.beanFactory.registerBeanDefinition("client", client);
+    }
+
+    @Test
+    public void fieldAndMethodInjectionOnPrototype() {
+        Client client = (Client) this.beanFactory.getBean("client");
+        assertSame(this.beanFactory.getBean("service"), client.service);
+        assertSame(this.beanFactory.getBean("service"), client.methodService);
+        assertEquals(1, client.methodCalls);
+        assertEquals(Helper.class, client.helper.getClass());
+    }
+
+    @Test
+    public void repeatedPrototypeRetrievalInjectsEveryInstance() {
+        Service service = (Service) this.beanFactory.getBean("service");
+        Client previous = null;
+        for (int i = 0; i < 5; i++) {
+            Client client = (Client) this.beanFactory.getBean("client");
+            assertNotSame(previous, client);
+            // 单例依赖走缓存的快捷解析, 每次仍是同一个实例
+            assertSame(service, client.service);
+            assertSame(service, client.methodService);
+            assertEquals(1, client.methodCalls);
+            // 原型依赖每次新建, 不能被快捷解析缓存成同一个对象
+            if (previous != null) {
+                assertNotSame(previous.helper, client.helper);
+            }
+            previous = client;
+        }
+    }
+
+    @Test
+    public void explicitPropertyValueOverridesAutowiredSetter() {
+        Service explicit = new Service();
+        RootBeanDefinition client = new RootBeanDefinition(Client.class);
+        client.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+        client.getPropertyValues().add("methodService", explicit);
+        this.beanFactory.registerBeanDefinition("explicitClient", client);
+        for (int i = 0; i < 3; i++) {
+            Client instance = (Client) this.beanFactory.getBean("explicitClient");
+            assertSame(explicit, instance.methodService);
+            assertEquals(1, instance.methodCalls);
+        }
+    }
+
+
+    public static class Service {
+    }
+
+    public static class Helper {
+    }
+
+    public static class Client {
+
+        @Autowired
+        Service service;
+
+        @Autowired
+        Helper helper;
+
+        Service methodService;
+
+        int methodCalls;
+
+        @Autowired
+        public void setMethodService(Service methodService) {
+            this.methodService = methodService;
+            this.methodCalls++;
+        }
+    }
+
+}
@@ -0,0 +1,158 @@
+package com.t13max.ioc.beans.factory.support;
+
+import com.t13max.ioc.beans.factory.FactoryBean;
+import com.t13max.ioc.beans.factory.config.BeanPostProcessor;
+import com.t13max.ioc.core.ResolvableType;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * 启用类型索引后按类型查找的结果(含顺序)与逐个定义完整匹配一致:
+ * 泛型、FactoryBean、被代理的单例、覆盖和重新注册的定义以及无法索引的定义混在一起
+ *
+ * @Author: t13max
+ * @Since: 04:40 2026/10/18
+ */
+public class BeanTypeIndexTest {
+
+    private static final List<ResolvableType> QUERIES = List.of(
+            ResolvableType.forClass(Object.class),
+            ResolvableType.forClass(Repository.class),
+            ResolvableType.forClassWithGenerics(Repository.class, String.class),
+            ResolvableType.forClassWithGenerics(Repository.class, Integer.class),
+            ResolvableType.forClass(StringRepository.class),
+            ResolvableType.forClass(Service.class),
+            ResolvableType.forClass(SimpleService.class),
+            ResolvableType.forClass(FactoryBean.class),
+            ResolvableType.forClass(ServiceFactoryBean.class),
+            ResolvableType.forClass(Plain.class),
+            ResolvableType.forClass(Other.class),
+            ResolvableType.forClass(Runnable.class));
+
+    @Test
+    public void indexedLookupEqualsFullScanBeforeInstantiation() {
+        DefaultListableBeanFactory indexed = createBeanFactory();
+        indexed.clearMetadataCache();
+        DefaultListableBeanFactory scanned = createBeanFactory();
+        assertSameNames(scanned, indexed);
+
+        // 启用索引之后的覆盖、移除和重新注册
+        modifyDefinitions(indexed);
+        modifyDefinitions(scanned);
+        assertSameNames(scanned, indexed);
+    }
+
+    @Test
+    public void indexedLookupEqualsFullScanAfterInstantiation() {
+        DefaultListableBeanFactory indexed = createBeanFactory();
+        indexed.clearMetadataCache();
+        DefaultListableBeanFactory scanned = createBeanFactory();
+        modifyDefinitions(indexed);
+        modifyDefinitions(scanned);
+
+        indexed.preInstantiateSingletons();
+        scanned.preInstantiateSingletons();
+        // proxied 的实例已是JDK代理, 不再匹配 SimpleService
+        assertSameNames(scanned, indexed);
+    }
+
+
+    private static void assertSameNames(DefaultListableBeanFactory expected, DefaultListableBeanFactory actual) {
+        for (ResolvableType type : QUERIES) {
+            assertArrayEquals(type.toString(), expected.getBeanNamesForType(type, true, false),
+                    actual.getBeanNamesForType(type, true, false));
+            assertArrayEquals(type.toString(), expected.getBeanNamesForType(type, false, true),
+                    actual.getBeanNamesForType(type, false, true));
+        }
+    }
+
+    // 只有 GenericBeanDefinition 会进索引, RootBeanDefinition 穿插其中检验合并后的顺序
+    private static DefaultListableBeanFactory createBeanFactory() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.addBeanPostProcessor(new ProxyingPostProcessor());
+        beanFactory.registerBeanDefinition("stringRepository", generic(StringRepository.class));
+        beanFactory.registerBeanDefinition("rootPlain", new RootBeanDefinition(Plain.class));
+        beanFactory.registerBeanDefinition("integerRepository", generic(IntegerRepository.class));
+        beanFactory.registerBeanDefinition("serviceFactory", generic(ServiceFactoryBean.class));
+        beanFactory.registerBeanDefinition("proxied", generic(SimpleService.class));
+        beanFactory.registerBeanDefinition("overridden", generic(Plain.class));
+        beanFactory.registerBeanDefinition("removed", generic(StringRepository.class));
+        GenericBeanDefinition parent = generic(SimpleService.class);
+        parent.setAbstract(true);
+        beanFactory.registerBeanDefinition("parent", parent);
+        GenericBeanDefinition child = new GenericBeanDefinition();
+        child.setParentName("parent");
+        beanFactory.registerBeanDefinition("child", child);
+        beanFactory.registerBeanDefinition("plain", generic(Plain.class));
+        return beanFactory;
+    }
+
+    private static void modifyDefinitions(DefaultListableBeanFactory beanFactory) {
+        beanFactory.registerBeanDefinition("overridden", generic(Other.class));
+        beanFactory.removeBeanDefinition("removed");
+        beanFactory.registerBeanDefinition("removed", generic(IntegerRepository.class));
+        beanFactory.registerBeanDefinition("lateRoot", new RootBeanDefinition(StringRepository.class));
+    }
+
+    private static GenericBeanDefinition generic(Class<?> beanClass) {
+        GenericBeanDefinition beanDefinition = new GenericBeanDefinition();
+        beanDefinition.setBeanClass(beanClass);
+        return beanDefinition;
+    }
+
+
+    public interface Repository<T> {
+    }
+
+    public static class StringRepository implements Repository<String> {
+    }
+
+    public static class IntegerRepository implements Repository<Integer> {
+    }
+
+    public interface Service {
+    }
+
+    public static class SimpleService implements Service {
+    }
+
+    public static class ServiceFactoryBean implements FactoryBean<Service> {
+
+        @Override
+        public Service getObject() {
+            return new SimpleService();
+        }
+
+        @Override
+        public Class<?> getObjectType() {
+            return Service.class;
+        }
+    }
+
+    public static class Plain {
+    }
+
+    public static class Other implements Runnable {
+
+        @Override
+        public void run() {
+        }
+    }
+
+    static class ProxyingPostProcessor implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!"proxied".equals(beanName)) {
+                return bean;
+            }
+            return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Service.class},
+                    (proxy, method, args) -> method.invoke(bean, args));
+        }
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.t13max.ioc.beans.factory.support;
+
+import com.t13max.ioc.beans.factory.NoSuchBeanDefinitionException;
+import com.t13max.ioc.beans.factory.ObjectProvider;
+import com.t13max.ioc.beans.factory.config.BeanDefinition;
+import org.junit.Test;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 配置冻结后ObjectProvider绑定到首次解析的bean, 注册或移除bean后必须重新解析
+ *
+ * @Author: t13max
+ * @Since: 12:40 2026/10/17
+ */
+public class BoundObjectProviderTest {
+
+    @Test
+    public void boundSingletonReturnedWhileRegistryUnchanged() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("service", new RootBeanDefinition(Service.class));
+        beanFactory.freezeConfiguration();
+        ObjectProvider<Service> provider = beanFactory.getBeanProvider(Service.class);
+
+        Service service = provider.getObject();
+        assertSame(service, provider.getObject());
+        assertSame(service, provider.getIfAvailable());
+        assertSame(service, provider.getIfUnique());
+        assertSame(service, beanFactory.getBean("service"));
+    }
+
+    @Test
+    public void registeringDefinitionAfterFreezeRebinds() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("service", new RootBeanDefinition(Service.class));
+        beanFactory.freezeConfiguration();
+        ObjectProvider<Service> provider = beanFactory.getBeanProvider(Service.class);
+        Service original = provider.getObject();
+
+        // 新注册的primary bean应当胜出, 而不是继续返回已绑定的实例
+        RootBeanDefinition primary = new RootBeanDefinition(SpecialService.class);
+        primary.setPrimary(true);
+        beanFactory.registerBeanDefinition("specialService", primary);
+        Service rebound = provider.getObject();
+        assertTrue(rebound instanceof SpecialService);
+        assertNotSame(original, rebound);
+        assertSame(rebound, provider.getObject());
+    }
+
+    @Test
+    public void registeringSingletonAfterFreezeRebinds() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("service", new RootBeanDefinition(Service.class));
+        beanFactory.freezeConfiguration();
+        ObjectProvider<Service> provider = beanFactory.getBeanProvider(Service.class);
+        provider.getObject();
+
+        beanFactory.registerSingleton("manualService", new Service());
+        // 出现两个候选后不再唯一
+        assertNull(provider.getIfUnique());
+    }
+
+    @Test
+    public void removingBoundDefinitionRebinds() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("service", new RootBeanDefinition(Service.class));
+        beanFactory.freezeConfiguration();
+        ObjectProvider<Service> provider = beanFactory.getBeanProvider(Service.class);
+        provider.getObject();
+
+        beanFactory.removeBeanDefinition("service");
+        assertNull(provider.getIfAvailable());
+        try {
+            provider.getObject();
+            fail("Expected NoSuchBeanDefinitionException after removing the bound bean");
+        } catch (NoSuchBeanDefinitionException expected) {
+        }
+
+        beanFactory.registerBeanDefinition("replacement", new RootBeanDefinition(Service.class));
+        assertSame(beanFactory.getBean("replacement"), provider.getObject());
+    }
+
+    @Test
+    public void boundPrototypeStillCreatesNewInstances() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        RootBeanDefinition prototype = new RootBeanDefinition(Service.class);
+        prototype.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+        beanFactory.registerBeanDefinition("service", prototype);
+        beanFactory.freezeConfiguration();
+        ObjectProvider<Service> provider = beanFactory.getBeanProvider(Service.class);
+
+        assertNotSame(provider.getObject(), provider.getObject());
+    }
+
+
+    public static class Service {
+    }
+
+    public static class SpecialService extends Service {
+    }
+
+}
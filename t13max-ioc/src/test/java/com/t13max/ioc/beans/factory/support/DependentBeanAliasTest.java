@@ -0,0 +1,54 @@
+package com.t13max.ioc.beans.factory.support;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 经别名注册的依赖关系按规范名存储, 销毁时两侧映射都能摘干净
+ *
+ * @Author: t13max
+ * @Since: 06:40 2026/10/18
+ */
+public class DependentBeanAliasTest {
+
+    @Test
+    public void dependencyRegisteredViaAliasIsRemovedOnDestroy() {
+        DefaultSingletonBeanRegistry registry = new DefaultSingletonBeanRegistry();
+        registry.registerAlias("consumer", "consumerAlias");
+        registry.registerAlias("provider", "providerAlias");
+        registry.registerDependentBean("providerAlias", "consumerAlias");
+
+        assertArrayEquals(new String[]{"consumer"}, registry.getDependentBeans("provider"));
+        assertArrayEquals(new String[]{"provider"}, registry.getDependenciesForBean("consumer"));
+        assertArrayEquals(new String[]{"provider"}, registry.getDependenciesForBean("consumerAlias"));
+        assertTrue(registry.isDependent("provider", "consumerAlias"));
+
+        registry.destroySingleton("consumer");
+        assertEquals(0, registry.getDependentBeans("provider").length);
+        assertEquals(0, registry.getDependenciesForBean("consumer").length);
+        assertFalse(registry.hasDependentBean("provider"));
+    }
+
+    @Test
+    public void destroyingDependencyDestroysDependentRegisteredViaAlias() {
+        DefaultSingletonBeanRegistry registry = new DefaultSingletonBeanRegistry();
+        registry.registerAlias("consumer", "consumerAlias");
+        List<String> destroyed = new ArrayList<>();
+        registry.registerDisposableBean("provider", () -> destroyed.add("provider"));
+        registry.registerDisposableBean("consumer", () -> destroyed.add("consumer"));
+        registry.registerDependentBean("provider", "consumerAlias");
+
+        registry.destroySingleton("provider");
+        assertEquals(List.of("consumer", "provider"), destroyed);
+        assertEquals(0, registry.getDependenciesForBean("consumer").length);
+        assertFalse(registry.hasDependentBean("provider"));
+    }
+
+}
@@ -0,0 +1,128 @@
+package com.t13max.ioc.beans.factory.support;
+
+import com.t13max.ioc.aop.Advice;
+import com.t13max.ioc.aop.framework.Advised;
+import com.t13max.ioc.aop.framework.autoproxy.AdvisorAutoProxyCreator;
+import com.t13max.ioc.aop.intecept.MethodInterceptor;
+import com.t13max.ioc.aop.intecept.MethodInvocation;
+import com.t13max.ioc.aop.support.DefaultPointcutAdvisor;
+import com.t13max.ioc.aop.support.JdkRegexpMethodPointcut;
+import com.t13max.ioc.beans.BeansException;
+import com.t13max.ioc.beans.factory.BeanFactory;
+import com.t13max.ioc.beans.factory.BeanFactoryAware;
+import com.t13max.ioc.beans.factory.InitializingBean;
+import com.t13max.ioc.beans.factory.config.RuntimeBeanReference;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 自动代理创建器不覆盖predictBeanType, 注册后类型索引仍然可用;
+ * 循环依赖中提前暴露了代理的bean移出索引, 创建过程中和创建后都按实例类型匹配
+ *
+ * @Author: t13max
+ * @Since: 03:50 2026/10/18
+ */
+public class EarlyProxyTypeIndexTest {
+
+    @Test
+    public void autoProxyCreatorKeepsTypeIndex() {
+        DefaultListableBeanFactory beanFactory = createBeanFactory();
+        assertTrue(beanFactory.getBeanPostProcessorCache().typePreserving);
+    }
+
+    @Test
+    public void earlyProxiedBeanFoundByProxyType() {
+        DefaultListableBeanFactory beanFactory = createBeanFactory();
+        beanFactory.registerBeanDefinition("greeting", definition(SimpleGreeting.class, "peer"));
+        beanFactory.registerBeanDefinition("peer", definition(Peer.class, "greeting"));
+        beanFactory.freezeConfiguration();
+
+        Greeting greeting = beanFactory.getBean("greeting", Greeting.class);
+        assertTrue(greeting instanceof Advised);
+        assertEquals("hello", greeting.hello());
+        Peer peer = beanFactory.getBean("peer", Peer.class);
+        assertSame(greeting, peer.greeting);
+        // 创建greeting的过程中, peer拿到的是提前暴露的代理
+        assertEquals(List.of("greeting"), peer.advisedDuringCreation);
+        assertEquals(List.of("greeting"), Arrays.asList(beanFactory.getBeanNamesForType(Advised.class)));
+        assertEquals(0, beanFactory.getBeanNamesForType(SimpleGreeting.class).length);
+    }
+
+
+    private static DefaultListableBeanFactory createBeanFactory() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        AdvisorAutoProxyCreator autoProxyCreator = new AdvisorAutoProxyCreator();
+        autoProxyCreator.setBeanFactory(beanFactory);
+        beanFactory.addBeanPostProcessor(autoProxyCreator);
+        JdkRegexpMethodPointcut pointcut = new JdkRegexpMethodPointcut();
+        pointcut.setPattern(".*\\.hello");
+        beanFactory.registerSingleton("advisor", new DefaultPointcutAdvisor(pointcut, new NoOpInterceptor()));
+        return beanFactory;
+    }
+
+    private static GenericBeanDefinition definition(Class<?> beanClass, String reference) {
+        GenericBeanDefinition beanDefinition = new GenericBeanDefinition();
+        beanDefinition.setBeanClass(beanClass);
+        beanDefinition.getPropertyValues().add(reference, new RuntimeBeanReference(reference));
+        return beanDefinition;
+    }
+
+
+    public interface Greeting {
+
+        String hello();
+    }
+
+    public static class SimpleGreeting implements Greeting {
+
+        private Peer peer;
+
+        public void setPeer(Peer peer) {
+            this.peer = peer;
+        }
+
+        @Override
+        public String hello() {
+            return "hello";
+        }
+    }
+
+    public static class Peer implements BeanFactoryAware, InitializingBean {
+
+        private BeanFactory beanFactory;
+
+        Greeting greeting;
+
+        List<String> advisedDuringCreation;
+
+        public void setGreeting(Greeting greeting) {
+            this.greeting = greeting;
+        }
+
+        @Override
+        public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+            this.beanFactory = beanFactory;
+        }
+
+        @Override
+        public void afterPropertiesSet() {
+            this.advisedDuringCreation = Arrays.asList(
+                    ((DefaultListableBeanFactory) this.beanFactory).getBeanNamesForType(Advised.class));
+        }
+    }
+
+    static class NoOpInterceptor implements MethodInterceptor, Advice {
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            return invocation.proceed();
+        }
+    }
+
+}
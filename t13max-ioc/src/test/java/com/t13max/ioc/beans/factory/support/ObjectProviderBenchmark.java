@@ -0,0 +1,79 @@
+package com.t13max.ioc.beans.factory.support;
+
+import com.t13max.ioc.beans.factory.ObjectProvider;
+import com.t13max.ioc.beans.factory.config.BeanDefinition;
+
+/**
+ * ObjectProvider 查找吞吐(次/秒): 未冻结时每次按类型解析, 冻结后走绑定的bean
+ * 容器内放若干无关bean, 让按类型查找有实际的候选遍历开销
+ * 运行: 以测试类路径执行 main, 可选参数 每轮调用数 轮数 无关bean数
+ *
+ * @Author: t13max
+ * @Since: 12:55 2026/10/17
+ */
+public class ObjectProviderBenchmark {
+
+    public static void main(String[] args) {
+        int perRound = (args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000);
+        int rounds = (args.length > 1 ? Integer.parseInt(args[1]) : 10);
+        int fillerBeans = (args.length > 2 ? Integer.parseInt(args[2]) : 500);
+
+        DefaultListableBeanFactory unfrozen = createBeanFactory(fillerBeans);
+        DefaultListableBeanFactory frozen = createBeanFactory(fillerBeans);
+        frozen.freezeConfiguration();
+
+        ObjectProvider<Service> unfrozenSingleton = unfrozen.getBeanProvider(Service.class);
+        ObjectProvider<Service> frozenSingleton = frozen.getBeanProvider(Service.class);
+        ObjectProvider<Worker> unfrozenPrototype = unfrozen.getBeanProvider(Worker.class);
+        ObjectProvider<Worker> frozenPrototype = frozen.getBeanProvider(Worker.class);
+
+        System.out.printf("%d lookups per round, %d rounds (first 3 rounds are warm-up), %d filler beans%n",
+                perRound, rounds, fillerBeans);
+        for (int round = 0; round < rounds; round++) {
+            double singletonBefore = measure(unfrozenSingleton, perRound);
+            double singletonAfter = measure(frozenSingleton, perRound);
+            double prototypeBefore = measure(unfrozenPrototype, perRound / 10);
+            double prototypeAfter = measure(frozenPrototype, perRound / 10);
+            if (round >= 3) {
+                System.out.printf("round %2d  singleton: %,13.0f/s -> %,13.0f/s  prototype: %,12.0f/s -> %,12.0f/s%n",
+                        round, singletonBefore, singletonAfter, prototypeBefore, prototypeAfter);
+            }
+        }
+    }
+
+    private static DefaultListableBeanFactory createBeanFactory(int fillerBeans) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("service", new RootBeanDefinition(Service.class));
+        RootBeanDefinition worker = new RootBeanDefinition(Worker.class);
+        worker.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+        beanFactory.registerBeanDefinition("worker", worker);
+        for (int i = 0; i < fillerBeans; i++) {
+            beanFactory.registerBeanDefinition("filler" + i, new RootBeanDefinition(Filler.class));
+        }
+        return beanFactory;
+    }
+
+    private static double measure(ObjectProvider<?> provider, int count) {
+        Object sink = null;
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            sink = provider.getObject();
+        }
+        long nanos = System.nanoTime() - start;
+        if (sink == null) {
+            throw new IllegalStateException();
+        }
+        return count / (nanos / 1_000_000_000.0);
+    }
+
+
+    public static class Service {
+    }
+
+    public static class Worker {
+    }
+
+    public static class Filler {
+    }
+
+}
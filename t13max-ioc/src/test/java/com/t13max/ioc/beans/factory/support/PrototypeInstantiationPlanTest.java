@@ -0,0 +1,98 @@
+package com.t13max.ioc.beans.factory.support;
+
+import com.t13max.ioc.beans.PropertyValues;
+import com.t13max.ioc.beans.factory.config.BeanDefinition;
+import com.t13max.ioc.beans.factory.config.InstantiationAwareBeanPostProcessor;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+/**
+ * 原型bean的实例化计划只记录对该bean class生效的属性处理器, 重放时跳过其余处理器
+ *
+ * @Author: t13max
+ * @Since: 12:05 2026/10/17
+ */
+public class PrototypeInstantiationPlanTest {
+
+    @Test
+    public void inapplicablePropertyProcessorSkippedOnReplay() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        CountingProcessor processor = new CountingProcessor(Injected.class);
+        beanFactory.addBeanPostProcessor(processor);
+        beanFactory.registerBeanDefinition("plain", prototype(Plain.class));
+        beanFactory.registerBeanDefinition("injected", prototype(Injected.class));
+
+        for (int i = 0; i < 5; i++) {
+            assertNotSame(beanFactory.getBean("plain"), beanFactory.getBean("plain"));
+        }
+        // 只有首次创建(还没有计划)会走到处理器
+        assertEquals(1, processor.calls(Plain.class));
+
+        for (int i = 0; i < 5; i++) {
+            beanFactory.getBean("injected");
+        }
+        assertEquals(5, processor.calls(Injected.class));
+    }
+
+    @Test
+    public void planRebuiltWhenPostProcessorsChange() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("plain", prototype(Plain.class));
+        beanFactory.getBean("plain");
+        beanFactory.getBean("plain");
+
+        // 新增处理器后旧计划作废, 新处理器对该类生效
+        CountingProcessor processor = new CountingProcessor(Plain.class);
+        beanFactory.addBeanPostProcessor(processor);
+        for (int i = 0; i < 3; i++) {
+            beanFactory.getBean("plain");
+        }
+        assertEquals(3, processor.calls(Plain.class));
+    }
+
+    private static RootBeanDefinition prototype(Class<?> beanClass) {
+        RootBeanDefinition beanDefinition = new RootBeanDefinition(beanClass);
+        beanDefinition.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+        return beanDefinition;
+    }
+
+
+    public static class Plain {
+    }
+
+    public static class Injected {
+    }
+
+    static class CountingProcessor implements InstantiationAwareBeanPostProcessor {
+
+        private final Class<?> applicableClass;
+
+        private final AtomicInteger applicableCalls = new AtomicInteger();
+
+        private final AtomicInteger otherCalls = new AtomicInteger();
+
+        CountingProcessor(Class<?> applicableClass) {
+            this.applicableClass = applicableClass;
+        }
+
+        @Override
+        public PropertyValues postProcessProperties(PropertyValues pvs, Object bean, String beanName) {
+            (bean.getClass() == this.applicableClass ? this.applicableCalls : this.otherCalls).incrementAndGet();
+            return pvs;
+        }
+
+        @Override
+        public boolean requiresPropertyProcessing(Class<?> beanClass, String beanName) {
+            return (beanClass == this.applicableClass);
+        }
+
+        int calls(Class<?> beanClass) {
+            return (beanClass == this.applicableClass ? this.applicableCalls : this.otherCalls).get();
+        }
+    }
+
+}
@@ -0,0 +1,145 @@
+package com.t13max.ioc.beans.factory.support;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 预实例化依赖图的调度: 依赖先于依赖方完成、环上的bean留给主线程、冲突推迟、失败停止调度,
+ * 执行器拒绝或同步执行时不递归
+ *
+ * @Author: t13max
+ * @Since: 05:40 2026/10/18
+ */
+public class SingletonInstantiationGraphTest {
+
+    @Test
+    public void dependenciesCompleteBeforeDependents() {
+        Map<String, Set<String>> edges = new HashMap<>();
+        List<String> beanNames = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            beanNames.add("bean" + i);
+            // 每个bean依赖编号更小的两个bean
+            edges.put("bean" + i, (i < 2 ? Set.of() : Set.of("bean" + (i / 3), "bean" + (i - 1))));
+        }
+        SingletonInstantiationGraph graph = new SingletonInstantiationGraph(beanNames, resolver(edges));
+        Map<String, Integer> started = new ConcurrentHashMap<>();
+        Map<String, Integer> finished = new ConcurrentHashMap<>();
+        AtomicInteger sequence = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            graph.execute(executor, beanName -> {
+                started.put(beanName, sequence.incrementAndGet());
+                finished.put(beanName, sequence.incrementAndGet());
+            }, ex -> false);
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(beanNames.size(), finished.size());
+        for (Map.Entry<String, Set<String>> entry : edges.entrySet()) {
+            for (String dependency : entry.getValue()) {
+                assertTrue(dependency + " -> " + entry.getKey(), finished.get(dependency) < started.get(entry.getKey()));
+            }
+        }
+        assertTrue(graph.getCyclicBeanNames().isEmpty());
+    }
+
+    @Test
+    public void cyclesAndTheirDependentsLeftToCaller() {
+        Map<String, Set<String>> edges = Map.of(
+                "a", Set.of("b"), "b", Set.of("a"), "c", Set.of("a"), "d", Set.of(), "e", Set.of("d"));
+        SingletonInstantiationGraph graph = new SingletonInstantiationGraph(List.of("a", "b", "c", "d", "e"), resolver(edges));
+        List<String> created = Collections.synchronizedList(new ArrayList<>());
+        graph.execute(Runnable::run, created::add, ex -> false);
+
+        assertEquals(List.of("a", "b", "c"), graph.getCyclicBeanNames());
+        assertEquals(List.of("d", "e"), created);
+    }
+
+    @Test
+    public void deferrableFailuresCollectedAndSchedulingContinues() {
+        Map<String, Set<String>> edges = Map.of("a", Set.of(), "b", Set.of("a"), "c", Set.of("b"));
+        SingletonInstantiationGraph graph = new SingletonInstantiationGraph(List.of("a", "b", "c"), resolver(edges));
+        List<String> created = Collections.synchronizedList(new ArrayList<>());
+        graph.execute(Runnable::run, beanName -> {
+            if ("b".equals(beanName)) {
+                throw new ConflictException();
+            }
+            created.add(beanName);
+        }, ex -> ex instanceof ConflictException);
+
+        assertEquals(List.of("b"), new ArrayList<>(graph.getDeferredBeanNames()));
+        assertEquals(List.of("a", "c"), created);
+    }
+
+    @Test
+    public void firstFailureStopsSchedulingAndPropagates() {
+        Map<String, Set<String>> edges = Map.of("a", Set.of(), "b", Set.of("a"), "c", Set.of("b"), "d", Set.of());
+        SingletonInstantiationGraph graph = new SingletonInstantiationGraph(List.of("a", "b", "c", "d"), resolver(edges));
+        IllegalStateException failure = new IllegalStateException("a failed");
+        List<String> created = Collections.synchronizedList(new ArrayList<>());
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () ->
+                graph.execute(Runnable::run, beanName -> {
+                    if ("a".equals(beanName)) {
+                        throw failure;
+                    }
+                    created.add(beanName);
+                }, ex -> false));
+
+        assertSame(failure, thrown);
+        assertFalse(created.contains("b"));
+        assertFalse(created.contains("c"));
+    }
+
+    @Test
+    public void longChainWithRejectingExecutorDoesNotRecurse() {
+        int length = 50_000;
+        Map<String, Set<String>> edges = new HashMap<>();
+        List<String> beanNames = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            beanNames.add("bean" + i);
+            edges.put("bean" + i, (i == 0 ? Set.of() : Set.of("bean" + (i - 1))));
+        }
+        Thread caller = Thread.currentThread();
+        List<String> created = new ArrayList<>(length);
+        SingletonInstantiationGraph graph = new SingletonInstantiationGraph(beanNames, resolver(edges));
+        graph.execute(task -> {
+            throw new RejectedExecutionException();
+        }, beanName -> {
+            assertSame(caller, Thread.currentThread());
+            created.add(beanName);
+        }, ex -> false);
+        assertEquals(beanNames, created);
+
+        // 同步执行器同样不会层层嵌套
+        created.clear();
+        new SingletonInstantiationGraph(beanNames, resolver(edges)).execute(Runnable::run, created::add, ex -> false);
+        assertEquals(beanNames, created);
+    }
+
+
+    private static Function<String, Set<String>> resolver(Map<String, Set<String>> edges) {
+        return beanName -> edges.getOrDefault(beanName, Set.of());
+    }
+
+    static class ConflictException extends RuntimeException {
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.t13max.ioc.beans.factory.support;
+
+import com.t13max.ioc.beans.BeansException;
+import com.t13max.ioc.beans.factory.BeanCurrentlyInCreationException;
+import com.t13max.ioc.beans.factory.BeanFactory;
+import com.t13max.ioc.beans.factory.BeanFactoryAware;
+import com.t13max.ioc.beans.factory.FactoryBean;
+import com.t13max.ioc.beans.factory.InitializingBean;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 分段锁模式下, 一个线程在FactoryBean取对象时依赖正在另一个线程中创建的bean, 而后者又依赖该FactoryBean的产品
+ *
+ * @Author: t13max
+ * @Since: 10:20 2026/10/17
+ */
+public class StripedLockingFactoryBeanTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    @Test
+    public void factoryBeanObjectAndSingletonCreationDoNotDeadlock() throws Exception {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.setStripedLocking(true);
+        beanFactory.registerBeanDefinition("holder", new RootBeanDefinition(Holder.class));
+        beanFactory.registerBeanDefinition("product", new RootBeanDefinition(ProductFactoryBean.class));
+
+        CountDownLatch holderInCreation = new CountDownLatch(1);
+        CountDownLatch productInRetrieval = new CountDownLatch(1);
+        Holder.holderInCreation = holderInCreation;
+        Holder.productInRetrieval = productInRetrieval;
+        ProductFactoryBean factoryBean = (ProductFactoryBean) beanFactory.getBean("&product");
+        factoryBean.holderInCreation = holderInCreation;
+        factoryBean.productInRetrieval = productInRetrieval;
+
+        AtomicReference<Object> holder = new AtomicReference<>();
+        AtomicReference<Throwable> holderFailure = new AtomicReference<>();
+        AtomicReference<Throwable> productFailure = new AtomicReference<>();
+        // 线程A: 持有holder的创建锁, 初始化时取product
+        Thread holderThread = new Thread(() -> {
+            try {
+                holder.set(beanFactory.getBean("holder"));
+            } catch (Throwable ex) {
+                holderFailure.set(ex);
+            }
+        }, "holder-creator");
+        // 线程B: 持有product的锁调用FactoryBean.getObject, 其中取holder
+        Thread productThread = new Thread(() -> {
+            try {
+                beanFactory.getBean("product");
+            } catch (Throwable ex) {
+                productFailure.set(ex);
+            }
+        }, "product-retriever");
+        holderThread.setDaemon(true);
+        productThread.setDaemon(true);
+        holderThread.start();
+        productThread.start();
+
+        holderThread.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+        productThread.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+        assertFalse("holder creation deadlocked", holderThread.isAlive());
+        assertFalse("product retrieval deadlocked", productThread.isAlive());
+        // 先发现循环的一方放弃: 取product的线程直接失败, 或取holder的线程不持锁继续; holder总能创建完成
+        assertNull(holderFailure.get());
+        Throwable failure = productFailure.get();
+        if (failure != null) {
+            assertTrue(failure.toString(), failure instanceof BeansException beansException &&
+                    beansException.contains(BeanCurrentlyInCreationException.class));
+        }
+        assertNotNull(holder.get());
+        assertNotNull(((Holder) holder.get()).product);
+    }
+
+
+    public static class Holder implements BeanFactoryAware, InitializingBean {
+
+        static CountDownLatch holderInCreation;
+
+        static CountDownLatch productInRetrieval;
+
+        private BeanFactory beanFactory;
+
+        Object product;
+
+        @Override
+        public void setBeanFactory(BeanFactory beanFactory) {
+            this.beanFactory = beanFactory;
+        }
+
+        @Override
+        public void afterPropertiesSet() throws Exception {
+            holderInCreation.countDown();
+            productInRetrieval.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            this.product = this.beanFactory.getBean("product");
+        }
+    }
+
+
+    public static class ProductFactoryBean implements FactoryBean<Product>, BeanFactoryAware {
+
+        private BeanFactory beanFactory;
+
+        volatile CountDownLatch holderInCreation;
+
+        volatile CountDownLatch productInRetrieval;
+
+        @Override
+        public void setBeanFactory(BeanFactory beanFactory) {
+            this.beanFactory = beanFactory;
+        }
+
+        @Override
+        public Product getObject() throws Exception {
+            if (this.productInRetrieval != null && this.productInRetrieval.getCount() > 0) {
+                this.productInRetrieval.countDown();
+                this.holderInCreation.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            }
+            return new Product(this.beanFactory.getBean("holder"));
+        }
+
+        @Override
+        public Class<?> getObjectType() {
+            return Product.class;
+        }
+    }
+
+
+    public record Product(Object holder) {
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.t13max.ioc.core.type.classreading;
+
+import com.t13max.ioc.core.io.FileSystemResource;
+import com.t13max.ioc.core.io.Resource;
+import com.t13max.ioc.core.type.AnnotationMetadata;
+import com.t13max.ioc.core.type.ClassMetadata;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 本地元数据缓存的CLOCK淘汰: 访问过的条目多留一轮, 删除和替换不在环中留下旧条目
+ *
+ * @Author: t13max
+ * @Since: 06:10 2026/10/18
+ */
+public class CachingMetadataReaderFactoryTest {
+
+	@Test
+	public void referencedEntriesSurviveOneSweep() {
+		CachingMetadataReaderFactory.LocalResourceCache cache = new CachingMetadataReaderFactory.LocalResourceCache(2);
+		MetadataReader a = reader("a");
+		cache.putIfAbsent(resource("a"), a);
+		cache.putIfAbsent(resource("b"), reader("b"));
+		assertSame(a, cache.get(resource("a")));
+
+		cache.putIfAbsent(resource("c"), reader("c"));
+		assertEquals(2, cache.size());
+		assertTrue(cache.containsKey(resource("a")));
+		assertFalse(cache.containsKey(resource("b")));
+		assertTrue(cache.containsKey(resource("c")));
+		assertEquals(2, cache.clockLength());
+	}
+
+	@Test
+	public void removeAndReplacePurgeClock() {
+		CachingMetadataReaderFactory.LocalResourceCache cache = new CachingMetadataReaderFactory.LocalResourceCache(100);
+		for (int i = 0; i < 10; i++) {
+			cache.put(resource("r" + i), reader("r" + i));
+		}
+		// 限额内反复替换同一个key, 环不应随之增长
+		for (int i = 0; i < 1000; i++) {
+			cache.put(resource("r0"), reader("put" + i));
+			cache.replace(resource("r1"), reader("replace" + i));
+			MetadataReader current = cache.get(resource("r2"));
+			assertTrue(cache.replace(resource("r2"), current, reader("cas" + i)));
+		}
+		assertEquals(10, cache.clockLength());
+
+		MetadataReader r3 = cache.get(resource("r3"));
+		assertSame(r3, cache.remove(resource("r3")));
+		assertTrue(cache.remove(resource("r4"), cache.get(resource("r4"))));
+		assertNull(cache.remove(resource("missing")));
+		assertEquals(8, cache.size());
+		assertEquals(8, cache.clockLength());
+
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.clockLength());
+	}
+
+	@Test
+	public void evictionKeepsSizeWithinLimit() {
+		CachingMetadataReaderFactory.LocalResourceCache cache = new CachingMetadataReaderFactory.LocalResourceCache(16);
+		for (int i = 0; i < 500; i++) {
+			cache.putIfAbsent(resource("r" + i), reader("r" + i));
+			if (i % 3 == 0) {
+				cache.get(resource("r" + (i / 2)));
+			}
+			if (i % 7 == 0) {
+				cache.put(resource("r" + i), reader("again" + i));
+			}
+			assertTrue(cache.size() <= 16);
+			assertEquals(cache.size(), cache.clockLength());
+		}
+		cache.setCacheLimit(4);
+		assertEquals(4, cache.size());
+		assertEquals(4, cache.clockLength());
+	}
+
+
+	private static Resource resource(String name) {
+		return new FileSystemResource("/metadata-cache-test/" + name + ".class");
+	}
+
+	private static MetadataReader reader(String name) {
+		Resource resource = resource(name);
+		return new MetadataReader() {
+
+			@Override
+			public Resource getResource() {
+				return resource;
+			}
+
+			@Override
+			public ClassMetadata getClassMetadata() {
+				return null;
+			}
+
+			@Override
+			public AnnotationMetadata getAnnotationMetadata() {
+				return null;
+			}
+		};
+	}
+
+}
@@ -0,0 +1,179 @@
+package com.t13max.ioc.core.type.classreading;
+
+import com.t13max.ioc.core.io.FileSystemResource;
+import com.t13max.ioc.core.type.AnnotationMetadata;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * 组件扫描启动开销对比: ClassFileParser 与基于反射的 StandardAnnotationMetadata, 合成包含5000个类的包
+ * 每轮使用新的 ClassLoader, 反射一侧的类加载和元空间增长都计入
+ * 运行: 以测试类路径执行 main, 可选参数 类数量 轮数
+ *
+ * @Author: t13max
+ * @Since: 10:30 2026/10/17
+ */
+public class ClassFileParserBenchmark {
+
+    private static final String PACKAGE = "com/t13max/ioc/bench/generated/";
+
+    public static void main(String[] args) throws Exception {
+        int classCount = (args.length > 0 ? Integer.parseInt(args[0]) : 5000);
+        int rounds = (args.length > 1 ? Integer.parseInt(args[1]) : 10);
+        Path root = Files.createTempDirectory("class-file-parser-bench");
+        try {
+            File[] classFiles = generate(root, classCount);
+            System.out.printf("%d classes, %d rounds (first 3 rounds are warm-up)%n", classCount, rounds);
+            for (int round = 0; round < rounds; round++) {
+                Result parsed = parse(root, classFiles);
+                Result reflected = reflect(root, classFiles);
+                if (round >= 3) {
+                    System.out.printf("round %2d  parser: %s%n          reflection: %s%n", round, parsed, reflected);
+                }
+            }
+        } finally {
+            try (Stream<Path> paths = Files.walk(root)) {
+                paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    private static Result parse(Path root, File[] classFiles) throws IOException {
+        ClassLoader classLoader = new URLClassLoader(new URL[] {root.toUri().toURL()},
+                ClassFileParserBenchmark.class.getClassLoader());
+        SimpleMetadataReaderFactory factory = new SimpleMetadataReaderFactory(classLoader);
+        Snapshot before = Snapshot.take();
+        int annotated = 0;
+        for (File classFile : classFiles) {
+            AnnotationMetadata metadata = factory.getMetadataReader(new FileSystemResource(classFile)).getAnnotationMetadata();
+            if (metadata.hasAnnotation(Marker.class.getName())) {
+                annotated++;
+            }
+        }
+        return Snapshot.take().since(before, annotated);
+    }
+
+    private static Result reflect(Path root, File[] classFiles) throws Exception {
+        ClassLoader classLoader = new URLClassLoader(new URL[] {root.toUri().toURL()},
+                ClassFileParserBenchmark.class.getClassLoader());
+        Snapshot before = Snapshot.take();
+        int annotated = 0;
+        for (File classFile : classFiles) {
+            String className = PACKAGE.replace('/', '.') + classFile.getName().replace(".class", "");
+            AnnotationMetadata metadata = AnnotationMetadata.introspect(Class.forName(className, false, classLoader));
+            if (metadata.hasAnnotation(Marker.class.getName())) {
+                annotated++;
+            }
+        }
+        return Snapshot.take().since(before, annotated);
+    }
+
+    // 每个类: 一个类级注解(带枚举和数组属性)、一个带注解的方法和一个普通方法
+    private static File[] generate(Path root, int classCount) throws IOException {
+        Path packageDir = Files.createDirectories(root.resolve(PACKAGE));
+        File[] classFiles = new File[classCount];
+        String markerDescriptor = Type.getDescriptor(Marker.class);
+        for (int i = 0; i < classCount; i++) {
+            String internalName = PACKAGE + "Generated" + i;
+            ClassWriter writer = new ClassWriter(0);
+            writer.visit(Opcodes.V11, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, internalName, null,
+                    "java/lang/Object", new String[] {"java/io/Serializable"});
+            if (i % 2 == 0) {
+                AnnotationVisitor annotation = writer.visitAnnotation(markerDescriptor, true);
+                annotation.visit("value", "bean" + i);
+                annotation.visitEnum("mode", Type.getDescriptor(Mode.class), Mode.values()[i % 2].name());
+                AnnotationVisitor names = annotation.visitArray("names");
+                names.visit(null, "a" + i);
+                names.visit(null, "b" + i);
+                names.visitEnd();
+                annotation.visitEnd();
+            }
+            MethodVisitor constructor = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+            constructor.visitCode();
+            constructor.visitVarInsn(Opcodes.ALOAD, 0);
+            constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+            constructor.visitInsn(Opcodes.RETURN);
+            constructor.visitMaxs(1, 1);
+            constructor.visitEnd();
+            MethodVisitor annotatedMethod = writer.visitMethod(Opcodes.ACC_PUBLIC, "init", "()V", null, null);
+            annotatedMethod.visitAnnotation(markerDescriptor, true).visitEnd();
+            annotatedMethod.visitCode();
+            annotatedMethod.visitInsn(Opcodes.RETURN);
+            annotatedMethod.visitMaxs(0, 1);
+            annotatedMethod.visitEnd();
+            MethodVisitor plainMethod = writer.visitMethod(Opcodes.ACC_PUBLIC, "name", "()Ljava/lang/String;", null, null);
+            plainMethod.visitCode();
+            plainMethod.visitLdcInsn("generated" + i);
+            plainMethod.visitInsn(Opcodes.ARETURN);
+            plainMethod.visitMaxs(1, 1);
+            plainMethod.visitEnd();
+            writer.visitEnd();
+            Path classFile = packageDir.resolve("Generated" + i + ".class");
+            Files.write(classFile, writer.toByteArray());
+            classFiles[i] = classFile.toFile();
+        }
+        return classFiles;
+    }
+
+
+    public enum Mode {
+        EAGER, LAZY
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Marker {
+
+        String value() default "";
+
+        Mode mode() default Mode.EAGER;
+
+        String[] names() default {};
+    }
+
+
+    private record Snapshot(long nanos, long loadedClasses, long metaspaceBytes) {
+
+        static Snapshot take() {
+            ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+            long metaspace = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if ("Metaspace".equals(pool.getName())) {
+                    metaspace = pool.getUsage().getUsed();
+                }
+            }
+            return new Snapshot(System.nanoTime(), classLoading.getTotalLoadedClassCount(), metaspace);
+        }
+
+        Result since(Snapshot before, int annotated) {
+            return new Result((this.nanos - before.nanos) / 1_000_000.0, this.loadedClasses - before.loadedClasses,
+                    (this.metaspaceBytes - before.metaspaceBytes) / 1024, annotated);
+        }
+    }
+
+    private record Result(double millis, long loadedClasses, long metaspaceKb, int annotated) {
+
+        @Override
+        public String toString() {
+            return String.format("%8.1f ms, %5d classes loaded, %+6d KB metaspace, %d annotated",
+                    this.millis, this.loadedClasses, this.metaspaceKb, this.annotated);
+        }
+    }
+
+}
@@ -0,0 +1,338 @@
+package com.t13max.ioc.core.type.classreading;
+
+import com.t13max.ioc.core.io.DescriptiveResource;
+import com.t13max.ioc.core.type.AnnotationMetadata;
+import com.t13max.ioc.core.type.MethodMetadata;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * ClassFileParser 与基于反射的 StandardAnnotationMetadata 结果一致性
+ *
+ * @Author: t13max
+ * @Since: 10:30 2026/10/17
+ */
+public class ClassFileParserTest {
+
+    private final SimpleMetadataReaderFactory metadataReaderFactory =
+            new SimpleMetadataReaderFactory(getClass().getClassLoader());
+
+    @Test
+    public void annotationsAndAttributeValues() throws Exception {
+        AnnotationMetadata metadata = assertEquivalent(AnnotatedComponent.class);
+        Map<String, Object> attributes = metadata.getAnnotationAttributes(Tagged.class.getName(), true);
+        assertNotNull(attributes);
+        assertEquals("component", attributes.get("value"));
+        assertEquals(Level.HIGH, attributes.get("level"));
+        assertArrayEquals(new Level[] {Level.LOW, Level.HIGH}, (Object[]) attributes.get("levels"));
+        assertArrayEquals(new int[] {1, 2, 3}, (int[]) attributes.get("numbers"));
+        assertEquals(String.class.getName(), attributes.get("type"));
+    }
+
+    @Test
+    public void metaAnnotations() throws Exception {
+        AnnotationMetadata metadata = assertEquivalent(MetaAnnotatedComponent.class);
+        assertTrue(metadata.hasMetaAnnotation(Tagged.class.getName()));
+        // java.lang.annotation 下的元注解两边都不暴露
+        assertEquals(Set.of(Tagged.class.getName()), metadata.getMetaAnnotationTypes(Stereotype.class.getName()));
+    }
+
+    @Test
+    public void nestedAnnotationValues() throws Exception {
+        AnnotationMetadata metadata = assertEquivalent(NestedValuesComponent.class);
+        Map<String, Object> attributes = metadata.getAnnotationAttributes(Composite.class.getName(), false);
+        assertNotNull(attributes);
+        assertEquals("single", ((Map<?, ?>) attributes.get("single")).get("value"));
+        assertEquals(2, ((Object[]) attributes.get("many")).length);
+    }
+
+    @Test
+    public void bridgeAndSyntheticMethodsAreSkipped() throws Exception {
+        AnnotationMetadata metadata = assertEquivalent(BridgeAndLambda.class);
+        Set<String> methodNames = new HashSet<>();
+        for (MethodMetadata method : metadata.getDeclaredMethods()) {
+            methodNames.add(method.getMethodName() + ":" + method.getReturnTypeName());
+        }
+        // compareTo(Object) 桥接方法和 lambda$ 合成方法都不应出现
+        assertEquals(Set.of("compareTo:int", "supplier:java.util.function.Supplier", "call:java.lang.String"), methodNames);
+        assertEquals(1, metadata.getAnnotatedMethods(Tagged.class.getName()).size());
+    }
+
+    @Test
+    public void innerClasses() throws Exception {
+        AnnotationMetadata outer = assertEquivalent(ClassFileParserTest.class);
+        assertTrue(Arrays.asList(outer.getMemberClassNames()).contains(StaticMember.class.getName()));
+        AnnotationMetadata staticMember = assertEquivalent(StaticMember.class);
+        assertTrue(staticMember.isIndependent());
+        AnnotationMetadata innerMember = assertEquivalent(StaticMember.InnerMember.class);
+        assertFalse(innerMember.isIndependent());
+        assertEquals(StaticMember.class.getName(), innerMember.getEnclosingClassName());
+        Object local = new Object() {
+        };
+        AnnotationMetadata anonymous = assertEquivalent(local.getClass());
+        assertFalse(anonymous.isIndependent());
+        assertEquals(ClassFileParserTest.class.getName(), anonymous.getEnclosingClassName());
+    }
+
+    @Test
+    public void classModifiers() throws Exception {
+        assertTrue(assertEquivalent(Stereotype.class).isAnnotation());
+        assertTrue(assertEquivalent(Callable.class).isInterface());
+        assertTrue(assertEquivalent(AbstractBase.class).isAbstract());
+        assertTrue(assertEquivalent(FinalLeaf.class).isFinal());
+    }
+
+    @Test
+    public void codecRoundTripPreservesMetadata() throws Exception {
+        MetadataReader reader = this.metadataReaderFactory.getMetadataReader(AnnotatedComponent.class.getName());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MetadataReaderCodec.encode(reader, new DataOutputStream(bytes));
+        MetadataReader decoded = MetadataReaderCodec.decode(new DescriptiveResource("decoded"),
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), getClass().getClassLoader());
+        assertSameMetadata(reader.getAnnotationMetadata(), decoded.getAnnotationMetadata());
+    }
+
+
+    private AnnotationMetadata assertEquivalent(Class<?> type) throws IOException {
+        AnnotationMetadata parsed = this.metadataReaderFactory.getMetadataReader(type.getName()).getAnnotationMetadata();
+        AnnotationMetadata reflected = AnnotationMetadata.introspect(type);
+        assertSameMetadata(reflected, parsed);
+        return parsed;
+    }
+
+    private static void assertSameMetadata(AnnotationMetadata expected, AnnotationMetadata actual) {
+        String type = expected.getClassName();
+        assertEquals(type, actual.getClassName());
+        assertEquals(type, expected.isInterface(), actual.isInterface());
+        assertEquals(type, expected.isAnnotation(), actual.isAnnotation());
+        assertEquals(type, expected.isAbstract(), actual.isAbstract());
+        assertEquals(type, expected.isFinal(), actual.isFinal());
+        assertEquals(type, expected.isIndependent(), actual.isIndependent());
+        assertEquals(type, expected.getEnclosingClassName(), actual.getEnclosingClassName());
+        assertEquals(type, expected.getSuperClassName(), actual.getSuperClassName());
+        assertArrayEquals(type, expected.getInterfaceNames(), actual.getInterfaceNames());
+        // 反射与类文件中成员类的顺序不保证一致
+        assertEquals(type, Set.of(expected.getMemberClassNames()), Set.of(actual.getMemberClassNames()));
+        assertEquals(type, expected.getAnnotationTypes(), actual.getAnnotationTypes());
+        for (String annotationType : expected.getAnnotationTypes()) {
+            assertEquals(type + " @" + annotationType, expected.getMetaAnnotationTypes(annotationType),
+                    actual.getMetaAnnotationTypes(annotationType));
+            assertAttributesEqual(type + " @" + annotationType,
+                    expected.getAnnotationAttributes(annotationType, true),
+                    actual.getAnnotationAttributes(annotationType, true));
+        }
+
+        Map<String, MethodMetadata> expectedMethods = new TreeMap<>();
+        for (MethodMetadata method : expected.getDeclaredMethods()) {
+            if (!isBridgeOrSynthetic(method)) {
+                expectedMethods.put(method.getMethodName() + ":" + method.getReturnTypeName(), method);
+            }
+        }
+        Map<String, MethodMetadata> actualMethods = new TreeMap<>();
+        for (MethodMetadata method : actual.getDeclaredMethods()) {
+            actualMethods.put(method.getMethodName() + ":" + method.getReturnTypeName(), method);
+        }
+        assertEquals(type, expectedMethods.keySet(), actualMethods.keySet());
+        expectedMethods.forEach((key, expectedMethod) -> {
+            MethodMetadata actualMethod = actualMethods.get(key);
+            String name = type + "." + key;
+            assertEquals(name, expectedMethod.getDeclaringClassName(), actualMethod.getDeclaringClassName());
+            assertEquals(name, expectedMethod.isAbstract(), actualMethod.isAbstract());
+            assertEquals(name, expectedMethod.isStatic(), actualMethod.isStatic());
+            assertEquals(name, expectedMethod.isFinal(), actualMethod.isFinal());
+            assertEquals(name, expectedMethod.isOverridable(), actualMethod.isOverridable());
+            assertEquals(name, expectedMethod.isAnnotated(Tagged.class.getName()),
+                    actualMethod.isAnnotated(Tagged.class.getName()));
+            assertAttributesEqual(name, expectedMethod.getAnnotationAttributes(Tagged.class.getName(), true),
+                    actualMethod.getAnnotationAttributes(Tagged.class.getName(), true));
+        });
+    }
+
+    // 反射元数据包含桥接和合成方法, 类文件解析按约定跳过它们; 桥接方法与原方法同名同返回类型时以原方法为准
+    private static boolean isBridgeOrSynthetic(MethodMetadata method) {
+        try {
+            Class<?> declaringClass = Class.forName(method.getDeclaringClassName());
+            for (Method candidate : declaringClass.getDeclaredMethods()) {
+                if (candidate.getName().equals(method.getMethodName()) &&
+                        candidate.getReturnType().getName().equals(method.getReturnTypeName()) &&
+                        !candidate.isBridge() && !candidate.isSynthetic()) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (ClassNotFoundException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static void assertAttributesEqual(String message, Map<String, Object> expected, Map<String, Object> actual) {
+        if (expected == null || actual == null) {
+            assertEquals(message, expected, actual);
+            return;
+        }
+        assertEquals(message, expected.keySet(), actual.keySet());
+        expected.forEach((key, value) -> assertValueEquals(message + "#" + key, value, actual.get(key)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void assertValueEquals(String message, Object expected, Object actual) {
+        if (expected instanceof Map<?, ?> expectedMap) {
+            assertTrue(message, actual instanceof Map);
+            assertAttributesEqual(message, (Map<String, Object>) expectedMap, (Map<String, Object>) actual);
+        } else if (expected instanceof Object[] expectedArray) {
+            Object[] actualArray = (Object[]) actual;
+            assertEquals(message, expectedArray.length, actualArray.length);
+            for (int i = 0; i < expectedArray.length; i++) {
+                assertValueEquals(message + "[" + i + "]", expectedArray[i], actualArray[i]);
+            }
+        } else if (expected != null && expected.getClass().isArray()) {
+            assertTrue(message, actual != null && actual.getClass().equals(expected.getClass()));
+            assertTrue(message, Arrays.deepEquals(new Object[] {expected}, new Object[] {actual}));
+        } else {
+            assertEquals(message, expected, actual);
+        }
+    }
+
+
+    public enum Level {
+        LOW, HIGH
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ElementType.TYPE, ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+    public @interface Tagged {
+
+        String value() default "";
+
+        Level level() default Level.LOW;
+
+        Level[] levels() default {};
+
+        int[] numbers() default {};
+
+        Class<?> type() default Object.class;
+
+        long id() default 0L;
+
+        char mark() default 'x';
+
+        double ratio() default 0.5d;
+
+        boolean enabled() default true;
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.TYPE)
+    @Tagged("stereotype")
+    public @interface Stereotype {
+
+        String value() default "";
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.TYPE)
+    public @interface Composite {
+
+        Tagged single();
+
+        Tagged[] many() default {};
+    }
+
+    // 不在运行时可见的注解不会出现在任何一方
+    @Retention(RetentionPolicy.CLASS)
+    public @interface ClassRetained {
+    }
+
+
+    @Tagged(value = "component", level = Level.HIGH, levels = {Level.LOW, Level.HIGH}, numbers = {1, 2, 3},
+            type = String.class, id = 42L, mark = 'c', ratio = 1.5d, enabled = false)
+    @ClassRetained
+    public static class AnnotatedComponent extends AbstractBase implements Runnable {
+
+        @Tagged("run")
+        @Override
+        public void run() {
+        }
+
+        @Override
+        public final String name() {
+            return "component";
+        }
+
+        public static int create() {
+            return 0;
+        }
+
+        private void hidden() {
+        }
+    }
+
+    @Stereotype("meta")
+    public static class MetaAnnotatedComponent {
+    }
+
+    @Composite(single = @Tagged("single"), many = {@Tagged("first"), @Tagged(value = "second", level = Level.HIGH)})
+    public static class NestedValuesComponent {
+    }
+
+    public static class BridgeAndLambda implements Comparable<BridgeAndLambda>, Callable<String> {
+
+        @Override
+        public int compareTo(BridgeAndLambda other) {
+            return 0;
+        }
+
+        public Supplier<String> supplier() {
+            return () -> "lambda";
+        }
+
+        @Tagged("call")
+        @Override
+        public String call() {
+            return "call";
+        }
+    }
+
+    public abstract static class AbstractBase {
+
+        public abstract String name();
+    }
+
+    public static final class FinalLeaf extends AbstractBase {
+
+        @Override
+        public String name() {
+            return "leaf";
+        }
+    }
+
+    public static class StaticMember {
+
+        public class InnerMember {
+        }
+    }
+
+}